@@ -0,0 +1,58 @@
+package io.cockroachdb.jdbc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.cockroachdb.jdbc.rewrite.BatchRewriteCache;
+import io.cockroachdb.jdbc.rewrite.BatchRewritePlan;
+import io.cockroachdb.jdbc.rewrite.BatchRewriteProcessor;
+
+/**
+ * Benchmarks for batch DML statement qualification and rewrites, parsed and cached.
+ *
+ * @author Kai Niemi
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+@State(Scope.Thread)
+public class BatchRewriteBenchmark {
+    @Param({
+            "INSERT INTO product (id,inventory,price,name) VALUES (?,?,?,?) ON CONFLICT (id) DO NOTHING",
+            "UPSERT INTO product (id,inventory,price,name) VALUES (?,?,?,?)",
+            "UPDATE product SET inventory=?, price=?, version=version+1 WHERE id=? AND version=?",
+            "UPDATE product SET price=? WHERE id IN (SELECT id FROM product)"
+    })
+    public String query;
+
+    private BatchRewriteCache cache;
+
+    @Setup
+    public void setup() {
+        cache = new BatchRewriteCache(BatchRewriteCache.DEFAULT_MAX_SIZE);
+        cache.getPlan(query);
+    }
+
+    @Benchmark
+    public BatchRewritePlan parseAndRewrite() {
+        return BatchRewriteProcessor.rewriteStatement(query);
+    }
+
+    @Benchmark
+    public BatchRewritePlan cachedPlan() {
+        return cache.getPlan(query);
+    }
+}
@@ -0,0 +1,141 @@
+package io.cockroachdb.jdbc.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+/**
+ * Stubbed {@code java.sql} delegates returning canned values, so benchmarks can run without
+ * a database. Stubs are dynamic proxies themselves, which means the baseline benchmarks
+ * calling stubs directly include the stub dispatch cost. Subtracting the baseline gives
+ * the overhead added by the driver wrappers.
+ *
+ * @author Kai Niemi
+ */
+public abstract class JdbcStubs {
+    private static final BigDecimal DECIMAL_VALUE = new BigDecimal("12345.67");
+
+    private static final Timestamp TIMESTAMP_VALUE = Timestamp.valueOf("2024-01-01 12:00:00");
+
+    private JdbcStubs() {
+    }
+
+    public static Connection connection(int rowsPerQuery) {
+        return stub(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                case "createStatement":
+                    return preparedStatement(rowsPerQuery);
+                case "createArrayOf":
+                    return array((String) args[0], (Object[]) args[1]);
+                case "isValid":
+                    return true;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    public static PreparedStatement preparedStatement(int rowsPerQuery) {
+        return stub(PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeQuery":
+                    return resultSet(rowsPerQuery);
+                case "executeUpdate":
+                    return 1;
+                case "executeBatch":
+                    return new int[0];
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    public static ResultSet resultSet(int rows) {
+        return stub(ResultSet.class, new InvocationHandler() {
+            private int row;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "next":
+                        return row++ < rows;
+                    case "getString":
+                        return "product-name";
+                    case "getLong":
+                        return 42L;
+                    case "getInt":
+                        return 7;
+                    case "getBoolean":
+                        return true;
+                    case "getBigDecimal":
+                        return DECIMAL_VALUE;
+                    case "getTimestamp":
+                        return TIMESTAMP_VALUE;
+                    default:
+                        return defaultValue(proxy, method, args);
+                }
+            }
+        });
+    }
+
+    public static Array array(String typeName, Object[] elements) {
+        return stub(Array.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getBaseTypeName":
+                    return typeName;
+                case "getArray":
+                    return elements;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "stub@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                break;
+        }
+
+        Class<?> returnType = method.getReturnType();
+        if (!returnType.isPrimitive() || returnType == void.class) {
+            return null;
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        if (returnType == double.class) {
+            return 0d;
+        }
+        if (returnType == float.class) {
+            return 0f;
+        }
+        if (returnType == short.class) {
+            return (short) 0;
+        }
+        if (returnType == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcStubs.class.getClassLoader(), new Class[] {type}, handler));
+    }
+}
@@ -0,0 +1,75 @@
+package io.cockroachdb.jdbc.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.cockroachdb.jdbc.CockroachPreparedBatchStatement;
+import io.cockroachdb.jdbc.rewrite.BatchRewriteProcessor;
+
+/**
+ * Benchmarks for binding and executing a batch through the array rewriting prepared statement,
+ * compared to batching on the stub delegate directly. Array creation is stubbed, so this measures
+ * the parameter recording and column buffering done by the driver.
+ *
+ * @author Kai Niemi
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+@State(Scope.Thread)
+public class PreparedBatchStatementBenchmark {
+    private static final String QUERY = "UPDATE product SET inventory=?, price=?, name=? WHERE id=?";
+
+    private static final BigDecimal PRICE = new BigDecimal("19.95");
+
+    @Param({"16", "256"})
+    public int batchSize;
+
+    private Connection connection;
+
+    private String batchQuery;
+
+    @Setup
+    public void setup() {
+        connection = JdbcStubs.connection(1);
+        batchQuery = BatchRewriteProcessor.rewriteUpdateStatement(QUERY);
+    }
+
+    @Benchmark
+    public int[] directStub() throws SQLException {
+        return executeBatch(connection.prepareStatement(QUERY));
+    }
+
+    @Benchmark
+    public int[] arrayRewrite() throws SQLException {
+        return executeBatch(new CockroachPreparedBatchStatement(connection, QUERY, batchQuery));
+    }
+
+    private int[] executeBatch(PreparedStatement ps) throws SQLException {
+        for (int i = 0; i < batchSize; i++) {
+            ps.setInt(1, i);
+            ps.setBigDecimal(2, PRICE);
+            ps.setString(3, "product");
+            ps.setLong(4, i);
+            ps.addBatch();
+        }
+        return ps.executeBatch();
+    }
+}
@@ -0,0 +1,110 @@
+package io.cockroachdb.jdbc.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.cockroachdb.jdbc.CockroachConnection;
+import io.cockroachdb.jdbc.ConnectionSettings;
+import io.cockroachdb.jdbc.retry.ConnectionRetryInterceptor;
+import io.cockroachdb.jdbc.retry.EmptyRetryListener;
+import io.cockroachdb.jdbc.retry.ExponentialBackoffRetryStrategy;
+import io.cockroachdb.jdbc.retry.RetryingConnection;
+import io.cockroachdb.jdbc.rewrite.QueryProcessor;
+
+/**
+ * Benchmarks for the overhead of the retry interceptors (dynamic proxy dispatch, method
+ * execution history and result set checksums) for a single read-only transaction, compared
+ * to the concrete retry wrappers, the plain connection wrapper and the stub delegate.
+ *
+ * @author Kai Niemi
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+@State(Scope.Thread)
+public class RetryInterceptorBenchmark {
+    private static final String QUERY = "SELECT id, name, balance FROM account WHERE id = ? AND type = ?";
+
+    @Param({"1", "100"})
+    public int rows;
+
+    private Connection stubConnection;
+
+    private Connection cockroachConnection;
+
+    private Connection retryConnection;
+
+    private Connection retryingConnection;
+
+    @Setup
+    public void setup() {
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(QueryProcessor.PASS_THROUGH)
+                .setRetryStrategy(new ExponentialBackoffRetryStrategy())
+                .setRetryListener(new EmptyRetryListener());
+
+        stubConnection = JdbcStubs.connection(rows);
+        cockroachConnection = new CockroachConnection(stubConnection, connectionSettings);
+        retryConnection = ConnectionRetryInterceptor.proxy(
+                new CockroachConnection(stubConnection, connectionSettings), connectionSettings,
+                () -> new CockroachConnection(JdbcStubs.connection(rows), connectionSettings));
+        retryingConnection = new RetryingConnection(
+                new CockroachConnection(stubConnection, connectionSettings), connectionSettings,
+                () -> new CockroachConnection(JdbcStubs.connection(rows), connectionSettings));
+    }
+
+    @Benchmark
+    public void directStub(Blackhole blackhole) throws SQLException {
+        transaction(stubConnection, blackhole);
+    }
+
+    @Benchmark
+    public void cockroachConnection(Blackhole blackhole) throws SQLException {
+        transaction(cockroachConnection, blackhole);
+    }
+
+    @Benchmark
+    public void retryInterceptor(Blackhole blackhole) throws SQLException {
+        transaction(retryConnection, blackhole);
+    }
+
+    @Benchmark
+    public void retryingConnection(Blackhole blackhole) throws SQLException {
+        transaction(retryingConnection, blackhole);
+    }
+
+    private void transaction(Connection connection, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(QUERY)) {
+            ps.setLong(1, 42L);
+            ps.setString(2, "checking");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(1));
+                    blackhole.consume(rs.getString(2));
+                    BigDecimal balance = rs.getBigDecimal(3);
+                    blackhole.consume(balance);
+                }
+            }
+        }
+        connection.commit();
+    }
+}
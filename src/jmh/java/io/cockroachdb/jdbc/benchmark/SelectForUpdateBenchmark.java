@@ -0,0 +1,52 @@
+package io.cockroachdb.jdbc.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.cockroachdb.jdbc.rewrite.SelectForUpdateProcessor;
+
+/**
+ * Benchmarks for implicit SELECT .. FOR UPDATE qualification and rewrites.
+ *
+ * @author Kai Niemi
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+@State(Scope.Thread)
+public class SelectForUpdateBenchmark {
+    @Param({
+            "SELECT id, balance FROM account WHERE id = ? AND type = ?",
+            "SELECT sum(balance) FROM account WHERE type = ? GROUP BY type",
+            "SELECT * FROM account AS OF SYSTEM TIME follower_read_timestamp() WHERE id = ?",
+            "UPDATE account SET balance = balance + ? WHERE id = ?"
+    })
+    public String query;
+
+    private Connection connection;
+
+    @Setup
+    public void setup() {
+        connection = JdbcStubs.connection(1);
+    }
+
+    @Benchmark
+    public String processQuery() throws SQLException {
+        return SelectForUpdateProcessor.INSTANCE.processQuery(connection, query);
+    }
+}
@@ -5,7 +5,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
 
-import io.cockroachdb.jdbc.rewrite.BatchRewriteProcessor;
+import io.cockroachdb.jdbc.rewrite.BatchRewritePlan;
 import io.cockroachdb.jdbc.rewrite.QueryProcessor;
 import io.cockroachdb.jdbc.util.WrapperSupport;
 
@@ -37,25 +37,45 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
     public PreparedStatement prepareStatement(String sql) throws SQLException {
         final String query = connectionSettings.getQueryProcessor().processQuery(this, sql);
 
-        if (connectionSettings.isRewriteBatchInserts()
-            && BatchRewriteProcessor.isQualifiedInsertStatement(query)) {
-            String batchQuery = BatchRewriteProcessor.rewriteInsertStatement(query);
-            return new CockroachPreparedBatchStatement(getDelegate(), query, batchQuery);
+        final BatchRewritePlan plan = getBatchRewritePlan(query);
+        if (plan != null) {
+            return new CockroachPreparedBatchStatement(getDelegate(), query, plan, connectionSettings,
+                    () -> getDelegate().prepareStatement(query));
         }
 
-        if (connectionSettings.isRewriteBatchUpserts()
-            && BatchRewriteProcessor.isQualifiedUpsertStatement(query)) {
-            String batchQuery = BatchRewriteProcessor.rewriteUpsertStatement(query);
-            return new CockroachPreparedBatchStatement(getDelegate(), query, batchQuery);
-        }
+        return new CockroachPreparedStatement(getDelegate().prepareStatement(query));
+    }
 
-        if (connectionSettings.isRewriteBatchUpdates()
-            && BatchRewriteProcessor.isQualifiedUpdateStatement(query)) {
-            String batchQuery = BatchRewriteProcessor.rewriteUpdateStatement(query);
-            return new CockroachPreparedBatchStatement(getDelegate(), query, batchQuery);
+    /**
+     * @param query the DML statement
+     * @return the qualified batch rewrite plan or null if not enabled or qualified
+     */
+    private BatchRewritePlan getBatchRewritePlan(String query) {
+        if (isRewriteEnabled(BatchRewritePlan.StatementType.fromQuery(query))) {
+            BatchRewritePlan plan = connectionSettings.getBatchRewriteCache().getPlan(query);
+            if (plan.isQualified()) {
+                return plan;
+            }
         }
+        return null;
+    }
 
-        return new CockroachPreparedStatement(getDelegate().prepareStatement(query));
+    private boolean isRewriteEnabled(BatchRewritePlan.StatementType statementType) {
+        if (statementType == null) {
+            return false;
+        }
+        switch (statementType) {
+            case INSERT:
+                return connectionSettings.isRewriteBatchInserts();
+            case UPSERT:
+                return connectionSettings.isRewriteBatchUpserts();
+            case UPDATE:
+                return connectionSettings.isRewriteBatchUpdates();
+            case DELETE:
+                return connectionSettings.isRewriteBatchDeletes();
+            default:
+                return false;
+        }
     }
 
     @Override
@@ -97,7 +117,11 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
     }
 
     private void checkState() throws SQLException {
-        if (connectionSettings.getQueryProcessor().isTransactionScoped()) {
+        if (connectionSettings.getTransactionQueryProcessor() != null) {
+            // Drop transaction scoped overlay
+            connectionSettings.setTransactionQueryProcessor(null);
+            logger.debug("Reverted transaction scoped query processor for connection delegate [{}]", getDelegate());
+        } else if (connectionSettings.getQueryProcessor().isTransactionScoped()) {
             // Revert transaction scoped processor to pass-through
             connectionSettings.setQueryProcessor(QueryProcessor.PASS_THROUGH);
             logger.debug("Reverted implicit select-for-update to pass-through for connection delegate [{}]", getDelegate());
@@ -165,6 +189,14 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
             throws SQLException {
         String finalQuery = connectionSettings.getQueryProcessor().processQuery(this, sql);
+
+        final BatchRewritePlan plan = getBatchRewritePlan(finalQuery);
+        if (plan != null) {
+            return new CockroachPreparedBatchStatement(getDelegate(), finalQuery, plan,
+                    resultSetType, resultSetConcurrency, 0, connectionSettings,
+                    () -> getDelegate().prepareStatement(finalQuery, resultSetType, resultSetConcurrency));
+        }
+
         return new CockroachPreparedStatement(
                 getDelegate().prepareStatement(finalQuery, resultSetType, resultSetConcurrency));
     }
@@ -201,7 +233,7 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
 
     @Override
     public Savepoint setSavepoint(String name) throws SQLException {
-        return getDelegate().setSavepoint();
+        return getDelegate().setSavepoint(name);
     }
 
     @Override
@@ -226,6 +258,15 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
                                               int resultSetHoldability) throws SQLException {
         String finalQuery = connectionSettings.getQueryProcessor().processQuery(this, sql);
+
+        final BatchRewritePlan plan = getBatchRewritePlan(finalQuery);
+        if (plan != null) {
+            return new CockroachPreparedBatchStatement(getDelegate(), finalQuery, plan,
+                    resultSetType, resultSetConcurrency, resultSetHoldability, connectionSettings,
+                    () -> getDelegate().prepareStatement(finalQuery, resultSetType, resultSetConcurrency,
+                            resultSetHoldability));
+        }
+
         return new CockroachPreparedStatement(
                 getDelegate().prepareStatement(finalQuery, resultSetType, resultSetConcurrency, resultSetHoldability));
     }
@@ -239,6 +280,16 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
         String finalQuery = connectionSettings.getQueryProcessor().processQuery(this, sql);
+
+        // Rows returned by an array statement can't be put in batch order, hence not rewritten
+        final BatchRewritePlan plan = autoGeneratedKeys != Statement.RETURN_GENERATED_KEYS
+                ? getBatchRewritePlan(finalQuery)
+                : null;
+        if (plan != null) {
+            return new CockroachPreparedBatchStatement(getDelegate(), finalQuery, plan, connectionSettings,
+                    () -> getDelegate().prepareStatement(finalQuery, autoGeneratedKeys));
+        }
+
         return new CockroachPreparedStatement(
                 getDelegate().prepareStatement(finalQuery, autoGeneratedKeys));
     }
@@ -246,6 +297,16 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
     @Override
     public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
         String finalQuery = connectionSettings.getQueryProcessor().processQuery(this, sql);
+
+        // Rows returned by an array statement can't be put in batch order, only the empty case is rewritten
+        final BatchRewritePlan plan = columnIndexes == null || columnIndexes.length == 0
+                ? getBatchRewritePlan(finalQuery)
+                : null;
+        if (plan != null) {
+            return new CockroachPreparedBatchStatement(getDelegate(), finalQuery, plan, connectionSettings,
+                    () -> getDelegate().prepareStatement(finalQuery, columnIndexes));
+        }
+
         return new CockroachPreparedStatement(
                 getDelegate().prepareStatement(finalQuery, columnIndexes));
     }
@@ -253,6 +314,16 @@ public class CockroachConnection extends WrapperSupport<Connection> implements C
     @Override
     public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
         String finalQuery = connectionSettings.getQueryProcessor().processQuery(this, sql);
+
+        // Rows returned by an array statement can't be put in batch order, only the empty case is rewritten
+        final BatchRewritePlan plan = columnNames == null || columnNames.length == 0
+                ? getBatchRewritePlan(finalQuery)
+                : null;
+        if (plan != null) {
+            return new CockroachPreparedBatchStatement(getDelegate(), finalQuery, plan, connectionSettings,
+                    () -> getDelegate().prepareStatement(finalQuery, columnNames));
+        }
+
         return new CockroachPreparedStatement(
                 getDelegate().prepareStatement(finalQuery, columnNames));
     }
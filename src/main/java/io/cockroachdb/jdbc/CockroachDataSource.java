@@ -19,7 +19,9 @@ import org.slf4j.LoggerFactory;
 import io.cockroachdb.jdbc.util.DurationFormat;
 
 /**
- * A simple, non-pooled {@code java.sql.DataSource} implementation for CockroachDB.
+ * A simple {@code java.sql.DataSource} implementation for CockroachDB. Non-pooling by default,
+ * unless a maximum pool size is set in which case connections are borrowed from a built-in
+ * connection pool retaining the driver's connection wrappers, see {@link #setMaxPoolSize(int)}.
  *
  * @author Kai Niemi
  */
@@ -36,6 +38,10 @@ public class CockroachDataSource implements DataSource, CommonDataSource, Closea
     public static final class Builder {
         private boolean autoCommit;
 
+        private int maxPoolSize;
+
+        private long connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+
         private String url;
 
         private String username;
@@ -73,6 +79,16 @@ public class CockroachDataSource implements DataSource, CommonDataSource, Closea
             return this;
         }
 
+        public Builder withMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+            return this;
+        }
+
+        public Builder withConnectionTimeout(long connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+            return this;
+        }
+
         public Builder withUrl(String url) {
             this.url = url;
             return this;
@@ -134,6 +150,8 @@ public class CockroachDataSource implements DataSource, CommonDataSource, Closea
             ds.setUsername(username);
             ds.setPassword(password);
             ds.setAutoCommit(autoCommit);
+            ds.setMaxPoolSize(maxPoolSize);
+            ds.setConnectionTimeout(connectionTimeout);
 
             ds.addDataSourceProperty(PGProperty.REWRITE_BATCHED_INSERTS.getName(),
                     rewriteBatchedInserts);
@@ -156,6 +174,11 @@ public class CockroachDataSource implements DataSource, CommonDataSource, Closea
         }
     }
 
+    /**
+     * Default maximum time in millis to wait for a pooled connection.
+     */
+    public static final long DEFAULT_CONNECTION_TIMEOUT = 30_000;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private String url;
@@ -166,8 +189,14 @@ public class CockroachDataSource implements DataSource, CommonDataSource, Closea
 
     private boolean autoCommit = true;
 
+    private int maxPoolSize;
+
+    private long connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+
     private final Properties properties = new Properties();
 
+    private ConnectionPool connectionPool;
+
     public CockroachDataSource() {
     }
 
@@ -187,34 +216,89 @@ public class CockroachDataSource implements DataSource, CommonDataSource, Closea
         this.autoCommit = autoCommit;
     }
 
+    /**
+     * Set the maximum number of pooled connections, idle or in use. A value above 0 enables pooling
+     * mode, in which {@link #getConnection()} borrows a connection from a built-in pool and closing
+     * the connection returns it to the pool. Must be set before the first connection is obtained.
+     *
+     * @param maxPoolSize maximum pool size or 0 to disable pooling (default)
+     */
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * @param connectionTimeout maximum time in millis to wait for a pooled connection to become available
+     */
+    public void setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public boolean isPooling() {
+        return maxPoolSize > 0;
+    }
+
     public void addDataSourceProperty(String propertyName, Object value) {
         properties.put(propertyName, String.valueOf(value));
     }
 
     public String getDescription() {
-        return "Non-Pooling DataSource from " + CockroachDriverInfo.DRIVER_FULL_NAME;
+        return (isPooling() ? "Pooling" : "Non-Pooling") + " DataSource from " + CockroachDriverInfo.DRIVER_FULL_NAME;
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        if (connectionPool != null) {
+            connectionPool.close();
+            connectionPool = null;
+        }
     }
 
+    private synchronized ConnectionPool getConnectionPool() {
+        if (connectionPool == null) {
+            connectionPool = new ConnectionPool(() -> getConnection(username, password),
+                    maxPoolSize, connectionTimeout, autoCommit);
+            logger.debug("Created a {} with max [{}] connections for {} at {}",
+                    getDescription(), maxPoolSize, username, url);
+        }
+        return connectionPool;
+    }
+
+    /**
+     * Get a connection using the configured credentials, borrowed from the pool if in pooling mode.
+     *
+     * @return the connection
+     * @throws SQLException on failure to get a connection
+     */
     @Override
     public Connection getConnection() throws SQLException {
+        if (isPooling()) {
+            return getConnectionPool().borrow();
+        }
         return getConnection(username, password);
     }
 
+    /**
+     * Get a new, non-pooled connection using the given credentials.
+     *
+     * @param username the database user
+     * @param password the user's password
+     * @return the connection
+     * @throws SQLException on failure to get a connection
+     */
     @Override
     public Connection getConnection(String username, String password) throws SQLException {
         try {
             CockroachDriver driver = CockroachDriver.getRegisteredDriver();
+            Properties info = new Properties();
+            info.putAll(properties);
             if (username != null) {
-                properties.put("user", username);
+                info.put("user", username);
             }
             if (password != null) {
-                properties.put("password", password);
+                info.put("password", password);
             }
-            Connection connection = driver.connect(url, properties);
+            Connection connection = driver.connect(url, info);
             if (!autoCommit) {
                 connection.setAutoCommit(false);
             }
@@ -9,21 +9,40 @@ import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
 import java.sql.SQLException;
 import java.sql.SQLNonTransientException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import org.postgresql.util.PSQLState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.cockroachdb.jdbc.cluster.ClusterLoadBalancer;
+import io.cockroachdb.jdbc.cluster.CockroachTopologyProvider;
+import io.cockroachdb.jdbc.cluster.ConnectionFactory;
+import io.cockroachdb.jdbc.cluster.NodeHealthRegistry;
+import io.cockroachdb.jdbc.cluster.TopologyProvider;
+import io.cockroachdb.jdbc.rewrite.BatchRewriteCache;
+import io.cockroachdb.jdbc.rewrite.FollowerReadProcessor;
+import io.cockroachdb.jdbc.rewrite.QueryProcessor;
+import io.cockroachdb.jdbc.rewrite.QueryProcessorChain;
 import io.cockroachdb.jdbc.rewrite.SelectForUpdateProcessor;
 import io.cockroachdb.jdbc.retry.ConnectionRetryInterceptor;
+import io.cockroachdb.jdbc.retry.HistoryOverflow;
+import io.cockroachdb.jdbc.retry.RetryMode;
 import io.cockroachdb.jdbc.retry.MethodTraceLogger;
 import io.cockroachdb.jdbc.retry.RetryListener;
 import io.cockroachdb.jdbc.retry.RetryStrategy;
+import io.cockroachdb.jdbc.retry.RetryingConnection;
+import io.cockroachdb.jdbc.retry.StandbyConnectionPool;
+import io.cockroachdb.jdbc.util.Checksum;
+import io.cockroachdb.jdbc.util.DurationFormat;
+import io.cockroachdb.jdbc.util.ResourceSupplier;
 
 /**
  * A {@code java.sql.Driver} implementation for CockroachDB, wrapping an underlying
@@ -83,6 +102,12 @@ public class CockroachDriver implements Driver {
 
     private static Supplier<RetryStrategy> retryStrategySupplier;
 
+    private static Supplier<TopologyProvider> topologyProviderSupplier = CockroachTopologyProvider::new;
+
+    private static final Map<List<Object>, ClusterLoadBalancer> loadBalancers = new ConcurrentHashMap<>();
+
+    private static ConnectionFactory connectionFactory = DriverManager::getConnection;
+
     /**
      * Set a retry listener supplier that overrides any per-connection class name setting.
      *
@@ -105,6 +130,35 @@ public class CockroachDriver implements Driver {
         CockroachDriver.retryStrategySupplier = retryStrategySupplier;
     }
 
+    /**
+     * Set a topology provider supplier used for cluster topology discovery, replacing the
+     * default provider querying the cluster. Applies to load balancers created thereafter.
+     *
+     * @param topologyProviderSupplier the topology provider supplier, invoked once per
+     * distinct URL and client locality
+     */
+    public static void setTopologyProviderSupplier(
+            Supplier<TopologyProvider> topologyProviderSupplier) {
+        CockroachDriver.topologyProviderSupplier = topologyProviderSupplier;
+        CockroachDriver.loadBalancers.clear();
+    }
+
+    /**
+     * Set a connection factory for opening delegate connections, replacing the default
+     * factory using {@link DriverManager}. Connections are opened through the node
+     * health registry in either case.
+     *
+     * @param connectionFactory the connection factory
+     */
+    public static void setConnectionFactory(ConnectionFactory connectionFactory) {
+        CockroachDriver.connectionFactory = connectionFactory;
+    }
+
+    private static Connection openConnection(NodeHealthRegistry nodeHealthRegistry, String url, Properties info)
+            throws SQLException {
+        return nodeHealthRegistry.connect(url, info, connectionFactory);
+    }
+
     //////////////////////////////////////////////////////////////////////
 
     @Override
@@ -128,7 +182,11 @@ public class CockroachDriver implements Driver {
             throw new SQLNonTransientException("Error parsing JDBC URL");
         }
 
-        final Connection psqlConnection = DriverManager.getConnection(toDelegateURL(url), info);
+        final NodeHealthRegistry nodeHealthRegistry = loadNodeHealthRegistry(properties);
+
+        final Supplier<String> delegateURL = loadDelegateURL(url, info, properties, nodeHealthRegistry);
+
+        final Connection psqlConnection = openConnection(nodeHealthRegistry, delegateURL.get(), info);
 
         final ConnectionSettings connectionSettings = new ConnectionSettings();
         connectionSettings.setUseCockroachMetadata(Boolean.parseBoolean(
@@ -143,31 +201,66 @@ public class CockroachDriver implements Driver {
                     CockroachProperty.REWRITE_BATCHED_UPSERTS.toDriverPropertyInfo(properties).value));
             connectionSettings.setRewriteBatchUpdates(Boolean.parseBoolean(
                     CockroachProperty.REWRITE_BATCHED_UPDATES.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRewriteBatchDeletes(Boolean.parseBoolean(
+                    CockroachProperty.REWRITE_BATCHED_DELETES.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRewriteBatchMaxRows(Integer.parseInt(
+                    CockroachProperty.REWRITE_BATCH_MAX_ROWS.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRewriteBatchMaxBytes(Long.parseLong(
+                    CockroachProperty.REWRITE_BATCH_MAX_BYTES.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRewriteBatchPipelining(Boolean.parseBoolean(
+                    CockroachProperty.REWRITE_BATCH_PIPELINING.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRewriteBatchUpdateCounts(Boolean.parseBoolean(
+                    CockroachProperty.REWRITE_BATCH_UPDATE_COUNTS.toDriverPropertyInfo(properties).value));
+
+            connectionSettings.setBatchRewriteCache(BatchRewriteCache.getSharedInstance(Integer.parseInt(
+                    CockroachProperty.REWRITE_BATCH_CACHE_SIZE.toDriverPropertyInfo(properties).value)));
         }
 
-        if (Boolean.parseBoolean(CockroachProperty.IMPLICIT_SELECT_FOR_UPDATE.toDriverPropertyInfo(properties).value)) {
-            connectionSettings.setQueryProcessor(SelectForUpdateProcessor.INSTANCE);
-        } else {
-            connectionSettings.setQueryProcessor(SelectForUpdateProcessor.PASS_THROUGH);
+        connectionSettings.setRewriteStatementBatches(Boolean.parseBoolean(
+                CockroachProperty.REWRITE_STATEMENT_BATCHES.toDriverPropertyInfo(properties).value));
+        if (connectionSettings.isRewriteStatementBatches()) {
+            connectionSettings.setRewriteStatementBatchMaxBytes(Long.parseLong(
+                    CockroachProperty.REWRITE_STATEMENT_BATCH_MAX_BYTES.toDriverPropertyInfo(properties).value));
         }
 
+        connectionSettings.setQueryProcessor(loadQueryProcessor(properties));
+
         if (Boolean.parseBoolean(CockroachProperty.RETRY_TRANSIENT_ERRORS.toDriverPropertyInfo(properties).value)) {
             connectionSettings.setRetryStrategy(loadRetryStrategy(properties));
             connectionSettings.setRetryListener(loadRetryListener(properties));
+            connectionSettings.setRetryMaxHistorySize(Integer.parseInt(
+                    CockroachProperty.RETRY_MAX_HISTORY_SIZE.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRetryMaxHistoryBytes(Long.parseLong(
+                    CockroachProperty.RETRY_MAX_HISTORY_BYTES.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRetryMode(RetryMode.of(
+                    CockroachProperty.RETRY_MODE.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRetryHistoryOverflow(HistoryOverflow.of(
+                    CockroachProperty.RETRY_HISTORY_OVERFLOW.toDriverPropertyInfo(properties).value));
+            connectionSettings.setRetryChecksumAlgorithm(loadChecksumAlgorithm(properties));
+
+            CockroachConnection cockroachConnection = new CockroachConnection(psqlConnection, connectionSettings);
 
+            ResourceSupplier<Connection> connectionSupplier = () -> {
+                Connection connection = openConnection(nodeHealthRegistry, delegateURL.get(), info);
+                connection.setAutoCommit(false);
+                return new CockroachConnection(connection, connectionSettings); // Derive connection settings
+            };
+
+            int standbyConnections = Integer.parseInt(
+                    CockroachProperty.RETRY_STANDBY_CONNECTIONS.toDriverPropertyInfo(properties).value);
+            if (standbyConnections > 0) {
+                connectionSupplier = standbyConnectionSupplier(url, delegateURL, info, standbyConnections,
+                        connectionSettings, nodeHealthRegistry);
+            }
+
+            // Method tracing is only supported by the reflective proxies
             if (logger.isTraceEnabled()) {
                 connectionSettings.setMethodTraceLogger(
                         MethodTraceLogger.createInstance(logger).setMasked(false));
+                return ConnectionRetryInterceptor.proxy(cockroachConnection, connectionSettings, connectionSupplier);
             }
 
-            CockroachConnection cockroachConnection = new CockroachConnection(psqlConnection, connectionSettings);
-
-            return ConnectionRetryInterceptor.proxy(cockroachConnection, connectionSettings,
-                    () -> {
-                        Connection connection = DriverManager.getConnection(toDelegateURL(url), info);
-                        connection.setAutoCommit(false);
-                        return new CockroachConnection(connection, connectionSettings); // Derive connection settings
-                    });
+            return new RetryingConnection(cockroachConnection, connectionSettings, connectionSupplier);
         } else {
             if (Boolean.parseBoolean(
                     CockroachProperty.RETRY_CONNECTION_ERRORS.toDriverPropertyInfo(properties).value)) {
@@ -181,6 +274,138 @@ public class CockroachDriver implements Driver {
         }
     }
 
+    /**
+     * Load the node health registry shared by connections with the same circuit breaker configuration.
+     *
+     * @param properties the parsed URL and connection properties
+     * @return the node health registry
+     * @throws SQLException on invalid configuration
+     */
+    protected NodeHealthRegistry loadNodeHealthRegistry(Properties properties) throws SQLException {
+        try {
+            return NodeHealthRegistry.getSharedInstance(
+                    Integer.parseInt(CockroachProperty.CIRCUIT_BREAKER_FAILURE_THRESHOLD
+                            .toDriverPropertyInfo(properties).value),
+                    DurationFormat.parseDuration(CockroachProperty.CIRCUIT_BREAKER_OPEN_DURATION
+                            .toDriverPropertyInfo(properties).value));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigurationException("Invalid circuit breaker configuration: " + e.getMessage(),
+                    PSQLState.UNEXPECTED_ERROR, e);
+        }
+    }
+
+    /**
+     * Load the supplier of delegate URLs for new connections, balancing across the cluster nodes
+     * if topology discovery is enabled.
+     *
+     * @param url        the driver URL
+     * @param info       the connection properties
+     * @param properties the parsed URL and connection properties
+     * @param nodeHealthRegistry the node health registry for connects and node selection
+     * @return the delegate URL supplier
+     * @throws SQLException on invalid configuration
+     */
+    protected Supplier<String> loadDelegateURL(String url, Properties info, Properties properties,
+                                               NodeHealthRegistry nodeHealthRegistry)
+            throws SQLException {
+        final String seedURL = toDelegateURL(url);
+        if (!Boolean.parseBoolean(CockroachProperty.TOPOLOGY_DISCOVERY.toDriverPropertyInfo(properties).value)) {
+            return () -> seedURL;
+        }
+
+        final String clientLocality = CockroachProperty.CLIENT_LOCALITY.toDriverPropertyInfo(properties).value;
+        try {
+            final Duration refreshInterval = DurationFormat.parseDuration(
+                    CockroachProperty.TOPOLOGY_REFRESH_INTERVAL.toDriverPropertyInfo(properties).value);
+            ClusterLoadBalancer loadBalancer = loadBalancers.computeIfAbsent(
+                    List.of(seedURL, clientLocality, refreshInterval, nodeHealthRegistry),
+                    key -> new ClusterLoadBalancer(seedURL,
+                            topologyProviderSupplier.get(),
+                            clientLocality,
+                            refreshInterval)
+                            .setNodeHealthRegistry(nodeHealthRegistry));
+            // Discover through the credentials of the caller rather than retaining these in the load balancer
+            return () -> loadBalancer.nextURL(() -> openConnection(nodeHealthRegistry, seedURL, info));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigurationException("Invalid topology discovery configuration: " + e.getMessage(),
+                    PSQLState.UNEXPECTED_ERROR, e);
+        }
+    }
+
+    protected ResourceSupplier<Connection> standbyConnectionSupplier(String url, Supplier<String> delegateURL,
+                                                                     Properties info, int size,
+                                                                     ConnectionSettings connectionSettings,
+                                                                     NodeHealthRegistry nodeHealthRegistry) {
+        StandbyConnectionPool standbyPool = StandbyConnectionPool.getInstance(toDelegateURL(url), info, size, () -> {
+            Connection connection = openConnection(nodeHealthRegistry, delegateURL.get(), info);
+            connection.setAutoCommit(false);
+            return connection;
+        });
+        standbyPool.fill();
+
+        return new ResourceSupplier<>() {
+            @Override
+            public Connection get() throws SQLException {
+                return new CockroachConnection(standbyPool.get(), connectionSettings); // Derive connection settings
+            }
+
+            @Override
+            public void prepare() {
+                standbyPool.prepare();
+            }
+        };
+    }
+
+    protected QueryProcessor loadQueryProcessor(Properties properties) throws SQLException {
+        final List<QueryProcessor> processors = new ArrayList<>();
+
+        if (Boolean.parseBoolean(CockroachProperty.IMPLICIT_SELECT_FOR_UPDATE.toDriverPropertyInfo(properties).value)) {
+            processors.add(SelectForUpdateProcessor.INSTANCE);
+        }
+
+        if (Boolean.parseBoolean(CockroachProperty.IMPLICIT_FOLLOWER_READS.toDriverPropertyInfo(properties).value)) {
+            FollowerReadProcessor processor = new FollowerReadProcessor();
+            processor.configure(properties);
+            processors.add(processor);
+        }
+
+        String classNames = CockroachProperty.QUERY_PROCESSORS.toDriverPropertyInfo(properties).value;
+        for (String className : classNames.split(",")) {
+            className = className.trim();
+            if (className.isEmpty()) {
+                continue;
+            }
+            try {
+                QueryProcessor processor = (QueryProcessor) Class.forName(className)
+                        .getDeclaredConstructor().newInstance();
+                processor.configure(properties);
+                processors.add(processor);
+            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException
+                     | InvocationTargetException | NoSuchMethodException | ClassCastException e) {
+                throw new InvalidConfigurationException("Unable to create instance of query processor: " + className,
+                        PSQLState.UNEXPECTED_ERROR, e);
+            }
+        }
+
+        if (processors.isEmpty()) {
+            return QueryProcessor.PASS_THROUGH;
+        }
+
+        return new QueryProcessorChain(processors, Integer.parseInt(
+                CockroachProperty.QUERY_PROCESSOR_CACHE_SIZE.toDriverPropertyInfo(properties).value));
+    }
+
+    protected String loadChecksumAlgorithm(Properties properties) throws SQLException {
+        String algorithm = CockroachProperty.RETRY_CHECKSUM_ALGORITHM.toDriverPropertyInfo(properties).value;
+        try {
+            Checksum.of(algorithm);
+            return algorithm;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigurationException("Unsupported checksum algorithm: " + algorithm,
+                    PSQLState.UNEXPECTED_ERROR, e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected RetryStrategy loadRetryStrategy(Properties properties) throws SQLException {
         // Supplier takes precedence
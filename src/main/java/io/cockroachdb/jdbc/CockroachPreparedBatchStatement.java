@@ -1,8 +1,10 @@
 package io.cockroachdb.jdbc;
 
-import io.cockroachdb.jdbc.util.Pair;
+import io.cockroachdb.jdbc.rewrite.BatchRewritePlan;
 import io.cockroachdb.jdbc.util.ResourceSupplier;
 import io.cockroachdb.jdbc.util.WrapperSupport;
+import org.postgresql.PGConnection;
+import org.postgresql.util.PSQLState;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -12,13 +14,18 @@ import java.net.URL;
 import java.sql.Date;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@code java.sql.PreparedStatement} implementation for CockroachDB, wrapping an underlying PgStatement
  * or proxy.
  * <p>
- * Depending on API usage and driver configuration, it may rewrite batch UPDATE / INSERT and UPSERT DML statements
- * to use SQL arrays. This is achieved by deferring the creation of the prepared statement delegate along with
+ * Depending on API usage and driver configuration, it may rewrite batch UPDATE / INSERT / UPSERT and DELETE DML
+ * statements to use SQL arrays. This is achieved by deferring the creation of the prepared statement delegate along with
  * most primitive (non-streaming) method calls to that delegate. When the executeBatch method is invoked and
  * the deferral is still active, it creates a rewritten DML prepared statement and binds array values to
  * that statement instead.
@@ -45,110 +52,339 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
                 });
     }
 
+    /**
+     * Lazily created pool of daemon threads for preparing batch array chunks ahead of execution.
+     */
+    private static class PipelineExecutorHolder {
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "cockroachdb-batch-pipeline-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private final Connection connection;
 
     private final String query;
 
     private final String batchQuery;
 
-    private final List<ParameterRecord> parameterRecords = new ArrayList<>(64);
+    private final String updateCountQuery;
 
-    private final List<Pair<String, List<Object>>> columnValues = new ArrayList<>();
+    private final ConnectionSettings connectionSettings;
 
-    private static class ParameterRecord {
-        ResourceSupplier<?> operation;
-        String sqlType;
-        Object value;
-    }
+    private final ResourceSupplier<PreparedStatement> delegateSupplier;
+
+    private final int resultSetType;
+
+    private final int resultSetConcurrency;
+
+    private final int resultSetHoldability;
+
+    private final List<ColumnBuffer> columnBuffers = new ArrayList<>();
+
+    private ParameterSlot[] parameterSlots = new ParameterSlot[16];
+
+    private int parameterCount;
 
     public CockroachPreparedBatchStatement(Connection connection, String query, String batchQuery) {
+        this(connection, query, batchQuery, new ConnectionSettings());
+    }
+
+    public CockroachPreparedBatchStatement(Connection connection, String query, String batchQuery,
+                                           ConnectionSettings connectionSettings) {
+        this(connection, query, batchQuery, null, connectionSettings);
+    }
+
+    /**
+     * @param connection         the connection
+     * @param query              the original DML statement
+     * @param batchQuery         the rewritten array statement
+     * @param updateCountQuery   the rewritten array statement returning the batch ordinal of each
+     *                           affected row, or null if not available for the statement type
+     * @param connectionSettings the connection settings
+     */
+    public CockroachPreparedBatchStatement(Connection connection, String query, String batchQuery,
+                                           String updateCountQuery, ConnectionSettings connectionSettings) {
+        this(connection, query, batchQuery, updateCountQuery,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, 0, connectionSettings,
+                () -> connection.prepareStatement(query));
+    }
+
+    /**
+     * @param connection         the connection
+     * @param query              the original DML statement
+     * @param plan               the qualified batch rewrite plan for the statement
+     * @param connectionSettings the connection settings
+     * @param delegateSupplier   supplier of the prepared statement for the original DML statement, used
+     *                           when the batch rewrite is voided
+     */
+    public CockroachPreparedBatchStatement(Connection connection, String query, BatchRewritePlan plan,
+                                           ConnectionSettings connectionSettings,
+                                           ResourceSupplier<PreparedStatement> delegateSupplier) {
+        this(connection, query, plan, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, 0,
+                connectionSettings, delegateSupplier);
+    }
+
+    /**
+     * @param connection           the connection
+     * @param query                the original DML statement
+     * @param plan                 the qualified batch rewrite plan for the statement
+     * @param resultSetType        the result set type of the statement
+     * @param resultSetConcurrency the result set concurrency of the statement
+     * @param resultSetHoldability the result set holdability of the statement, or 0 for the connection default
+     * @param connectionSettings   the connection settings
+     * @param delegateSupplier     supplier of the prepared statement for the original DML statement, used
+     *                             when the batch rewrite is voided
+     */
+    public CockroachPreparedBatchStatement(Connection connection, String query, BatchRewritePlan plan,
+                                           int resultSetType, int resultSetConcurrency, int resultSetHoldability,
+                                           ConnectionSettings connectionSettings,
+                                           ResourceSupplier<PreparedStatement> delegateSupplier) {
+        this(connection, query, plan.getBatchQuery(), plan.getUpdateCountQuery(),
+                resultSetType, resultSetConcurrency, resultSetHoldability, connectionSettings, delegateSupplier);
+    }
+
+    private CockroachPreparedBatchStatement(Connection connection, String query, String batchQuery,
+                                            String updateCountQuery,
+                                            int resultSetType, int resultSetConcurrency, int resultSetHoldability,
+                                            ConnectionSettings connectionSettings,
+                                            ResourceSupplier<PreparedStatement> delegateSupplier) {
         super(emptyProxyDelegate());
 
         this.connection = connection;
         this.query = query;
         this.batchQuery = batchQuery;
+        this.updateCountQuery = updateCountQuery;
+        this.connectionSettings = connectionSettings;
+        this.delegateSupplier = delegateSupplier;
+        this.resultSetType = resultSetType;
+        this.resultSetConcurrency = resultSetConcurrency;
+        this.resultSetHoldability = resultSetHoldability;
     }
 
-    private void addRowSetter(int parameterIndex, ResourceSupplier<?> operation, int sqlType, Object value)
-            throws SQLException {
-        addRowSetter(parameterIndex, operation, JDBCType.valueOf(sqlType).getName(), value);
-    }
-
-    private <T> void addRowSetter(int parameterIndex, ResourceSupplier<?> operation, String sqlType, T value)
-            throws SQLException {
+    private ParameterSlot parameterSlot(int parameterIndex) throws SQLException {
         if (isBatchRewriteVoided()) {
             throw new IllegalStateException();
         }
+        if (parameterIndex < 1) {
+            throw new SQLException("Parameter index out of range: " + parameterIndex,
+                    PSQLState.INVALID_PARAMETER_VALUE.getState());
+        }
+        if (parameterIndex > parameterSlots.length) {
+            parameterSlots = Arrays.copyOf(parameterSlots, Math.max(parameterSlots.length << 1, parameterIndex));
+        }
+        ParameterSlot slot = parameterSlots[parameterIndex - 1];
+        if (slot == null) {
+            slot = new ParameterSlot();
+            parameterSlots[parameterIndex - 1] = slot;
+        }
+        parameterCount = Math.max(parameterCount, parameterIndex);
+        return slot;
+    }
+
+    private void clearParameterSlots() {
+        for (int i = 0; i < parameterCount; i++) {
+            parameterSlots[i].clear();
+        }
+        parameterCount = 0;
+    }
+
+    /**
+     * Creates the rewritten array statement delegate and executes the buffered batch, split into
+     * chunks bounded by the configured max rows and bytes per statement. The same prepared statement
+     * is reused for all chunks.
+     * <p>
+     * If pipelining is enabled, the arrays for the next chunk are created by a background thread while
+     * the current chunk executes. At most one chunk is prepared ahead, which caps the memory held by
+     * in-flight arrays to two chunks. The first chunk is always created by the calling thread, which
+     * also resolves any array type information needing a round trip.
+     * <p>
+     * If update counts are enabled, the update count variant of the array statement (if available) is
+     * used and the returned batch ordinals are counted per row. Without such variant (INSERT and UPSERT),
+     * every row reports one affected row if the total update count equals the number of rows. Otherwise,
+     * every row reports {@link #SUCCESS_NO_INFO}.
+     *
+     * @return the update counts, one per batched row
+     * @throws SQLException on execution failure
+     */
+    private long[] executeBatchArrays() throws SQLException {
+        final ColumnBuffer[] columns = columnBuffers.toArray(new ColumnBuffer[0]);
+        columnBuffers.clear();
+
+        final boolean updateCounts = connectionSettings.isRewriteBatchUpdateCounts();
+        final boolean ordinals = updateCounts && this.updateCountQuery != null;
+        final String arrayQuery = ordinals ? this.updateCountQuery : this.batchQuery;
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("""
+                            Creating batch array delegate:
+                            Original query: {}
+                               Array query: {}""",
+                    this.query, arrayQuery);
+        }
 
-        ParameterRecord record = new ParameterRecord();
-        record.operation = operation;
-        record.sqlType = sqlType;
-        record.value = value;
+        int rowCount = 0;
 
-        // Attempt type qualification / cast
-        if ("OTHER".equalsIgnoreCase(sqlType)) {
-            try {
-                // OTHER usually denotes a UUID so try that first
-                record.value = UUID.fromString(Objects.toString(value));
-                record.sqlType = "UUID";
-            } catch (IllegalArgumentException e) {
-                // Something else, possibly an enum which will likely fail later unless
-                // an implicit type cast exits (not supported in CockroachDB since 25.1).
-                // Ex: CREATE CAST (varchar AS order_status) WITH INOUT AS IMPLICIT;
-                record.value = Objects.toString(value);
-                record.sqlType = "VARCHAR";
+        for (int i = 0; i < columns.length; i++) {
+            ColumnBuffer column = columns[i];
+            if (i > 0 && rowCount != column.size()) {
+                throw new IllegalStateException("Inconsistent column size for column index "
+                        + (i + 1) + " (" + column.getTypeName() + "). Expected " + rowCount
+                        + " but was " + column.size());
             }
+            rowCount = column.size();
         }
 
-        if (parameterRecords.size() < parameterIndex) {
-            parameterRecords.add(record);
-        } else {
-            parameterRecords.set(parameterIndex - 1, record);
-        }
-    }
+        final PreparedStatement preparedStatement = prepareArrayStatement(arrayQuery);
+
+        setDelegate(preparedStatement);
+
+        // Primitive arrays can be passed to pgjdbc without boxing
+        final PGConnection pgConnection = connection.isWrapperFor(PGConnection.class)
+                ? connection.unwrap(PGConnection.class) : null;
+
+        final long[] counts = new long[rowCount];
+        long updateCount = 0;
+
+        int from = 0;
+        int to = nextChunkEnd(columns, from, rowCount);
+
+        Array[] arrays = createArrays(columns, ordinals, pgConnection, from, to);
+        Future<Array[]> nextArrays = null;
 
-    private void createBatchArrayStatementDelegate() throws SQLException {
         try {
-            if (logger.isDebugEnabled()) {
-                logger.debug("""
-                                Creating batch array delegate:
-                                Original query: {}
-                                   Array query: {}""",
-                        this.query, this.batchQuery);
-            }
+            while (true) {
+                final int nextFrom = to;
+                final int nextTo = nextFrom < rowCount ? nextChunkEnd(columns, nextFrom, rowCount) : nextFrom;
 
-            int index = 1;
-            int columnSize = 0;
+                if (connectionSettings.isRewriteBatchPipelining() && nextFrom < rowCount) {
+                    nextArrays = PipelineExecutorHolder.EXECUTOR.submit(
+                            () -> createArrays(columns, ordinals, pgConnection, nextFrom, nextTo));
+                }
 
-            final PreparedStatement preparedStatement = connection.prepareStatement(this.batchQuery);
+                if (logger.isTraceEnabled() && (from > 0 || to < rowCount)) {
+                    logger.trace("Executing batch array chunk [{}..{}) of {} rows", from, to, rowCount);
+                }
 
-            for (Pair<String, List<Object>> pair : columnValues) {
-                String type = pair.getFirst();
-                List<Object> values = pair.getSecond();
+                for (int i = 0; i < arrays.length; i++) {
+                    preparedStatement.setArray(i + 1, arrays[i]);
+                }
 
-                if (columnSize > 0 && columnSize != values.size()) {
-                    throw new IllegalStateException("Inconsistent column size for column index "
-                            + index + " (" + type + "). Expected " + columnSize + " but was " + values.size());
+                if (ordinals) {
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        while (resultSet.next()) {
+                            counts[resultSet.getInt(1)]++;
+                        }
+                    }
+                } else {
+                    updateCount += preparedStatement.executeUpdate();
                 }
-                columnSize = values.size();
 
-                Array array = connection.createArrayOf(type, values.toArray());
+                if (nextFrom >= rowCount) {
+                    break;
+                }
 
-                if (logger.isTraceEnabled()) {
-                    logger.trace("Created array of type '{}' ({}) for column index {} with {} values",
-                            array.getBaseTypeName(),
-                            array.getBaseType(),
-                            index,
-                            values.size());
+                if (nextArrays != null) {
+                    arrays = awaitArrays(nextArrays);
+                    nextArrays = null;
+                } else {
+                    arrays = createArrays(columns, ordinals, pgConnection, nextFrom, nextTo);
                 }
 
-                preparedStatement.setArray(index++, array);
+                from = nextFrom;
+                to = nextTo;
             }
-
-            setDelegate(preparedStatement);
         } finally {
-            columnValues.clear();
+            if (nextArrays != null) {
+                nextArrays.cancel(true);
+            }
+        }
+
+        if (!ordinals) {
+            Arrays.fill(counts, updateCounts && updateCount == rowCount ? 1 : SUCCESS_NO_INFO);
         }
+
+        return counts;
+    }
+
+    private PreparedStatement prepareArrayStatement(String arrayQuery) throws SQLException {
+        if (resultSetHoldability != 0) {
+            return connection.prepareStatement(arrayQuery, resultSetType, resultSetConcurrency,
+                    resultSetHoldability);
+        }
+        if (resultSetType != ResultSet.TYPE_FORWARD_ONLY || resultSetConcurrency != ResultSet.CONCUR_READ_ONLY) {
+            return connection.prepareStatement(arrayQuery, resultSetType, resultSetConcurrency);
+        }
+        return connection.prepareStatement(arrayQuery);
+    }
+
+    private Array[] createArrays(ColumnBuffer[] columns, boolean ordinals, PGConnection pgConnection,
+                                 int from, int to) throws SQLException {
+        Array[] arrays = new Array[ordinals ? columns.length + 1 : columns.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            Array array = columns[i].createArray(connection, pgConnection, from, to);
+
+            if (logger.isTraceEnabled()) {
+                logger.trace("Created array of type '{}' ({}) for column index {} with {} values",
+                        array.getBaseTypeName(),
+                        array.getBaseType(),
+                        i + 1,
+                        to - from);
+            }
+
+            arrays[i] = array;
+        }
+
+        if (ordinals) {
+            arrays[columns.length] = ColumnBuffer.createOrdinalArray(connection, pgConnection, from, to);
+        }
+
+        return arrays;
+    }
+
+    private static Array[] awaitArrays(Future<Array[]> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for batch array chunk",
+                    PSQLState.UNKNOWN_STATE.getState(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Failed to create batch array chunk",
+                    PSQLState.UNKNOWN_STATE.getState(), e.getCause());
+        }
+    }
+
+    /**
+     * Finds the exclusive end row of the chunk starting at the given row. A chunk always holds
+     * at least one row, even if that row alone exceeds the byte budget.
+     */
+    private int nextChunkEnd(ColumnBuffer[] columns, int from, int rowCount) {
+        int maxRows = connectionSettings.getRewriteBatchMaxRows();
+        long maxBytes = connectionSettings.getRewriteBatchMaxBytes();
+
+        int to = maxRows > 0 ? (int) Math.min((long) from + maxRows, rowCount) : rowCount;
+
+        if (maxBytes > 0) {
+            long bytes = 0;
+            for (int row = from; row < to; row++) {
+                for (ColumnBuffer column : columns) {
+                    bytes += column.estimateSize(row);
+                }
+                if (bytes > maxBytes && row > from) {
+                    return row;
+                }
+            }
+        }
+
+        return to;
     }
 
     private boolean isBatchRewriteVoided() throws SQLException {
@@ -159,7 +395,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (Proxy.isProxyClass(super.getDelegate().getClass())) {
             if (logger.isTraceEnabled()) {
                 logger.trace("Invalidating batch rewrite due to '{}' and replaying {} recorded ops",
-                        source, parameterRecords.size());
+                        source, parameterCount);
             }
         }
         return getDelegate();
@@ -168,15 +404,19 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
     @Override
     protected final PreparedStatement getDelegate() throws SQLException {
         if (Proxy.isProxyClass(super.getDelegate().getClass())) {
-            setDelegate(connection.prepareStatement(this.query));
+            PreparedStatement preparedStatement = delegateSupplier.get();
+            setDelegate(preparedStatement);
 
             // Invoke all deferred setXX calls
             try {
-                for (ParameterRecord record : parameterRecords) {
-                    record.operation.get();
+                for (int i = 0; i < parameterCount; i++) {
+                    ParameterSlot slot = parameterSlots[i];
+                    if (slot.isSet()) {
+                        slot.replay(preparedStatement, i + 1);
+                    }
                 }
             } finally {
-                parameterRecords.clear();
+                clearParameterSlots();
             }
         }
         return super.getDelegate();
@@ -197,10 +437,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setNull(parameterIndex, sqlType);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setNull(parameterIndex, sqlType);
-                return null;
-            }, sqlType, null);
+            parameterSlot(parameterIndex).setNull(sqlType);
         }
     }
 
@@ -209,10 +446,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setBoolean(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setBoolean(parameterIndex, x);
-                return null;
-            }, Types.BOOLEAN, x);
+            parameterSlot(parameterIndex).setBoolean(x);
         }
     }
 
@@ -221,10 +455,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setByte(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setByte(parameterIndex, x);
-                return null;
-            }, Types.TINYINT, x);
+            parameterSlot(parameterIndex).setLong(ParameterSlot.Kind.BYTE, x);
         }
     }
 
@@ -233,10 +464,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setShort(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setShort(parameterIndex, x);
-                return null;
-            }, Types.SMALLINT, x);
+            parameterSlot(parameterIndex).setLong(ParameterSlot.Kind.SHORT, x);
         }
     }
 
@@ -245,10 +473,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setInt(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setInt(parameterIndex, x);
-                return null;
-            }, Types.INTEGER, x);
+            parameterSlot(parameterIndex).setLong(ParameterSlot.Kind.INT, x);
         }
 
     }
@@ -258,10 +483,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setLong(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setLong(parameterIndex, x);
-                return null;
-            }, Types.BIGINT, x);
+            parameterSlot(parameterIndex).setLong(ParameterSlot.Kind.LONG, x);
         }
     }
 
@@ -270,10 +492,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setFloat(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setFloat(parameterIndex, x);
-                return null;
-            }, Types.REAL, x);
+            parameterSlot(parameterIndex).setDouble(ParameterSlot.Kind.FLOAT, x);
         }
     }
 
@@ -282,10 +501,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setDouble(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setDouble(parameterIndex, x);
-                return null;
-            }, Types.DOUBLE, x);
+            parameterSlot(parameterIndex).setDouble(ParameterSlot.Kind.DOUBLE, x);
         }
     }
 
@@ -294,10 +510,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setBigDecimal(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setBigDecimal(parameterIndex, x);
-                return null;
-            }, Types.NUMERIC, x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.BIG_DECIMAL, x);
         }
     }
 
@@ -306,10 +519,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setString(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setString(parameterIndex, x);
-                return null;
-            }, Types.VARCHAR, x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.STRING, x);
         }
     }
 
@@ -318,10 +528,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setBytes(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setBytes(parameterIndex, x);
-                return null;
-            }, Types.LONGVARBINARY, x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.BYTES, x);
         }
     }
 
@@ -330,10 +537,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setDate(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setDate(parameterIndex, x);
-                return null;
-            }, Types.DATE, x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.DATE, x);
         }
     }
 
@@ -342,10 +546,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setTime(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setTime(parameterIndex, x);
-                return null;
-            }, Types.TIME, x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.TIME, x);
         }
     }
 
@@ -354,10 +555,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setTimestamp(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setTimestamp(parameterIndex, x);
-                return null;
-            }, Types.TIMESTAMP, x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.TIMESTAMP, x);
         }
     }
 
@@ -379,7 +577,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
 
     @Override
     public void clearParameters() throws SQLException {
-        parameterRecords.clear();
+        clearParameterSlots();
 
         if (isBatchRewriteVoided()) {
             getDelegate().clearParameters();
@@ -391,10 +589,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setObject(parameterIndex, x, targetSqlType);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setObject(parameterIndex, x, targetSqlType);
-                return null;
-            }, targetSqlType, x);
+            parameterSlot(parameterIndex).setObject(x, targetSqlType);
         }
     }
 
@@ -408,10 +603,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (x == null) {
             setNull(parameterIndex, Types.NULL);
         } else if (x instanceof UUID) {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setObject(parameterIndex, x);
-                return null;
-            }, "UUID", (UUID) x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.OBJECT, x, x, "UUID");
         } else if (x instanceof SQLXML) {
             setSQLXML(parameterIndex, (SQLXML) x);
         } else if (x instanceof String) {
@@ -449,10 +641,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         } else if (x instanceof Character) {
             setString(parameterIndex, ((Character) x).toString());
         } else if (x instanceof Number) {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setObject(parameterIndex, x);
-                return null;
-            }, "DECIMAL", (Number) x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.OBJECT, x, x, "DECIMAL");
         } else {
             getDelegate("setObject(parameterIndex,x)").setObject(parameterIndex, x);
         }
@@ -468,20 +657,24 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().addBatch();
         } else {
-            int index = 0;
             try {
-                for (ParameterRecord record : parameterRecords) {
-                    if (columnValues.size() <= index) {
-                        List<Object> records = new ArrayList<>();
-                        records.add(record.value);
-                        columnValues.add(Pair.of(record.sqlType, records));
-                    } else {
-                        columnValues.get(index).getSecond().add(record.value);
+                for (int i = 0; i < parameterCount; i++) {
+                    ParameterSlot slot = parameterSlots[i];
+                    if (!slot.isSet()) {
+                        throw new SQLException("No value specified for parameter " + (i + 1),
+                                PSQLState.INVALID_PARAMETER_VALUE.getState());
+                    }
+                    if (columnBuffers.size() <= i) {
+                        columnBuffers.add(ColumnBuffer.forParameter(slot));
+                    }
+                    ColumnBuffer column = columnBuffers.get(i);
+                    ColumnBuffer next = column.add(slot);
+                    if (next != column) {
+                        columnBuffers.set(i, next);
                     }
-                    index++;
                 }
             } finally {
-                parameterRecords.clear();
+                clearParameterSlots();
             }
         }
     }
@@ -496,10 +689,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setRef(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setRef(parameterIndex, x);
-                return null;
-            }, x.getBaseTypeName(), x.getObject());
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.REF, x, x.getObject(), x.getBaseTypeName());
         }
     }
 
@@ -518,10 +708,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setArray(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setArray(parameterIndex, x);
-                return null;
-            }, x.getBaseTypeName(), x.getArray());
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.ARRAY, x, x.getArray(), x.getBaseTypeName());
         }
     }
 
@@ -555,10 +742,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setURL(parameterIndex, x);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setURL(parameterIndex, x);
-                return null;
-            }, Types.DATALINK, x);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.URL, x);
         }
     }
 
@@ -577,10 +761,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setNString(parameterIndex, value);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setNString(parameterIndex, value);
-                return null;
-            }, Types.NCHAR, value);
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.NSTRING, value);
         }
     }
 
@@ -614,10 +795,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
         if (isBatchRewriteVoided()) {
             getDelegate().setSQLXML(parameterIndex, xmlObject);
         } else {
-            addRowSetter(parameterIndex, () -> {
-                getDelegate().setSQLXML(parameterIndex, xmlObject);
-                return null;
-            }, Types.SQLXML, xmlObject.getString());
+            parameterSlot(parameterIndex).setObject(ParameterSlot.Kind.SQLXML, xmlObject, xmlObject.getString());
         }
     }
 
@@ -789,11 +967,17 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
 
     @Override
     public int getResultSetConcurrency() throws SQLException {
+        if (!isBatchRewriteVoided()) {
+            return resultSetConcurrency;
+        }
         return getDelegate("getResultSetConcurrency()").getResultSetConcurrency();
     }
 
     @Override
     public int getResultSetType() throws SQLException {
+        if (!isBatchRewriteVoided()) {
+            return resultSetType;
+        }
         return getDelegate("getResultSetType()").getResultSetType();
     }
 
@@ -813,12 +997,12 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
             return getDelegate().executeBatch();
         }
 
-        createBatchArrayStatementDelegate();
-
-        int rowCount = getDelegate().executeUpdate();
+        long[] counts = executeBatchArrays();
 
-        int[] rv = new int[rowCount];
-        Arrays.fill(rv, SUCCESS_NO_INFO);
+        int[] rv = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            rv[i] = Math.toIntExact(counts[i]);
+        }
         return rv;
     }
 
@@ -872,6 +1056,9 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
 
     @Override
     public int getResultSetHoldability() throws SQLException {
+        if (!isBatchRewriteVoided()) {
+            return resultSetHoldability != 0 ? resultSetHoldability : connection.getHoldability();
+        }
         return getDelegate("getResultSetHoldability()").getResultSetHoldability();
     }
 
@@ -937,13 +1124,7 @@ public class CockroachPreparedBatchStatement extends WrapperSupport<PreparedStat
             return getDelegate().executeLargeBatch();
         }
 
-        createBatchArrayStatementDelegate();
-
-        long rowCount = getDelegate().executeLargeUpdate();
-
-        long[] rv = new long[(int) rowCount];
-        Arrays.fill(rv, SUCCESS_NO_INFO);
-        return rv;
+        return executeBatchArrays();
     }
 
     @Override
@@ -67,6 +67,65 @@ public enum CockroachProperty {
                     + "Applicable only when 'retryTransientErrors' is true.",
             new String[] {"5s", "7s", "15s", "30s", "1m"}),
 
+    RETRY_MAX_HISTORY_SIZE(
+            "retryMaxHistorySize",
+            "0",
+            false,
+            "Maximum number of method executions recorded per transaction for replay on retry, including "
+                    + "result set reads. Past this limit, the 'retryHistoryOverflow' action applies. "
+                    + "A value of 0 means no limit. Applicable only when 'retryTransientErrors' is true.",
+            new String[] {"0", "10000", "100000", "1000000"}),
+
+    RETRY_MAX_HISTORY_BYTES(
+            "retryMaxHistoryBytes",
+            "0",
+            false,
+            "Approximate maximum size in bytes of the method executions recorded per transaction for replay "
+                    + "on retry, including argument values. Past this limit, the 'retryHistoryOverflow' action applies. "
+                    + "A value of 0 means no limit. Applicable only when 'retryTransientErrors' is true.",
+            new String[] {"0", "16777216", "67108864", "268435456"}),
+
+    RETRY_MODE(
+            "retryMode",
+            "reconnect",
+            false,
+            "Mode for rolling back and replaying a transaction on a transient error. With 'reconnect', the "
+                    + "connection is closed and the history replayed on a new connection. With 'savepoint', the "
+                    + "transaction is rolled back to a 'cockroach_restart' savepoint set before the first statement "
+                    + "execution and the history replayed on the same connection. Connection errors always imply "
+                    + "a new connection.",
+            new String[] {"reconnect", "savepoint"}),
+
+    RETRY_STANDBY_CONNECTIONS(
+            "retryStandbyConnections",
+            "0",
+            false,
+            "Number of pre-opened standby connections kept per URL, connection properties and size for replacing "
+                    + "connections on retry. A standby connection is taken instantly on reconnect while the pool is "
+                    + "refilled in the background, and a connection is also opened during the retry backoff delay. "
+                    + "A value of 0 disables standby connections.",
+            new String[] {"0", "1", "2", "4"}),
+
+    RETRY_HISTORY_OVERFLOW(
+            "retryHistoryOverflow",
+            "fail",
+            false,
+            "Action when the recorded transaction history exceeds 'retryMaxHistorySize' or 'retryMaxHistoryBytes'. "
+                    + "With 'fail', recording stops and the transaction is marked non-replayable, surfacing a "
+                    + "transient error rather than retrying. With 'checksum', result set reads are no longer recorded "
+                    + "individually but as a checksum of each row read, compared on replay. Other method executions "
+                    + "past the limit mark the transaction non-replayable.",
+            new String[] {"fail", "checksum"}),
+
+    RETRY_CHECKSUM_ALGORITHM(
+            "retryChecksumAlgorithm",
+            "murmur3",
+            false,
+            "Checksum algorithm used for comparing the results read in a transaction with the results read "
+                    + "when replaying the transaction on retry. Either 'murmur3' for a fast non-cryptographic 128-bit "
+                    + "MurmurHash3, 'sha256' or any other message digest algorithm name supported by the JVM.",
+            new String[] {"murmur3", "sha256"}),
+
     IMPLICIT_SELECT_FOR_UPDATE(
             "implicitSelectForUpdate",
             Boolean.FALSE.toString(),
@@ -78,6 +137,40 @@ public enum CockroachProperty {
                     + "a queue based on when they tried to read the value of the locked rows.",
             new String[] {"true", "false"}),
 
+    IMPLICIT_FOLLOWER_READS(
+            "implicitFollowerReads",
+            Boolean.FALSE.toString(),
+            false,
+            "The CockroachDB JDBC driver will automatically add an 'AS OF SYSTEM TIME' clause to qualified SELECT "
+                    + "statements on read-only connections in auto-commit mode, using the followerReadTimestamp "
+                    + "expression. This allows reads to be served by the closest replica rather than the leaseholder.",
+            new String[] {"true", "false"}),
+
+    FOLLOWER_READ_TIMESTAMP(
+            "followerReadTimestamp",
+            "follower_read_timestamp()",
+            false,
+            "The timestamp expression used for implicit follower reads, for example an exact staleness with "
+                    + "'follower_read_timestamp()' or '-10s', or a bounded staleness with 'with_max_staleness('10s')'.",
+            new String[] {"follower_read_timestamp()", "with_max_staleness('10s')", "'-10s'"}),
+
+    QUERY_PROCESSORS(
+            "queryProcessors",
+            "",
+            false,
+            "Comma separated list of class names implementing 'io.cockroachdb.jdbc.rewrite.QueryProcessor' "
+                    + "to apply to SQL statements, in the given order after any implicit select-for-update "
+                    + "processor. One instance of each is created for each JDBC connection.",
+            new String[] {}),
+
+    QUERY_PROCESSOR_CACHE_SIZE(
+            "queryProcessorCacheSize",
+            "256",
+            false,
+            "Maximum number of distinct SQL statements for which the final SQL produced by the query "
+                    + "processors is cached, per connection. A value of 0 disables caching.",
+            new String[] {"0", "128", "256", "512", "1024"}),
+
     USE_COCKROACH_METADATA(
             "useCockroachMetadata",
             Boolean.FALSE.toString(),
@@ -97,7 +190,8 @@ public enum CockroachProperty {
             "reWriteBatchedInserts",
             Boolean.FALSE.toString(),
             false,
-            "Enable optimization to rewrite batch INSERT statements to use arrays.",
+            "Enable optimization to rewrite batch INSERT statements to use arrays. A batch with "
+                    + "ON CONFLICT DO UPDATE must not contain the same conflict key twice.",
             new String[] {"true", "false"}),
 
     REWRITE_BATCHED_UPSERTS(
@@ -112,7 +206,120 @@ public enum CockroachProperty {
             Boolean.FALSE.toString(),
             false,
             "Enable optimization to rewrite batch UPDATE statements to use arrays.",
-            new String[] {"true", "false"})
+            new String[] {"true", "false"}),
+
+    REWRITE_BATCHED_DELETES(
+            "reWriteBatchedDeletes",
+            Boolean.FALSE.toString(),
+            false,
+            "Enable optimization to rewrite batch DELETE statements to use arrays.",
+            new String[] {"true", "false"}),
+
+    REWRITE_BATCH_CACHE_SIZE(
+            "reWriteBatchCacheSize",
+            "512",
+            false,
+            "Maximum number of batch rewrite plans (qualification outcome and rewritten array statement) "
+                    + "cached by the driver, keyed by SQL statement text. The cache is shared by all connections "
+                    + "configured with the same size and avoids parsing the same DML statements over and over again. A value of 0 disables caching.",
+            new String[] {"0", "128", "256", "512", "1024"}),
+
+    REWRITE_BATCH_MAX_ROWS(
+            "reWriteBatchMaxRows",
+            "0",
+            false,
+            "Maximum number of rows bound to a single rewritten batch array statement. Larger batches "
+                    + "are split into chunks executed one after another using the same prepared statement. "
+                    + "A value of 0 means no limit.",
+            new String[] {"0", "1024", "4096", "16384", "65536"}),
+
+    REWRITE_BATCH_MAX_BYTES(
+            "reWriteBatchMaxBytes",
+            "0",
+            false,
+            "Approximate maximum size in bytes of the parameter values bound to a single rewritten batch "
+                    + "array statement. Larger batches are split into chunks executed one after another using "
+                    + "the same prepared statement. A value of 0 means no limit.",
+            new String[] {"0", "1048576", "4194304", "16777216"}),
+
+    REWRITE_BATCH_PIPELINING(
+            "reWriteBatchPipelining",
+            Boolean.FALSE.toString(),
+            false,
+            "Enable creating the arrays for the next chunk of a rewritten batch in a background thread "
+                    + "while the current chunk executes. At most one chunk is prepared ahead. Only applicable "
+                    + "when a batch is split into chunks by reWriteBatchMaxRows or reWriteBatchMaxBytes.",
+            new String[] {"true", "false"}),
+
+    REWRITE_BATCH_UPDATE_COUNTS(
+            "reWriteBatchUpdateCounts",
+            Boolean.FALSE.toString(),
+            false,
+            "Enable accurate per-row update counts for rewritten batches. UPDATE statements are rewritten "
+                    + "to also pass the batch ordinal of each row and return the ordinals of the updated rows, "
+                    + "which are counted per row. DELETE statements are rewritten likewise. INSERT and UPSERT statements report one affected row each.",
+            new String[] {"true", "false"}),
+
+    REWRITE_STATEMENT_BATCHES(
+            "reWriteStatementBatches",
+            Boolean.FALSE.toString(),
+            false,
+            "Enable coalescing of single-row INSERT and UPSERT statements with literal values added "
+                    + "through Statement.addBatch(String) into multi-row VALUES statements. Consecutive "
+                    + "statements for the same table and column list are coalesced.",
+            new String[] {"true", "false"}),
+
+    REWRITE_STATEMENT_BATCH_MAX_BYTES(
+            "reWriteStatementBatchMaxBytes",
+            "262144",
+            false,
+            "Approximate maximum size in bytes of a coalesced multi-row VALUES statement. Larger batches "
+                    + "are split into multiple statements. A value of 0 means no limit.",
+            new String[] {"0", "65536", "262144", "1048576"}),
+
+    TOPOLOGY_DISCOVERY(
+            "topologyDiscovery",
+            Boolean.FALSE.toString(),
+            false,
+            "Discover the live nodes of the cluster through the hosts in the URL and balance new connections "
+                    + "across these nodes in round-robin order, preferring nodes in the 'clientLocality'. When "
+                    + "disabled, multi-host URLs are passed as-is to the PostgreSQL driver.",
+            new String[] {"true", "false"}),
+
+    TOPOLOGY_REFRESH_INTERVAL(
+            "topologyRefreshInterval",
+            "60s",
+            false,
+            "Interval for refreshing the discovered cluster topology in the format of a duration expression "
+                    + "(like '30s'). Applicable only when 'topologyDiscovery' is true.",
+            new String[] {"10s", "30s", "60s", "5m"}),
+
+    CLIENT_LOCALITY(
+            "clientLocality",
+            "",
+            false,
+            "Locality of the client in the form of ordered tiers (like 'region=us-east1,zone=us-east1-b'). "
+                    + "Nodes sharing the most leading tiers are preferred for new connections. Applicable only "
+                    + "when 'topologyDiscovery' is true.",
+            new String[] {}),
+
+    CIRCUIT_BREAKER_FAILURE_THRESHOLD(
+            "circuitBreakerFailureThreshold",
+            "0",
+            false,
+            "Number of consecutive connect failures to a node that opens the node's circuit breaker, "
+                    + "failing subsequent connects to that node fast until the open duration has elapsed. "
+                    + "Applies to new connections and retry reconnects. Zero (0) disables circuit breakers. "
+                    + "Node health is shared by connections with the same circuit breaker settings.",
+            new String[] {"0", "3", "5", "10"}),
+
+    CIRCUIT_BREAKER_OPEN_DURATION(
+            "circuitBreakerOpenDuration",
+            "30s",
+            false,
+            "Duration a node's circuit breaker stays open before admitting a single trial connect "
+                    + "(like '30s'). Applicable only when 'circuitBreakerFailureThreshold' is positive.",
+            new String[] {"5s", "10s", "30s", "60s"})
     ;
 
     private final String name;
@@ -1,10 +1,14 @@
 package io.cockroachdb.jdbc;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,6 +16,7 @@ import org.postgresql.util.PSQLState;
 
 import io.cockroachdb.jdbc.rewrite.QueryProcessor;
 import io.cockroachdb.jdbc.rewrite.SelectForUpdateProcessor;
+import io.cockroachdb.jdbc.rewrite.ValuesStatement;
 import io.cockroachdb.jdbc.util.WrapperSupport;
 
 /**
@@ -26,6 +31,8 @@ public class CockroachStatement extends WrapperSupport<Statement> implements Sta
 
     private final ConnectionSettings connectionSettings;
 
+    private final List<BatchEntry> batchEntries = new ArrayList<>();
+
     public CockroachStatement(Statement delegate, ConnectionSettings connectionSettings) {
         super(delegate);
         this.connectionSettings = connectionSettings;
@@ -113,28 +120,13 @@ public class CockroachStatement extends WrapperSupport<Statement> implements Sta
             }
             boolean onOff = Boolean.parseBoolean(matcher.group(1));
 
-            if (onOff) {
-                connectionSettings.setQueryProcessor(new SelectForUpdateProcessor() {
-                    @Override
-                    public boolean isTransactionScoped() {
-                        return true;
-                    }
-                });
-                getLogger().debug("Enabling implicit select-for-update for connection delegate [{}]", getConnection());
-            } else {
-                connectionSettings.setQueryProcessor(new QueryProcessor() {
-                    @Override
-                    public String processQuery(Connection connection, String query) {
-                        return query;
-                    }
-
-                    @Override
-                    public boolean isTransactionScoped() {
-                        return true;
-                    }
-                });
-                getLogger().debug("Disabling implicit select-for-update for connection delegate [{}]", getConnection());
-            }
+            // Overlay memoized by the connection chain, dropped on commit or rollback
+            connectionSettings.setTransactionQueryProcessor(connectionSettings.getQueryProcessorChain()
+                    .withOverride(SelectForUpdateProcessor.class,
+                            onOff ? SelectForUpdateProcessor.INSTANCE : QueryProcessor.PASS_THROUGH));
+            getLogger().debug("{} implicit select-for-update for connection delegate [{}]",
+                    onOff ? "Enabling" : "Disabling", getConnection());
+
             // Don't pass statement to DB since it's not recognized
             return true;
         }
@@ -189,17 +181,124 @@ public class CockroachStatement extends WrapperSupport<Statement> implements Sta
 
     @Override
     public void addBatch(String sql) throws SQLException {
-        getDelegate().addBatch(sql);
+        if (connectionSettings.isRewriteStatementBatches()) {
+            batchEntries.add(new BatchEntry(sql, ValuesStatement.parse(sql)));
+        } else {
+            getDelegate().addBatch(sql);
+        }
     }
 
     @Override
     public void clearBatch() throws SQLException {
+        batchEntries.clear();
         getDelegate().clearBatch();
     }
 
     @Override
     public int[] executeBatch() throws SQLException {
-        return getDelegate().executeBatch();
+        if (batchEntries.isEmpty()) {
+            return getDelegate().executeBatch();
+        }
+        return Arrays.stream(executeCoalescedBatch()).mapToInt(Math::toIntExact).toArray();
+    }
+
+    /**
+     * Execute the batch entries by coalescing consecutive compatible single-row VALUES statements
+     * into multi-row statements, capped by the statement byte budget. The update counts of each
+     * executed statement are mapped back to the original batch entries.
+     *
+     * @return update counts for each batch entry
+     * @throws SQLException on execution failure
+     */
+    private long[] executeCoalescedBatch() throws SQLException {
+        final List<BatchEntry> entries = new ArrayList<>(batchEntries);
+        batchEntries.clear();
+
+        final long maxBytes = connectionSettings.getRewriteStatementBatchMaxBytes();
+        final List<Integer> groupSizes = new ArrayList<>();
+
+        int from = 0;
+        while (from < entries.size()) {
+            final BatchEntry first = entries.get(from);
+            if (first.values == null) {
+                getDelegate().addBatch(first.sql);
+                groupSizes.add(1);
+                from++;
+                continue;
+            }
+
+            final StringBuilder sb = new StringBuilder()
+                    .append(first.values.getHead())
+                    .append(" VALUES ")
+                    .append(first.values.getValues());
+            final String tail = first.values.getTail().isEmpty() ? "" : " " + first.values.getTail();
+
+            int to = from + 1;
+            while (to < entries.size()) {
+                ValuesStatement next = entries.get(to).values;
+                if (next == null || !next.isCompatible(first.values)) {
+                    break;
+                }
+                if (maxBytes > 0 && sb.length() + next.getValues().length() + tail.length() + 2 > maxBytes) {
+                    break;
+                }
+                sb.append(", ").append(next.getValues());
+                to++;
+            }
+            sb.append(tail);
+
+            getDelegate().addBatch(sb.toString());
+            groupSizes.add(to - from);
+            from = to;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Coalesced {} batch statements into {}", entries.size(), groupSizes.size());
+        }
+
+        try {
+            return mapUpdateCounts(getDelegate().executeLargeBatch(), groupSizes, entries.size());
+        } catch (BatchUpdateException e) {
+            long[] updateCounts = mapUpdateCounts(e.getLargeUpdateCounts(), groupSizes, entries.size());
+            throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(),
+                    updateCounts, e);
+        }
+    }
+
+    private static long[] mapUpdateCounts(long[] statementCounts, List<Integer> groupSizes, int entryCount) {
+        if (statementCounts == null) {
+            return new long[0];
+        }
+
+        final long[] entryCounts = new long[entryCount];
+        int n = 0;
+        for (int i = 0; i < statementCounts.length && i < groupSizes.size(); i++) {
+            final int groupSize = groupSizes.get(i);
+            final long count = statementCounts[i];
+            final long rowCount;
+            if (groupSize == 1 || count == Statement.EXECUTE_FAILED) {
+                rowCount = count;
+            } else if (count == groupSize) {
+                rowCount = 1;
+            } else {
+                rowCount = Statement.SUCCESS_NO_INFO;
+            }
+            Arrays.fill(entryCounts, n, n + groupSize, rowCount);
+            n += groupSize;
+        }
+
+        return n == entryCount ? entryCounts : Arrays.copyOf(entryCounts, n);
+    }
+
+    private static class BatchEntry {
+        private final String sql;
+
+        private final ValuesStatement values;
+
+        BatchEntry(String sql, ValuesStatement values) {
+            this.sql = sql;
+            this.values = values;
+        }
     }
 
     @Override
@@ -294,7 +393,10 @@ public class CockroachStatement extends WrapperSupport<Statement> implements Sta
 
     @Override
     public long[] executeLargeBatch() throws SQLException {
-        return getDelegate().executeLargeBatch();
+        if (batchEntries.isEmpty()) {
+            return getDelegate().executeLargeBatch();
+        }
+        return executeCoalescedBatch();
     }
 
     @Override
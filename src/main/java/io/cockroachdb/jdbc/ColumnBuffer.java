@@ -0,0 +1,538 @@
+package io.cockroachdb.jdbc;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.postgresql.PGConnection;
+
+/**
+ * A growable, column-oriented buffer of batch parameter values for a single parameter index,
+ * used to bind SQL arrays in batch rewrites. Primitive columns are backed by primitive arrays
+ * and a null bitmap, and are passed to pgjdbc without boxing when there are no nulls. Columns
+ * degrade to a generic object buffer if a subsequent row binds an incompatible type.
+ *
+ * @author Kai Niemi
+ */
+abstract class ColumnBuffer {
+    static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Create an empty column buffer suited for the type of the given (first row) parameter.
+     *
+     * @param slot the parameter slot
+     * @return a new column buffer
+     */
+    static ColumnBuffer forParameter(ParameterSlot slot) {
+        final String typeName = slot.typeName;
+
+        ParameterSlot.Kind kind = slot.kind;
+        if (kind == ParameterSlot.Kind.NULL) {
+            switch (slot.sqlType) {
+                case Types.BIGINT:
+                    kind = ParameterSlot.Kind.LONG;
+                    break;
+                case Types.INTEGER:
+                    kind = ParameterSlot.Kind.INT;
+                    break;
+                case Types.DOUBLE:
+                    kind = ParameterSlot.Kind.DOUBLE;
+                    break;
+                case Types.BOOLEAN:
+                    kind = ParameterSlot.Kind.BOOLEAN;
+                    break;
+                case Types.VARCHAR:
+                    kind = ParameterSlot.Kind.STRING;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        switch (kind) {
+            case LONG:
+                return new LongColumn(typeName);
+            case INT:
+                return new IntColumn(typeName);
+            case DOUBLE:
+                return new DoubleColumn(typeName);
+            case BOOLEAN:
+                return new BooleanColumn(typeName);
+            case STRING:
+            case NSTRING:
+                return new StringColumn(typeName);
+            case BYTES:
+                return new BytesColumn(typeName);
+            default:
+                return new ObjectColumn(typeName);
+        }
+    }
+
+    static int grow(int capacity, int minCapacity) {
+        int newCapacity = Math.max(INITIAL_CAPACITY, capacity << 1);
+        return Math.max(newCapacity, minCapacity);
+    }
+
+    protected final String typeName;
+
+    protected int size;
+
+    ColumnBuffer(String typeName) {
+        this.typeName = typeName;
+    }
+
+    String getTypeName() {
+        return typeName;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Append a parameter value, possibly converting this column to a generic
+     * object column if the value type is incompatible.
+     *
+     * @param slot the parameter slot
+     * @return this column or the replacement column
+     */
+    final ColumnBuffer add(ParameterSlot slot) {
+        if (tryAdd(slot)) {
+            return this;
+        }
+        ObjectColumn objectColumn = new ObjectColumn(typeName, size + 1);
+        for (int i = 0; i < size; i++) {
+            objectColumn.addElement(elementAt(i));
+        }
+        objectColumn.addElement(slot.toElement());
+        return objectColumn;
+    }
+
+    /**
+     * @param slot the parameter slot
+     * @return true if added, false if incompatible with the column type
+     */
+    protected abstract boolean tryAdd(ParameterSlot slot);
+
+    /**
+     * @param index the row index
+     * @return the boxed value at given row index
+     */
+    protected abstract Object elementAt(int index);
+
+    /**
+     * @param index the row index
+     * @return approximate encoded size in bytes of the value at given row index
+     */
+    protected abstract int estimateSize(int index);
+
+    /**
+     * Create a SQL array of buffered values in a given row range.
+     *
+     * @param connection   the connection
+     * @param pgConnection the unwrapped pgjdbc connection or null if not available
+     * @param from         the first row index, inclusive
+     * @param to           the last row index, exclusive
+     * @return the SQL array
+     * @throws SQLException on array creation failure
+     */
+    abstract Array createArray(Connection connection, PGConnection pgConnection, int from, int to)
+            throws SQLException;
+
+    /**
+     * Create a SQL array of batch ordinals (row indexes) in a given row range.
+     *
+     * @param connection   the connection
+     * @param pgConnection the unwrapped pgjdbc connection or null if not available
+     * @param from         the first row index, inclusive
+     * @param to           the last row index, exclusive
+     * @return the SQL array
+     * @throws SQLException on array creation failure
+     */
+    static Array createOrdinalArray(Connection connection, PGConnection pgConnection, int from, int to)
+            throws SQLException {
+        final String typeName = JDBCType.INTEGER.getName();
+        if (pgConnection != null) {
+            int[] ordinals = new int[to - from];
+            for (int i = from; i < to; i++) {
+                ordinals[i - from] = i;
+            }
+            return pgConnection.createArrayOf(typeName, ordinals);
+        }
+        Object[] ordinals = new Integer[to - from];
+        for (int i = from; i < to; i++) {
+            ordinals[i - from] = i;
+        }
+        return connection.createArrayOf(typeName, ordinals);
+    }
+
+    protected Object[] toObjectArray(int from, int to) {
+        Object[] elements = new Object[to - from];
+        for (int i = from; i < to; i++) {
+            elements[i - from] = elementAt(i);
+        }
+        return elements;
+    }
+
+    /**
+     * Base type for primitive columns with a lazily allocated null bitmap.
+     */
+    abstract static class PrimitiveColumn extends ColumnBuffer {
+        private long[] nulls;
+
+        PrimitiveColumn(String typeName) {
+            super(typeName);
+        }
+
+        protected abstract void ensureCapacity(int minCapacity);
+
+        protected final boolean addNull() {
+            ensureCapacity(size + 1);
+            final int word = size >>> 6;
+            if (nulls == null) {
+                nulls = new long[word + 1];
+            } else if (nulls.length <= word) {
+                nulls = Arrays.copyOf(nulls, grow(nulls.length, word + 1));
+            }
+            nulls[word] |= 1L << size;
+            size++;
+            return true;
+        }
+
+        protected final boolean isNull(int index) {
+            return nulls != null
+                    && (index >>> 6) < nulls.length
+                    && (nulls[index >>> 6] & (1L << index)) != 0;
+        }
+
+        protected final boolean hasNulls(int from, int to) {
+            if (nulls != null) {
+                for (int i = from; i < to; i++) {
+                    if (isNull(i)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected final Object elementAt(int index) {
+            return isNull(index) ? null : valueAt(index);
+        }
+
+        protected abstract Object valueAt(int index);
+
+        /**
+         * @param from the first row index, inclusive
+         * @param to   the last row index, exclusive
+         * @return the primitive values in given row range
+         */
+        protected abstract Object toPrimitiveArray(int from, int to);
+
+        @Override
+        Array createArray(Connection connection, PGConnection pgConnection, int from, int to)
+                throws SQLException {
+            if (pgConnection != null && !hasNulls(from, to)) {
+                return pgConnection.createArrayOf(typeName, toPrimitiveArray(from, to));
+            }
+            return connection.createArrayOf(typeName, toObjectArray(from, to));
+        }
+    }
+
+    static final class LongColumn extends PrimitiveColumn {
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        LongColumn(String typeName) {
+            super(typeName);
+        }
+
+        @Override
+        protected void ensureCapacity(int minCapacity) {
+            if (values.length < minCapacity) {
+                values = Arrays.copyOf(values, grow(values.length, minCapacity));
+            }
+        }
+
+        @Override
+        protected boolean tryAdd(ParameterSlot slot) {
+            if (slot.isNull()) {
+                return addNull();
+            }
+            switch (slot.kind) {
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                    ensureCapacity(size + 1);
+                    values[size++] = slot.longValue;
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        protected int estimateSize(int index) {
+            return 8;
+        }
+
+        @Override
+        protected Object valueAt(int index) {
+            return values[index];
+        }
+
+        @Override
+        protected Object toPrimitiveArray(int from, int to) {
+            return from == 0 && to == values.length ? values : Arrays.copyOfRange(values, from, to);
+        }
+    }
+
+    static final class IntColumn extends PrimitiveColumn {
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        IntColumn(String typeName) {
+            super(typeName);
+        }
+
+        @Override
+        protected void ensureCapacity(int minCapacity) {
+            if (values.length < minCapacity) {
+                values = Arrays.copyOf(values, grow(values.length, minCapacity));
+            }
+        }
+
+        @Override
+        protected boolean tryAdd(ParameterSlot slot) {
+            if (slot.isNull()) {
+                return addNull();
+            }
+            switch (slot.kind) {
+                case BYTE:
+                case SHORT:
+                case INT:
+                    ensureCapacity(size + 1);
+                    values[size++] = (int) slot.longValue;
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        protected int estimateSize(int index) {
+            return 4;
+        }
+
+        @Override
+        protected Object valueAt(int index) {
+            return values[index];
+        }
+
+        @Override
+        protected Object toPrimitiveArray(int from, int to) {
+            return from == 0 && to == values.length ? values : Arrays.copyOfRange(values, from, to);
+        }
+    }
+
+    static final class DoubleColumn extends PrimitiveColumn {
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        DoubleColumn(String typeName) {
+            super(typeName);
+        }
+
+        @Override
+        protected void ensureCapacity(int minCapacity) {
+            if (values.length < minCapacity) {
+                values = Arrays.copyOf(values, grow(values.length, minCapacity));
+            }
+        }
+
+        @Override
+        protected boolean tryAdd(ParameterSlot slot) {
+            if (slot.isNull()) {
+                return addNull();
+            }
+            if (slot.kind == ParameterSlot.Kind.DOUBLE) {
+                ensureCapacity(size + 1);
+                values[size++] = slot.doubleValue;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected int estimateSize(int index) {
+            return 8;
+        }
+
+        @Override
+        protected Object valueAt(int index) {
+            return values[index];
+        }
+
+        @Override
+        protected Object toPrimitiveArray(int from, int to) {
+            return from == 0 && to == values.length ? values : Arrays.copyOfRange(values, from, to);
+        }
+    }
+
+    static final class BooleanColumn extends PrimitiveColumn {
+        private boolean[] values = new boolean[INITIAL_CAPACITY];
+
+        BooleanColumn(String typeName) {
+            super(typeName);
+        }
+
+        @Override
+        protected void ensureCapacity(int minCapacity) {
+            if (values.length < minCapacity) {
+                values = Arrays.copyOf(values, grow(values.length, minCapacity));
+            }
+        }
+
+        @Override
+        protected boolean tryAdd(ParameterSlot slot) {
+            if (slot.isNull()) {
+                return addNull();
+            }
+            if (slot.kind == ParameterSlot.Kind.BOOLEAN) {
+                ensureCapacity(size + 1);
+                values[size++] = slot.booleanValue;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected int estimateSize(int index) {
+            return 1;
+        }
+
+        @Override
+        protected Object valueAt(int index) {
+            return values[index];
+        }
+
+        @Override
+        protected Object toPrimitiveArray(int from, int to) {
+            return from == 0 && to == values.length ? values : Arrays.copyOfRange(values, from, to);
+        }
+    }
+
+    /**
+     * Base type for reference columns where nulls are stored as null elements.
+     */
+    abstract static class ReferenceColumn<T> extends ColumnBuffer {
+        protected T[] values;
+
+        ReferenceColumn(String typeName, T[] values) {
+            super(typeName);
+            this.values = values;
+        }
+
+        protected final void addElement(T value) {
+            if (values.length <= size) {
+                values = Arrays.copyOf(values, grow(values.length, size + 1));
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        protected final Object elementAt(int index) {
+            return values[index];
+        }
+
+        @Override
+        Array createArray(Connection connection, PGConnection pgConnection, int from, int to)
+                throws SQLException {
+            return connection.createArrayOf(typeName,
+                    from == 0 && to == values.length ? values : Arrays.copyOfRange(values, from, to));
+        }
+    }
+
+    static final class StringColumn extends ReferenceColumn<String> {
+        StringColumn(String typeName) {
+            super(typeName, new String[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        protected int estimateSize(int index) {
+            String value = values[index];
+            return value != null ? value.length() : 0;
+        }
+
+        @Override
+        protected boolean tryAdd(ParameterSlot slot) {
+            if (slot.isNull()) {
+                addElement(null);
+                return true;
+            }
+            if (slot.element instanceof String) {
+                addElement((String) slot.element);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static final class BytesColumn extends ReferenceColumn<byte[]> {
+        BytesColumn(String typeName) {
+            super(typeName, new byte[INITIAL_CAPACITY][]);
+        }
+
+        @Override
+        protected int estimateSize(int index) {
+            byte[] value = values[index];
+            return value != null ? value.length : 0;
+        }
+
+        @Override
+        protected boolean tryAdd(ParameterSlot slot) {
+            if (slot.isNull()) {
+                addElement(null);
+                return true;
+            }
+            if (slot.element instanceof byte[]) {
+                addElement((byte[]) slot.element);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static final class ObjectColumn extends ReferenceColumn<Object> {
+        ObjectColumn(String typeName) {
+            this(typeName, INITIAL_CAPACITY);
+        }
+
+        ObjectColumn(String typeName, int capacity) {
+            super(typeName, new Object[Math.max(INITIAL_CAPACITY, capacity)]);
+        }
+
+        @Override
+        protected boolean tryAdd(ParameterSlot slot) {
+            addElement(slot.toElement());
+            return true;
+        }
+
+        @Override
+        protected int estimateSize(int index) {
+            Object value = values[index];
+            if (value == null) {
+                return 0;
+            }
+            if (value instanceof String) {
+                return ((String) value).length();
+            }
+            if (value instanceof byte[]) {
+                return ((byte[]) value).length;
+            }
+            return 16;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.cockroachdb.jdbc;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.postgresql.util.PSQLState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cockroachdb.jdbc.util.Assert;
+import io.cockroachdb.jdbc.util.ResourceSupplier;
+
+/**
+ * A simple connection pool used by {@link CockroachDataSource} in pooling mode. Pooled connections
+ * are the full connection stack created by the driver, including any retry wrapper, such that
+ * URL parsing, connection settings and retry strategies are not rebuilt on each borrow.
+ * <p>
+ * Idle connections are kept in a lock-free transfer queue, where a returned connection is
+ * handed off directly to a waiting borrower if any. On return, only connection state changed
+ * through the {@link PooledConnection} handle is reset.
+ *
+ * @author Kai Niemi
+ */
+final class ConnectionPool implements Closeable {
+    /**
+     * Connections idle for less than this duration are not validated on borrow.
+     */
+    private static final long ALIVE_BYPASS_WINDOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    /**
+     * State of a pooled connection, retained across borrows.
+     */
+    static final class Entry {
+        final Connection connection;
+
+        boolean autoCommit;
+
+        Boolean readOnly;
+
+        Integer transactionIsolation;
+
+        String catalog;
+
+        String schema;
+
+        long lastAccessTime;
+
+        Entry(Connection connection, boolean autoCommit) {
+            this.connection = connection;
+            this.autoCommit = autoCommit;
+            this.lastAccessTime = System.nanoTime();
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final LinkedTransferQueue<Entry> idleConnections = new LinkedTransferQueue<>();
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    private final ResourceSupplier<Connection> connectionFactory;
+
+    private final int maxSize;
+
+    private final long connectionTimeout;
+
+    private final boolean autoCommit;
+
+    private volatile boolean closed;
+
+    /**
+     * @param connectionFactory factory of new connections in the given auto-commit mode
+     * @param maxSize           maximum number of connections, idle or in use
+     * @param connectionTimeout maximum time in millis to wait for a connection to become available
+     * @param autoCommit        the auto-commit mode of new connections, restored on return
+     */
+    ConnectionPool(ResourceSupplier<Connection> connectionFactory, int maxSize, long connectionTimeout,
+                   boolean autoCommit) {
+        Assert.notNull(connectionFactory, "connectionFactory is null");
+        Assert.isTrue(maxSize > 0, "maxSize must be > 0");
+        Assert.isTrue(connectionTimeout >= 0, "connectionTimeout must be >= 0");
+        this.connectionFactory = connectionFactory;
+        this.maxSize = maxSize;
+        this.connectionTimeout = connectionTimeout;
+        this.autoCommit = autoCommit;
+    }
+
+    int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Borrow an idle connection, or create a new connection if below the maximum pool size,
+     * or otherwise wait for a connection to be returned.
+     *
+     * @return a connection handle returning the connection to the pool on close
+     * @throws SQLException if the pool is closed, on timeout or on failure to create a connection
+     */
+    Connection borrow() throws SQLException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectionTimeout);
+
+        for (; ; ) {
+            if (closed) {
+                throw new SQLException("Connection pool is closed", PSQLState.CONNECTION_DOES_NOT_EXIST.getState());
+            }
+
+            Entry entry = idleConnections.poll();
+            if (entry == null) {
+                entry = tryCreate();
+            }
+            if (entry == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SQLTransientConnectionException("Connection not available after ["
+                            + connectionTimeout + "] ms with [" + totalConnections.get() + "] connections in use",
+                            PSQLState.CONNECTION_UNABLE_TO_CONNECT.getState());
+                }
+                try {
+                    entry = idleConnections.poll(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for connection",
+                            PSQLState.CONNECTION_UNABLE_TO_CONNECT.getState(), e);
+                }
+                if (entry == null) {
+                    continue;
+                }
+            }
+
+            if (isAlive(entry)) {
+                return new PooledConnection(this, entry);
+            }
+            discard(entry);
+        }
+    }
+
+    private Entry tryCreate() throws SQLException {
+        for (; ; ) {
+            int total = totalConnections.get();
+            if (total >= maxSize) {
+                return null;
+            }
+            if (totalConnections.compareAndSet(total, total + 1)) {
+                break;
+            }
+        }
+        try {
+            return new Entry(connectionFactory.get(), autoCommit);
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isAlive(Entry entry) {
+        try {
+            if (entry.connection.isClosed()) {
+                return false;
+            }
+            return System.nanoTime() - entry.lastAccessTime < ALIVE_BYPASS_WINDOW
+                    || entry.connection.isValid(VALIDATION_TIMEOUT);
+        } catch (SQLException e) {
+            logger.debug("Connection validation failed: {}", e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Return a connection to the pool after resetting changed state, or discard it on failure.
+     *
+     * @param entry the pool entry
+     */
+    void release(Entry entry) {
+        try {
+            reset(entry);
+        } catch (SQLException e) {
+            logger.warn("Discarding connection on failure to reset state: {}", e.toString());
+            discard(entry);
+            return;
+        }
+        if (closed) {
+            discard(entry);
+            return;
+        }
+        entry.lastAccessTime = System.nanoTime();
+        // Matched with a waiting borrower if any
+        idleConnections.offer(entry);
+    }
+
+    private void reset(Entry entry) throws SQLException {
+        Connection connection = entry.connection;
+        if (connection.isClosed()) {
+            throw new SQLException("Connection is closed", PSQLState.CONNECTION_DOES_NOT_EXIST.getState());
+        }
+        if (!entry.autoCommit) {
+            connection.rollback();
+        }
+        if (entry.autoCommit != autoCommit) {
+            connection.setAutoCommit(autoCommit);
+            entry.autoCommit = autoCommit;
+        }
+        if (entry.readOnly != null) {
+            connection.setReadOnly(entry.readOnly);
+            entry.readOnly = null;
+        }
+        if (entry.transactionIsolation != null) {
+            connection.setTransactionIsolation(entry.transactionIsolation);
+            entry.transactionIsolation = null;
+        }
+        if (entry.catalog != null) {
+            connection.setCatalog(entry.catalog);
+            entry.catalog = null;
+        }
+        if (entry.schema != null) {
+            connection.setSchema(entry.schema);
+            entry.schema = null;
+        }
+        connection.clearWarnings();
+    }
+
+    /**
+     * Close and remove a connection from the pool.
+     *
+     * @param entry the pool entry
+     */
+    void discard(Entry entry) {
+        totalConnections.decrementAndGet();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            logger.debug("Exception closing discarded connection: {}", e.toString());
+        }
+    }
+
+    /**
+     * Close all idle connections. Connections in use are closed when returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Entry entry;
+        while ((entry = idleConnections.poll()) != null) {
+            discard(entry);
+        }
+    }
+}
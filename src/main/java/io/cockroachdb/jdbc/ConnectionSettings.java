@@ -2,10 +2,15 @@ package io.cockroachdb.jdbc;
 
 import java.util.Optional;
 
+import io.cockroachdb.jdbc.rewrite.BatchRewriteCache;
 import io.cockroachdb.jdbc.rewrite.QueryProcessor;
+import io.cockroachdb.jdbc.rewrite.QueryProcessorChain;
+import io.cockroachdb.jdbc.retry.HistoryOverflow;
 import io.cockroachdb.jdbc.retry.MethodTraceLogger;
 import io.cockroachdb.jdbc.retry.RetryListener;
+import io.cockroachdb.jdbc.retry.RetryMode;
 import io.cockroachdb.jdbc.retry.RetryStrategy;
+import io.cockroachdb.jdbc.util.Checksum;
 
 /**
  * Value object for JDBC connection settings.
@@ -22,16 +27,46 @@ public class ConnectionSettings {
 
     private boolean rewriteBatchInserts;
 
+    private boolean rewriteBatchDeletes;
+
     private boolean rewriteBatchArrays;
 
+    private int rewriteBatchMaxRows;
+
+    private long rewriteBatchMaxBytes;
+
+    private boolean rewriteBatchPipelining;
+
+    private boolean rewriteBatchUpdateCounts;
+
+    private boolean rewriteStatementBatches;
+
+    private long rewriteStatementBatchMaxBytes;
+
+    private BatchRewriteCache batchRewriteCache = BatchRewriteCache.getSharedInstance();
+
     private QueryProcessor queryProcessor;
 
+    private QueryProcessorChain queryProcessorChain;
+
+    private volatile QueryProcessor transactionQueryProcessor;
+
     private RetryStrategy retryStrategy;
 
     private RetryListener retryListener;
 
     private MethodTraceLogger methodTraceLogger;
 
+    private int retryMaxHistorySize;
+
+    private long retryMaxHistoryBytes;
+
+    private RetryMode retryMode = RetryMode.RECONNECT;
+
+    private HistoryOverflow retryHistoryOverflow = HistoryOverflow.FAIL;
+
+    private String retryChecksumAlgorithm = Checksum.MURMUR3;
+
     public boolean isRewriteBatchUpdates() {
         return rewriteBatchUpdates;
     }
@@ -59,6 +94,15 @@ public class ConnectionSettings {
         return this;
     }
 
+    public boolean isRewriteBatchDeletes() {
+        return rewriteBatchDeletes;
+    }
+
+    public ConnectionSettings setRewriteBatchDeletes(boolean rewriteBatchDeletes) {
+        this.rewriteBatchDeletes = rewriteBatchDeletes;
+        return this;
+    }
+
     public boolean isRewriteBatchArrays() {
         return rewriteBatchArrays;
     }
@@ -68,6 +112,69 @@ public class ConnectionSettings {
         return this;
     }
 
+    public int getRewriteBatchMaxRows() {
+        return rewriteBatchMaxRows;
+    }
+
+    public ConnectionSettings setRewriteBatchMaxRows(int rewriteBatchMaxRows) {
+        this.rewriteBatchMaxRows = rewriteBatchMaxRows;
+        return this;
+    }
+
+    public long getRewriteBatchMaxBytes() {
+        return rewriteBatchMaxBytes;
+    }
+
+    public ConnectionSettings setRewriteBatchMaxBytes(long rewriteBatchMaxBytes) {
+        this.rewriteBatchMaxBytes = rewriteBatchMaxBytes;
+        return this;
+    }
+
+    public boolean isRewriteBatchPipelining() {
+        return rewriteBatchPipelining;
+    }
+
+    public ConnectionSettings setRewriteBatchPipelining(boolean rewriteBatchPipelining) {
+        this.rewriteBatchPipelining = rewriteBatchPipelining;
+        return this;
+    }
+
+    public boolean isRewriteBatchUpdateCounts() {
+        return rewriteBatchUpdateCounts;
+    }
+
+    public ConnectionSettings setRewriteBatchUpdateCounts(boolean rewriteBatchUpdateCounts) {
+        this.rewriteBatchUpdateCounts = rewriteBatchUpdateCounts;
+        return this;
+    }
+
+    public boolean isRewriteStatementBatches() {
+        return rewriteStatementBatches;
+    }
+
+    public ConnectionSettings setRewriteStatementBatches(boolean rewriteStatementBatches) {
+        this.rewriteStatementBatches = rewriteStatementBatches;
+        return this;
+    }
+
+    public long getRewriteStatementBatchMaxBytes() {
+        return rewriteStatementBatchMaxBytes;
+    }
+
+    public ConnectionSettings setRewriteStatementBatchMaxBytes(long rewriteStatementBatchMaxBytes) {
+        this.rewriteStatementBatchMaxBytes = rewriteStatementBatchMaxBytes;
+        return this;
+    }
+
+    public BatchRewriteCache getBatchRewriteCache() {
+        return batchRewriteCache;
+    }
+
+    public ConnectionSettings setBatchRewriteCache(BatchRewriteCache batchRewriteCache) {
+        this.batchRewriteCache = batchRewriteCache;
+        return this;
+    }
+
     public MethodTraceLogger getMethodTraceLogger() {
         return methodTraceLogger;
     }
@@ -85,12 +192,43 @@ public class ConnectionSettings {
         return this;
     }
 
+    /**
+     * @return the transaction-scoped query processor if set, otherwise the connection query processor
+     */
     public QueryProcessor getQueryProcessor() {
+        final QueryProcessor overlay = transactionQueryProcessor;
+        if (overlay != null) {
+            return overlay;
+        }
         return Optional.of(queryProcessor).get(); // NPE here if not set
     }
 
     public ConnectionSettings setQueryProcessor(QueryProcessor queryProcessor) {
         this.queryProcessor = queryProcessor;
+        this.queryProcessorChain = null;
+        this.transactionQueryProcessor = null;
+        return this;
+    }
+
+    /**
+     * @return the connection query processor as a chain, from which transaction-scoped overlays are derived
+     */
+    public QueryProcessorChain getQueryProcessorChain() {
+        if (queryProcessorChain == null) {
+            QueryProcessor processor = Optional.of(queryProcessor).get(); // NPE here if not set
+            queryProcessorChain = processor instanceof QueryProcessorChain
+                    ? (QueryProcessorChain) processor
+                    : QueryProcessorChain.of(processor);
+        }
+        return queryProcessorChain;
+    }
+
+    public QueryProcessor getTransactionQueryProcessor() {
+        return transactionQueryProcessor;
+    }
+
+    public ConnectionSettings setTransactionQueryProcessor(QueryProcessor transactionQueryProcessor) {
+        this.transactionQueryProcessor = transactionQueryProcessor;
         return this;
     }
 
@@ -111,4 +249,49 @@ public class ConnectionSettings {
         this.retryListener = retryListener;
         return this;
     }
+
+    public int getRetryMaxHistorySize() {
+        return retryMaxHistorySize;
+    }
+
+    public ConnectionSettings setRetryMaxHistorySize(int retryMaxHistorySize) {
+        this.retryMaxHistorySize = retryMaxHistorySize;
+        return this;
+    }
+
+    public long getRetryMaxHistoryBytes() {
+        return retryMaxHistoryBytes;
+    }
+
+    public ConnectionSettings setRetryMaxHistoryBytes(long retryMaxHistoryBytes) {
+        this.retryMaxHistoryBytes = retryMaxHistoryBytes;
+        return this;
+    }
+
+    public RetryMode getRetryMode() {
+        return retryMode;
+    }
+
+    public ConnectionSettings setRetryMode(RetryMode retryMode) {
+        this.retryMode = retryMode;
+        return this;
+    }
+
+    public HistoryOverflow getRetryHistoryOverflow() {
+        return retryHistoryOverflow;
+    }
+
+    public ConnectionSettings setRetryHistoryOverflow(HistoryOverflow retryHistoryOverflow) {
+        this.retryHistoryOverflow = retryHistoryOverflow;
+        return this;
+    }
+
+    public String getRetryChecksumAlgorithm() {
+        return retryChecksumAlgorithm;
+    }
+
+    public ConnectionSettings setRetryChecksumAlgorithm(String retryChecksumAlgorithm) {
+        this.retryChecksumAlgorithm = retryChecksumAlgorithm;
+        return this;
+    }
 }
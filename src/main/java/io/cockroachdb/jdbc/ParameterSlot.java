@@ -0,0 +1,277 @@
+package io.cockroachdb.jdbc;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A reusable, mutable record of a deferred parameter setter call for a given parameter index.
+ * Primitive values are kept unboxed and the setter is replayed through a switch on the
+ * setter kind, so recording a parameter doesn't allocate.
+ *
+ * @author Kai Niemi
+ */
+final class ParameterSlot {
+    enum Kind {
+        NULL(Types.NULL),
+        BOOLEAN(Types.BOOLEAN),
+        BYTE(Types.TINYINT),
+        SHORT(Types.SMALLINT),
+        INT(Types.INTEGER),
+        LONG(Types.BIGINT),
+        FLOAT(Types.REAL),
+        DOUBLE(Types.DOUBLE),
+        BIG_DECIMAL(Types.NUMERIC),
+        STRING(Types.VARCHAR),
+        NSTRING(Types.NCHAR),
+        BYTES(Types.LONGVARBINARY),
+        DATE(Types.DATE),
+        TIME(Types.TIME),
+        TIMESTAMP(Types.TIMESTAMP),
+        URL(Types.DATALINK),
+        SQLXML(Types.SQLXML),
+        REF(Types.REF),
+        ARRAY(Types.ARRAY),
+        OBJECT(Types.JAVA_OBJECT),
+        OBJECT_TYPED(Types.OTHER);
+
+        private final int sqlType;
+
+        private final String typeName;
+
+        Kind(int sqlType) {
+            this.sqlType = sqlType;
+            this.typeName = JDBCType.valueOf(sqlType).getName();
+        }
+    }
+
+    Kind kind;
+
+    int sqlType;
+
+    String typeName;
+
+    long longValue;
+
+    double doubleValue;
+
+    boolean booleanValue;
+
+    /**
+     * Reference value passed to the setter, used for replay.
+     */
+    Object value;
+
+    /**
+     * Array element value, if different from the setter value.
+     */
+    Object element;
+
+    boolean isSet() {
+        return kind != null;
+    }
+
+    boolean isNull() {
+        return kind == Kind.NULL || (element == null && !isPrimitive());
+    }
+
+    boolean isPrimitive() {
+        switch (kind) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    void clear() {
+        kind = null;
+        typeName = null;
+        value = null;
+        element = null;
+    }
+
+    void setNull(int sqlType) {
+        set(Kind.NULL, null, null);
+        this.sqlType = sqlType;
+        this.typeName = JDBCType.valueOf(sqlType).getName();
+        if (sqlType == Types.OTHER) {
+            this.typeName = Kind.STRING.typeName;
+        }
+    }
+
+    void setBoolean(boolean x) {
+        set(Kind.BOOLEAN, null, null);
+        this.booleanValue = x;
+    }
+
+    void setLong(Kind kind, long x) {
+        set(kind, null, null);
+        this.longValue = x;
+    }
+
+    void setDouble(Kind kind, double x) {
+        set(kind, null, null);
+        this.doubleValue = x;
+    }
+
+    void setObject(Kind kind, Object x) {
+        set(kind, x, x);
+    }
+
+    void setObject(Kind kind, Object x, Object element) {
+        set(kind, x, element);
+    }
+
+    void setObject(Kind kind, Object x, Object element, String typeName) {
+        set(kind, x, element);
+        this.typeName = typeName;
+    }
+
+    void setObject(Object x, int targetSqlType) {
+        set(Kind.OBJECT_TYPED, x, x);
+        this.sqlType = targetSqlType;
+        this.typeName = JDBCType.valueOf(targetSqlType).getName();
+
+        // Attempt type qualification / cast
+        if (targetSqlType == Types.OTHER && x != null) {
+            try {
+                // OTHER usually denotes a UUID so try that first
+                this.element = UUID.fromString(Objects.toString(x));
+                this.typeName = "UUID";
+            } catch (IllegalArgumentException e) {
+                // Something else, possibly an enum which will likely fail later unless
+                // an implicit type cast exits (not supported in CockroachDB since 25.1).
+                // Ex: CREATE CAST (varchar AS order_status) WITH INOUT AS IMPLICIT;
+                this.element = Objects.toString(x);
+                this.typeName = Kind.STRING.typeName;
+            }
+        }
+    }
+
+    private void set(Kind kind, Object value, Object element) {
+        this.kind = kind;
+        this.sqlType = kind.sqlType;
+        this.typeName = kind.typeName;
+        this.value = value;
+        this.element = element;
+    }
+
+    /**
+     * @return the array element value, boxed if primitive
+     */
+    Object toElement() {
+        switch (kind) {
+            case BOOLEAN:
+                return booleanValue;
+            case BYTE:
+                return (byte) longValue;
+            case SHORT:
+                return (short) longValue;
+            case INT:
+                return (int) longValue;
+            case LONG:
+                return longValue;
+            case FLOAT:
+                return (float) doubleValue;
+            case DOUBLE:
+                return doubleValue;
+            default:
+                return element;
+        }
+    }
+
+    /**
+     * Replay the recorded setter call against a prepared statement.
+     *
+     * @param ps             the target statement
+     * @param parameterIndex the parameter index (1-based)
+     * @throws SQLException on setter failure
+     */
+    void replay(PreparedStatement ps, int parameterIndex) throws SQLException {
+        switch (kind) {
+            case NULL:
+                ps.setNull(parameterIndex, sqlType);
+                break;
+            case BOOLEAN:
+                ps.setBoolean(parameterIndex, booleanValue);
+                break;
+            case BYTE:
+                ps.setByte(parameterIndex, (byte) longValue);
+                break;
+            case SHORT:
+                ps.setShort(parameterIndex, (short) longValue);
+                break;
+            case INT:
+                ps.setInt(parameterIndex, (int) longValue);
+                break;
+            case LONG:
+                ps.setLong(parameterIndex, longValue);
+                break;
+            case FLOAT:
+                ps.setFloat(parameterIndex, (float) doubleValue);
+                break;
+            case DOUBLE:
+                ps.setDouble(parameterIndex, doubleValue);
+                break;
+            case BIG_DECIMAL:
+                ps.setBigDecimal(parameterIndex, (BigDecimal) value);
+                break;
+            case STRING:
+                ps.setString(parameterIndex, (String) value);
+                break;
+            case NSTRING:
+                ps.setNString(parameterIndex, (String) value);
+                break;
+            case BYTES:
+                ps.setBytes(parameterIndex, (byte[]) value);
+                break;
+            case DATE:
+                ps.setDate(parameterIndex, (Date) value);
+                break;
+            case TIME:
+                ps.setTime(parameterIndex, (Time) value);
+                break;
+            case TIMESTAMP:
+                ps.setTimestamp(parameterIndex, (Timestamp) value);
+                break;
+            case URL:
+                ps.setURL(parameterIndex, (URL) value);
+                break;
+            case SQLXML:
+                ps.setSQLXML(parameterIndex, (SQLXML) value);
+                break;
+            case REF:
+                ps.setRef(parameterIndex, (Ref) value);
+                break;
+            case ARRAY:
+                ps.setArray(parameterIndex, (Array) value);
+                break;
+            case OBJECT:
+                ps.setObject(parameterIndex, value);
+                break;
+            case OBJECT_TYPED:
+                ps.setObject(parameterIndex, value, sqlType);
+                break;
+            default:
+                throw new IllegalStateException("Unknown setter kind: " + kind);
+        }
+    }
+}
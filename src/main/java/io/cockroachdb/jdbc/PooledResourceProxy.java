@@ -0,0 +1,102 @@
+package io.cockroachdb.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * An interceptor for statements, result sets and database metadata obtained through a
+ * {@link PooledConnection} handle. Navigating back from these resources yields the handle and the
+ * proxied statement rather than the pooled connection and its statements, such that the pooled
+ * connection can't be closed or used past the release of the handle. Unwrapping to types not
+ * implemented by the proxy is passed through to the delegate.
+ *
+ * @author Kai Niemi
+ */
+class PooledResourceProxy implements InvocationHandler {
+    static <T extends Statement> T proxyStatement(PooledConnection connection, Class<T> type, T delegate) {
+        return type.cast(Proxy.newProxyInstance(
+                PooledResourceProxy.class.getClassLoader(),
+                new Class[] {type},
+                new PooledResourceProxy(connection, delegate, null)));
+    }
+
+    static DatabaseMetaData proxyMetaData(PooledConnection connection, DatabaseMetaData delegate) {
+        return (DatabaseMetaData) Proxy.newProxyInstance(
+                PooledResourceProxy.class.getClassLoader(),
+                new Class[] {DatabaseMetaData.class},
+                new PooledResourceProxy(connection, delegate, null));
+    }
+
+    private static ResultSet proxyResultSet(PooledConnection connection, ResultSet delegate, Statement statement) {
+        return (ResultSet) Proxy.newProxyInstance(
+                PooledResourceProxy.class.getClassLoader(),
+                new Class[] {ResultSet.class},
+                new PooledResourceProxy(connection, delegate, statement));
+    }
+
+    private final PooledConnection connection;
+
+    private final Object delegate;
+
+    private final Statement statement;
+
+    private PooledResourceProxy(PooledConnection connection, Object delegate, Statement statement) {
+        this.connection = connection;
+        this.delegate = delegate;
+        this.statement = statement;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "toString":
+                return "PooledResourceProxy{delegate=" + delegate + "}";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "getConnection":
+                return connection;
+            case "getStatement":
+                if (delegate instanceof ResultSet) {
+                    return statement;
+                }
+                break;
+            case "unwrap":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+                break;
+            case "isWrapperFor":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return true;
+                }
+                break;
+            case "close":
+                if (delegate instanceof Statement) {
+                    connection.untrack((Statement) proxy);
+                }
+                break;
+            default:
+                break;
+        }
+
+        final Object result;
+        try {
+            result = method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+
+        if (result instanceof ResultSet && delegate instanceof Statement) {
+            return proxyResultSet(connection, (ResultSet) result, (Statement) proxy);
+        }
+        return result;
+    }
+}
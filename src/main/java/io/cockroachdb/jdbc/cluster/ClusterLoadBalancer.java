@@ -0,0 +1,247 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cockroachdb.jdbc.util.Assert;
+import io.cockroachdb.jdbc.util.ExceptionUtils;
+import io.cockroachdb.jdbc.util.ResourceSupplier;
+
+/**
+ * Client-side load balancer distributing new connections across the live nodes of a cluster in
+ * round-robin order. The topology is discovered through the seed hosts of the connection URL and
+ * refreshed periodically through a seed connection supplied by the caller, such that no connection
+ * credentials are retained by the load balancer. Nodes sharing the most leading locality tiers with the client locality
+ * are preferred, falling back to all live nodes if there are no matches.
+ * <p>
+ * If discovery fails, the last known topology is used or otherwise the seed URL as-is.
+ * <p>
+ * If a {@link NodeHealthRegistry} is set, nodes with an open circuit breaker are skipped in favor of
+ * the next available preferred node, then any other available live node.
+ *
+ * @author Kai Niemi
+ */
+public class ClusterLoadBalancer {
+    /**
+     * Replace the host list of a JDBC URL with a single address.
+     *
+     * @param url     the JDBC URL in the form of 'jdbc:subprotocol://host1:port1,host2:port2/database?params'
+     * @param address the host and port
+     * @return the URL with the host list replaced
+     */
+    public static String replaceHosts(String url, String address) {
+        int start = hostsStart(url);
+        int end = hostsEnd(url, start);
+        return url.substring(0, start) + address + url.substring(end);
+    }
+
+    /**
+     * Extract the host list of a JDBC URL.
+     *
+     * @param url the JDBC URL in the form of 'jdbc:subprotocol://host1:port1,host2:port2/database?params'
+     * @return the host list, like 'host1:port1,host2:port2'
+     */
+    public static String hostsOf(String url) {
+        int start = hostsStart(url);
+        return url.substring(start, hostsEnd(url, start));
+    }
+
+    private static int hostsStart(String url) {
+        int start = url.indexOf("//");
+        Assert.isTrue(start >= 0, "Invalid URL: " + url);
+        return start + 2;
+    }
+
+    private static int hostsEnd(String url, int start) {
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+            end++;
+        }
+        return end;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final String seedURL;
+
+    private final TopologyProvider topologyProvider;
+
+    private final Map<String, String> clientLocality;
+
+    private final long refreshInterval;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private volatile List<Node> nodes = Collections.emptyList();
+
+    private volatile List<Node> preferredNodes = Collections.emptyList();
+
+    private volatile List<Node> liveNodes = Collections.emptyList();
+
+    private NodeHealthRegistry nodeHealthRegistry;
+
+    private volatile long lastRefreshTime;
+
+    private volatile boolean initialized;
+
+    /**
+     * @param seedURL          the delegate URL with the seed hosts
+     * @param topologyProvider the topology provider
+     * @param clientLocality   the client locality tiers, like 'region=us-east1,zone=us-east1-b', may be empty
+     * @param refreshInterval  the topology refresh interval
+     */
+    public ClusterLoadBalancer(String seedURL,
+                               TopologyProvider topologyProvider,
+                               String clientLocality,
+                               Duration refreshInterval) {
+        Assert.hasText(seedURL, "seedURL is empty");
+        Assert.notNull(topologyProvider, "topologyProvider is null");
+        Assert.isTrue(!refreshInterval.isNegative(), "refreshInterval must be >= 0");
+        this.seedURL = seedURL;
+        this.topologyProvider = topologyProvider;
+        this.clientLocality = Node.parseLocality(clientLocality);
+        this.refreshInterval = refreshInterval.toNanos();
+    }
+
+    public ClusterLoadBalancer setNodeHealthRegistry(NodeHealthRegistry nodeHealthRegistry) {
+        this.nodeHealthRegistry = nodeHealthRegistry;
+        return this;
+    }
+
+    /**
+     * @return the last discovered nodes, including non-live nodes
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the live nodes in the client locality, or all live nodes if none match
+     */
+    public List<Node> getPreferredNodes() {
+        return preferredNodes;
+    }
+
+    /**
+     * @param seedConnection supplier of connections to the seed hosts, used for discovery if the
+     *                       topology is stale
+     * @return the delegate URL for the next node, or the seed URL if no nodes are known
+     */
+    public String nextURL(ResourceSupplier<Connection> seedConnection) {
+        Node node = nextNode(seedConnection);
+        return node != null ? replaceHosts(seedURL, node.getAddress()) : seedURL;
+    }
+
+    /**
+     * @param seedConnection supplier of connections to the seed hosts, used for discovery if the
+     *                       topology is stale
+     * @return the next available node in round-robin order among the preferred nodes, or among other
+     * live nodes if no preferred node is available, or null if no nodes are known
+     */
+    public Node nextNode(ResourceSupplier<Connection> seedConnection) {
+        refreshIfStale(seedConnection);
+        List<Node> candidates = preferredNodes;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        int position = counter.getAndIncrement();
+        Node node = nextAvailable(candidates, position);
+        if (node == null) {
+            node = nextAvailable(liveNodes, position);
+        }
+        // If all nodes are unavailable, leave it to the circuit breaker to admit a trial connect
+        return node != null ? node : candidates.get(Math.floorMod(position, candidates.size()));
+    }
+
+    private Node nextAvailable(List<Node> candidates, int position) {
+        for (int i = 0; i < candidates.size(); i++) {
+            Node node = candidates.get(Math.floorMod(position + i, candidates.size()));
+            if (nodeHealthRegistry == null || nodeHealthRegistry.isAvailable(node.getAddress())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private void refreshIfStale(ResourceSupplier<Connection> seedConnection) {
+        if (!initialized) {
+            // Block until the first discovery has completed
+            refreshLock.lock();
+            try {
+                if (!initialized) {
+                    refreshQuietly(seedConnection);
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        } else if (System.nanoTime() - lastRefreshTime >= refreshInterval && refreshLock.tryLock()) {
+            // Others continue with the current topology
+            try {
+                if (System.nanoTime() - lastRefreshTime >= refreshInterval) {
+                    refreshQuietly(seedConnection);
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+    }
+
+    private void refreshQuietly(ResourceSupplier<Connection> seedConnection) {
+        try {
+            refresh(seedConnection);
+        } catch (SQLException e) {
+            logger.warn("Cluster topology discovery failed - using last known topology:\n{}",
+                    ExceptionUtils.toNestedString(e));
+        } finally {
+            lastRefreshTime = System.nanoTime();
+            initialized = true;
+        }
+    }
+
+    /**
+     * Discover the cluster topology and update the preferred nodes.
+     *
+     * @param seedConnection supplier of connections to the seed hosts
+     * @throws SQLException on discovery failure
+     */
+    public void refresh(ResourceSupplier<Connection> seedConnection) throws SQLException {
+        List<Node> discovered = topologyProvider.getNodes(seedConnection);
+
+        List<Node> preferred = new ArrayList<>();
+        List<Node> live = new ArrayList<>();
+        int bestMatch = 0;
+        for (Node node : discovered) {
+            if (!node.isLive()) {
+                continue;
+            }
+            live.add(node);
+            int match = node.localityMatch(clientLocality);
+            if (match > bestMatch) {
+                preferred.clear();
+                bestMatch = match;
+            }
+            if (match == bestMatch) {
+                preferred.add(node);
+            }
+        }
+
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(discovered));
+        this.preferredNodes = Collections.unmodifiableList(preferred);
+        this.liveNodes = Collections.unmodifiableList(live);
+
+        logger.debug("Discovered [{}] nodes with [{}] preferred nodes for locality {}: {}",
+                discovered.size(), preferred.size(), clientLocality, preferred);
+    }
+}
@@ -0,0 +1,47 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.cockroachdb.jdbc.util.ResourceSupplier;
+
+/**
+ * Topology provider discovering nodes, their SQL addresses and localities from the
+ * {@code crdb_internal.gossip_nodes} table.
+ *
+ * @author Kai Niemi
+ */
+public class CockroachTopologyProvider implements TopologyProvider {
+    private static final String QUERY = "SELECT node_id, sql_address, locality, is_live "
+            + "FROM crdb_internal.gossip_nodes ORDER BY node_id";
+
+    private static final int DEFAULT_PORT = 26257;
+
+    @Override
+    public List<Node> getNodes(ResourceSupplier<Connection> seedConnection) throws SQLException {
+        List<Node> nodes = new ArrayList<>();
+        try (Connection connection = seedConnection.get();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(QUERY)) {
+            while (rs.next()) {
+                String address = rs.getString(2);
+                int idx = address.lastIndexOf(':');
+                String host = address;
+                int port = DEFAULT_PORT;
+                if (idx > 0 && address.indexOf(']', idx) < 0) {
+                    host = address.substring(0, idx);
+                    port = Integer.parseInt(address.substring(idx + 1));
+                }
+                if (host.startsWith("[") && host.endsWith("]")) {
+                    host = host.substring(1, host.length() - 1);
+                }
+                nodes.add(new Node(rs.getInt(1), host, port, rs.getString(3), rs.getBoolean(4)));
+            }
+        }
+        return nodes;
+    }
+}
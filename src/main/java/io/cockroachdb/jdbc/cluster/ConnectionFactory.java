@@ -0,0 +1,24 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Factory for opening delegate connections to a given URL, by default through
+ * {@code java.sql.DriverManager}.
+ *
+ * @author Kai Niemi
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+    /**
+     * Open a new connection.
+     *
+     * @param url  the delegate URL
+     * @param info the connection properties
+     * @return the connection
+     * @throws SQLException on failure to connect
+     */
+    Connection connect(String url, Properties info) throws SQLException;
+}
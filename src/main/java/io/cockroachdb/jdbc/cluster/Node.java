@@ -0,0 +1,129 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import io.cockroachdb.jdbc.util.Assert;
+
+/**
+ * Value object for a CockroachDB node with its SQL address and locality tiers.
+ *
+ * @author Kai Niemi
+ */
+public class Node {
+    /**
+     * Parse locality tiers in the form of 'region=us-east1,zone=us-east1-b', ordered
+     * from the most to least inclusive tier.
+     *
+     * @param locality the locality expression, may be empty
+     * @return ordered map of tier keys to values
+     */
+    public static Map<String, String> parseLocality(String locality) {
+        Map<String, String> tiers = new LinkedHashMap<>();
+        if (locality == null) {
+            return tiers;
+        }
+        for (String tier : locality.split(",")) {
+            tier = tier.trim();
+            if (tier.isEmpty()) {
+                continue;
+            }
+            int idx = tier.indexOf('=');
+            Assert.isTrue(idx > 0, "Invalid locality tier: " + tier);
+            tiers.put(tier.substring(0, idx).trim(), tier.substring(idx + 1).trim());
+        }
+        return tiers;
+    }
+
+    private final int nodeId;
+
+    private final String host;
+
+    private final int port;
+
+    private final Map<String, String> locality;
+
+    private final boolean live;
+
+    public Node(int nodeId, String host, int port, String locality, boolean live) {
+        Assert.hasText(host, "host is empty");
+        this.nodeId = nodeId;
+        this.host = host;
+        this.port = port;
+        this.locality = Collections.unmodifiableMap(parseLocality(locality));
+        this.live = live;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return the host and port in URL authority form
+     */
+    public String getAddress() {
+        return (host.indexOf(':') >= 0 && !host.startsWith("[") ? "[" + host + "]" : host) + ":" + port;
+    }
+
+    public Map<String, String> getLocality() {
+        return locality;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * Count the number of leading locality tiers matching the given locality, in order.
+     *
+     * @param clientLocality the client locality tiers
+     * @return number of matching tiers, 0 if none
+     */
+    public int localityMatch(Map<String, String> clientLocality) {
+        int matches = 0;
+        for (Map.Entry<String, String> tier : clientLocality.entrySet()) {
+            if (!tier.getValue().equals(locality.get(tier.getKey()))) {
+                break;
+            }
+            matches++;
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Node)) {
+            return false;
+        }
+        Node node = (Node) o;
+        return nodeId == node.nodeId && port == node.port && host.equals(node.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeId, host, port);
+    }
+
+    @Override
+    public String toString() {
+        return "Node{" +
+                "nodeId=" + nodeId +
+                ", address=" + getAddress() +
+                ", locality=" + locality +
+                ", live=" + live +
+                '}';
+    }
+}
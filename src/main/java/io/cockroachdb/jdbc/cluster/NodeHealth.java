@@ -0,0 +1,144 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.time.Duration;
+
+/**
+ * Health of a single node tracked by a {@link NodeHealthRegistry}, combining connect latency
+ * statistics with a circuit breaker. The circuit breaker opens after a number of consecutive
+ * connect failures. Once open for the configured duration, a single trial connect is admitted
+ * (half-open) which either closes the breaker on success or re-opens it on failure.
+ *
+ * @author Kai Niemi
+ */
+public class NodeHealth {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Weight of the last sample in the exponentially weighted moving average of connect latency.
+     */
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final String address;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private long totalFailures;
+
+    private long totalConnects;
+
+    private long openedTime;
+
+    private double averageLatency;
+
+    NodeHealth(String address) {
+        this.address = address;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getTotalFailures() {
+        return totalFailures;
+    }
+
+    public synchronized long getTotalConnects() {
+        return totalConnects;
+    }
+
+    /**
+     * @return exponentially weighted moving average of successful connect times
+     */
+    public synchronized Duration getAverageLatency() {
+        return Duration.ofNanos((long) averageLatency);
+    }
+
+    /**
+     * @param now          the current {@link System#nanoTime()}
+     * @param openDuration the breaker open duration in nanos
+     * @return true if a connect would be admitted, without changing state
+     */
+    synchronized boolean isAvailable(long now, long openDuration) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return now - openedTime >= openDuration;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Admit a connect unless the breaker is open, or half-open with a trial connect in progress.
+     *
+     * @param now          the current {@link System#nanoTime()}
+     * @param openDuration the breaker open duration in nanos
+     * @return true if admitted
+     */
+    synchronized boolean tryAcquire(long now, long openDuration) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedTime >= openDuration) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    synchronized void onSuccess(long latency) {
+        averageLatency = totalConnects == 0
+                ? latency
+                : LATENCY_WEIGHT * latency + (1 - LATENCY_WEIGHT) * averageLatency;
+        totalConnects++;
+        onReachable();
+    }
+
+    /**
+     * The node responded, but the connect failed for other reasons than node availability.
+     */
+    synchronized void onReachable() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    synchronized void onFailure(long now, int failureThreshold) {
+        consecutiveFailures++;
+        totalFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedTime = now;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "NodeHealth{" +
+                "address='" + address + '\'' +
+                ", state=" + state +
+                ", consecutiveFailures=" + consecutiveFailures +
+                ", totalFailures=" + totalFailures +
+                ", totalConnects=" + totalConnects +
+                ", averageLatency=" + getAverageLatency() +
+                '}';
+    }
+}
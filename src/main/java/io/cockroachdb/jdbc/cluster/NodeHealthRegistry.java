@@ -0,0 +1,157 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.postgresql.util.PSQLState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cockroachdb.jdbc.ConnectionInvalidException;
+import io.cockroachdb.jdbc.util.Assert;
+
+/**
+ * Registry of node health, tracking connect latency and failures per node address with a
+ * circuit breaker per node. Connects to a node with an open circuit breaker fail fast rather
+ * than waiting for a connect timeout, and the {@link ClusterLoadBalancer} skips such nodes.
+ * <p>
+ * Only errors signalling node unavailability (connection errors and server shutdown or startup)
+ * count as failures. The circuit breakers are disabled with a failure threshold of 0.
+ * <p>
+ * Connections share one registry instance per circuit breaker configuration, such that connections
+ * configured differently (or not at all) do not change the circuit breakers of other connections.
+ *
+ * @author Kai Niemi
+ */
+public class NodeHealthRegistry {
+    private static final Map<List<Object>, NodeHealthRegistry> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Get or create the registry shared by all connections using the given circuit breaker configuration.
+     *
+     * @param failureThreshold number of consecutive connect failures opening a node's circuit breaker,
+     *                         or 0 to disable
+     * @param openDuration     duration a circuit breaker stays open before admitting a trial connect
+     * @return the registry
+     */
+    public static NodeHealthRegistry getSharedInstance(int failureThreshold, Duration openDuration) {
+        return instances.computeIfAbsent(List.of(failureThreshold, openDuration),
+                key -> new NodeHealthRegistry(failureThreshold, openDuration));
+    }
+
+    /**
+     * @param ex the connect exception
+     * @return true if the exception signals that the node is unavailable
+     */
+    public static boolean isNodeFailure(SQLException ex) {
+        String sqlState = ex.getSQLState();
+        return PSQLState.isConnectionError(sqlState)
+                || PSQLState.COMMUNICATION_ERROR.getState().equals(sqlState)
+                // Server shutdown and server starting up
+                || "57P01".equals(sqlState)
+                || "57P03".equals(sqlState);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Map<String, NodeHealth> nodes = new ConcurrentHashMap<>();
+
+    private final int failureThreshold;
+
+    private final long openDuration;
+
+    /**
+     * @param failureThreshold number of consecutive connect failures opening a node's circuit breaker,
+     *                         or 0 to disable
+     * @param openDuration     duration a circuit breaker stays open before admitting a trial connect
+     */
+    public NodeHealthRegistry(int failureThreshold, Duration openDuration) {
+        Assert.isTrue(failureThreshold >= 0, "failureThreshold must be >= 0");
+        Assert.isTrue(!openDuration.isNegative(), "openDuration must be >= 0");
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration.toNanos();
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return Duration.ofNanos(openDuration);
+    }
+
+    public boolean isEnabled() {
+        return failureThreshold > 0;
+    }
+
+    public NodeHealth getNodeHealth(String address) {
+        return nodes.computeIfAbsent(address, NodeHealth::new);
+    }
+
+    public Collection<NodeHealth> getNodeHealths() {
+        return Collections.unmodifiableCollection(nodes.values());
+    }
+
+    /**
+     * @param address the node address
+     * @return true if the circuit breaker of the node would admit a connect
+     */
+    public boolean isAvailable(String address) {
+        if (!isEnabled()) {
+            return true;
+        }
+        NodeHealth nodeHealth = nodes.get(address);
+        return nodeHealth == null || nodeHealth.isAvailable(System.nanoTime(), openDuration);
+    }
+
+    /**
+     * Open a connection through the given factory, tracking the outcome for the node(s) in the URL.
+     *
+     * @param url     the delegate URL
+     * @param info    the connection properties
+     * @param factory the connection factory
+     * @return the connection
+     * @throws SQLException on failure to connect or if the circuit breaker is open
+     */
+    public Connection connect(String url, Properties info, ConnectionFactory factory) throws SQLException {
+        if (!isEnabled()) {
+            return factory.connect(url, info);
+        }
+
+        final String address = ClusterLoadBalancer.hostsOf(url);
+        final NodeHealth nodeHealth = getNodeHealth(address);
+
+        if (!nodeHealth.tryAcquire(System.nanoTime(), openDuration)) {
+            throw new ConnectionInvalidException("Circuit breaker open for node [" + address + "]",
+                    PSQLState.CONNECTION_UNABLE_TO_CONNECT);
+        }
+
+        final long startTime = System.nanoTime();
+        try {
+            Connection connection = factory.connect(url, info);
+            nodeHealth.onSuccess(System.nanoTime() - startTime);
+            return connection;
+        } catch (SQLException e) {
+            if (isNodeFailure(e)) {
+                nodeHealth.onFailure(System.nanoTime(), failureThreshold);
+                if (nodeHealth.getState() == NodeHealth.State.OPEN) {
+                    logger.warn("Circuit breaker open for node [{}] after [{}] consecutive connect failures",
+                            address, nodeHealth.getConsecutiveFailures());
+                }
+            } else {
+                nodeHealth.onReachable();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            nodeHealth.onReachable();
+            throw e;
+        }
+    }
+}
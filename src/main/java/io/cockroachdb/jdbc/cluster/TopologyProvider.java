@@ -0,0 +1,25 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import io.cockroachdb.jdbc.util.ResourceSupplier;
+
+/**
+ * Interface for discovering the nodes of a CockroachDB cluster.
+ *
+ * @author Kai Niemi
+ */
+@FunctionalInterface
+public interface TopologyProvider {
+    /**
+     * Discover the cluster nodes.
+     *
+     * @param seedConnection supplier of a connection to any of the configured seed hosts,
+     *                       closed by the provider after use
+     * @return the nodes, including non-live nodes
+     * @throws SQLException on discovery failure
+     */
+    List<Node> getNodes(ResourceSupplier<Connection> seedConnection) throws SQLException;
+}
@@ -0,0 +1,4 @@
+/**
+ * This package provides cluster topology discovery and client-side load balancing across nodes.
+ */
+package io.cockroachdb.jdbc.cluster;
@@ -1,6 +1,7 @@
 package io.cockroachdb.jdbc.parser;
 
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.misc.Interval;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +22,17 @@ public abstract class AbstractSQLParserListener extends CockroachSQLParserBaseLi
         return logger;
     }
 
+    /**
+     * Get the original input text of a rule context, including whitespace.
+     *
+     * @param ctx the rule context
+     * @return the original text
+     */
+    protected String getOriginalText(ParserRuleContext ctx) {
+        return ctx.start.getInputStream()
+                .getText(Interval.of(ctx.start.getStartIndex(), ctx.stop.getStopIndex()));
+    }
+
     /**
      * Push current token to the top of stack.
      *
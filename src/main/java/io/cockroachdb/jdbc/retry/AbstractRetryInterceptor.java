@@ -1,11 +1,11 @@
 package io.cockroachdb.jdbc.retry;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 import io.cockroachdb.jdbc.util.Assert;
 
@@ -16,9 +16,47 @@ import io.cockroachdb.jdbc.util.Assert;
  * @author Kai Niemi
  */
 public abstract class AbstractRetryInterceptor<T> extends AbstractInterceptor<T> {
+    /**
+     * Lookup a JDBC interface method for recording by concrete wrappers.
+     *
+     * @param type           the JDBC interface
+     * @param name           the method name
+     * @param parameterTypes the method parameter types
+     * @return the method
+     */
+    protected static Method lookupMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No such method: " + type.getName() + "#" + name, e);
+        }
+    }
+
+    /**
+     * Resolve the retry interceptor of a recorded result, being either a dynamic proxy
+     * or a concrete retry wrapper.
+     *
+     * @param result the recorded result
+     * @param <D>    the delegate type
+     * @return the interceptor or null if the result is not intercepted
+     */
+    @SuppressWarnings("unchecked")
+    protected static <D> AbstractRetryInterceptor<D> retryInterceptorOf(Object result) {
+        if (result instanceof AbstractRetryInterceptor) {
+            return (AbstractRetryInterceptor<D>) result;
+        }
+        if (result != null && Proxy.isProxyClass(result.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(result);
+            if (handler instanceof AbstractRetryInterceptor) {
+                return (AbstractRetryInterceptor<D>) handler;
+            }
+        }
+        return null;
+    }
+
     private MethodTraceLogger methodTraceLogger;
 
-    private final List<MethodExecution> methodExecutions = new ArrayList<>();
+    private final MethodExecutionLog history = new MethodExecutionLog();
 
     public AbstractRetryInterceptor(T delegate) {
         super(delegate);
@@ -28,69 +66,152 @@ public abstract class AbstractRetryInterceptor<T> extends AbstractInterceptor<T>
         this.methodTraceLogger = methodTraceLogger;
     }
 
-    protected void addMethodExecution(MethodExecution methodExecution) {
-        Assert.notNull(methodExecution, "methodExecution is null");
-        methodExecutions.add(methodExecution);
+    /**
+     * Admit a method execution to history.
+     *
+     * @param method the invoked method
+     * @param size   the estimated size in bytes of the history entry
+     * @return true if the method execution is recorded in history for replay
+     * @throws SQLException on failure to determine if history is recorded
+     */
+    protected boolean admit(Method method, long size) throws SQLException {
+        return true;
     }
 
-    protected final void clearHistory() {
-        methodExecutions.clear();
+    /**
+     * Callback for the result of a method execution while the result is still valid.
+     *
+     * @param method the invoked method
+     * @param result the method result or null if void
+     * @param <R>    the result type
+     * @return the result to return to the caller
+     * @throws SQLException on failure to process the result
+     */
+    protected <R> R onResult(Method method, R result) throws SQLException {
+        return result;
     }
 
-    protected MethodExecution proceedWrapExecution(Method method, Object[] args) {
-        Assert.notNull(method, "method is null");
+    /**
+     * Record a method execution in history.
+     *
+     * @param method the invoked method
+     * @param args   the method arguments or null if none
+     * @param result the method result or null if void
+     * @param <R>    the result type
+     * @return the result to return to the caller
+     * @throws SQLException on failure to determine if history is recorded or to process the result
+     */
+    protected final <R> R record(Method method, Object[] args, R result) throws SQLException {
+        if (admit(method, MethodExecutionLog.sizeOf(args))) {
+            history.append(method, args, result);
+        }
+        return onResult(method, result);
+    }
 
-        Instant callTime = Instant.now();
-        Duration executionTime;
-        Throwable ex = null;
-        Object result = null;
+    /**
+     * Record a method execution without arguments invoked directly on the delegate
+     * by a concrete wrapper. The fixed arity variants avoid allocating argument arrays.
+     *
+     * @see #record(Method, Object[], Object)
+     */
+    protected final <R> R record(Method method, R result) throws SQLException {
+        if (admit(method, MethodExecutionLog.ENTRY_SIZE)) {
+            history.append(method, result);
+        }
+        return onResult(method, result);
+    }
 
-        long no = 0;
-        try {
-            if (methodTraceLogger != null) {
-                no = methodTraceLogger.before(connectionInfo(), getDelegate(), method, args);
-            }
-            result = proceed(method, args);
-        } catch (Throwable e) {
-            ex = e;
-        } finally {
-            executionTime = Duration.between(callTime, Instant.now());
-            if (methodTraceLogger != null) {
-                methodTraceLogger.after(no, connectionInfo(), getDelegate(), method, args, executionTime, ex);
-            }
+    protected final <R> R record(Method method, Object arg1, R result) throws SQLException {
+        if (admit(method, MethodExecutionLog.ENTRY_SIZE + MethodExecutionLog.sizeOf(arg1))) {
+            history.append(method, arg1, result);
+        }
+        return onResult(method, result);
+    }
+
+    protected final <R> R record(Method method, Object arg1, Object arg2, R result) throws SQLException {
+        if (admit(method, MethodExecutionLog.ENTRY_SIZE + MethodExecutionLog.sizeOf(arg1)
+                + MethodExecutionLog.sizeOf(arg2))) {
+            history.append(method, arg1, arg2, result);
         }
+        return onResult(method, result);
+    }
 
-        return MethodExecution.builder()
-                .withTarget(getDelegate())
-                .withMethod(method)
-                .withMethodArgs(args)
-                .withResult(result)
-                .withThrowable(ex)
-                .withExecutionTime(executionTime)
-                .withConnectionInfo(connectionInfo())
-                .build();
+    protected final <R> R record(Method method, Object arg1, Object arg2, Object arg3, R result)
+            throws SQLException {
+        if (admit(method, MethodExecutionLog.ENTRY_SIZE + MethodExecutionLog.sizeOf(arg1)
+                + MethodExecutionLog.sizeOf(arg2) + MethodExecutionLog.sizeOf(arg3))) {
+            history.append(method, arg1, arg2, arg3, result);
+        }
+        return onResult(method, result);
+    }
+
+    protected final <R> R record(Method method, Object arg1, Object arg2, Object arg3, Object arg4, R result)
+            throws SQLException {
+        if (admit(method, MethodExecutionLog.ENTRY_SIZE + MethodExecutionLog.sizeOf(arg1)
+                + MethodExecutionLog.sizeOf(arg2) + MethodExecutionLog.sizeOf(arg3)
+                + MethodExecutionLog.sizeOf(arg4))) {
+            history.append(method, arg1, arg2, arg3, arg4, result);
+        }
+        return onResult(method, result);
+    }
+
+    /**
+     * Record a method execution without keeping the result, for typed results.
+     *
+     * @param method the invoked method
+     * @throws SQLException on failure to determine if history is recorded
+     */
+    protected final void recordExecution(Method method) throws SQLException {
+        if (admit(method, MethodExecutionLog.ENTRY_SIZE)) {
+            history.append(method, null);
+        }
+    }
+
+    protected final void recordExecution(Method method, Object arg1) throws SQLException {
+        if (admit(method, MethodExecutionLog.ENTRY_SIZE + MethodExecutionLog.sizeOf(arg1))) {
+            history.append(method, arg1, null);
+        }
+    }
+
+    protected final void clearHistory() {
+        history.clear();
+    }
+
+    /**
+     * Proceed with a method execution, surfacing the exception thrown by the delegate.
+     *
+     * @param method the method to invoke
+     * @param args   the method arguments
+     * @return the method result
+     * @throws Throwable the exception thrown by the delegate
+     */
+    protected final Object proceedTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return proceedExecution(method, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
     }
 
     protected Object proceedExecution(Method method, Object[] args) throws Throwable {
         Assert.notNull(method, "method is null");
 
-        Instant callTime = Instant.now();
-        Throwable ex = null;
+        if (methodTraceLogger == null) {
+            return proceed(method, args);
+        }
+
+        final long callTime = System.nanoTime();
+        final long no = methodTraceLogger.before(connectionInfo(), getDelegate(), method, args);
 
-        long no = 0;
+        Throwable ex = null;
         try {
-            if (methodTraceLogger != null) {
-                no = methodTraceLogger.before(connectionInfo(), getDelegate(), method, args);
-            }
             return proceed(method, args);
         } catch (Throwable e) {
             ex = e;
             throw e;
         } finally {
-            if (methodTraceLogger != null) {
-                methodTraceLogger.after(no, connectionInfo(),
-                        getDelegate(), method, args, Duration.between(callTime, Instant.now()), ex);
-            }
+            methodTraceLogger.after(no, connectionInfo(),
+                    getDelegate(), method, args, Duration.ofNanos(System.nanoTime() - callTime), ex);
         }
     }
 
@@ -98,24 +219,25 @@ public abstract class AbstractRetryInterceptor<T> extends AbstractInterceptor<T>
         setDelegate(delegate);
         if (logger.isDebugEnabled()) {
             logger.debug("Repeating [{}] method executions for delegate [{}]: {}",
-                    methodExecutions.size(), getDelegate().toString(), toStringCallstack());
+                    history.size(), getDelegate().toString(), toStringCallstack());
         }
-        doRetry(Collections.unmodifiableList(methodExecutions));
+        doRetry(history);
     }
 
     protected String toStringCallstack() {
         StringBuilder results = new StringBuilder();
         int methodCount = 0;
 
-        for (MethodExecution methodExecution : methodExecutions) {
+        MethodExecutionLog.Cursor cursor = history.cursor();
+        while (cursor.next()) {
             results.append("\n\t[");
             results.append(methodCount);
             results.append("] ");
-            results.append(methodExecution.getMethod().toGenericString());
+            results.append(cursor.getMethod().toGenericString());
             methodCount++;
             if (methodCount > 5) {
                 results.append("\n\t(truncated at 5 but there are ")
-                        .append(methodExecutions.size()).append(" methods queued in total)");
+                        .append(history.size()).append(" methods queued in total)");
                 break;
             }
         }
@@ -124,6 +246,5 @@ public abstract class AbstractRetryInterceptor<T> extends AbstractInterceptor<T>
 
     protected abstract String connectionInfo();
 
-    protected abstract void doRetry(Iterable<MethodExecution> methodExecutions)
-            throws Throwable;
+    protected abstract void doRetry(MethodExecutionLog history) throws Throwable;
 }
@@ -3,13 +3,15 @@ package io.cockroachdb.jdbc.retry;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.Set;
 
 import org.postgresql.util.PSQLState;
 import org.slf4j.MDC;
@@ -26,6 +28,16 @@ import io.cockroachdb.jdbc.util.ResourceSupplier;
  * A dynamic proxy interceptor / invocation handler around java.sql.Connection. This interceptor
  * provides the main retry logic for all retryable SQL exception that may surface at commit time
  * or from any associated statements or result sets.
+ * <p>
+ * In auto-commit mode, each statement is an implicit transaction on its own and no history is
+ * recorded. A failed statement is instead re-executed with backoff on the same connection, see
+ * {@link #proceedImplicitTransaction(AbstractRetryInterceptor, Method, Object[])}.
+ * <p>
+ * In {@link RetryMode#SAVEPOINT} mode, a {@code cockroach_restart} savepoint is set before the first
+ * statement execution in a transaction and released before commit. A transient error then rolls back
+ * to the savepoint and replays the history on the same connection rather than a new connection,
+ * unless caused by a connection error. Only statements are replayed in place, since the connection
+ * state is retained.
  *
  * @author Kai Niemi
  */
@@ -39,6 +51,26 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
                 new ConnectionRetryInterceptor(connection, connectionSettings, connectionSupplier));
     }
 
+    /**
+     * Statement methods executing a single implicit transaction in auto-commit mode.
+     * Batches are excluded since the batch is cleared after a failed execution.
+     */
+    private static final Set<String> IMPLICIT_TRANSACTION_METHODS = Set.of(
+            "execute",
+            "executeQuery",
+            "executeUpdate",
+            "executeLargeUpdate");
+
+    /**
+     * Name of the savepoint used by the CockroachDB client-side retry protocol.
+     */
+    public static final String RESTART_SAVEPOINT = "cockroach_restart";
+
+    @FunctionalInterface
+    private interface Invocation<R> {
+        R proceed() throws Throwable;
+    }
+
     private final RetryListener retryListener;
 
     private final RetryStrategy retryStrategy;
@@ -47,6 +79,28 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
 
     private final ResourceSupplier<Connection> connectionSupplier;
 
+    private final int maxHistorySize;
+
+    private final long maxHistoryBytes;
+
+    private final HistoryOverflow historyOverflow;
+
+    private final RetryMode retryMode;
+
+    private Boolean autoCommit;
+
+    private int historySize;
+
+    private long historyBytes;
+
+    private boolean replayable = true;
+
+    private Savepoint restartSavepoint;
+
+    private boolean restartSavepointDisabled;
+
+    private boolean replayInPlace;
+
     protected ConnectionRetryInterceptor(Connection connection,
                                          ConnectionSettings connectionSettings,
                                          ResourceSupplier<Connection> connectionSupplier) {
@@ -58,6 +112,11 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
         this.retryListener = connectionSettings.getRetryListener();
         this.retryStrategy = connectionSettings.getRetryStrategy();
 
+        this.maxHistorySize = connectionSettings.getRetryMaxHistorySize();
+        this.maxHistoryBytes = connectionSettings.getRetryMaxHistoryBytes();
+        this.historyOverflow = connectionSettings.getRetryHistoryOverflow();
+        this.retryMode = connectionSettings.getRetryMode();
+
         setMethodTraceLogger(connectionSettings.getMethodTraceLogger());
     }
 
@@ -70,6 +129,134 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
         return connectionInfo(getDelegate());
     }
 
+    /**
+     * @return true if the connection delegate is in auto-commit mode, in which case no history is recorded
+     * @throws SQLException on failure to read the initial auto-commit mode
+     */
+    protected boolean isAutoCommit() throws SQLException {
+        if (autoCommit == null) {
+            autoCommit = getDelegate().getAutoCommit();
+        }
+        return autoCommit;
+    }
+
+    @Override
+    protected boolean admit(Method method, long size) throws SQLException {
+        return !isAutoCommit() && admitHistory(method, size);
+    }
+
+    /**
+     * Admit a method execution recorded by this connection or any of its statements to the
+     * transaction history, within the history limits. Past the limits, the transaction is
+     * marked non-replayable.
+     *
+     * @param method the invoked method
+     * @param size   the estimated size in bytes of the history entry
+     * @return true if the method execution is to be recorded
+     */
+    protected final boolean admitHistory(Method method, long size) {
+        if (acquireHistory(size)) {
+            return true;
+        }
+        markNonReplayable(method);
+        return false;
+    }
+
+    /**
+     * Account for a method execution in the transaction history unless exceeding the history limits.
+     *
+     * @param size the estimated size in bytes of the history entry
+     * @return true if within limits and the transaction is replayable
+     */
+    protected final boolean acquireHistory(long size) {
+        if (!replayable) {
+            return false;
+        }
+        if ((maxHistorySize > 0 && historySize >= maxHistorySize)
+                || (maxHistoryBytes > 0 && historyBytes + size > maxHistoryBytes)) {
+            return false;
+        }
+        historySize++;
+        historyBytes += size;
+        return true;
+    }
+
+    /**
+     * Stop recording history for the remainder of the transaction. A transient error
+     * is then surfaced rather than retried.
+     *
+     * @param method the method execution exceeding the history limits
+     */
+    protected final void markNonReplayable(Method method) {
+        if (replayable) {
+            replayable = false;
+            logger.warn("Transaction history limits exceeded by [{}] with [{}] method executions and [{}] bytes "
+                            + "recorded - transient errors will not be retried until the end of the transaction",
+                    method.getName(), historySize, historyBytes);
+            clearHistory();
+        }
+    }
+
+    protected final boolean isReplayable() {
+        return replayable;
+    }
+
+    protected final HistoryOverflow getHistoryOverflow() {
+        return historyOverflow;
+    }
+
+    /**
+     * Clear the history, limits and restart savepoint at the end of a transaction.
+     */
+    protected final void resetHistory() {
+        clearHistory();
+        historySize = 0;
+        historyBytes = 0;
+        replayable = true;
+        restartSavepoint = null;
+        restartSavepointDisabled = false;
+    }
+
+    /**
+     * Set the restart savepoint ahead of the first statement execution in a transaction,
+     * if in savepoint retry mode.
+     *
+     * @throws SQLException on failure to set the savepoint
+     */
+    protected final void setRestartSavepoint() throws SQLException {
+        if (retryMode == RetryMode.SAVEPOINT && restartSavepoint == null
+                && !restartSavepointDisabled && replayable) {
+            restartSavepoint = getDelegate().setSavepoint(RESTART_SAVEPOINT);
+        }
+    }
+
+    /**
+     * Release the restart savepoint, if set, ahead of commit. A transient error on release leaves
+     * the transaction open for a rollback to the savepoint.
+     *
+     * @throws SQLException on failure to release the savepoint
+     */
+    protected final void releaseRestartSavepoint() throws SQLException {
+        if (restartSavepoint != null) {
+            getDelegate().releaseSavepoint(restartSavepoint);
+            restartSavepoint = null;
+        }
+    }
+
+    /**
+     * Fall back to reconnect on retry for the remainder of the transaction when the application
+     * sets a savepoint before the restart savepoint, since the latter must come first.
+     */
+    protected final void disableRestartSavepoint() {
+        if (restartSavepoint == null) {
+            restartSavepointDisabled = true;
+        }
+    }
+
+    protected final void setAutoCommitMode(boolean autoCommit) {
+        this.autoCommit = autoCommit;
+    }
+
     protected String connectionInfo(Connection connection) {
         return "connection@" + Integer.toHexString(connection.hashCode());
     }
@@ -77,55 +264,46 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         if ("commit".equals(method.getName())) {
-            final Instant startTime = Instant.now();
+            final long startTime = System.nanoTime();
 
             for (int attempt = 1; ; attempt++) { // Limit defined by retry strategy
                 try {
-                    MethodExecution context = proceedWrapExecution(method, args);
-                    if (context.hasThrowable()) {
-                        throw context.getThrowable();
-                    }
-                    clearHistory();
+                    releaseRestartSavepoint();
+                    proceedExecution(method, args);
+                    resetHistory();
                     return null;
+                } catch (SQLException e) {
+                    // Thrown directly on release of the restart savepoint
+                    attempt = rollbackAndRetry(e, method, attempt, startTime);
                 } catch (InvocationTargetException e) {
                     attempt = rollbackAndRetry(e.getTargetException(), method, attempt, startTime);
                 }
             }
         } else if ("setAutoCommit".equals(method.getName())) {
-            clearHistory();
-            return proceedExecution(method, args);
+            resetHistory();
+            Object result = proceedExecution(method, args);
+            setAutoCommitMode((Boolean) args[0]);
+            return result;
         } else if ("rollback".equals(method.getName())) {
-            clearHistory();
+            resetHistory();
             return proceedExecution(method, args);
         } else if ("close".equals(method.getName())) {
-            clearHistory();
+            resetHistory();
             return proceedExecution(method, args);
+        } else if ("setSavepoint".equals(method.getName())) {
+            disableRestartSavepoint();
         } else if ("prepareStatement".equals(method.getName())) {
-            MethodExecution context = proceedWrapExecution(method, args);
-            if (context.hasThrowable()) {
-                throw context.getTargetException();
-            }
-            addMethodExecution(context);
-
             CockroachPreparedStatement cockroachPreparedStatement
-                    = new CockroachPreparedStatement((PreparedStatement) context.getResult());
+                    = new CockroachPreparedStatement((PreparedStatement) proceedTarget(method, args));
             PreparedStatement preparedStatementRetryProxy
                     = PreparedStatementRetryInterceptor.proxy(cockroachPreparedStatement, this);
-            context.setResult(preparedStatementRetryProxy);
-            return preparedStatementRetryProxy;
+            return record(method, args, preparedStatementRetryProxy);
         } else if ("createStatement".equals(method.getName())) {
-            MethodExecution context = proceedWrapExecution(method, args);
-            if (context.hasThrowable()) {
-                throw context.getTargetException();
-            }
-            addMethodExecution(context);
-
             CockroachStatement cockroachStatement
-                    = new CockroachStatement((Statement) context.getResult(), connectionSettings);
+                    = new CockroachStatement((Statement) proceedTarget(method, args), connectionSettings);
             Statement statementRetryProxy
                     = StatementRetryInterceptor.proxy(cockroachStatement, this);
-            context.setResult(statementRetryProxy);
-            return statementRetryProxy;
+            return record(method, args, statementRetryProxy);
         } else if ("toString".equals(method.getName())
                 || "isWrapperFor".equals(method.getName())
                 || "unwrap".equals(method.getName())
@@ -133,15 +311,173 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
             return proceed(method, args);
         }
 
-        MethodExecution context = proceedWrapExecution(method, args);
-        if (context.hasThrowable()) {
-            throw context.getTargetException();
+        return record(method, args, proceedTarget(method, args));
+    }
+
+    /**
+     * Proceed with a statement method invocation in auto-commit mode. Since each statement is an
+     * implicit transaction, a statement execution failing with a retryable error is re-executed
+     * with backoff on the same delegate without replaying any history. Connection errors are not
+     * retried in this mode since the statement delegate is bound to the failed connection.
+     *
+     * @param interceptor the statement interceptor
+     * @param method      the method to invoke
+     * @param args        the method arguments
+     * @return the invocation result
+     * @throws Throwable on non-retryable errors or when retries are exhausted
+     */
+    protected final Object proceedImplicitTransaction(AbstractRetryInterceptor<?> interceptor,
+                                                      Method method, Object[] args) throws Throwable {
+        return implicitTransaction(method, () -> interceptor.proceedExecution(method, args));
+    }
+
+    /**
+     * Execute a statement method invoked directly by a concrete wrapper in auto-commit mode.
+     *
+     * @param method    the invoked method
+     * @param execution the statement execution
+     * @param <R>       the result type
+     * @return the execution result
+     * @throws SQLException on non-retryable errors or when retries are exhausted
+     * @see #proceedImplicitTransaction(AbstractRetryInterceptor, Method, Object[])
+     */
+    protected final <R> R executeImplicitTransaction(Method method, ResourceSupplier<R> execution)
+            throws SQLException {
+        try {
+            return implicitTransaction(method, execution::get);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * Execute a statement method invoked directly by a concrete wrapper in a transaction. The method
+     * execution is recorded by the statement on success, and on a retryable error the transaction is
+     * rolled back and replayed before executing the method again.
+     *
+     * @param statement the statement recording the execution
+     * @param method    the invoked method
+     * @param args      the method arguments
+     * @param execution the statement execution, invoked on the current delegate
+     * @param <R>       the result type
+     * @return the execution result
+     * @throws SQLException on non-retryable errors or when retries are exhausted
+     */
+    protected final <R> R executeTransaction(AbstractRetryInterceptor<?> statement, Method method, Object[] args,
+                                             ResourceSupplier<R> execution) throws SQLException {
+        final long startTime = System.nanoTime();
+
+        setRestartSavepoint();
+
+        for (int attempt = 1; ; attempt++) { // Limit defined by retry strategy
+            try {
+                return statement.record(method, args, execution.get());
+            } catch (SQLException e) {
+                attempt = retryTransaction(e, method, attempt, startTime);
+            }
+        }
+    }
+
+    /**
+     * Rollback and retry the transaction on behalf of a concrete wrapper.
+     *
+     * @see #rollbackAndRetry(Throwable, Method, int, long)
+     */
+    protected final int retryTransaction(SQLException ex, Method method, int attempt, long startTime)
+            throws SQLException {
+        try {
+            return rollbackAndRetry(ex, method, attempt, startTime);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
         }
-        addMethodExecution(context);
-        return context.getResult();
     }
 
-    protected final int rollbackAndRetry(Throwable targetException, Method method, int attempt, Instant startTime)
+    private <R> R implicitTransaction(Method method, Invocation<R> invocation) throws Throwable {
+        final long startTime = System.nanoTime();
+
+        SQLException rootCauseException;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            Throwable targetException = targetExceptionOf(e);
+            if (!(targetException instanceof SQLException)
+                    || !IMPLICIT_TRANSACTION_METHODS.contains(method.getName())) {
+                throw targetException;
+            }
+            rootCauseException = (SQLException) targetException;
+        }
+
+        for (int attempt = 1; ; attempt++) { // Limit defined by retry strategy
+            if (!retryStrategy.isRetryableException(rootCauseException)
+                    || retryStrategy.isConnectionError(rootCauseException)) {
+                throw rootCauseException;
+            }
+
+            if (!retryStrategy.proceedWithRetry(attempt)) {
+                throw new TooManyRetriesException("Too many retry attempts [" + attempt
+                        + "] or other limit in [" + retryStrategy.getDescription() + "]", rootCauseException);
+            }
+
+            logger.debug("Entering implicit transaction retry attempt [{}] due to transient SQL exception:\n{}",
+                    attempt, ExceptionUtils.toNestedString(rootCauseException));
+
+            Duration waitTime = retryStrategy.getBackoffDuration(attempt);
+
+            MDC.put("retry.attempt", attempt + "");
+
+            retryListener.beforeRetry(method.toGenericString(), attempt, rootCauseException, waitTime);
+
+            // Pause current thread for a delay determined by strategy
+            try {
+                Thread.sleep(waitTime.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            SQLException retryException = rootCauseException;
+
+            try {
+                R result = invocation.proceed();
+                // Signal success
+                retryException = null;
+                return result;
+            } catch (Throwable e) {
+                Throwable targetException = targetExceptionOf(e);
+                if (!(targetException instanceof SQLException)) {
+                    throw targetException;
+                }
+                rootCauseException = (SQLException) targetException;
+                retryException = rootCauseException;
+            } finally {
+                retryListener.afterRetry(method.toGenericString(), attempt,
+                        retryException,
+                        Duration.ofNanos(System.nanoTime() - startTime));
+                MDC.clear();
+            }
+        }
+    }
+
+    private static Throwable targetExceptionOf(Throwable ex) {
+        return ex instanceof InvocationTargetException
+                ? ((InvocationTargetException) ex).getTargetException() : ex;
+    }
+
+    /**
+     * Rollback and retry the transaction by replaying history, either on the same connection after
+     * a rollback to the restart savepoint or on a new connection.
+     *
+     * @param targetException the exception thrown by the delegate
+     * @param method          the method that failed
+     * @param attempt         the current attempt
+     * @param startTime       the {@link System#nanoTime()} when the method was first invoked
+     * @return the last attempt
+     * @throws Throwable on non-retryable errors or when retries are exhausted
+     */
+    protected final int rollbackAndRetry(Throwable targetException, Method method, int attempt, long startTime)
             throws Throwable {
         Assert.isTrue(attempt > 0, "attempt must be > 0");
 
@@ -155,20 +491,44 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
             throw rootCauseException;
         }
 
+        if (!replayable) {
+            logger.debug("Transaction is non-replayable due to history limits - not retrying:\n{}",
+                    ExceptionUtils.toNestedString(rootCauseException));
+            throw rootCauseException;
+        }
+
         logger.debug("Entering retry attempt [{}] due to transient SQL exception:\n{}",
                 attempt, ExceptionUtils.toNestedString(rootCauseException));
 
+        SQLException lastException = rootCauseException;
+
         for (; ; attempt++) {
-            try {
-                closeDelegate(attempt);
-            } catch (SQLException ex) {
-                // Unless it's a connection related error, we can't continue
-                if (!retryStrategy.isConnectionError(ex)) {
-                    throw new RollbackException("Exception on rollback before retry", ex);
+            boolean inPlace = restartSavepoint != null && !retryStrategy.isConnectionError(lastException);
+            if (inPlace) {
+                try {
+                    rollbackToSavepoint(attempt);
+                } catch (SQLException ex) {
+                    if (!retryStrategy.isConnectionError(ex)) {
+                        throw new RollbackException("Exception on rollback to savepoint before retry", ex);
+                    }
+                    logger.warn("SQL exception in rollback to savepoint for connection delegate [{}]\n{}",
+                            connectionInfo(), ExceptionUtils.toNestedString(ex));
+                    inPlace = false;
+                }
+            }
+
+            if (!inPlace) {
+                try {
+                    closeDelegate(attempt);
+                } catch (SQLException ex) {
+                    // Unless it's a connection related error, we can't continue
+                    if (!retryStrategy.isConnectionError(ex)) {
+                        throw new RollbackException("Exception on rollback before retry", ex);
+                    }
+                    // Let connection errors pass through with a warning since these are potentially retried
+                    logger.warn("SQL exception in rollback for connection delegate [{}]\n{}",
+                            connectionInfo(), ExceptionUtils.toNestedString(ex));
                 }
-                // Let connection errors pass through with a warning since these are potentially retried
-                logger.warn("SQL exception in rollback for connection delegate [{}]\n{}",
-                        connectionInfo(), ExceptionUtils.toNestedString(ex));
             }
 
             if (!retryStrategy.proceedWithRetry(attempt)) {
@@ -176,6 +536,11 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
                         + "] or other limit in [" + retryStrategy.getDescription() + "]", rootCauseException);
             }
 
+            if (!inPlace) {
+                // Give the supplier a head start on the new connection during backoff
+                connectionSupplier.prepare();
+            }
+
             Duration waitTime = retryStrategy.getBackoffDuration(attempt);
 
             MDC.put("retry.attempt", attempt + "");
@@ -192,17 +557,23 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
             SQLException retryException = rootCauseException;
 
             try {
-                openDelegate(attempt);
+                if (!inPlace) {
+                    openDelegate(attempt);
+                    restartSavepoint = null;
+                    setRestartSavepoint();
+                }
 
                 MDC.put("retry.connection", connectionInfo());
 
-                // At this point we have a new, valid connection delegate and ready to replay history
+                // At this point we have a valid connection delegate and ready to replay history
+                replayInPlace = inPlace;
                 retry(getDelegate());
                 // Signal success
                 retryException = null;
                 break;
             } catch (SQLException ex) {
                 retryException = ex;
+                lastException = ex;
                 // Unless it's a retryable error (which may include connection error) we can't continue
                 if (!retryStrategy.isConnectionError(ex)) {
                     throw ex.initCause(rootCauseException);
@@ -210,9 +581,10 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
                 logger.debug("SQL exception in attempt [{}]\n{}",
                         attempt, ExceptionUtils.toNestedString(ex));
             } finally {
+                replayInPlace = false;
                 retryListener.afterRetry(method.toGenericString(), attempt,
                         retryException,
-                        Duration.between(startTime, Instant.now()));
+                        Duration.ofNanos(System.nanoTime() - startTime));
                 MDC.clear();
             }
         }
@@ -241,6 +613,16 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
                 connectionInfo(newDelegate), connectionInfo(expiredDelegate));
     }
 
+    private void rollbackToSavepoint(int attempt) throws SQLException {
+        logger.debug("Rollback to savepoint [{}] on connection [{}] for attempt [{}]",
+                RESTART_SAVEPOINT, connectionInfo(), attempt);
+        SQLWarning warning = getDelegate().getWarnings();
+        if (warning != null) {
+            logger.warn("There are warnings:\n{}", ExceptionUtils.toNestedString(warning));
+        }
+        getDelegate().rollback(restartSavepoint);
+    }
+
     private void closeDelegate(int attempt) throws SQLException {
         Connection expiredDelegate = getDelegate();
         if (expiredDelegate.isClosed()) {
@@ -259,30 +641,38 @@ public class ConnectionRetryInterceptor extends AbstractRetryInterceptor<Connect
     }
 
     @Override
-    protected void doRetry(Iterable<MethodExecution> methodExecutions)
-            throws Throwable {
-        for (MethodExecution methodExecution : methodExecutions) {
-            MethodExecution context = proceedWrapExecution(methodExecution.getMethod(),
-                    methodExecution.getMethodArgs());
-            if (context.hasThrowable()) {
-                throw context.getTargetException();
+    protected void doRetry(MethodExecutionLog history) throws Throwable {
+        MethodExecutionLog.Cursor cursor = history.cursor();
+        while (cursor.next()) {
+            Object firstResult = cursor.getResult();
+
+            AbstractRetryInterceptor<Object> firstInterceptor = retryInterceptorOf(firstResult);
+            if (replayInPlace && firstInterceptor == null) {
+                // Connection state is retained on the same connection, and setters like
+                // setReadOnly or setTransactionIsolation are rejected within a transaction
+                continue;
             }
 
-            Object firstResult = methodExecution.getResult();
-            Object lastResult = context.getResult();
-
-            if (firstResult != null && Proxy.isProxyClass(firstResult.getClass())) {
-                if (Proxy.getInvocationHandler(firstResult) instanceof PreparedStatementRetryInterceptor) {
-                    PreparedStatementRetryInterceptor firstProxy =
-                            (PreparedStatementRetryInterceptor) Proxy.getInvocationHandler(firstResult);
-                    firstProxy.retry((PreparedStatement) lastResult);
-                } else if (Proxy.getInvocationHandler(firstResult) instanceof StatementRetryInterceptor) {
-                    StatementRetryInterceptor firstProxy =
-                            (StatementRetryInterceptor) Proxy.getInvocationHandler(firstResult);
-                    firstProxy.retry((Statement) lastResult);
-                } else {
-                    throw new UnsupportedOperationException("Unknown JDBC proxy: " + firstResult);
+            Object lastResult = proceedTarget(cursor.getMethod(), cursor.getArgs());
+            if (firstInterceptor != null) {
+                Object expiredResult = firstInterceptor.getDelegate();
+                firstInterceptor.retry(lastResult);
+                if (replayInPlace) {
+                    // Replayed on the same connection, hence the replaced statements are still open
+                    closeQuietly(expiredResult);
                 }
+            } else if (firstResult != null && Proxy.isProxyClass(firstResult.getClass())) {
+                throw new UnsupportedOperationException("Unknown JDBC proxy: " + firstResult);
+            }
+        }
+    }
+
+    private void closeQuietly(Object resource) {
+        if (resource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) resource).close();
+            } catch (Exception e) {
+                logger.debug("Exception closing replaced resource [{}]: {}", resource, e.toString());
             }
         }
     }
@@ -0,0 +1,27 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.util.Locale;
+
+/**
+ * Enum of actions taken when the recorded history of a transaction exceeds
+ * the configured history limits.
+ *
+ * @author Kai Niemi
+ */
+public enum HistoryOverflow {
+    /**
+     * Stop recording and mark the transaction non-replayable. A transient error
+     * is then surfaced as-is rather than retried.
+     */
+    FAIL,
+    /**
+     * Stop recording individual result set reads and instead keep a checksum of each
+     * row read. Rows are then compared by their full textual representation on replay.
+     * Other method executions mark the transaction non-replayable.
+     */
+    CHECKSUM;
+
+    public static HistoryOverflow of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,214 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+/**
+ * A compact, append-only log of method executions recorded for replay on retry. Entries are stored
+ * in parallel arrays of methods, argument slots and results rather than as objects per execution,
+ * such that recording a method execution does not allocate once the arrays have grown to the size
+ * of a transaction. The number of argument slots of an entry is given by the method parameter count.
+ * <p>
+ * Only results that are rebound on replay, being retry interceptors or proxies, are kept. Other
+ * results are only needed at the time of the execution (for example to compute a checksum).
+ * <p>
+ * The arrays are recycled when the log is cleared, which happens after each commit or rollback,
+ * unless grown beyond a retained capacity in which case these are released to the garbage collector.
+ *
+ * @author Kai Niemi
+ */
+public final class MethodExecutionLog {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int RETAINED_CAPACITY = 1024;
+
+    /**
+     * Estimated size in bytes of an entry without arguments, being the method and result slots.
+     */
+    static final long ENTRY_SIZE = 16;
+
+    /**
+     * Estimate the retained size in bytes of an argument slot, including the referenced
+     * value for variable length types.
+     *
+     * @param arg the argument
+     * @return the estimated size in bytes
+     */
+    static long sizeOf(Object arg) {
+        if (arg instanceof String) {
+            return 48 + ((String) arg).length();
+        }
+        if (arg instanceof byte[]) {
+            return 24 + ((byte[]) arg).length;
+        }
+        if (arg instanceof Object[]) {
+            long size = 24;
+            for (Object element : (Object[]) arg) {
+                size += sizeOf(element);
+            }
+            return size;
+        }
+        return arg != null ? 24 : 8;
+    }
+
+    static long sizeOf(Object[] args) {
+        long size = ENTRY_SIZE;
+        if (args != null) {
+            for (Object arg : args) {
+                size += sizeOf(arg);
+            }
+        }
+        return size;
+    }
+
+    private Method[] methods = new Method[INITIAL_CAPACITY];
+
+    private Object[] results = new Object[INITIAL_CAPACITY];
+
+    private Object[] args = new Object[INITIAL_CAPACITY];
+
+    private int size;
+
+    private int argSize;
+
+    MethodExecutionLog() {
+    }
+
+    void append(Method method, Object result) {
+        appendMethod(method, result);
+    }
+
+    void append(Method method, Object arg1, Object result) {
+        ensureArgCapacity(1);
+        args[argSize++] = arg1;
+        appendMethod(method, result);
+    }
+
+    void append(Method method, Object arg1, Object arg2, Object result) {
+        ensureArgCapacity(2);
+        args[argSize++] = arg1;
+        args[argSize++] = arg2;
+        appendMethod(method, result);
+    }
+
+    void append(Method method, Object arg1, Object arg2, Object arg3, Object result) {
+        ensureArgCapacity(3);
+        args[argSize++] = arg1;
+        args[argSize++] = arg2;
+        args[argSize++] = arg3;
+        appendMethod(method, result);
+    }
+
+    void append(Method method, Object arg1, Object arg2, Object arg3, Object arg4, Object result) {
+        ensureArgCapacity(4);
+        args[argSize++] = arg1;
+        args[argSize++] = arg2;
+        args[argSize++] = arg3;
+        args[argSize++] = arg4;
+        appendMethod(method, result);
+    }
+
+    void append(Method method, Object[] methodArgs, Object result) {
+        if (methodArgs != null && methodArgs.length > 0) {
+            ensureArgCapacity(methodArgs.length);
+            System.arraycopy(methodArgs, 0, args, argSize, methodArgs.length);
+            argSize += methodArgs.length;
+        }
+        appendMethod(method, result);
+    }
+
+    private void appendMethod(Method method, Object result) {
+        if (size == methods.length) {
+            int capacity = size << 1;
+            methods = Arrays.copyOf(methods, capacity);
+            results = Arrays.copyOf(results, capacity);
+        }
+        methods[size] = method;
+        results[size] = isRebindable(result) ? result : null;
+        size++;
+    }
+
+    private void ensureArgCapacity(int count) {
+        if (argSize + count > args.length) {
+            args = Arrays.copyOf(args, Math.max(args.length << 1, argSize + count));
+        }
+    }
+
+    private static boolean isRebindable(Object result) {
+        return result instanceof AbstractRetryInterceptor
+                || (result != null && Proxy.isProxyClass(result.getClass()));
+    }
+
+    /**
+     * Clear the log, retaining the arrays for the next transaction unless grown
+     * beyond the retained capacity.
+     */
+    void clear() {
+        if (methods.length > RETAINED_CAPACITY || args.length > RETAINED_CAPACITY) {
+            methods = new Method[INITIAL_CAPACITY];
+            results = new Object[INITIAL_CAPACITY];
+            args = new Object[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(methods, 0, size, null);
+            Arrays.fill(results, 0, size, null);
+            Arrays.fill(args, 0, argSize, null);
+        }
+        size = 0;
+        argSize = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return a cursor positioned before the first method execution
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * A forward-only cursor over the logged method executions. The argument array of an entry
+     * is materialized on demand, which only happens on replay.
+     */
+    public final class Cursor {
+        private int index = -1;
+
+        private int argOffset;
+
+        private Cursor() {
+        }
+
+        public boolean next() {
+            if (index >= 0) {
+                argOffset += methods[index].getParameterCount();
+            }
+            return ++index < size;
+        }
+
+        public Method getMethod() {
+            return methods[index];
+        }
+
+        /**
+         * @return the method arguments or null if none
+         */
+        public Object[] getArgs() {
+            int count = methods[index].getParameterCount();
+            return count == 0 ? null : Arrays.copyOfRange(args, argOffset, argOffset + count);
+        }
+
+        /**
+         * @return the result if rebound on replay, otherwise null
+         */
+        public Object getResult() {
+            return results[index];
+        }
+    }
+}
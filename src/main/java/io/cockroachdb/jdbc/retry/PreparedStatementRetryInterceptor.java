@@ -6,7 +6,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.time.Instant;
+import java.sql.SQLException;
 
 /**
  * An interceptor for {@code java.sql.PreparedStatement} with retry capability.
@@ -46,24 +46,24 @@ public class PreparedStatementRetryInterceptor extends AbstractRetryInterceptor<
             return proceed(method, args);
         }
 
-        final Instant startTime = Instant.now();
+        if (connectionRetryInterceptor.isAutoCommit()) {
+            // Fast path for implicit transactions, no history or result set proxies
+            return connectionRetryInterceptor.proceedImplicitTransaction(this, method, args);
+        }
+
+        final long startTime = System.nanoTime();
+
+        if (method.getName().startsWith("execute")) {
+            connectionRetryInterceptor.setRestartSavepoint();
+        }
 
         for (int attempt = 1; ; attempt++) { // Limit defined by retry strategy
             try {
-                MethodExecution context = proceedWrapExecution(method, args);
-                if (context.hasThrowable()) {
-                    throw context.getThrowable();
-                }
-                addMethodExecution(context);
-
-                if (context.getResult() instanceof ResultSet) {
-                    ResultSet resultSet = (ResultSet) context.getResult();
-                    ResultSet resultSetRetryProxy = ResultSetRetryInterceptor.proxy(resultSet,
-                            connectionRetryInterceptor);
-                    context.setResult(resultSetRetryProxy);
+                Object result = proceedExecution(method, args);
+                if (result instanceof ResultSet) {
+                    result = ResultSetRetryInterceptor.proxy((ResultSet) result, connectionRetryInterceptor);
                 }
-
-                return context.getResult();
+                return record(method, args, result);
             } catch (InvocationTargetException e) {
                 attempt = connectionRetryInterceptor.rollbackAndRetry(e.getTargetException(), method, attempt,
                         startTime);
@@ -72,23 +72,20 @@ public class PreparedStatementRetryInterceptor extends AbstractRetryInterceptor<
     }
 
     @Override
-    protected void doRetry(Iterable<MethodExecution> methodExecutions)
-            throws Throwable {
-        for (MethodExecution methodExecution : methodExecutions) {
-            MethodExecution lastExecutionResult
-                    = proceedWrapExecution(methodExecution.getMethod(), methodExecution.getMethodArgs());
-            if (lastExecutionResult.hasThrowable()) {
-                throw lastExecutionResult.getTargetException();
-            }
-            Object firstResult = methodExecution.getResult();
-            Object lastResult = lastExecutionResult.getResult();
+    protected boolean admit(Method method, long size) throws SQLException {
+        return !connectionRetryInterceptor.isAutoCommit() && connectionRetryInterceptor.admitHistory(method, size);
+    }
 
-            methodExecution.setResult(lastResult);
+    @Override
+    protected void doRetry(MethodExecutionLog history) throws Throwable {
+        MethodExecutionLog.Cursor cursor = history.cursor();
+        while (cursor.next()) {
+            Object lastResult = proceedTarget(cursor.getMethod(), cursor.getArgs());
 
-            if (firstResult != null && Proxy.isProxyClass(firstResult.getClass())) {
-                InvocationHandler firstHandler = Proxy.getInvocationHandler(firstResult);
-                ResultSetRetryInterceptor firstProxy = (ResultSetRetryInterceptor) firstHandler;
-                firstProxy.retry((ResultSet) lastResult);
+            AbstractRetryInterceptor<ResultSet> firstInterceptor = retryInterceptorOf(cursor.getResult());
+            if (firstInterceptor != null) {
+                // Keep the first result (proxy or wrapper) for the next retry, rebound to the last delegate
+                firstInterceptor.retry((ResultSet) lastResult);
             }
         }
     }
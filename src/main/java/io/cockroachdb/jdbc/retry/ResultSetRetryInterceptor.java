@@ -9,10 +9,15 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.UUID;
 
@@ -34,12 +39,26 @@ public class ResultSetRetryInterceptor extends AbstractRetryInterceptor<ResultSe
 
     private final ConnectionRetryInterceptor connectionRetryInterceptor;
 
-    private final Checksum firstChecksum = Checksum.sha256();
+    private final String checksumAlgorithm;
+
+    private final Checksum firstChecksum;
+
+    private boolean onRow;
+
+    private boolean compacted;
+
+    private boolean compactedOnRow;
+
+    private long compactedRows;
+
+    private int columnCount;
 
     protected ResultSetRetryInterceptor(ResultSet delegate,
                                         ConnectionRetryInterceptor connectionRetryInterceptor) {
         super(delegate);
         this.connectionRetryInterceptor = connectionRetryInterceptor;
+        this.checksumAlgorithm = connectionRetryInterceptor.getConnectionSettings().getRetryChecksumAlgorithm();
+        this.firstChecksum = Checksum.of(checksumAlgorithm);
         setMethodTraceLogger(connectionRetryInterceptor.getConnectionSettings().getMethodTraceLogger());
     }
 
@@ -57,31 +76,196 @@ public class ResultSetRetryInterceptor extends AbstractRetryInterceptor<ResultSe
             return proceed(method, args);
         }
 
-        MethodExecution context = proceedWrapExecution(method, args);
-        if (context.hasThrowable()) {
-            throw context.getTargetException();
+        return record(method, args, proceedTarget(method, args));
+    }
+
+    @Override
+    protected boolean admit(Method method, long size) throws SQLException {
+        if (compacted) {
+            admitCompacted(method);
+            return false;
         }
-        addMethodExecution(context);
-        // We need to compute the checksum while the result is still valid
-        return updateChecksum(context.getResult(), firstChecksum);
+        if (connectionRetryInterceptor.acquireHistory(size)) {
+            return true;
+        }
+        if (connectionRetryInterceptor.isReplayable()) {
+            if (connectionRetryInterceptor.getHistoryOverflow() == HistoryOverflow.CHECKSUM
+                    && isCompactable(method)) {
+                compact(method);
+            } else {
+                connectionRetryInterceptor.markNonReplayable(method);
+            }
+        }
+        return false;
     }
 
     @Override
-    protected void doRetry(Iterable<MethodExecution> methodExecutions) throws Throwable {
-        Checksum lastChecksum = Checksum.sha256();
-
-        for (MethodExecution methodExecution : methodExecutions) {
-            MethodExecution lastExecution = proceedWrapExecution(methodExecution.getMethod(),
-                    methodExecution.getMethodArgs());
-            if (lastExecution.hasThrowable()) {
-                throw lastExecution.getTargetException();
+    protected <R> R onResult(Method method, R result) throws SQLException {
+        if (isNext(method)) {
+            onNext(Boolean.TRUE.equals(result));
+            return result;
+        }
+        if (compacted) {
+            // Reads are covered by the row checksums
+            return result;
+        }
+        // We need to compute the checksum while the result is still valid
+        return updateChecksum(result, firstChecksum);
+    }
+
+    /*
+     * Typed variants of record for primitive results, avoiding boxing. The checksum
+     * updates must match those of updateChecksum for the boxed values on replay.
+     */
+
+    protected final boolean recordBoolean(Method method, boolean result) throws SQLException {
+        recordExecution(method);
+        return onBoolean(method, result);
+    }
+
+    protected final boolean recordBoolean(Method method, Object arg1, boolean result) throws SQLException {
+        recordExecution(method, arg1);
+        return onBoolean(method, result);
+    }
+
+    protected final int recordInt(Method method, int result) throws SQLException {
+        recordExecution(method);
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    protected final int recordInt(Method method, Object arg1, int result) throws SQLException {
+        recordExecution(method, arg1);
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    protected final long recordLong(Method method, Object arg1, long result) throws SQLException {
+        recordExecution(method, arg1);
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    protected final double recordDouble(Method method, Object arg1, double result) throws SQLException {
+        recordExecution(method, arg1);
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    protected final float recordFloat(Method method, Object arg1, float result) throws SQLException {
+        recordExecution(method, arg1);
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    protected final short recordShort(Method method, Object arg1, short result) throws SQLException {
+        recordExecution(method, arg1);
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    protected final byte recordByte(Method method, Object arg1, byte result) throws SQLException {
+        recordExecution(method, arg1);
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    private boolean onBoolean(Method method, boolean result) throws SQLException {
+        if (isNext(method)) {
+            return onNext(result);
+        }
+        if (!compacted) {
+            firstChecksum.update(result);
+        }
+        return result;
+    }
+
+    private boolean onNext(boolean hasRow) throws SQLException {
+        firstChecksum.update(hasRow);
+        if (compacted) {
+            if (hasRow) {
+                updateRowChecksum(firstChecksum);
             }
+        } else {
+            onRow = hasRow;
+        }
+        return hasRow;
+    }
 
-            Object lastResult = lastExecution.getResult();
+    private static boolean isNext(Method method) {
+        return "next".equals(method.getName());
+    }
+
+    private static boolean isCompactable(Method method) {
+        String name = method.getName();
+        return name.startsWith("get")
+                || name.startsWith("is")
+                || "next".equals(name)
+                || "wasNull".equals(name)
+                || "findColumn".equals(name)
+                || "clearWarnings".equals(name)
+                || "close".equals(name);
+    }
+
+    /**
+     * Switch to recording result set reads as row checksums for the remainder of the transaction.
+     * If positioned on a row, a checksum of the current row is taken since the method execution
+     * exceeding the history limits may be a read from that row.
+     */
+    private void compact(Method method) throws SQLException {
+        compacted = true;
+        compactedOnRow = onRow && !isNext(method);
+        if (compactedOnRow) {
+            updateRowChecksum(firstChecksum);
+        }
+        admitCompacted(method);
+    }
+
+    private void admitCompacted(Method method) {
+        if (isNext(method)) {
+            compactedRows++;
+        } else if (!isCompactable(method)) {
+            connectionRetryInterceptor.markNonReplayable(method);
+        }
+    }
+
+    private void updateRowChecksum(Checksum checksum) throws SQLException {
+        ResultSet delegate = getDelegate();
+        if (columnCount == 0) {
+            columnCount = delegate.getMetaData().getColumnCount();
+        }
+        for (int column = 1; column <= columnCount; column++) {
+            String value = delegate.getString(column);
+            if (value == null) {
+                checksum.update(-1);
+            } else {
+                checksum.update(value.length());
+                checksum.update(value);
+            }
+        }
+    }
 
-            methodExecution.setResult(lastResult);
+    @Override
+    protected void doRetry(MethodExecutionLog history) throws Throwable {
+        Checksum lastChecksum = Checksum.of(checksumAlgorithm);
 
-            Object rv = updateChecksum(lastResult, lastChecksum);
+        MethodExecutionLog.Cursor cursor = history.cursor();
+        while (cursor.next()) {
+            Object rv = updateChecksum(proceedTarget(cursor.getMethod(), cursor.getArgs()), lastChecksum);
             if (rv instanceof InputStream) {
                 StreamUtils.drain((InputStream) rv);
             } else if (rv instanceof Reader) {
@@ -89,6 +273,19 @@ public class ResultSetRetryInterceptor extends AbstractRetryInterceptor<ResultSe
             }
         }
 
+        if (compacted) {
+            if (compactedOnRow) {
+                updateRowChecksum(lastChecksum);
+            }
+            for (long row = 0; row < compactedRows; row++) {
+                boolean hasRow = getDelegate().next();
+                lastChecksum.update(hasRow);
+                if (hasRow) {
+                    updateRowChecksum(lastChecksum);
+                }
+            }
+        }
+
         byte[] firstDigest = firstChecksum.toDigest();
         byte[] lastDigest = lastChecksum.toDigest();
 
@@ -100,28 +297,64 @@ public class ResultSetRetryInterceptor extends AbstractRetryInterceptor<ResultSe
 
     private <T> T updateChecksum(T obj, Checksum checksum) {
         if (obj instanceof String) {
-            checksum.update(((String) obj).getBytes(StandardCharsets.UTF_8));
-        } else if (obj instanceof BigDecimal) {
-            checksum.update(((BigDecimal) obj).toPlainString().getBytes(StandardCharsets.UTF_8));
-        } else if (obj instanceof Boolean) {
-            checksum.update(((Boolean) obj).toString().getBytes(StandardCharsets.UTF_8));
-        } else if (obj instanceof Integer) {
-            checksum.update(((Integer) obj).toString().getBytes(StandardCharsets.UTF_8));
+            String value = (String) obj;
+            checksum.update(value.length());
+            checksum.update(value);
         } else if (obj instanceof Long) {
-            checksum.update(((Long) obj).toString().getBytes(StandardCharsets.UTF_8));
-        } else if (obj instanceof Float) {
-            checksum.update(obj.toString().getBytes(StandardCharsets.UTF_8));
+            checksum.update((long) (Long) obj);
+        } else if (obj instanceof Integer) {
+            checksum.update((int) (Integer) obj);
+        } else if (obj instanceof Boolean) {
+            checksum.update((boolean) (Boolean) obj);
+        } else if (obj instanceof BigDecimal) {
+            BigDecimal value = (BigDecimal) obj;
+            BigInteger unscaledValue = value.unscaledValue();
+            checksum.update(value.scale());
+            if (unscaledValue.bitLength() < 64) {
+                checksum.update(unscaledValue.longValue());
+            } else {
+                byte[] bytes = unscaledValue.toByteArray();
+                checksum.update(bytes.length);
+                checksum.update(bytes);
+            }
         } else if (obj instanceof Double) {
-            checksum.update(obj.toString().getBytes(StandardCharsets.UTF_8));
+            checksum.update((double) (Double) obj);
+        } else if (obj instanceof Float) {
+            checksum.update((float) (Float) obj);
+        } else if (obj instanceof Short) {
+            checksum.update((short) (Short) obj);
+        } else if (obj instanceof Byte) {
+            checksum.update((byte) (Byte) obj);
         } else if (obj instanceof byte[]) {
-            checksum.update((byte[]) obj);
-        } else if (obj instanceof java.sql.Date) {
-            checksum.update(((java.sql.Date) obj).toLocalDate().toString().getBytes(StandardCharsets.UTF_8));
-        } else if (obj instanceof java.sql.Time) {
-            checksum.update(((java.sql.Time) obj).toLocalTime().toString().getBytes(StandardCharsets.UTF_8));
+            byte[] bytes = (byte[]) obj;
+            checksum.update(bytes.length);
+            checksum.update(bytes);
         } else if (obj instanceof java.sql.Timestamp) {
-            checksum.update(
-                    ((java.sql.Timestamp) obj).toLocalDateTime().toString().getBytes(StandardCharsets.UTF_8));
+            java.sql.Timestamp value = (java.sql.Timestamp) obj;
+            checksum.update(value.getTime());
+            checksum.update(value.getNanos());
+        } else if (obj instanceof java.util.Date) {
+            // Including java.sql.Date and java.sql.Time
+            checksum.update(((java.util.Date) obj).getTime());
+        } else if (obj instanceof UUID) {
+            checksum.update((UUID) obj);
+        } else if (obj instanceof Instant) {
+            Instant value = (Instant) obj;
+            checksum.update(value.getEpochSecond());
+            checksum.update(value.getNano());
+        } else if (obj instanceof LocalDate) {
+            checksum.update(((LocalDate) obj).toEpochDay());
+        } else if (obj instanceof LocalTime) {
+            checksum.update(((LocalTime) obj).toNanoOfDay());
+        } else if (obj instanceof LocalDateTime) {
+            LocalDateTime value = (LocalDateTime) obj;
+            checksum.update(value.toLocalDate().toEpochDay());
+            checksum.update(value.toLocalTime().toNanoOfDay());
+        } else if (obj instanceof OffsetDateTime) {
+            OffsetDateTime value = (OffsetDateTime) obj;
+            checksum.update(value.toEpochSecond());
+            checksum.update(value.getNano());
+            checksum.update(value.getOffset().getTotalSeconds());
         } else if (obj instanceof InputStream) {
             InputStream in = (InputStream) obj;
             //noinspection unchecked
@@ -130,7 +363,7 @@ public class ResultSetRetryInterceptor extends AbstractRetryInterceptor<ResultSe
                 public int read() throws IOException {
                     int b = in.read();
                     if (b != -1) {
-                        checksum.update(ByteBuffer.allocate(4).putInt(b).array());
+                        checksum.update((byte) b);
                     }
                     return b;
                 }
@@ -150,29 +383,27 @@ public class ResultSetRetryInterceptor extends AbstractRetryInterceptor<ResultSe
             return (T) new FilterReader(in) {
                 @Override
                 public int read() throws IOException {
-                    int b = in.read();
-                    if (b != -1) {
-                        checksum.update(ByteBuffer.allocate(4).putInt(b).array());
+                    int c = in.read();
+                    if (c != -1) {
+                        checksum.update((char) c);
                     }
-                    return b;
+                    return c;
                 }
 
                 @Override
                 public int read(char[] cbuf, int off, int len) throws IOException {
                     len = super.read(cbuf, off, len);
                     if (len != -1) {
-                        checksum.update(new String(cbuf, off, len).getBytes(StandardCharsets.UTF_8));
+                        checksum.update(cbuf, off, len);
                     }
                     return len;
                 }
             };
         } else if (obj instanceof ResultSetMetaData) {
             // Ignore
-        } else if (obj instanceof UUID) {
-            checksum.update(obj.toString().getBytes(StandardCharsets.UTF_8));
         } else if (obj != null) {
             // Unsupported type - use non-deterministic value to force checksum failure on retry
-            checksum.update(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+            checksum.update(UUID.randomUUID());
             if (logger.isWarnEnabled()) {
                 logger.warn("Unable to compute checksum for JDBC type {} - using non-deterministic value to force "
                                 + "checksum failure on a potential retry",
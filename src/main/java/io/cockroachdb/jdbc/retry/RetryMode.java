@@ -0,0 +1,26 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.util.Locale;
+
+/**
+ * Enum of modes for rolling back and replaying a transaction on a transient error.
+ *
+ * @author Kai Niemi
+ */
+public enum RetryMode {
+    /**
+     * Rollback and close the connection, then replay the transaction history on a new connection.
+     */
+    RECONNECT,
+    /**
+     * Use the CockroachDB client-side retry protocol by setting a {@code cockroach_restart} savepoint
+     * before the first statement execution in a transaction. On a transient error, the transaction
+     * is rolled back to the savepoint and the history replayed on the same connection. The savepoint
+     * is released before commit. Connection errors still imply a new connection.
+     */
+    SAVEPOINT;
+
+    public static RetryMode of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,476 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.lang.reflect.Method;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+import io.cockroachdb.jdbc.ConnectionSettings;
+import io.cockroachdb.jdbc.util.ResourceSupplier;
+
+/**
+ * A concrete {@code java.sql.Connection} wrapper with retry capability, functionally equivalent to
+ * {@link ConnectionRetryInterceptor} but without reflective dispatch. Statements are wrapped in
+ * {@link RetryingStatement} and {@link RetryingPreparedStatement}, and the retry and replay logic
+ * is shared with the dynamic proxy interceptors.
+ * <p>
+ * Method trace logging is only supported by the dynamic proxy interceptors.
+ *
+ * @author Kai Niemi
+ */
+public class RetryingConnection extends ConnectionRetryInterceptor implements Connection {
+    private static final Method COMMIT = lookupMethod(Connection.class, "commit");
+
+    private static final Method CREATE_STATEMENT = lookupMethod(Connection.class, "createStatement");
+
+    private static final Method PREPARE_STATEMENT_STRING
+            = lookupMethod(Connection.class, "prepareStatement", String.class);
+
+    private static final Method PREPARE_CALL_STRING = lookupMethod(Connection.class, "prepareCall", String.class);
+
+    private static final Method NATIVE_SQL = lookupMethod(Connection.class, "nativeSQL", String.class);
+
+    private static final Method GET_AUTO_COMMIT = lookupMethod(Connection.class, "getAutoCommit");
+
+    private static final Method IS_CLOSED = lookupMethod(Connection.class, "isClosed");
+
+    private static final Method GET_META_DATA = lookupMethod(Connection.class, "getMetaData");
+
+    private static final Method SET_READ_ONLY = lookupMethod(Connection.class, "setReadOnly", boolean.class);
+
+    private static final Method IS_READ_ONLY = lookupMethod(Connection.class, "isReadOnly");
+
+    private static final Method SET_CATALOG = lookupMethod(Connection.class, "setCatalog", String.class);
+
+    private static final Method GET_CATALOG = lookupMethod(Connection.class, "getCatalog");
+
+    private static final Method SET_TRANSACTION_ISOLATION
+            = lookupMethod(Connection.class, "setTransactionIsolation", int.class);
+
+    private static final Method GET_TRANSACTION_ISOLATION = lookupMethod(Connection.class, "getTransactionIsolation");
+
+    private static final Method GET_WARNINGS = lookupMethod(Connection.class, "getWarnings");
+
+    private static final Method CLEAR_WARNINGS = lookupMethod(Connection.class, "clearWarnings");
+
+    private static final Method CREATE_STATEMENT_INT_INT
+            = lookupMethod(Connection.class, "createStatement", int.class, int.class);
+
+    private static final Method PREPARE_STATEMENT_STRING_INT_INT
+            = lookupMethod(Connection.class, "prepareStatement", String.class, int.class, int.class);
+
+    private static final Method PREPARE_CALL_STRING_INT_INT
+            = lookupMethod(Connection.class, "prepareCall", String.class, int.class, int.class);
+
+    private static final Method GET_TYPE_MAP = lookupMethod(Connection.class, "getTypeMap");
+
+    private static final Method SET_TYPE_MAP = lookupMethod(Connection.class, "setTypeMap", Map.class);
+
+    private static final Method SET_HOLDABILITY = lookupMethod(Connection.class, "setHoldability", int.class);
+
+    private static final Method GET_HOLDABILITY = lookupMethod(Connection.class, "getHoldability");
+
+    private static final Method SET_SAVEPOINT = lookupMethod(Connection.class, "setSavepoint");
+
+    private static final Method SET_SAVEPOINT_STRING = lookupMethod(Connection.class, "setSavepoint", String.class);
+
+    private static final Method RELEASE_SAVEPOINT = lookupMethod(Connection.class, "releaseSavepoint", Savepoint.class);
+
+    private static final Method CREATE_STATEMENT_INT_INT_INT
+            = lookupMethod(Connection.class, "createStatement", int.class, int.class, int.class);
+
+    private static final Method PREPARE_STATEMENT_STRING_INT_INT_INT
+            = lookupMethod(Connection.class, "prepareStatement", String.class, int.class, int.class, int.class);
+
+    private static final Method PREPARE_CALL_STRING_INT_INT_INT
+            = lookupMethod(Connection.class, "prepareCall", String.class, int.class, int.class, int.class);
+
+    private static final Method PREPARE_STATEMENT_STRING_INT
+            = lookupMethod(Connection.class, "prepareStatement", String.class, int.class);
+
+    private static final Method PREPARE_STATEMENT_STRING_INT_ARRAY
+            = lookupMethod(Connection.class, "prepareStatement", String.class, int[].class);
+
+    private static final Method PREPARE_STATEMENT_STRING_STRING_ARRAY
+            = lookupMethod(Connection.class, "prepareStatement", String.class, String[].class);
+
+    private static final Method CREATE_CLOB = lookupMethod(Connection.class, "createClob");
+
+    private static final Method CREATE_BLOB = lookupMethod(Connection.class, "createBlob");
+
+    private static final Method CREATE_NCLOB = lookupMethod(Connection.class, "createNClob");
+
+    private static final Method CREATE_SQLXML = lookupMethod(Connection.class, "createSQLXML");
+
+    private static final Method IS_VALID = lookupMethod(Connection.class, "isValid", int.class);
+
+    private static final Method GET_CLIENT_INFO_STRING = lookupMethod(Connection.class, "getClientInfo", String.class);
+
+    private static final Method GET_CLIENT_INFO = lookupMethod(Connection.class, "getClientInfo");
+
+    private static final Method CREATE_ARRAY_OF
+            = lookupMethod(Connection.class, "createArrayOf", String.class, Object[].class);
+
+    private static final Method CREATE_STRUCT
+            = lookupMethod(Connection.class, "createStruct", String.class, Object[].class);
+
+    private static final Method SET_SCHEMA = lookupMethod(Connection.class, "setSchema", String.class);
+
+    private static final Method GET_SCHEMA = lookupMethod(Connection.class, "getSchema");
+
+    private static final Method ABORT = lookupMethod(Connection.class, "abort", Executor.class);
+
+    private static final Method SET_NETWORK_TIMEOUT
+            = lookupMethod(Connection.class, "setNetworkTimeout", Executor.class, int.class);
+
+    private static final Method GET_NETWORK_TIMEOUT = lookupMethod(Connection.class, "getNetworkTimeout");
+
+    public RetryingConnection(Connection connection,
+                              ConnectionSettings connectionSettings,
+                              ResourceSupplier<Connection> connectionSupplier) {
+        super(connection, connectionSettings, connectionSupplier);
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        Statement statement = getDelegate().createStatement();
+        return record(CREATE_STATEMENT, new RetryingStatement(statement, this));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement statement = getDelegate().prepareStatement(sql);
+        return record(PREPARE_STATEMENT_STRING, sql, new RetryingPreparedStatement(statement, this));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        return record(PREPARE_CALL_STRING, sql, getDelegate().prepareCall(sql));
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        return record(NATIVE_SQL, sql, getDelegate().nativeSQL(sql));
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        resetHistory();
+        getDelegate().setAutoCommit(autoCommit);
+        setAutoCommitMode(autoCommit);
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        return record(GET_AUTO_COMMIT, getDelegate().getAutoCommit());
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        final long startTime = System.nanoTime();
+
+        for (int attempt = 1; ; attempt++) { // Limit defined by retry strategy
+            try {
+                releaseRestartSavepoint();
+                getDelegate().commit();
+                resetHistory();
+                return;
+            } catch (SQLException e) {
+                attempt = retryTransaction(e, COMMIT, attempt, startTime);
+            }
+        }
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        resetHistory();
+        getDelegate().rollback();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        resetHistory();
+        getDelegate().close();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return record(IS_CLOSED, getDelegate().isClosed());
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return record(GET_META_DATA, getDelegate().getMetaData());
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        getDelegate().setReadOnly(readOnly);
+        record(SET_READ_ONLY, readOnly, null);
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return record(IS_READ_ONLY, getDelegate().isReadOnly());
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        getDelegate().setCatalog(catalog);
+        record(SET_CATALOG, catalog, null);
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        return record(GET_CATALOG, getDelegate().getCatalog());
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        getDelegate().setTransactionIsolation(level);
+        record(SET_TRANSACTION_ISOLATION, level, null);
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        return record(GET_TRANSACTION_ISOLATION, getDelegate().getTransactionIsolation());
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return record(GET_WARNINGS, getDelegate().getWarnings());
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        getDelegate().clearWarnings();
+        record(CLEAR_WARNINGS, null);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        Statement statement = getDelegate().createStatement(resultSetType, resultSetConcurrency);
+        return record(CREATE_STATEMENT_INT_INT, new Object[] {resultSetType, resultSetConcurrency},
+                new RetryingStatement(statement, this));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
+            throws SQLException {
+        PreparedStatement statement = getDelegate().prepareStatement(sql, resultSetType, resultSetConcurrency);
+        return record(PREPARE_STATEMENT_STRING_INT_INT, new Object[] {sql, resultSetType, resultSetConcurrency},
+                new RetryingPreparedStatement(statement, this));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return record(PREPARE_CALL_STRING_INT_INT, new Object[] {sql, resultSetType, resultSetConcurrency},
+                getDelegate().prepareCall(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        return record(GET_TYPE_MAP, getDelegate().getTypeMap());
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        getDelegate().setTypeMap(map);
+        record(SET_TYPE_MAP, map, null);
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        getDelegate().setHoldability(holdability);
+        record(SET_HOLDABILITY, holdability, null);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return record(GET_HOLDABILITY, getDelegate().getHoldability());
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        disableRestartSavepoint();
+        return record(SET_SAVEPOINT, getDelegate().setSavepoint());
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        disableRestartSavepoint();
+        return record(SET_SAVEPOINT_STRING, name, getDelegate().setSavepoint(name));
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        resetHistory();
+        getDelegate().rollback(savepoint);
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        getDelegate().releaseSavepoint(savepoint);
+        record(RELEASE_SAVEPOINT, savepoint, null);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+            throws SQLException {
+        Statement statement = getDelegate().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+        return record(CREATE_STATEMENT_INT_INT_INT, resultSetType, resultSetConcurrency, resultSetHoldability,
+                new RetryingStatement(statement, this));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+                                              int resultSetHoldability) throws SQLException {
+        PreparedStatement statement = getDelegate().prepareStatement(sql, resultSetType, resultSetConcurrency,
+                resultSetHoldability);
+        return record(PREPARE_STATEMENT_STRING_INT_INT_INT,
+                sql, resultSetType, resultSetConcurrency, resultSetHoldability,
+                new RetryingPreparedStatement(statement, this));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
+                                         int resultSetHoldability) throws SQLException {
+        return record(PREPARE_CALL_STRING_INT_INT_INT,
+                sql, resultSetType, resultSetConcurrency, resultSetHoldability,
+                getDelegate().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement statement = getDelegate().prepareStatement(sql, autoGeneratedKeys);
+        return record(PREPARE_STATEMENT_STRING_INT, new Object[] {sql, autoGeneratedKeys},
+                new RetryingPreparedStatement(statement, this));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        PreparedStatement statement = getDelegate().prepareStatement(sql, columnIndexes);
+        return record(PREPARE_STATEMENT_STRING_INT_ARRAY, new Object[] {sql, columnIndexes},
+                new RetryingPreparedStatement(statement, this));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        PreparedStatement statement = getDelegate().prepareStatement(sql, columnNames);
+        return record(PREPARE_STATEMENT_STRING_STRING_ARRAY, new Object[] {sql, columnNames},
+                new RetryingPreparedStatement(statement, this));
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        return record(CREATE_CLOB, getDelegate().createClob());
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        return record(CREATE_BLOB, getDelegate().createBlob());
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        return record(CREATE_NCLOB, getDelegate().createNClob());
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        return record(CREATE_SQLXML, getDelegate().createSQLXML());
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        return record(IS_VALID, timeout, getDelegate().isValid(timeout));
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        getDelegate().setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        getDelegate().setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        return record(GET_CLIENT_INFO_STRING, name, getDelegate().getClientInfo(name));
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return record(GET_CLIENT_INFO, getDelegate().getClientInfo());
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        return record(CREATE_ARRAY_OF, new Object[] {typeName, elements},
+                getDelegate().createArrayOf(typeName, elements));
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        return record(CREATE_STRUCT, new Object[] {typeName, attributes},
+                getDelegate().createStruct(typeName, attributes));
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        getDelegate().setSchema(schema);
+        record(SET_SCHEMA, schema, null);
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        return record(GET_SCHEMA, getDelegate().getSchema());
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        getDelegate().abort(executor);
+        record(ABORT, executor, null);
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        getDelegate().setNetworkTimeout(executor, milliseconds);
+        record(SET_NETWORK_TIMEOUT, executor, milliseconds, null);
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        return record(GET_NETWORK_TIMEOUT, getDelegate().getNetworkTimeout());
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return getDelegate().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || getDelegate().isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,1025 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * A concrete {@code java.sql.PreparedStatement} wrapper with retry capability, functionally equivalent
+ * to {@link PreparedStatementRetryInterceptor} but without reflective dispatch. Result sets are wrapped
+ * in {@link RetryingResultSet} unless in auto-commit mode.
+ *
+ * @author Kai Niemi
+ */
+public class RetryingPreparedStatement extends PreparedStatementRetryInterceptor implements PreparedStatement {
+    private static final Method EXECUTE_QUERY = lookupMethod(PreparedStatement.class, "executeQuery");
+
+    private static final Method EXECUTE_UPDATE = lookupMethod(PreparedStatement.class, "executeUpdate");
+
+    private static final Method SET_NULL_INT_INT
+            = lookupMethod(PreparedStatement.class, "setNull", int.class, int.class);
+
+    private static final Method SET_BOOLEAN
+            = lookupMethod(PreparedStatement.class, "setBoolean", int.class, boolean.class);
+
+    private static final Method SET_BYTE = lookupMethod(PreparedStatement.class, "setByte", int.class, byte.class);
+
+    private static final Method SET_SHORT = lookupMethod(PreparedStatement.class, "setShort", int.class, short.class);
+
+    private static final Method SET_INT = lookupMethod(PreparedStatement.class, "setInt", int.class, int.class);
+
+    private static final Method SET_LONG = lookupMethod(PreparedStatement.class, "setLong", int.class, long.class);
+
+    private static final Method SET_FLOAT = lookupMethod(PreparedStatement.class, "setFloat", int.class, float.class);
+
+    private static final Method SET_DOUBLE
+            = lookupMethod(PreparedStatement.class, "setDouble", int.class, double.class);
+
+    private static final Method SET_BIG_DECIMAL
+            = lookupMethod(PreparedStatement.class, "setBigDecimal", int.class, BigDecimal.class);
+
+    private static final Method SET_STRING
+            = lookupMethod(PreparedStatement.class, "setString", int.class, String.class);
+
+    private static final Method SET_BYTES = lookupMethod(PreparedStatement.class, "setBytes", int.class, byte[].class);
+
+    private static final Method SET_DATE_INT_DATE
+            = lookupMethod(PreparedStatement.class, "setDate", int.class, Date.class);
+
+    private static final Method SET_TIME_INT_TIME
+            = lookupMethod(PreparedStatement.class, "setTime", int.class, Time.class);
+
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP
+            = lookupMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class);
+
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_INT
+            = lookupMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, int.class);
+
+    private static final Method SET_UNICODE_STREAM
+            = lookupMethod(PreparedStatement.class, "setUnicodeStream", int.class, InputStream.class, int.class);
+
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_INT
+            = lookupMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, int.class);
+
+    private static final Method CLEAR_PARAMETERS = lookupMethod(PreparedStatement.class, "clearParameters");
+
+    private static final Method SET_OBJECT_INT_OBJECT_INT
+            = lookupMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class);
+
+    private static final Method SET_OBJECT_INT_OBJECT
+            = lookupMethod(PreparedStatement.class, "setObject", int.class, Object.class);
+
+    private static final Method EXECUTE = lookupMethod(PreparedStatement.class, "execute");
+
+    private static final Method ADD_BATCH = lookupMethod(PreparedStatement.class, "addBatch");
+
+    private static final Method SET_CHARACTER_STREAM_INT_READER_INT
+            = lookupMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, int.class);
+
+    private static final Method SET_REF = lookupMethod(PreparedStatement.class, "setRef", int.class, Ref.class);
+
+    private static final Method SET_BLOB_INT_BLOB
+            = lookupMethod(PreparedStatement.class, "setBlob", int.class, Blob.class);
+
+    private static final Method SET_CLOB_INT_CLOB
+            = lookupMethod(PreparedStatement.class, "setClob", int.class, Clob.class);
+
+    private static final Method SET_ARRAY = lookupMethod(PreparedStatement.class, "setArray", int.class, Array.class);
+
+    private static final Method GET_META_DATA = lookupMethod(PreparedStatement.class, "getMetaData");
+
+    private static final Method SET_DATE_INT_DATE_CALENDAR
+            = lookupMethod(PreparedStatement.class, "setDate", int.class, Date.class, Calendar.class);
+
+    private static final Method SET_TIME_INT_TIME_CALENDAR
+            = lookupMethod(PreparedStatement.class, "setTime", int.class, Time.class, Calendar.class);
+
+    private static final Method SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR
+            = lookupMethod(PreparedStatement.class, "setTimestamp", int.class, Timestamp.class, Calendar.class);
+
+    private static final Method SET_NULL_INT_INT_STRING
+            = lookupMethod(PreparedStatement.class, "setNull", int.class, int.class, String.class);
+
+    private static final Method SET_URL = lookupMethod(PreparedStatement.class, "setURL", int.class, URL.class);
+
+    private static final Method GET_PARAMETER_META_DATA = lookupMethod(PreparedStatement.class, "getParameterMetaData");
+
+    private static final Method SET_ROW_ID = lookupMethod(PreparedStatement.class, "setRowId", int.class, RowId.class);
+
+    private static final Method SET_NSTRING
+            = lookupMethod(PreparedStatement.class, "setNString", int.class, String.class);
+
+    private static final Method SET_NCHARACTER_STREAM_INT_READER_LONG
+            = lookupMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class, long.class);
+
+    private static final Method SET_NCLOB_INT_NCLOB
+            = lookupMethod(PreparedStatement.class, "setNClob", int.class, NClob.class);
+
+    private static final Method SET_CLOB_INT_READER_LONG
+            = lookupMethod(PreparedStatement.class, "setClob", int.class, Reader.class, long.class);
+
+    private static final Method SET_BLOB_INT_INPUT_STREAM_LONG
+            = lookupMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class, long.class);
+
+    private static final Method SET_NCLOB_INT_READER_LONG
+            = lookupMethod(PreparedStatement.class, "setNClob", int.class, Reader.class, long.class);
+
+    private static final Method SET_SQLXML
+            = lookupMethod(PreparedStatement.class, "setSQLXML", int.class, SQLXML.class);
+
+    private static final Method SET_OBJECT_INT_OBJECT_INT_INT
+            = lookupMethod(PreparedStatement.class, "setObject", int.class, Object.class, int.class, int.class);
+
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM_LONG
+            = lookupMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class, long.class);
+
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM_LONG
+            = lookupMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class, long.class);
+
+    private static final Method SET_CHARACTER_STREAM_INT_READER_LONG
+            = lookupMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class, long.class);
+
+    private static final Method SET_ASCII_STREAM_INT_INPUT_STREAM
+            = lookupMethod(PreparedStatement.class, "setAsciiStream", int.class, InputStream.class);
+
+    private static final Method SET_BINARY_STREAM_INT_INPUT_STREAM
+            = lookupMethod(PreparedStatement.class, "setBinaryStream", int.class, InputStream.class);
+
+    private static final Method SET_CHARACTER_STREAM_INT_READER
+            = lookupMethod(PreparedStatement.class, "setCharacterStream", int.class, Reader.class);
+
+    private static final Method SET_NCHARACTER_STREAM_INT_READER
+            = lookupMethod(PreparedStatement.class, "setNCharacterStream", int.class, Reader.class);
+
+    private static final Method SET_CLOB_INT_READER
+            = lookupMethod(PreparedStatement.class, "setClob", int.class, Reader.class);
+
+    private static final Method SET_BLOB_INT_INPUT_STREAM
+            = lookupMethod(PreparedStatement.class, "setBlob", int.class, InputStream.class);
+
+    private static final Method SET_NCLOB_INT_READER
+            = lookupMethod(PreparedStatement.class, "setNClob", int.class, Reader.class);
+
+    private static final Method EXECUTE_QUERY_STRING
+            = lookupMethod(PreparedStatement.class, "executeQuery", String.class);
+
+    private static final Method EXECUTE_UPDATE_STRING
+            = lookupMethod(PreparedStatement.class, "executeUpdate", String.class);
+
+    private static final Method CLOSE = lookupMethod(PreparedStatement.class, "close");
+
+    private static final Method GET_MAX_FIELD_SIZE = lookupMethod(PreparedStatement.class, "getMaxFieldSize");
+
+    private static final Method SET_MAX_FIELD_SIZE
+            = lookupMethod(PreparedStatement.class, "setMaxFieldSize", int.class);
+
+    private static final Method GET_MAX_ROWS = lookupMethod(PreparedStatement.class, "getMaxRows");
+
+    private static final Method SET_MAX_ROWS = lookupMethod(PreparedStatement.class, "setMaxRows", int.class);
+
+    private static final Method SET_ESCAPE_PROCESSING
+            = lookupMethod(PreparedStatement.class, "setEscapeProcessing", boolean.class);
+
+    private static final Method GET_QUERY_TIMEOUT = lookupMethod(PreparedStatement.class, "getQueryTimeout");
+
+    private static final Method SET_QUERY_TIMEOUT = lookupMethod(PreparedStatement.class, "setQueryTimeout", int.class);
+
+    private static final Method CANCEL = lookupMethod(PreparedStatement.class, "cancel");
+
+    private static final Method GET_WARNINGS = lookupMethod(PreparedStatement.class, "getWarnings");
+
+    private static final Method CLEAR_WARNINGS = lookupMethod(PreparedStatement.class, "clearWarnings");
+
+    private static final Method SET_CURSOR_NAME = lookupMethod(PreparedStatement.class, "setCursorName", String.class);
+
+    private static final Method EXECUTE_STRING = lookupMethod(PreparedStatement.class, "execute", String.class);
+
+    private static final Method GET_RESULT_SET = lookupMethod(PreparedStatement.class, "getResultSet");
+
+    private static final Method GET_UPDATE_COUNT = lookupMethod(PreparedStatement.class, "getUpdateCount");
+
+    private static final Method GET_MORE_RESULTS = lookupMethod(PreparedStatement.class, "getMoreResults");
+
+    private static final Method SET_FETCH_DIRECTION
+            = lookupMethod(PreparedStatement.class, "setFetchDirection", int.class);
+
+    private static final Method GET_FETCH_DIRECTION = lookupMethod(PreparedStatement.class, "getFetchDirection");
+
+    private static final Method SET_FETCH_SIZE = lookupMethod(PreparedStatement.class, "setFetchSize", int.class);
+
+    private static final Method GET_FETCH_SIZE = lookupMethod(PreparedStatement.class, "getFetchSize");
+
+    private static final Method GET_RESULT_SET_CONCURRENCY
+            = lookupMethod(PreparedStatement.class, "getResultSetConcurrency");
+
+    private static final Method GET_RESULT_SET_TYPE = lookupMethod(PreparedStatement.class, "getResultSetType");
+
+    private static final Method ADD_BATCH_STRING = lookupMethod(PreparedStatement.class, "addBatch", String.class);
+
+    private static final Method CLEAR_BATCH = lookupMethod(PreparedStatement.class, "clearBatch");
+
+    private static final Method EXECUTE_BATCH = lookupMethod(PreparedStatement.class, "executeBatch");
+
+    private static final Method GET_MORE_RESULTS_INT
+            = lookupMethod(PreparedStatement.class, "getMoreResults", int.class);
+
+    private static final Method GET_GENERATED_KEYS = lookupMethod(PreparedStatement.class, "getGeneratedKeys");
+
+    private static final Method EXECUTE_UPDATE_STRING_INT
+            = lookupMethod(PreparedStatement.class, "executeUpdate", String.class, int.class);
+
+    private static final Method EXECUTE_UPDATE_STRING_INT_ARRAY
+            = lookupMethod(PreparedStatement.class, "executeUpdate", String.class, int[].class);
+
+    private static final Method EXECUTE_UPDATE_STRING_STRING_ARRAY
+            = lookupMethod(PreparedStatement.class, "executeUpdate", String.class, String[].class);
+
+    private static final Method EXECUTE_STRING_INT
+            = lookupMethod(PreparedStatement.class, "execute", String.class, int.class);
+
+    private static final Method EXECUTE_STRING_INT_ARRAY
+            = lookupMethod(PreparedStatement.class, "execute", String.class, int[].class);
+
+    private static final Method EXECUTE_STRING_STRING_ARRAY
+            = lookupMethod(PreparedStatement.class, "execute", String.class, String[].class);
+
+    private static final Method GET_RESULT_SET_HOLDABILITY
+            = lookupMethod(PreparedStatement.class, "getResultSetHoldability");
+
+    private static final Method IS_CLOSED = lookupMethod(PreparedStatement.class, "isClosed");
+
+    private static final Method SET_POOLABLE = lookupMethod(PreparedStatement.class, "setPoolable", boolean.class);
+
+    private static final Method IS_POOLABLE = lookupMethod(PreparedStatement.class, "isPoolable");
+
+    private static final Method CLOSE_ON_COMPLETION = lookupMethod(PreparedStatement.class, "closeOnCompletion");
+
+    private static final Method IS_CLOSE_ON_COMPLETION = lookupMethod(PreparedStatement.class, "isCloseOnCompletion");
+
+    private static final Method SET_OBJECT_INT_OBJECT_SQLTYPE_INT
+            = lookupMethod(PreparedStatement.class, "setObject", int.class, Object.class, SQLType.class, int.class);
+
+    private static final Method SET_OBJECT_INT_OBJECT_SQLTYPE
+            = lookupMethod(PreparedStatement.class, "setObject", int.class, Object.class, SQLType.class);
+
+    private static final Method EXECUTE_LARGE_UPDATE = lookupMethod(PreparedStatement.class, "executeLargeUpdate");
+
+    private static final Method GET_LARGE_UPDATE_COUNT = lookupMethod(PreparedStatement.class, "getLargeUpdateCount");
+
+    private static final Method SET_LARGE_MAX_ROWS
+            = lookupMethod(PreparedStatement.class, "setLargeMaxRows", long.class);
+
+    private static final Method GET_LARGE_MAX_ROWS = lookupMethod(PreparedStatement.class, "getLargeMaxRows");
+
+    private static final Method EXECUTE_LARGE_BATCH = lookupMethod(PreparedStatement.class, "executeLargeBatch");
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING
+            = lookupMethod(PreparedStatement.class, "executeLargeUpdate", String.class);
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING_INT
+            = lookupMethod(PreparedStatement.class, "executeLargeUpdate", String.class, int.class);
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY
+            = lookupMethod(PreparedStatement.class, "executeLargeUpdate", String.class, int[].class);
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY
+            = lookupMethod(PreparedStatement.class, "executeLargeUpdate", String.class, String[].class);
+
+    private final RetryingConnection connection;
+
+    public RetryingPreparedStatement(PreparedStatement delegate, RetryingConnection connection) {
+        super(delegate, connection);
+        this.connection = connection;
+    }
+
+    private ResultSet resultSet(ResultSet resultSet) throws SQLException {
+        if (resultSet == null || connection.isAutoCommit()) {
+            return resultSet;
+        }
+        return new RetryingResultSet(resultSet, connection);
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_QUERY, () -> getDelegate().executeQuery());
+        }
+        return connection.executeTransaction(this, EXECUTE_QUERY, null, () -> resultSet(getDelegate().executeQuery()));
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE, () -> getDelegate().executeUpdate());
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE, null, () -> getDelegate().executeUpdate());
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        getDelegate().setNull(parameterIndex, sqlType);
+        record(SET_NULL_INT_INT, parameterIndex, sqlType, null);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        getDelegate().setBoolean(parameterIndex, x);
+        record(SET_BOOLEAN, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        getDelegate().setByte(parameterIndex, x);
+        record(SET_BYTE, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        getDelegate().setShort(parameterIndex, x);
+        record(SET_SHORT, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        getDelegate().setInt(parameterIndex, x);
+        record(SET_INT, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        getDelegate().setLong(parameterIndex, x);
+        record(SET_LONG, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        getDelegate().setFloat(parameterIndex, x);
+        record(SET_FLOAT, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        getDelegate().setDouble(parameterIndex, x);
+        record(SET_DOUBLE, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        getDelegate().setBigDecimal(parameterIndex, x);
+        record(SET_BIG_DECIMAL, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        getDelegate().setString(parameterIndex, x);
+        record(SET_STRING, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        getDelegate().setBytes(parameterIndex, x);
+        record(SET_BYTES, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        getDelegate().setDate(parameterIndex, x);
+        record(SET_DATE_INT_DATE, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        getDelegate().setTime(parameterIndex, x);
+        record(SET_TIME_INT_TIME, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        getDelegate().setTimestamp(parameterIndex, x);
+        record(SET_TIMESTAMP_INT_TIMESTAMP, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        getDelegate().setAsciiStream(parameterIndex, x, length);
+        record(SET_ASCII_STREAM_INT_INPUT_STREAM_INT, parameterIndex, x, length, null);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        getDelegate().setUnicodeStream(parameterIndex, x, length);
+        record(SET_UNICODE_STREAM, parameterIndex, x, length, null);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        getDelegate().setBinaryStream(parameterIndex, x, length);
+        record(SET_BINARY_STREAM_INT_INPUT_STREAM_INT, parameterIndex, x, length, null);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        getDelegate().clearParameters();
+        record(CLEAR_PARAMETERS, null);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        getDelegate().setObject(parameterIndex, x, targetSqlType);
+        record(SET_OBJECT_INT_OBJECT_INT, parameterIndex, x, targetSqlType, null);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        getDelegate().setObject(parameterIndex, x);
+        record(SET_OBJECT_INT_OBJECT, parameterIndex, x, null);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE, () -> getDelegate().execute());
+        }
+        return connection.executeTransaction(this, EXECUTE, null, () -> getDelegate().execute());
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        getDelegate().addBatch();
+        record(ADD_BATCH, null);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        getDelegate().setCharacterStream(parameterIndex, reader, length);
+        record(SET_CHARACTER_STREAM_INT_READER_INT, parameterIndex, reader, length, null);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        getDelegate().setRef(parameterIndex, x);
+        record(SET_REF, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        getDelegate().setBlob(parameterIndex, x);
+        record(SET_BLOB_INT_BLOB, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        getDelegate().setClob(parameterIndex, x);
+        record(SET_CLOB_INT_CLOB, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        getDelegate().setArray(parameterIndex, x);
+        record(SET_ARRAY, parameterIndex, x, null);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return record(GET_META_DATA, getDelegate().getMetaData());
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        getDelegate().setDate(parameterIndex, x, cal);
+        record(SET_DATE_INT_DATE_CALENDAR, parameterIndex, x, cal, null);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        getDelegate().setTime(parameterIndex, x, cal);
+        record(SET_TIME_INT_TIME_CALENDAR, parameterIndex, x, cal, null);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        getDelegate().setTimestamp(parameterIndex, x, cal);
+        record(SET_TIMESTAMP_INT_TIMESTAMP_CALENDAR, parameterIndex, x, cal, null);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        getDelegate().setNull(parameterIndex, sqlType, typeName);
+        record(SET_NULL_INT_INT_STRING, parameterIndex, sqlType, typeName, null);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        getDelegate().setURL(parameterIndex, x);
+        record(SET_URL, parameterIndex, x, null);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return record(GET_PARAMETER_META_DATA, getDelegate().getParameterMetaData());
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        getDelegate().setRowId(parameterIndex, x);
+        record(SET_ROW_ID, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        getDelegate().setNString(parameterIndex, value);
+        record(SET_NSTRING, parameterIndex, value, null);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        getDelegate().setNCharacterStream(parameterIndex, value, length);
+        record(SET_NCHARACTER_STREAM_INT_READER_LONG, parameterIndex, value, length, null);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        getDelegate().setNClob(parameterIndex, value);
+        record(SET_NCLOB_INT_NCLOB, parameterIndex, value, null);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        getDelegate().setClob(parameterIndex, reader, length);
+        record(SET_CLOB_INT_READER_LONG, parameterIndex, reader, length, null);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        getDelegate().setBlob(parameterIndex, inputStream, length);
+        record(SET_BLOB_INT_INPUT_STREAM_LONG, parameterIndex, inputStream, length, null);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        getDelegate().setNClob(parameterIndex, reader, length);
+        record(SET_NCLOB_INT_READER_LONG, parameterIndex, reader, length, null);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        getDelegate().setSQLXML(parameterIndex, xmlObject);
+        record(SET_SQLXML, parameterIndex, xmlObject, null);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        getDelegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        record(SET_OBJECT_INT_OBJECT_INT_INT, parameterIndex, x, targetSqlType, scaleOrLength, null);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        getDelegate().setAsciiStream(parameterIndex, x, length);
+        record(SET_ASCII_STREAM_INT_INPUT_STREAM_LONG, parameterIndex, x, length, null);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        getDelegate().setBinaryStream(parameterIndex, x, length);
+        record(SET_BINARY_STREAM_INT_INPUT_STREAM_LONG, parameterIndex, x, length, null);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        getDelegate().setCharacterStream(parameterIndex, reader, length);
+        record(SET_CHARACTER_STREAM_INT_READER_LONG, parameterIndex, reader, length, null);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        getDelegate().setAsciiStream(parameterIndex, x);
+        record(SET_ASCII_STREAM_INT_INPUT_STREAM, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        getDelegate().setBinaryStream(parameterIndex, x);
+        record(SET_BINARY_STREAM_INT_INPUT_STREAM, parameterIndex, x, null);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        getDelegate().setCharacterStream(parameterIndex, reader);
+        record(SET_CHARACTER_STREAM_INT_READER, parameterIndex, reader, null);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        getDelegate().setNCharacterStream(parameterIndex, value);
+        record(SET_NCHARACTER_STREAM_INT_READER, parameterIndex, value, null);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        getDelegate().setClob(parameterIndex, reader);
+        record(SET_CLOB_INT_READER, parameterIndex, reader, null);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        getDelegate().setBlob(parameterIndex, inputStream);
+        record(SET_BLOB_INT_INPUT_STREAM, parameterIndex, inputStream, null);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        getDelegate().setNClob(parameterIndex, reader);
+        record(SET_NCLOB_INT_READER, parameterIndex, reader, null);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_QUERY_STRING, () -> getDelegate().executeQuery(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_QUERY_STRING, new Object[] {sql},
+                () -> resultSet(getDelegate().executeQuery(sql)));
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING, () -> getDelegate().executeUpdate(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING, new Object[] {sql},
+                () -> getDelegate().executeUpdate(sql));
+    }
+
+    @Override
+    public void close() throws SQLException {
+        getDelegate().close();
+        record(CLOSE, null);
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return record(GET_MAX_FIELD_SIZE, getDelegate().getMaxFieldSize());
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        getDelegate().setMaxFieldSize(max);
+        record(SET_MAX_FIELD_SIZE, max, null);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return record(GET_MAX_ROWS, getDelegate().getMaxRows());
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        getDelegate().setMaxRows(max);
+        record(SET_MAX_ROWS, max, null);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        getDelegate().setEscapeProcessing(enable);
+        record(SET_ESCAPE_PROCESSING, enable, null);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return record(GET_QUERY_TIMEOUT, getDelegate().getQueryTimeout());
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        getDelegate().setQueryTimeout(seconds);
+        record(SET_QUERY_TIMEOUT, seconds, null);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        getDelegate().cancel();
+        record(CANCEL, null);
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return record(GET_WARNINGS, getDelegate().getWarnings());
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        getDelegate().clearWarnings();
+        record(CLEAR_WARNINGS, null);
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        getDelegate().setCursorName(name);
+        record(SET_CURSOR_NAME, name, null);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING, () -> getDelegate().execute(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING, new Object[] {sql},
+                () -> getDelegate().execute(sql));
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return record(GET_RESULT_SET, resultSet(getDelegate().getResultSet()));
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return record(GET_UPDATE_COUNT, getDelegate().getUpdateCount());
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return record(GET_MORE_RESULTS, getDelegate().getMoreResults());
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        getDelegate().setFetchDirection(direction);
+        record(SET_FETCH_DIRECTION, direction, null);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return record(GET_FETCH_DIRECTION, getDelegate().getFetchDirection());
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        getDelegate().setFetchSize(rows);
+        record(SET_FETCH_SIZE, rows, null);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return record(GET_FETCH_SIZE, getDelegate().getFetchSize());
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return record(GET_RESULT_SET_CONCURRENCY, getDelegate().getResultSetConcurrency());
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return record(GET_RESULT_SET_TYPE, getDelegate().getResultSetType());
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        getDelegate().addBatch(sql);
+        record(ADD_BATCH_STRING, sql, null);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        getDelegate().clearBatch();
+        record(CLEAR_BATCH, null);
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_BATCH, () -> getDelegate().executeBatch());
+        }
+        return connection.executeTransaction(this, EXECUTE_BATCH, null, () -> getDelegate().executeBatch());
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return record(GET_MORE_RESULTS_INT, current, getDelegate().getMoreResults(current));
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return record(GET_GENERATED_KEYS, resultSet(getDelegate().getGeneratedKeys()));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING_INT,
+                    () -> getDelegate().executeUpdate(sql, autoGeneratedKeys));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING_INT, new Object[] {sql, autoGeneratedKeys},
+                () -> getDelegate().executeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING_INT_ARRAY,
+                    () -> getDelegate().executeUpdate(sql, columnIndexes));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING_INT_ARRAY, new Object[] {sql, columnIndexes},
+                () -> getDelegate().executeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING_STRING_ARRAY,
+                    () -> getDelegate().executeUpdate(sql, columnNames));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING_STRING_ARRAY, new Object[] {sql, columnNames},
+                () -> getDelegate().executeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING_INT,
+                    () -> getDelegate().execute(sql, autoGeneratedKeys));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING_INT, new Object[] {sql, autoGeneratedKeys},
+                () -> getDelegate().execute(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING_INT_ARRAY,
+                    () -> getDelegate().execute(sql, columnIndexes));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING_INT_ARRAY, new Object[] {sql, columnIndexes},
+                () -> getDelegate().execute(sql, columnIndexes));
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING_STRING_ARRAY,
+                    () -> getDelegate().execute(sql, columnNames));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING_STRING_ARRAY, new Object[] {sql, columnNames},
+                () -> getDelegate().execute(sql, columnNames));
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return record(GET_RESULT_SET_HOLDABILITY, getDelegate().getResultSetHoldability());
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return record(IS_CLOSED, getDelegate().isClosed());
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        getDelegate().setPoolable(poolable);
+        record(SET_POOLABLE, poolable, null);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return record(IS_POOLABLE, getDelegate().isPoolable());
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        getDelegate().closeOnCompletion();
+        record(CLOSE_ON_COMPLETION, null);
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return record(IS_CLOSE_ON_COMPLETION, getDelegate().isCloseOnCompletion());
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        getDelegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        record(SET_OBJECT_INT_OBJECT_SQLTYPE_INT, parameterIndex, x, targetSqlType, scaleOrLength, null);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        getDelegate().setObject(parameterIndex, x, targetSqlType);
+        record(SET_OBJECT_INT_OBJECT_SQLTYPE, parameterIndex, x, targetSqlType, null);
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE,
+                    () -> getDelegate().executeLargeUpdate());
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE, null,
+                () -> getDelegate().executeLargeUpdate());
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return record(GET_LARGE_UPDATE_COUNT, getDelegate().getLargeUpdateCount());
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        getDelegate().setLargeMaxRows(max);
+        record(SET_LARGE_MAX_ROWS, max, null);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return record(GET_LARGE_MAX_ROWS, getDelegate().getLargeMaxRows());
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_BATCH, () -> getDelegate().executeLargeBatch());
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_BATCH, null, () -> getDelegate().executeLargeBatch());
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING,
+                    () -> getDelegate().executeLargeUpdate(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING, new Object[] {sql},
+                () -> getDelegate().executeLargeUpdate(sql));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING_INT,
+                    () -> getDelegate().executeLargeUpdate(sql, autoGeneratedKeys));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING_INT,
+                new Object[] {sql, autoGeneratedKeys}, () -> getDelegate().executeLargeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY,
+                    () -> getDelegate().executeLargeUpdate(sql, columnIndexes));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY,
+                new Object[] {sql, columnIndexes}, () -> getDelegate().executeLargeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY,
+                    () -> getDelegate().executeLargeUpdate(sql, columnNames));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY,
+                new Object[] {sql, columnNames}, () -> getDelegate().executeLargeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return getDelegate().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || getDelegate().isWrapperFor(iface);
+    }
+}
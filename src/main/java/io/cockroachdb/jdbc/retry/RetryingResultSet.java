@@ -0,0 +1,1621 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * A concrete {@code java.sql.ResultSet} wrapper with retry capability, functionally equivalent to
+ * {@link ResultSetRetryInterceptor}. Methods are invoked directly on the delegate rather than through
+ * a dynamic proxy and reflection, which allows the JIT compiler to inline the column getters. Method
+ * executions are recorded and checksummed for replay by the same retry logic.
+ *
+ * @author Kai Niemi
+ */
+public class RetryingResultSet extends ResultSetRetryInterceptor implements ResultSet {
+    private static final Method NEXT = lookupMethod(ResultSet.class, "next");
+
+    private static final Method CLOSE = lookupMethod(ResultSet.class, "close");
+
+    private static final Method WAS_NULL = lookupMethod(ResultSet.class, "wasNull");
+
+    private static final Method GET_STRING_INT = lookupMethod(ResultSet.class, "getString", int.class);
+
+    private static final Method GET_BOOLEAN_INT = lookupMethod(ResultSet.class, "getBoolean", int.class);
+
+    private static final Method GET_BYTE_INT = lookupMethod(ResultSet.class, "getByte", int.class);
+
+    private static final Method GET_SHORT_INT = lookupMethod(ResultSet.class, "getShort", int.class);
+
+    private static final Method GET_INT_INT = lookupMethod(ResultSet.class, "getInt", int.class);
+
+    private static final Method GET_LONG_INT = lookupMethod(ResultSet.class, "getLong", int.class);
+
+    private static final Method GET_FLOAT_INT = lookupMethod(ResultSet.class, "getFloat", int.class);
+
+    private static final Method GET_DOUBLE_INT = lookupMethod(ResultSet.class, "getDouble", int.class);
+
+    private static final Method GET_BIG_DECIMAL_INT_INT
+            = lookupMethod(ResultSet.class, "getBigDecimal", int.class, int.class);
+
+    private static final Method GET_BYTES_INT = lookupMethod(ResultSet.class, "getBytes", int.class);
+
+    private static final Method GET_DATE_INT = lookupMethod(ResultSet.class, "getDate", int.class);
+
+    private static final Method GET_TIME_INT = lookupMethod(ResultSet.class, "getTime", int.class);
+
+    private static final Method GET_TIMESTAMP_INT = lookupMethod(ResultSet.class, "getTimestamp", int.class);
+
+    private static final Method GET_ASCII_STREAM_INT = lookupMethod(ResultSet.class, "getAsciiStream", int.class);
+
+    private static final Method GET_UNICODE_STREAM_INT = lookupMethod(ResultSet.class, "getUnicodeStream", int.class);
+
+    private static final Method GET_BINARY_STREAM_INT = lookupMethod(ResultSet.class, "getBinaryStream", int.class);
+
+    private static final Method GET_STRING_STRING = lookupMethod(ResultSet.class, "getString", String.class);
+
+    private static final Method GET_BOOLEAN_STRING = lookupMethod(ResultSet.class, "getBoolean", String.class);
+
+    private static final Method GET_BYTE_STRING = lookupMethod(ResultSet.class, "getByte", String.class);
+
+    private static final Method GET_SHORT_STRING = lookupMethod(ResultSet.class, "getShort", String.class);
+
+    private static final Method GET_INT_STRING = lookupMethod(ResultSet.class, "getInt", String.class);
+
+    private static final Method GET_LONG_STRING = lookupMethod(ResultSet.class, "getLong", String.class);
+
+    private static final Method GET_FLOAT_STRING = lookupMethod(ResultSet.class, "getFloat", String.class);
+
+    private static final Method GET_DOUBLE_STRING = lookupMethod(ResultSet.class, "getDouble", String.class);
+
+    private static final Method GET_BIG_DECIMAL_STRING_INT
+            = lookupMethod(ResultSet.class, "getBigDecimal", String.class, int.class);
+
+    private static final Method GET_BYTES_STRING = lookupMethod(ResultSet.class, "getBytes", String.class);
+
+    private static final Method GET_DATE_STRING = lookupMethod(ResultSet.class, "getDate", String.class);
+
+    private static final Method GET_TIME_STRING = lookupMethod(ResultSet.class, "getTime", String.class);
+
+    private static final Method GET_TIMESTAMP_STRING = lookupMethod(ResultSet.class, "getTimestamp", String.class);
+
+    private static final Method GET_ASCII_STREAM_STRING = lookupMethod(ResultSet.class, "getAsciiStream", String.class);
+
+    private static final Method GET_UNICODE_STREAM_STRING
+            = lookupMethod(ResultSet.class, "getUnicodeStream", String.class);
+
+    private static final Method GET_BINARY_STREAM_STRING
+            = lookupMethod(ResultSet.class, "getBinaryStream", String.class);
+
+    private static final Method GET_WARNINGS = lookupMethod(ResultSet.class, "getWarnings");
+
+    private static final Method CLEAR_WARNINGS = lookupMethod(ResultSet.class, "clearWarnings");
+
+    private static final Method GET_CURSOR_NAME = lookupMethod(ResultSet.class, "getCursorName");
+
+    private static final Method GET_META_DATA = lookupMethod(ResultSet.class, "getMetaData");
+
+    private static final Method GET_OBJECT_INT = lookupMethod(ResultSet.class, "getObject", int.class);
+
+    private static final Method GET_OBJECT_STRING = lookupMethod(ResultSet.class, "getObject", String.class);
+
+    private static final Method FIND_COLUMN = lookupMethod(ResultSet.class, "findColumn", String.class);
+
+    private static final Method GET_CHARACTER_STREAM_INT
+            = lookupMethod(ResultSet.class, "getCharacterStream", int.class);
+
+    private static final Method GET_CHARACTER_STREAM_STRING
+            = lookupMethod(ResultSet.class, "getCharacterStream", String.class);
+
+    private static final Method GET_BIG_DECIMAL_INT = lookupMethod(ResultSet.class, "getBigDecimal", int.class);
+
+    private static final Method GET_BIG_DECIMAL_STRING = lookupMethod(ResultSet.class, "getBigDecimal", String.class);
+
+    private static final Method IS_BEFORE_FIRST = lookupMethod(ResultSet.class, "isBeforeFirst");
+
+    private static final Method IS_AFTER_LAST = lookupMethod(ResultSet.class, "isAfterLast");
+
+    private static final Method IS_FIRST = lookupMethod(ResultSet.class, "isFirst");
+
+    private static final Method IS_LAST = lookupMethod(ResultSet.class, "isLast");
+
+    private static final Method BEFORE_FIRST = lookupMethod(ResultSet.class, "beforeFirst");
+
+    private static final Method AFTER_LAST = lookupMethod(ResultSet.class, "afterLast");
+
+    private static final Method FIRST = lookupMethod(ResultSet.class, "first");
+
+    private static final Method LAST = lookupMethod(ResultSet.class, "last");
+
+    private static final Method GET_ROW = lookupMethod(ResultSet.class, "getRow");
+
+    private static final Method ABSOLUTE = lookupMethod(ResultSet.class, "absolute", int.class);
+
+    private static final Method RELATIVE = lookupMethod(ResultSet.class, "relative", int.class);
+
+    private static final Method PREVIOUS = lookupMethod(ResultSet.class, "previous");
+
+    private static final Method SET_FETCH_DIRECTION = lookupMethod(ResultSet.class, "setFetchDirection", int.class);
+
+    private static final Method GET_FETCH_DIRECTION = lookupMethod(ResultSet.class, "getFetchDirection");
+
+    private static final Method SET_FETCH_SIZE = lookupMethod(ResultSet.class, "setFetchSize", int.class);
+
+    private static final Method GET_FETCH_SIZE = lookupMethod(ResultSet.class, "getFetchSize");
+
+    private static final Method GET_TYPE = lookupMethod(ResultSet.class, "getType");
+
+    private static final Method GET_CONCURRENCY = lookupMethod(ResultSet.class, "getConcurrency");
+
+    private static final Method ROW_UPDATED = lookupMethod(ResultSet.class, "rowUpdated");
+
+    private static final Method ROW_INSERTED = lookupMethod(ResultSet.class, "rowInserted");
+
+    private static final Method ROW_DELETED = lookupMethod(ResultSet.class, "rowDeleted");
+
+    private static final Method UPDATE_NULL_INT = lookupMethod(ResultSet.class, "updateNull", int.class);
+
+    private static final Method UPDATE_BOOLEAN_INT_BOOLEAN
+            = lookupMethod(ResultSet.class, "updateBoolean", int.class, boolean.class);
+
+    private static final Method UPDATE_BYTE_INT_BYTE
+            = lookupMethod(ResultSet.class, "updateByte", int.class, byte.class);
+
+    private static final Method UPDATE_SHORT_INT_SHORT
+            = lookupMethod(ResultSet.class, "updateShort", int.class, short.class);
+
+    private static final Method UPDATE_INT_INT_INT = lookupMethod(ResultSet.class, "updateInt", int.class, int.class);
+
+    private static final Method UPDATE_LONG_INT_LONG
+            = lookupMethod(ResultSet.class, "updateLong", int.class, long.class);
+
+    private static final Method UPDATE_FLOAT_INT_FLOAT
+            = lookupMethod(ResultSet.class, "updateFloat", int.class, float.class);
+
+    private static final Method UPDATE_STRING_INT_STRING
+            = lookupMethod(ResultSet.class, "updateString", int.class, String.class);
+
+    private static final Method UPDATE_DOUBLE_INT_DOUBLE
+            = lookupMethod(ResultSet.class, "updateDouble", int.class, double.class);
+
+    private static final Method UPDATE_BIG_DECIMAL_INT_BIG_DECIMAL
+            = lookupMethod(ResultSet.class, "updateBigDecimal", int.class, BigDecimal.class);
+
+    private static final Method UPDATE_BYTES_INT_BYTE_ARRAY
+            = lookupMethod(ResultSet.class, "updateBytes", int.class, byte[].class);
+
+    private static final Method UPDATE_DATE_INT_DATE
+            = lookupMethod(ResultSet.class, "updateDate", int.class, Date.class);
+
+    private static final Method UPDATE_TIME_INT_TIME
+            = lookupMethod(ResultSet.class, "updateTime", int.class, Time.class);
+
+    private static final Method UPDATE_TIMESTAMP_INT_TIMESTAMP
+            = lookupMethod(ResultSet.class, "updateTimestamp", int.class, Timestamp.class);
+
+    private static final Method UPDATE_ASCII_STREAM_INT_INPUT_STREAM_INT
+            = lookupMethod(ResultSet.class, "updateAsciiStream", int.class, InputStream.class, int.class);
+
+    private static final Method UPDATE_BINARY_STREAM_INT_INPUT_STREAM_INT
+            = lookupMethod(ResultSet.class, "updateBinaryStream", int.class, InputStream.class, int.class);
+
+    private static final Method UPDATE_CHARACTER_STREAM_INT_READER_INT
+            = lookupMethod(ResultSet.class, "updateCharacterStream", int.class, Reader.class, int.class);
+
+    private static final Method UPDATE_OBJECT_INT_OBJECT_INT
+            = lookupMethod(ResultSet.class, "updateObject", int.class, Object.class, int.class);
+
+    private static final Method UPDATE_OBJECT_INT_OBJECT
+            = lookupMethod(ResultSet.class, "updateObject", int.class, Object.class);
+
+    private static final Method UPDATE_NULL_STRING = lookupMethod(ResultSet.class, "updateNull", String.class);
+
+    private static final Method UPDATE_BOOLEAN_STRING_BOOLEAN
+            = lookupMethod(ResultSet.class, "updateBoolean", String.class, boolean.class);
+
+    private static final Method UPDATE_BYTE_STRING_BYTE
+            = lookupMethod(ResultSet.class, "updateByte", String.class, byte.class);
+
+    private static final Method UPDATE_SHORT_STRING_SHORT
+            = lookupMethod(ResultSet.class, "updateShort", String.class, short.class);
+
+    private static final Method UPDATE_INT_STRING_INT
+            = lookupMethod(ResultSet.class, "updateInt", String.class, int.class);
+
+    private static final Method UPDATE_LONG_STRING_LONG
+            = lookupMethod(ResultSet.class, "updateLong", String.class, long.class);
+
+    private static final Method UPDATE_FLOAT_STRING_FLOAT
+            = lookupMethod(ResultSet.class, "updateFloat", String.class, float.class);
+
+    private static final Method UPDATE_DOUBLE_STRING_DOUBLE
+            = lookupMethod(ResultSet.class, "updateDouble", String.class, double.class);
+
+    private static final Method UPDATE_BIG_DECIMAL_STRING_BIG_DECIMAL
+            = lookupMethod(ResultSet.class, "updateBigDecimal", String.class, BigDecimal.class);
+
+    private static final Method UPDATE_STRING_STRING_STRING
+            = lookupMethod(ResultSet.class, "updateString", String.class, String.class);
+
+    private static final Method UPDATE_BYTES_STRING_BYTE_ARRAY
+            = lookupMethod(ResultSet.class, "updateBytes", String.class, byte[].class);
+
+    private static final Method UPDATE_DATE_STRING_DATE
+            = lookupMethod(ResultSet.class, "updateDate", String.class, Date.class);
+
+    private static final Method UPDATE_TIME_STRING_TIME
+            = lookupMethod(ResultSet.class, "updateTime", String.class, Time.class);
+
+    private static final Method UPDATE_TIMESTAMP_STRING_TIMESTAMP
+            = lookupMethod(ResultSet.class, "updateTimestamp", String.class, Timestamp.class);
+
+    private static final Method UPDATE_ASCII_STREAM_STRING_INPUT_STREAM_INT
+            = lookupMethod(ResultSet.class, "updateAsciiStream", String.class, InputStream.class, int.class);
+
+    private static final Method UPDATE_BINARY_STREAM_STRING_INPUT_STREAM_INT
+            = lookupMethod(ResultSet.class, "updateBinaryStream", String.class, InputStream.class, int.class);
+
+    private static final Method UPDATE_CHARACTER_STREAM_STRING_READER_INT
+            = lookupMethod(ResultSet.class, "updateCharacterStream", String.class, Reader.class, int.class);
+
+    private static final Method UPDATE_OBJECT_STRING_OBJECT_INT
+            = lookupMethod(ResultSet.class, "updateObject", String.class, Object.class, int.class);
+
+    private static final Method UPDATE_OBJECT_STRING_OBJECT
+            = lookupMethod(ResultSet.class, "updateObject", String.class, Object.class);
+
+    private static final Method INSERT_ROW = lookupMethod(ResultSet.class, "insertRow");
+
+    private static final Method UPDATE_ROW = lookupMethod(ResultSet.class, "updateRow");
+
+    private static final Method DELETE_ROW = lookupMethod(ResultSet.class, "deleteRow");
+
+    private static final Method REFRESH_ROW = lookupMethod(ResultSet.class, "refreshRow");
+
+    private static final Method CANCEL_ROW_UPDATES = lookupMethod(ResultSet.class, "cancelRowUpdates");
+
+    private static final Method MOVE_TO_INSERT_ROW = lookupMethod(ResultSet.class, "moveToInsertRow");
+
+    private static final Method MOVE_TO_CURRENT_ROW = lookupMethod(ResultSet.class, "moveToCurrentRow");
+
+    private static final Method GET_STATEMENT = lookupMethod(ResultSet.class, "getStatement");
+
+    private static final Method GET_OBJECT_INT_MAP = lookupMethod(ResultSet.class, "getObject", int.class, Map.class);
+
+    private static final Method GET_REF_INT = lookupMethod(ResultSet.class, "getRef", int.class);
+
+    private static final Method GET_BLOB_INT = lookupMethod(ResultSet.class, "getBlob", int.class);
+
+    private static final Method GET_CLOB_INT = lookupMethod(ResultSet.class, "getClob", int.class);
+
+    private static final Method GET_ARRAY_INT = lookupMethod(ResultSet.class, "getArray", int.class);
+
+    private static final Method GET_OBJECT_STRING_MAP
+            = lookupMethod(ResultSet.class, "getObject", String.class, Map.class);
+
+    private static final Method GET_REF_STRING = lookupMethod(ResultSet.class, "getRef", String.class);
+
+    private static final Method GET_BLOB_STRING = lookupMethod(ResultSet.class, "getBlob", String.class);
+
+    private static final Method GET_CLOB_STRING = lookupMethod(ResultSet.class, "getClob", String.class);
+
+    private static final Method GET_ARRAY_STRING = lookupMethod(ResultSet.class, "getArray", String.class);
+
+    private static final Method GET_DATE_INT_CALENDAR
+            = lookupMethod(ResultSet.class, "getDate", int.class, Calendar.class);
+
+    private static final Method GET_DATE_STRING_CALENDAR
+            = lookupMethod(ResultSet.class, "getDate", String.class, Calendar.class);
+
+    private static final Method GET_TIME_INT_CALENDAR
+            = lookupMethod(ResultSet.class, "getTime", int.class, Calendar.class);
+
+    private static final Method GET_TIME_STRING_CALENDAR
+            = lookupMethod(ResultSet.class, "getTime", String.class, Calendar.class);
+
+    private static final Method GET_TIMESTAMP_INT_CALENDAR
+            = lookupMethod(ResultSet.class, "getTimestamp", int.class, Calendar.class);
+
+    private static final Method GET_TIMESTAMP_STRING_CALENDAR
+            = lookupMethod(ResultSet.class, "getTimestamp", String.class, Calendar.class);
+
+    private static final Method GET_URL_INT = lookupMethod(ResultSet.class, "getURL", int.class);
+
+    private static final Method GET_URL_STRING = lookupMethod(ResultSet.class, "getURL", String.class);
+
+    private static final Method UPDATE_REF_INT_REF = lookupMethod(ResultSet.class, "updateRef", int.class, Ref.class);
+
+    private static final Method UPDATE_REF_STRING_REF
+            = lookupMethod(ResultSet.class, "updateRef", String.class, Ref.class);
+
+    private static final Method UPDATE_BLOB_INT_BLOB
+            = lookupMethod(ResultSet.class, "updateBlob", int.class, Blob.class);
+
+    private static final Method UPDATE_BLOB_STRING_BLOB
+            = lookupMethod(ResultSet.class, "updateBlob", String.class, Blob.class);
+
+    private static final Method UPDATE_CLOB_INT_CLOB
+            = lookupMethod(ResultSet.class, "updateClob", int.class, Clob.class);
+
+    private static final Method UPDATE_CLOB_STRING_CLOB
+            = lookupMethod(ResultSet.class, "updateClob", String.class, Clob.class);
+
+    private static final Method UPDATE_ARRAY_INT_ARRAY
+            = lookupMethod(ResultSet.class, "updateArray", int.class, Array.class);
+
+    private static final Method UPDATE_ARRAY_STRING_ARRAY
+            = lookupMethod(ResultSet.class, "updateArray", String.class, Array.class);
+
+    private static final Method GET_ROW_ID_INT = lookupMethod(ResultSet.class, "getRowId", int.class);
+
+    private static final Method GET_ROW_ID_STRING = lookupMethod(ResultSet.class, "getRowId", String.class);
+
+    private static final Method UPDATE_ROW_ID_INT_ROW_ID
+            = lookupMethod(ResultSet.class, "updateRowId", int.class, RowId.class);
+
+    private static final Method UPDATE_ROW_ID_STRING_ROW_ID
+            = lookupMethod(ResultSet.class, "updateRowId", String.class, RowId.class);
+
+    private static final Method GET_HOLDABILITY = lookupMethod(ResultSet.class, "getHoldability");
+
+    private static final Method IS_CLOSED = lookupMethod(ResultSet.class, "isClosed");
+
+    private static final Method UPDATE_NSTRING_INT_STRING
+            = lookupMethod(ResultSet.class, "updateNString", int.class, String.class);
+
+    private static final Method UPDATE_NSTRING_STRING_STRING
+            = lookupMethod(ResultSet.class, "updateNString", String.class, String.class);
+
+    private static final Method UPDATE_NCLOB_INT_NCLOB
+            = lookupMethod(ResultSet.class, "updateNClob", int.class, NClob.class);
+
+    private static final Method UPDATE_NCLOB_STRING_NCLOB
+            = lookupMethod(ResultSet.class, "updateNClob", String.class, NClob.class);
+
+    private static final Method GET_NCLOB_INT = lookupMethod(ResultSet.class, "getNClob", int.class);
+
+    private static final Method GET_NCLOB_STRING = lookupMethod(ResultSet.class, "getNClob", String.class);
+
+    private static final Method GET_SQLXML_INT = lookupMethod(ResultSet.class, "getSQLXML", int.class);
+
+    private static final Method GET_SQLXML_STRING = lookupMethod(ResultSet.class, "getSQLXML", String.class);
+
+    private static final Method UPDATE_SQLXML_INT_SQLXML
+            = lookupMethod(ResultSet.class, "updateSQLXML", int.class, SQLXML.class);
+
+    private static final Method UPDATE_SQLXML_STRING_SQLXML
+            = lookupMethod(ResultSet.class, "updateSQLXML", String.class, SQLXML.class);
+
+    private static final Method GET_NSTRING_INT = lookupMethod(ResultSet.class, "getNString", int.class);
+
+    private static final Method GET_NSTRING_STRING = lookupMethod(ResultSet.class, "getNString", String.class);
+
+    private static final Method GET_NCHARACTER_STREAM_INT
+            = lookupMethod(ResultSet.class, "getNCharacterStream", int.class);
+
+    private static final Method GET_NCHARACTER_STREAM_STRING
+            = lookupMethod(ResultSet.class, "getNCharacterStream", String.class);
+
+    private static final Method UPDATE_NCHARACTER_STREAM_INT_READER_LONG
+            = lookupMethod(ResultSet.class, "updateNCharacterStream", int.class, Reader.class, long.class);
+
+    private static final Method UPDATE_NCHARACTER_STREAM_STRING_READER_LONG
+            = lookupMethod(ResultSet.class, "updateNCharacterStream", String.class, Reader.class, long.class);
+
+    private static final Method UPDATE_ASCII_STREAM_INT_INPUT_STREAM_LONG
+            = lookupMethod(ResultSet.class, "updateAsciiStream", int.class, InputStream.class, long.class);
+
+    private static final Method UPDATE_BINARY_STREAM_INT_INPUT_STREAM_LONG
+            = lookupMethod(ResultSet.class, "updateBinaryStream", int.class, InputStream.class, long.class);
+
+    private static final Method UPDATE_CHARACTER_STREAM_INT_READER_LONG
+            = lookupMethod(ResultSet.class, "updateCharacterStream", int.class, Reader.class, long.class);
+
+    private static final Method UPDATE_ASCII_STREAM_STRING_INPUT_STREAM_LONG
+            = lookupMethod(ResultSet.class, "updateAsciiStream", String.class, InputStream.class, long.class);
+
+    private static final Method UPDATE_BINARY_STREAM_STRING_INPUT_STREAM_LONG
+            = lookupMethod(ResultSet.class, "updateBinaryStream", String.class, InputStream.class, long.class);
+
+    private static final Method UPDATE_CHARACTER_STREAM_STRING_READER_LONG
+            = lookupMethod(ResultSet.class, "updateCharacterStream", String.class, Reader.class, long.class);
+
+    private static final Method UPDATE_BLOB_INT_INPUT_STREAM_LONG
+            = lookupMethod(ResultSet.class, "updateBlob", int.class, InputStream.class, long.class);
+
+    private static final Method UPDATE_BLOB_STRING_INPUT_STREAM_LONG
+            = lookupMethod(ResultSet.class, "updateBlob", String.class, InputStream.class, long.class);
+
+    private static final Method UPDATE_CLOB_INT_READER_LONG
+            = lookupMethod(ResultSet.class, "updateClob", int.class, Reader.class, long.class);
+
+    private static final Method UPDATE_CLOB_STRING_READER_LONG
+            = lookupMethod(ResultSet.class, "updateClob", String.class, Reader.class, long.class);
+
+    private static final Method UPDATE_NCLOB_INT_READER_LONG
+            = lookupMethod(ResultSet.class, "updateNClob", int.class, Reader.class, long.class);
+
+    private static final Method UPDATE_NCLOB_STRING_READER_LONG
+            = lookupMethod(ResultSet.class, "updateNClob", String.class, Reader.class, long.class);
+
+    private static final Method UPDATE_NCHARACTER_STREAM_INT_READER
+            = lookupMethod(ResultSet.class, "updateNCharacterStream", int.class, Reader.class);
+
+    private static final Method UPDATE_NCHARACTER_STREAM_STRING_READER
+            = lookupMethod(ResultSet.class, "updateNCharacterStream", String.class, Reader.class);
+
+    private static final Method UPDATE_ASCII_STREAM_INT_INPUT_STREAM
+            = lookupMethod(ResultSet.class, "updateAsciiStream", int.class, InputStream.class);
+
+    private static final Method UPDATE_BINARY_STREAM_INT_INPUT_STREAM
+            = lookupMethod(ResultSet.class, "updateBinaryStream", int.class, InputStream.class);
+
+    private static final Method UPDATE_CHARACTER_STREAM_INT_READER
+            = lookupMethod(ResultSet.class, "updateCharacterStream", int.class, Reader.class);
+
+    private static final Method UPDATE_ASCII_STREAM_STRING_INPUT_STREAM
+            = lookupMethod(ResultSet.class, "updateAsciiStream", String.class, InputStream.class);
+
+    private static final Method UPDATE_BINARY_STREAM_STRING_INPUT_STREAM
+            = lookupMethod(ResultSet.class, "updateBinaryStream", String.class, InputStream.class);
+
+    private static final Method UPDATE_CHARACTER_STREAM_STRING_READER
+            = lookupMethod(ResultSet.class, "updateCharacterStream", String.class, Reader.class);
+
+    private static final Method UPDATE_BLOB_INT_INPUT_STREAM
+            = lookupMethod(ResultSet.class, "updateBlob", int.class, InputStream.class);
+
+    private static final Method UPDATE_BLOB_STRING_INPUT_STREAM
+            = lookupMethod(ResultSet.class, "updateBlob", String.class, InputStream.class);
+
+    private static final Method UPDATE_CLOB_INT_READER
+            = lookupMethod(ResultSet.class, "updateClob", int.class, Reader.class);
+
+    private static final Method UPDATE_CLOB_STRING_READER
+            = lookupMethod(ResultSet.class, "updateClob", String.class, Reader.class);
+
+    private static final Method UPDATE_NCLOB_INT_READER
+            = lookupMethod(ResultSet.class, "updateNClob", int.class, Reader.class);
+
+    private static final Method UPDATE_NCLOB_STRING_READER
+            = lookupMethod(ResultSet.class, "updateNClob", String.class, Reader.class);
+
+    private static final Method GET_OBJECT_INT_CLASS
+            = lookupMethod(ResultSet.class, "getObject", int.class, Class.class);
+
+    private static final Method GET_OBJECT_STRING_CLASS
+            = lookupMethod(ResultSet.class, "getObject", String.class, Class.class);
+
+    private static final Method UPDATE_OBJECT_INT_OBJECT_SQLTYPE_INT
+            = lookupMethod(ResultSet.class, "updateObject", int.class, Object.class, SQLType.class, int.class);
+
+    private static final Method UPDATE_OBJECT_STRING_OBJECT_SQLTYPE_INT
+            = lookupMethod(ResultSet.class, "updateObject", String.class, Object.class, SQLType.class, int.class);
+
+    private static final Method UPDATE_OBJECT_INT_OBJECT_SQLTYPE
+            = lookupMethod(ResultSet.class, "updateObject", int.class, Object.class, SQLType.class);
+
+    private static final Method UPDATE_OBJECT_STRING_OBJECT_SQLTYPE
+            = lookupMethod(ResultSet.class, "updateObject", String.class, Object.class, SQLType.class);
+
+    public RetryingResultSet(ResultSet delegate, ConnectionRetryInterceptor connectionRetryInterceptor) {
+        super(delegate, connectionRetryInterceptor);
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        return recordBoolean(NEXT, getDelegate().next());
+    }
+
+    @Override
+    public void close() throws SQLException {
+        getDelegate().close();
+        record(CLOSE, null);
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        return recordBoolean(WAS_NULL, getDelegate().wasNull());
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        return record(GET_STRING_INT, columnIndex, getDelegate().getString(columnIndex));
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        return recordBoolean(GET_BOOLEAN_INT, columnIndex, getDelegate().getBoolean(columnIndex));
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        return recordByte(GET_BYTE_INT, columnIndex, getDelegate().getByte(columnIndex));
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        return recordShort(GET_SHORT_INT, columnIndex, getDelegate().getShort(columnIndex));
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        return recordInt(GET_INT_INT, columnIndex, getDelegate().getInt(columnIndex));
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        return recordLong(GET_LONG_INT, columnIndex, getDelegate().getLong(columnIndex));
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        return recordFloat(GET_FLOAT_INT, columnIndex, getDelegate().getFloat(columnIndex));
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        return recordDouble(GET_DOUBLE_INT, columnIndex, getDelegate().getDouble(columnIndex));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        return record(GET_BIG_DECIMAL_INT_INT, new Object[] {columnIndex, scale},
+                getDelegate().getBigDecimal(columnIndex, scale));
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        return record(GET_BYTES_INT, columnIndex, getDelegate().getBytes(columnIndex));
+    }
+
+    @Override
+    public Date getDate(int columnIndex) throws SQLException {
+        return record(GET_DATE_INT, columnIndex, getDelegate().getDate(columnIndex));
+    }
+
+    @Override
+    public Time getTime(int columnIndex) throws SQLException {
+        return record(GET_TIME_INT, columnIndex, getDelegate().getTime(columnIndex));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        return record(GET_TIMESTAMP_INT, columnIndex, getDelegate().getTimestamp(columnIndex));
+    }
+
+    @Override
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        return record(GET_ASCII_STREAM_INT, columnIndex, getDelegate().getAsciiStream(columnIndex));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        return record(GET_UNICODE_STREAM_INT, columnIndex, getDelegate().getUnicodeStream(columnIndex));
+    }
+
+    @Override
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        return record(GET_BINARY_STREAM_INT, columnIndex, getDelegate().getBinaryStream(columnIndex));
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        return record(GET_STRING_STRING, columnLabel, getDelegate().getString(columnLabel));
+    }
+
+    @Override
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return recordBoolean(GET_BOOLEAN_STRING, columnLabel, getDelegate().getBoolean(columnLabel));
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        return recordByte(GET_BYTE_STRING, columnLabel, getDelegate().getByte(columnLabel));
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        return recordShort(GET_SHORT_STRING, columnLabel, getDelegate().getShort(columnLabel));
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        return recordInt(GET_INT_STRING, columnLabel, getDelegate().getInt(columnLabel));
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        return recordLong(GET_LONG_STRING, columnLabel, getDelegate().getLong(columnLabel));
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        return recordFloat(GET_FLOAT_STRING, columnLabel, getDelegate().getFloat(columnLabel));
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        return recordDouble(GET_DOUBLE_STRING, columnLabel, getDelegate().getDouble(columnLabel));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        return record(GET_BIG_DECIMAL_STRING_INT, new Object[] {columnLabel, scale},
+                getDelegate().getBigDecimal(columnLabel, scale));
+    }
+
+    @Override
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        return record(GET_BYTES_STRING, columnLabel, getDelegate().getBytes(columnLabel));
+    }
+
+    @Override
+    public Date getDate(String columnLabel) throws SQLException {
+        return record(GET_DATE_STRING, columnLabel, getDelegate().getDate(columnLabel));
+    }
+
+    @Override
+    public Time getTime(String columnLabel) throws SQLException {
+        return record(GET_TIME_STRING, columnLabel, getDelegate().getTime(columnLabel));
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return record(GET_TIMESTAMP_STRING, columnLabel, getDelegate().getTimestamp(columnLabel));
+    }
+
+    @Override
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        return record(GET_ASCII_STREAM_STRING, columnLabel, getDelegate().getAsciiStream(columnLabel));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        return record(GET_UNICODE_STREAM_STRING, new Object[] {columnLabel},
+                getDelegate().getUnicodeStream(columnLabel));
+    }
+
+    @Override
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        return record(GET_BINARY_STREAM_STRING, columnLabel, getDelegate().getBinaryStream(columnLabel));
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return record(GET_WARNINGS, getDelegate().getWarnings());
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        getDelegate().clearWarnings();
+        record(CLEAR_WARNINGS, null);
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        return record(GET_CURSOR_NAME, getDelegate().getCursorName());
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return record(GET_META_DATA, getDelegate().getMetaData());
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        return record(GET_OBJECT_INT, columnIndex, getDelegate().getObject(columnIndex));
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        return record(GET_OBJECT_STRING, columnLabel, getDelegate().getObject(columnLabel));
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        return recordInt(FIND_COLUMN, columnLabel, getDelegate().findColumn(columnLabel));
+    }
+
+    @Override
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        return record(GET_CHARACTER_STREAM_INT, new Object[] {columnIndex},
+                getDelegate().getCharacterStream(columnIndex));
+    }
+
+    @Override
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        return record(GET_CHARACTER_STREAM_STRING, new Object[] {columnLabel},
+                getDelegate().getCharacterStream(columnLabel));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        return record(GET_BIG_DECIMAL_INT, columnIndex, getDelegate().getBigDecimal(columnIndex));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return record(GET_BIG_DECIMAL_STRING, columnLabel, getDelegate().getBigDecimal(columnLabel));
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        return recordBoolean(IS_BEFORE_FIRST, getDelegate().isBeforeFirst());
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        return recordBoolean(IS_AFTER_LAST, getDelegate().isAfterLast());
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        return recordBoolean(IS_FIRST, getDelegate().isFirst());
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        return recordBoolean(IS_LAST, getDelegate().isLast());
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        getDelegate().beforeFirst();
+        record(BEFORE_FIRST, null);
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        getDelegate().afterLast();
+        record(AFTER_LAST, null);
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        return recordBoolean(FIRST, getDelegate().first());
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        return recordBoolean(LAST, getDelegate().last());
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        return recordInt(GET_ROW, getDelegate().getRow());
+    }
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        return recordBoolean(ABSOLUTE, row, getDelegate().absolute(row));
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        return recordBoolean(RELATIVE, rows, getDelegate().relative(rows));
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        return recordBoolean(PREVIOUS, getDelegate().previous());
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        getDelegate().setFetchDirection(direction);
+        record(SET_FETCH_DIRECTION, direction, null);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return recordInt(GET_FETCH_DIRECTION, getDelegate().getFetchDirection());
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        getDelegate().setFetchSize(rows);
+        record(SET_FETCH_SIZE, rows, null);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return recordInt(GET_FETCH_SIZE, getDelegate().getFetchSize());
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        return recordInt(GET_TYPE, getDelegate().getType());
+    }
+
+    @Override
+    public int getConcurrency() throws SQLException {
+        return recordInt(GET_CONCURRENCY, getDelegate().getConcurrency());
+    }
+
+    @Override
+    public boolean rowUpdated() throws SQLException {
+        return recordBoolean(ROW_UPDATED, getDelegate().rowUpdated());
+    }
+
+    @Override
+    public boolean rowInserted() throws SQLException {
+        return recordBoolean(ROW_INSERTED, getDelegate().rowInserted());
+    }
+
+    @Override
+    public boolean rowDeleted() throws SQLException {
+        return recordBoolean(ROW_DELETED, getDelegate().rowDeleted());
+    }
+
+    @Override
+    public void updateNull(int columnIndex) throws SQLException {
+        getDelegate().updateNull(columnIndex);
+        record(UPDATE_NULL_INT, columnIndex, null);
+    }
+
+    @Override
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+        getDelegate().updateBoolean(columnIndex, x);
+        record(UPDATE_BOOLEAN_INT_BOOLEAN, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+        getDelegate().updateByte(columnIndex, x);
+        record(UPDATE_BYTE_INT_BYTE, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateShort(int columnIndex, short x) throws SQLException {
+        getDelegate().updateShort(columnIndex, x);
+        record(UPDATE_SHORT_INT_SHORT, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateInt(int columnIndex, int x) throws SQLException {
+        getDelegate().updateInt(columnIndex, x);
+        record(UPDATE_INT_INT_INT, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateLong(int columnIndex, long x) throws SQLException {
+        getDelegate().updateLong(columnIndex, x);
+        record(UPDATE_LONG_INT_LONG, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+        getDelegate().updateFloat(columnIndex, x);
+        record(UPDATE_FLOAT_INT_FLOAT, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateString(int columnIndex, String x) throws SQLException {
+        getDelegate().updateString(columnIndex, x);
+        record(UPDATE_STRING_INT_STRING, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+        getDelegate().updateDouble(columnIndex, x);
+        record(UPDATE_DOUBLE_INT_DOUBLE, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+        getDelegate().updateBigDecimal(columnIndex, x);
+        record(UPDATE_BIG_DECIMAL_INT_BIG_DECIMAL, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+        getDelegate().updateBytes(columnIndex, x);
+        record(UPDATE_BYTES_INT_BYTE_ARRAY, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+        getDelegate().updateDate(columnIndex, x);
+        record(UPDATE_DATE_INT_DATE, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+        getDelegate().updateTime(columnIndex, x);
+        record(UPDATE_TIME_INT_TIME, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+        getDelegate().updateTimestamp(columnIndex, x);
+        record(UPDATE_TIMESTAMP_INT_TIMESTAMP, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+        getDelegate().updateAsciiStream(columnIndex, x, length);
+        record(UPDATE_ASCII_STREAM_INT_INPUT_STREAM_INT, columnIndex, x, length, null);
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+        getDelegate().updateBinaryStream(columnIndex, x, length);
+        record(UPDATE_BINARY_STREAM_INT_INPUT_STREAM_INT, columnIndex, x, length, null);
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+        getDelegate().updateCharacterStream(columnIndex, x, length);
+        record(UPDATE_CHARACTER_STREAM_INT_READER_INT, columnIndex, x, length, null);
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+        getDelegate().updateObject(columnIndex, x, scaleOrLength);
+        record(UPDATE_OBJECT_INT_OBJECT_INT, columnIndex, x, scaleOrLength, null);
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+        getDelegate().updateObject(columnIndex, x);
+        record(UPDATE_OBJECT_INT_OBJECT, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateNull(String columnLabel) throws SQLException {
+        getDelegate().updateNull(columnLabel);
+        record(UPDATE_NULL_STRING, columnLabel, null);
+    }
+
+    @Override
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+        getDelegate().updateBoolean(columnLabel, x);
+        record(UPDATE_BOOLEAN_STRING_BOOLEAN, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+        getDelegate().updateByte(columnLabel, x);
+        record(UPDATE_BYTE_STRING_BYTE, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateShort(String columnLabel, short x) throws SQLException {
+        getDelegate().updateShort(columnLabel, x);
+        record(UPDATE_SHORT_STRING_SHORT, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateInt(String columnLabel, int x) throws SQLException {
+        getDelegate().updateInt(columnLabel, x);
+        record(UPDATE_INT_STRING_INT, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateLong(String columnLabel, long x) throws SQLException {
+        getDelegate().updateLong(columnLabel, x);
+        record(UPDATE_LONG_STRING_LONG, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+        getDelegate().updateFloat(columnLabel, x);
+        record(UPDATE_FLOAT_STRING_FLOAT, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+        getDelegate().updateDouble(columnLabel, x);
+        record(UPDATE_DOUBLE_STRING_DOUBLE, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+        getDelegate().updateBigDecimal(columnLabel, x);
+        record(UPDATE_BIG_DECIMAL_STRING_BIG_DECIMAL, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateString(String columnLabel, String x) throws SQLException {
+        getDelegate().updateString(columnLabel, x);
+        record(UPDATE_STRING_STRING_STRING, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+        getDelegate().updateBytes(columnLabel, x);
+        record(UPDATE_BYTES_STRING_BYTE_ARRAY, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+        getDelegate().updateDate(columnLabel, x);
+        record(UPDATE_DATE_STRING_DATE, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+        getDelegate().updateTime(columnLabel, x);
+        record(UPDATE_TIME_STRING_TIME, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+        getDelegate().updateTimestamp(columnLabel, x);
+        record(UPDATE_TIMESTAMP_STRING_TIMESTAMP, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+        getDelegate().updateAsciiStream(columnLabel, x, length);
+        record(UPDATE_ASCII_STREAM_STRING_INPUT_STREAM_INT, columnLabel, x, length, null);
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+        getDelegate().updateBinaryStream(columnLabel, x, length);
+        record(UPDATE_BINARY_STREAM_STRING_INPUT_STREAM_INT, columnLabel, x, length, null);
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+        getDelegate().updateCharacterStream(columnLabel, reader, length);
+        record(UPDATE_CHARACTER_STREAM_STRING_READER_INT, columnLabel, reader, length, null);
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+        getDelegate().updateObject(columnLabel, x, scaleOrLength);
+        record(UPDATE_OBJECT_STRING_OBJECT_INT, columnLabel, x, scaleOrLength, null);
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+        getDelegate().updateObject(columnLabel, x);
+        record(UPDATE_OBJECT_STRING_OBJECT, columnLabel, x, null);
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+        getDelegate().insertRow();
+        record(INSERT_ROW, null);
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+        getDelegate().updateRow();
+        record(UPDATE_ROW, null);
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+        getDelegate().deleteRow();
+        record(DELETE_ROW, null);
+    }
+
+    @Override
+    public void refreshRow() throws SQLException {
+        getDelegate().refreshRow();
+        record(REFRESH_ROW, null);
+    }
+
+    @Override
+    public void cancelRowUpdates() throws SQLException {
+        getDelegate().cancelRowUpdates();
+        record(CANCEL_ROW_UPDATES, null);
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+        getDelegate().moveToInsertRow();
+        record(MOVE_TO_INSERT_ROW, null);
+    }
+
+    @Override
+    public void moveToCurrentRow() throws SQLException {
+        getDelegate().moveToCurrentRow();
+        record(MOVE_TO_CURRENT_ROW, null);
+    }
+
+    @Override
+    public Statement getStatement() throws SQLException {
+        return record(GET_STATEMENT, getDelegate().getStatement());
+    }
+
+    @Override
+    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+        return record(GET_OBJECT_INT_MAP, columnIndex, map, getDelegate().getObject(columnIndex, map));
+    }
+
+    @Override
+    public Ref getRef(int columnIndex) throws SQLException {
+        return record(GET_REF_INT, columnIndex, getDelegate().getRef(columnIndex));
+    }
+
+    @Override
+    public Blob getBlob(int columnIndex) throws SQLException {
+        return record(GET_BLOB_INT, columnIndex, getDelegate().getBlob(columnIndex));
+    }
+
+    @Override
+    public Clob getClob(int columnIndex) throws SQLException {
+        return record(GET_CLOB_INT, columnIndex, getDelegate().getClob(columnIndex));
+    }
+
+    @Override
+    public Array getArray(int columnIndex) throws SQLException {
+        return record(GET_ARRAY_INT, columnIndex, getDelegate().getArray(columnIndex));
+    }
+
+    @Override
+    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+        return record(GET_OBJECT_STRING_MAP, new Object[] {columnLabel, map},
+                getDelegate().getObject(columnLabel, map));
+    }
+
+    @Override
+    public Ref getRef(String columnLabel) throws SQLException {
+        return record(GET_REF_STRING, columnLabel, getDelegate().getRef(columnLabel));
+    }
+
+    @Override
+    public Blob getBlob(String columnLabel) throws SQLException {
+        return record(GET_BLOB_STRING, columnLabel, getDelegate().getBlob(columnLabel));
+    }
+
+    @Override
+    public Clob getClob(String columnLabel) throws SQLException {
+        return record(GET_CLOB_STRING, columnLabel, getDelegate().getClob(columnLabel));
+    }
+
+    @Override
+    public Array getArray(String columnLabel) throws SQLException {
+        return record(GET_ARRAY_STRING, columnLabel, getDelegate().getArray(columnLabel));
+    }
+
+    @Override
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        return record(GET_DATE_INT_CALENDAR, columnIndex, cal, getDelegate().getDate(columnIndex, cal));
+    }
+
+    @Override
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        return record(GET_DATE_STRING_CALENDAR, new Object[] {columnLabel, cal},
+                getDelegate().getDate(columnLabel, cal));
+    }
+
+    @Override
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        return record(GET_TIME_INT_CALENDAR, columnIndex, cal, getDelegate().getTime(columnIndex, cal));
+    }
+
+    @Override
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        return record(GET_TIME_STRING_CALENDAR, new Object[] {columnLabel, cal},
+                getDelegate().getTime(columnLabel, cal));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        return record(GET_TIMESTAMP_INT_CALENDAR, new Object[] {columnIndex, cal},
+                getDelegate().getTimestamp(columnIndex, cal));
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        return record(GET_TIMESTAMP_STRING_CALENDAR, new Object[] {columnLabel, cal},
+                getDelegate().getTimestamp(columnLabel, cal));
+    }
+
+    @Override
+    public URL getURL(int columnIndex) throws SQLException {
+        return record(GET_URL_INT, columnIndex, getDelegate().getURL(columnIndex));
+    }
+
+    @Override
+    public URL getURL(String columnLabel) throws SQLException {
+        return record(GET_URL_STRING, columnLabel, getDelegate().getURL(columnLabel));
+    }
+
+    @Override
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+        getDelegate().updateRef(columnIndex, x);
+        record(UPDATE_REF_INT_REF, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+        getDelegate().updateRef(columnLabel, x);
+        record(UPDATE_REF_STRING_REF, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+        getDelegate().updateBlob(columnIndex, x);
+        record(UPDATE_BLOB_INT_BLOB, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+        getDelegate().updateBlob(columnLabel, x);
+        record(UPDATE_BLOB_STRING_BLOB, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+        getDelegate().updateClob(columnIndex, x);
+        record(UPDATE_CLOB_INT_CLOB, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+        getDelegate().updateClob(columnLabel, x);
+        record(UPDATE_CLOB_STRING_CLOB, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        getDelegate().updateArray(columnIndex, x);
+        record(UPDATE_ARRAY_INT_ARRAY, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        getDelegate().updateArray(columnLabel, x);
+        record(UPDATE_ARRAY_STRING_ARRAY, columnLabel, x, null);
+    }
+
+    @Override
+    public RowId getRowId(int columnIndex) throws SQLException {
+        return record(GET_ROW_ID_INT, columnIndex, getDelegate().getRowId(columnIndex));
+    }
+
+    @Override
+    public RowId getRowId(String columnLabel) throws SQLException {
+        return record(GET_ROW_ID_STRING, columnLabel, getDelegate().getRowId(columnLabel));
+    }
+
+    @Override
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+        getDelegate().updateRowId(columnIndex, x);
+        record(UPDATE_ROW_ID_INT_ROW_ID, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+        getDelegate().updateRowId(columnLabel, x);
+        record(UPDATE_ROW_ID_STRING_ROW_ID, columnLabel, x, null);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return recordInt(GET_HOLDABILITY, getDelegate().getHoldability());
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return recordBoolean(IS_CLOSED, getDelegate().isClosed());
+    }
+
+    @Override
+    public void updateNString(int columnIndex, String nString) throws SQLException {
+        getDelegate().updateNString(columnIndex, nString);
+        record(UPDATE_NSTRING_INT_STRING, columnIndex, nString, null);
+    }
+
+    @Override
+    public void updateNString(String columnLabel, String nString) throws SQLException {
+        getDelegate().updateNString(columnLabel, nString);
+        record(UPDATE_NSTRING_STRING_STRING, columnLabel, nString, null);
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
+        getDelegate().updateNClob(columnIndex, nClob);
+        record(UPDATE_NCLOB_INT_NCLOB, columnIndex, nClob, null);
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
+        getDelegate().updateNClob(columnLabel, nClob);
+        record(UPDATE_NCLOB_STRING_NCLOB, columnLabel, nClob, null);
+    }
+
+    @Override
+    public NClob getNClob(int columnIndex) throws SQLException {
+        return record(GET_NCLOB_INT, columnIndex, getDelegate().getNClob(columnIndex));
+    }
+
+    @Override
+    public NClob getNClob(String columnLabel) throws SQLException {
+        return record(GET_NCLOB_STRING, columnLabel, getDelegate().getNClob(columnLabel));
+    }
+
+    @Override
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        return record(GET_SQLXML_INT, columnIndex, getDelegate().getSQLXML(columnIndex));
+    }
+
+    @Override
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        return record(GET_SQLXML_STRING, columnLabel, getDelegate().getSQLXML(columnLabel));
+    }
+
+    @Override
+    public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
+        getDelegate().updateSQLXML(columnIndex, xmlObject);
+        record(UPDATE_SQLXML_INT_SQLXML, columnIndex, xmlObject, null);
+    }
+
+    @Override
+    public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
+        getDelegate().updateSQLXML(columnLabel, xmlObject);
+        record(UPDATE_SQLXML_STRING_SQLXML, columnLabel, xmlObject, null);
+    }
+
+    @Override
+    public String getNString(int columnIndex) throws SQLException {
+        return record(GET_NSTRING_INT, columnIndex, getDelegate().getNString(columnIndex));
+    }
+
+    @Override
+    public String getNString(String columnLabel) throws SQLException {
+        return record(GET_NSTRING_STRING, columnLabel, getDelegate().getNString(columnLabel));
+    }
+
+    @Override
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        return record(GET_NCHARACTER_STREAM_INT, new Object[] {columnIndex},
+                getDelegate().getNCharacterStream(columnIndex));
+    }
+
+    @Override
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        return record(GET_NCHARACTER_STREAM_STRING, new Object[] {columnLabel},
+                getDelegate().getNCharacterStream(columnLabel));
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        getDelegate().updateNCharacterStream(columnIndex, x, length);
+        record(UPDATE_NCHARACTER_STREAM_INT_READER_LONG, columnIndex, x, length, null);
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        getDelegate().updateNCharacterStream(columnLabel, reader, length);
+        record(UPDATE_NCHARACTER_STREAM_STRING_READER_LONG, columnLabel, reader, length, null);
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+        getDelegate().updateAsciiStream(columnIndex, x, length);
+        record(UPDATE_ASCII_STREAM_INT_INPUT_STREAM_LONG, columnIndex, x, length, null);
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+        getDelegate().updateBinaryStream(columnIndex, x, length);
+        record(UPDATE_BINARY_STREAM_INT_INPUT_STREAM_LONG, columnIndex, x, length, null);
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        getDelegate().updateCharacterStream(columnIndex, x, length);
+        record(UPDATE_CHARACTER_STREAM_INT_READER_LONG, columnIndex, x, length, null);
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+        getDelegate().updateAsciiStream(columnLabel, x, length);
+        record(UPDATE_ASCII_STREAM_STRING_INPUT_STREAM_LONG, columnLabel, x, length, null);
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+        getDelegate().updateBinaryStream(columnLabel, x, length);
+        record(UPDATE_BINARY_STREAM_STRING_INPUT_STREAM_LONG, columnLabel, x, length, null);
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        getDelegate().updateCharacterStream(columnLabel, reader, length);
+        record(UPDATE_CHARACTER_STREAM_STRING_READER_LONG, columnLabel, reader, length, null);
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+        getDelegate().updateBlob(columnIndex, inputStream, length);
+        record(UPDATE_BLOB_INT_INPUT_STREAM_LONG, columnIndex, inputStream, length, null);
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+        getDelegate().updateBlob(columnLabel, inputStream, length);
+        record(UPDATE_BLOB_STRING_INPUT_STREAM_LONG, columnLabel, inputStream, length, null);
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+        getDelegate().updateClob(columnIndex, reader, length);
+        record(UPDATE_CLOB_INT_READER_LONG, columnIndex, reader, length, null);
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+        getDelegate().updateClob(columnLabel, reader, length);
+        record(UPDATE_CLOB_STRING_READER_LONG, columnLabel, reader, length, null);
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+        getDelegate().updateNClob(columnIndex, reader, length);
+        record(UPDATE_NCLOB_INT_READER_LONG, columnIndex, reader, length, null);
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+        getDelegate().updateNClob(columnLabel, reader, length);
+        record(UPDATE_NCLOB_STRING_READER_LONG, columnLabel, reader, length, null);
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+        getDelegate().updateNCharacterStream(columnIndex, x);
+        record(UPDATE_NCHARACTER_STREAM_INT_READER, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        getDelegate().updateNCharacterStream(columnLabel, reader);
+        record(UPDATE_NCHARACTER_STREAM_STRING_READER, columnLabel, reader, null);
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+        getDelegate().updateAsciiStream(columnIndex, x);
+        record(UPDATE_ASCII_STREAM_INT_INPUT_STREAM, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+        getDelegate().updateBinaryStream(columnIndex, x);
+        record(UPDATE_BINARY_STREAM_INT_INPUT_STREAM, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+        getDelegate().updateCharacterStream(columnIndex, x);
+        record(UPDATE_CHARACTER_STREAM_INT_READER, columnIndex, x, null);
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+        getDelegate().updateAsciiStream(columnLabel, x);
+        record(UPDATE_ASCII_STREAM_STRING_INPUT_STREAM, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+        getDelegate().updateBinaryStream(columnLabel, x);
+        record(UPDATE_BINARY_STREAM_STRING_INPUT_STREAM, columnLabel, x, null);
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        getDelegate().updateCharacterStream(columnLabel, reader);
+        record(UPDATE_CHARACTER_STREAM_STRING_READER, columnLabel, reader, null);
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+        getDelegate().updateBlob(columnIndex, inputStream);
+        record(UPDATE_BLOB_INT_INPUT_STREAM, columnIndex, inputStream, null);
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+        getDelegate().updateBlob(columnLabel, inputStream);
+        record(UPDATE_BLOB_STRING_INPUT_STREAM, columnLabel, inputStream, null);
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader) throws SQLException {
+        getDelegate().updateClob(columnIndex, reader);
+        record(UPDATE_CLOB_INT_READER, columnIndex, reader, null);
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader) throws SQLException {
+        getDelegate().updateClob(columnLabel, reader);
+        record(UPDATE_CLOB_STRING_READER, columnLabel, reader, null);
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+        getDelegate().updateNClob(columnIndex, reader);
+        record(UPDATE_NCLOB_INT_READER, columnIndex, reader, null);
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+        getDelegate().updateNClob(columnLabel, reader);
+        record(UPDATE_NCLOB_STRING_READER, columnLabel, reader, null);
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        return record(GET_OBJECT_INT_CLASS, new Object[] {columnIndex, type},
+                getDelegate().getObject(columnIndex, type));
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return record(GET_OBJECT_STRING_CLASS, new Object[] {columnLabel, type},
+                getDelegate().getObject(columnLabel, type));
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        getDelegate().updateObject(columnIndex, x, targetSqlType, scaleOrLength);
+        record(UPDATE_OBJECT_INT_OBJECT_SQLTYPE_INT, columnIndex, x, targetSqlType, scaleOrLength, null);
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, SQLType targetSqlType, int scaleOrLength)
+            throws SQLException {
+        getDelegate().updateObject(columnLabel, x, targetSqlType, scaleOrLength);
+        record(UPDATE_OBJECT_STRING_OBJECT_SQLTYPE_INT, new Object[] {columnLabel, x, targetSqlType, scaleOrLength},
+                null);
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, SQLType targetSqlType) throws SQLException {
+        getDelegate().updateObject(columnIndex, x, targetSqlType);
+        record(UPDATE_OBJECT_INT_OBJECT_SQLTYPE, columnIndex, x, targetSqlType, null);
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, SQLType targetSqlType) throws SQLException {
+        getDelegate().updateObject(columnLabel, x, targetSqlType);
+        record(UPDATE_OBJECT_STRING_OBJECT_SQLTYPE, columnLabel, x, targetSqlType, null);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return getDelegate().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || getDelegate().isWrapperFor(iface);
+    }
+}
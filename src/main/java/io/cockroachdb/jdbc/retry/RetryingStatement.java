@@ -0,0 +1,485 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * A concrete {@code java.sql.Statement} wrapper with retry capability, functionally equivalent to
+ * {@link StatementRetryInterceptor} but without reflective dispatch. Result sets are wrapped in
+ * {@link RetryingResultSet} unless in auto-commit mode.
+ *
+ * @author Kai Niemi
+ */
+public class RetryingStatement extends StatementRetryInterceptor implements Statement {
+    private static final Method EXECUTE_QUERY = lookupMethod(Statement.class, "executeQuery", String.class);
+
+    private static final Method EXECUTE_UPDATE_STRING = lookupMethod(Statement.class, "executeUpdate", String.class);
+
+    private static final Method CLOSE = lookupMethod(Statement.class, "close");
+
+    private static final Method GET_MAX_FIELD_SIZE = lookupMethod(Statement.class, "getMaxFieldSize");
+
+    private static final Method SET_MAX_FIELD_SIZE = lookupMethod(Statement.class, "setMaxFieldSize", int.class);
+
+    private static final Method GET_MAX_ROWS = lookupMethod(Statement.class, "getMaxRows");
+
+    private static final Method SET_MAX_ROWS = lookupMethod(Statement.class, "setMaxRows", int.class);
+
+    private static final Method SET_ESCAPE_PROCESSING
+            = lookupMethod(Statement.class, "setEscapeProcessing", boolean.class);
+
+    private static final Method GET_QUERY_TIMEOUT = lookupMethod(Statement.class, "getQueryTimeout");
+
+    private static final Method SET_QUERY_TIMEOUT = lookupMethod(Statement.class, "setQueryTimeout", int.class);
+
+    private static final Method CANCEL = lookupMethod(Statement.class, "cancel");
+
+    private static final Method GET_WARNINGS = lookupMethod(Statement.class, "getWarnings");
+
+    private static final Method CLEAR_WARNINGS = lookupMethod(Statement.class, "clearWarnings");
+
+    private static final Method SET_CURSOR_NAME = lookupMethod(Statement.class, "setCursorName", String.class);
+
+    private static final Method EXECUTE_STRING = lookupMethod(Statement.class, "execute", String.class);
+
+    private static final Method GET_RESULT_SET = lookupMethod(Statement.class, "getResultSet");
+
+    private static final Method GET_UPDATE_COUNT = lookupMethod(Statement.class, "getUpdateCount");
+
+    private static final Method GET_MORE_RESULTS = lookupMethod(Statement.class, "getMoreResults");
+
+    private static final Method SET_FETCH_DIRECTION = lookupMethod(Statement.class, "setFetchDirection", int.class);
+
+    private static final Method GET_FETCH_DIRECTION = lookupMethod(Statement.class, "getFetchDirection");
+
+    private static final Method SET_FETCH_SIZE = lookupMethod(Statement.class, "setFetchSize", int.class);
+
+    private static final Method GET_FETCH_SIZE = lookupMethod(Statement.class, "getFetchSize");
+
+    private static final Method GET_RESULT_SET_CONCURRENCY = lookupMethod(Statement.class, "getResultSetConcurrency");
+
+    private static final Method GET_RESULT_SET_TYPE = lookupMethod(Statement.class, "getResultSetType");
+
+    private static final Method ADD_BATCH = lookupMethod(Statement.class, "addBatch", String.class);
+
+    private static final Method CLEAR_BATCH = lookupMethod(Statement.class, "clearBatch");
+
+    private static final Method EXECUTE_BATCH = lookupMethod(Statement.class, "executeBatch");
+
+    private static final Method GET_MORE_RESULTS_INT = lookupMethod(Statement.class, "getMoreResults", int.class);
+
+    private static final Method GET_GENERATED_KEYS = lookupMethod(Statement.class, "getGeneratedKeys");
+
+    private static final Method EXECUTE_UPDATE_STRING_INT
+            = lookupMethod(Statement.class, "executeUpdate", String.class, int.class);
+
+    private static final Method EXECUTE_UPDATE_STRING_INT_ARRAY
+            = lookupMethod(Statement.class, "executeUpdate", String.class, int[].class);
+
+    private static final Method EXECUTE_UPDATE_STRING_STRING_ARRAY
+            = lookupMethod(Statement.class, "executeUpdate", String.class, String[].class);
+
+    private static final Method EXECUTE_STRING_INT = lookupMethod(Statement.class, "execute", String.class, int.class);
+
+    private static final Method EXECUTE_STRING_INT_ARRAY
+            = lookupMethod(Statement.class, "execute", String.class, int[].class);
+
+    private static final Method EXECUTE_STRING_STRING_ARRAY
+            = lookupMethod(Statement.class, "execute", String.class, String[].class);
+
+    private static final Method GET_RESULT_SET_HOLDABILITY = lookupMethod(Statement.class, "getResultSetHoldability");
+
+    private static final Method IS_CLOSED = lookupMethod(Statement.class, "isClosed");
+
+    private static final Method SET_POOLABLE = lookupMethod(Statement.class, "setPoolable", boolean.class);
+
+    private static final Method IS_POOLABLE = lookupMethod(Statement.class, "isPoolable");
+
+    private static final Method CLOSE_ON_COMPLETION = lookupMethod(Statement.class, "closeOnCompletion");
+
+    private static final Method IS_CLOSE_ON_COMPLETION = lookupMethod(Statement.class, "isCloseOnCompletion");
+
+    private static final Method GET_LARGE_UPDATE_COUNT = lookupMethod(Statement.class, "getLargeUpdateCount");
+
+    private static final Method SET_LARGE_MAX_ROWS = lookupMethod(Statement.class, "setLargeMaxRows", long.class);
+
+    private static final Method GET_LARGE_MAX_ROWS = lookupMethod(Statement.class, "getLargeMaxRows");
+
+    private static final Method EXECUTE_LARGE_BATCH = lookupMethod(Statement.class, "executeLargeBatch");
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING
+            = lookupMethod(Statement.class, "executeLargeUpdate", String.class);
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING_INT
+            = lookupMethod(Statement.class, "executeLargeUpdate", String.class, int.class);
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY
+            = lookupMethod(Statement.class, "executeLargeUpdate", String.class, int[].class);
+
+    private static final Method EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY
+            = lookupMethod(Statement.class, "executeLargeUpdate", String.class, String[].class);
+
+    private final RetryingConnection connection;
+
+    public RetryingStatement(Statement delegate, RetryingConnection connection) {
+        super(delegate, connection);
+        this.connection = connection;
+    }
+
+    private ResultSet resultSet(ResultSet resultSet) throws SQLException {
+        if (resultSet == null || connection.isAutoCommit()) {
+            return resultSet;
+        }
+        return new RetryingResultSet(resultSet, connection);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_QUERY, () -> getDelegate().executeQuery(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_QUERY, new Object[] {sql},
+                () -> resultSet(getDelegate().executeQuery(sql)));
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING, () -> getDelegate().executeUpdate(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING, new Object[] {sql},
+                () -> getDelegate().executeUpdate(sql));
+    }
+
+    @Override
+    public void close() throws SQLException {
+        getDelegate().close();
+        record(CLOSE, null);
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return record(GET_MAX_FIELD_SIZE, getDelegate().getMaxFieldSize());
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        getDelegate().setMaxFieldSize(max);
+        record(SET_MAX_FIELD_SIZE, max, null);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return record(GET_MAX_ROWS, getDelegate().getMaxRows());
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        getDelegate().setMaxRows(max);
+        record(SET_MAX_ROWS, max, null);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        getDelegate().setEscapeProcessing(enable);
+        record(SET_ESCAPE_PROCESSING, enable, null);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return record(GET_QUERY_TIMEOUT, getDelegate().getQueryTimeout());
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        getDelegate().setQueryTimeout(seconds);
+        record(SET_QUERY_TIMEOUT, seconds, null);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        getDelegate().cancel();
+        record(CANCEL, null);
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return record(GET_WARNINGS, getDelegate().getWarnings());
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        getDelegate().clearWarnings();
+        record(CLEAR_WARNINGS, null);
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        getDelegate().setCursorName(name);
+        record(SET_CURSOR_NAME, name, null);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING, () -> getDelegate().execute(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING, new Object[] {sql},
+                () -> getDelegate().execute(sql));
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return record(GET_RESULT_SET, resultSet(getDelegate().getResultSet()));
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return record(GET_UPDATE_COUNT, getDelegate().getUpdateCount());
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return record(GET_MORE_RESULTS, getDelegate().getMoreResults());
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        getDelegate().setFetchDirection(direction);
+        record(SET_FETCH_DIRECTION, direction, null);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return record(GET_FETCH_DIRECTION, getDelegate().getFetchDirection());
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        getDelegate().setFetchSize(rows);
+        record(SET_FETCH_SIZE, rows, null);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return record(GET_FETCH_SIZE, getDelegate().getFetchSize());
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return record(GET_RESULT_SET_CONCURRENCY, getDelegate().getResultSetConcurrency());
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return record(GET_RESULT_SET_TYPE, getDelegate().getResultSetType());
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        getDelegate().addBatch(sql);
+        record(ADD_BATCH, sql, null);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        getDelegate().clearBatch();
+        record(CLEAR_BATCH, null);
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_BATCH, () -> getDelegate().executeBatch());
+        }
+        return connection.executeTransaction(this, EXECUTE_BATCH, null, () -> getDelegate().executeBatch());
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return record(GET_MORE_RESULTS_INT, current, getDelegate().getMoreResults(current));
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return record(GET_GENERATED_KEYS, resultSet(getDelegate().getGeneratedKeys()));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING_INT,
+                    () -> getDelegate().executeUpdate(sql, autoGeneratedKeys));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING_INT, new Object[] {sql, autoGeneratedKeys},
+                () -> getDelegate().executeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING_INT_ARRAY,
+                    () -> getDelegate().executeUpdate(sql, columnIndexes));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING_INT_ARRAY, new Object[] {sql, columnIndexes},
+                () -> getDelegate().executeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_UPDATE_STRING_STRING_ARRAY,
+                    () -> getDelegate().executeUpdate(sql, columnNames));
+        }
+        return connection.executeTransaction(this, EXECUTE_UPDATE_STRING_STRING_ARRAY, new Object[] {sql, columnNames},
+                () -> getDelegate().executeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING_INT,
+                    () -> getDelegate().execute(sql, autoGeneratedKeys));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING_INT, new Object[] {sql, autoGeneratedKeys},
+                () -> getDelegate().execute(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING_INT_ARRAY,
+                    () -> getDelegate().execute(sql, columnIndexes));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING_INT_ARRAY, new Object[] {sql, columnIndexes},
+                () -> getDelegate().execute(sql, columnIndexes));
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_STRING_STRING_ARRAY,
+                    () -> getDelegate().execute(sql, columnNames));
+        }
+        return connection.executeTransaction(this, EXECUTE_STRING_STRING_ARRAY, new Object[] {sql, columnNames},
+                () -> getDelegate().execute(sql, columnNames));
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return record(GET_RESULT_SET_HOLDABILITY, getDelegate().getResultSetHoldability());
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return record(IS_CLOSED, getDelegate().isClosed());
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        getDelegate().setPoolable(poolable);
+        record(SET_POOLABLE, poolable, null);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return record(IS_POOLABLE, getDelegate().isPoolable());
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        getDelegate().closeOnCompletion();
+        record(CLOSE_ON_COMPLETION, null);
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return record(IS_CLOSE_ON_COMPLETION, getDelegate().isCloseOnCompletion());
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return record(GET_LARGE_UPDATE_COUNT, getDelegate().getLargeUpdateCount());
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        getDelegate().setLargeMaxRows(max);
+        record(SET_LARGE_MAX_ROWS, max, null);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return record(GET_LARGE_MAX_ROWS, getDelegate().getLargeMaxRows());
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_BATCH, () -> getDelegate().executeLargeBatch());
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_BATCH, null, () -> getDelegate().executeLargeBatch());
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING,
+                    () -> getDelegate().executeLargeUpdate(sql));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING, new Object[] {sql},
+                () -> getDelegate().executeLargeUpdate(sql));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING_INT,
+                    () -> getDelegate().executeLargeUpdate(sql, autoGeneratedKeys));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING_INT,
+                new Object[] {sql, autoGeneratedKeys}, () -> getDelegate().executeLargeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY,
+                    () -> getDelegate().executeLargeUpdate(sql, columnIndexes));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING_INT_ARRAY,
+                new Object[] {sql, columnIndexes}, () -> getDelegate().executeLargeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        if (connection.isAutoCommit()) {
+            return connection.executeImplicitTransaction(EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY,
+                    () -> getDelegate().executeLargeUpdate(sql, columnNames));
+        }
+        return connection.executeTransaction(this, EXECUTE_LARGE_UPDATE_STRING_STRING_ARRAY,
+                new Object[] {sql, columnNames}, () -> getDelegate().executeLargeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return getDelegate().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || getDelegate().isWrapperFor(iface);
+    }
+}
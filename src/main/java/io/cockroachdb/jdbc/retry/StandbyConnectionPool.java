@@ -0,0 +1,211 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cockroachdb.jdbc.util.Assert;
+import io.cockroachdb.jdbc.util.ExceptionUtils;
+import io.cockroachdb.jdbc.util.ResourceSupplier;
+
+/**
+ * A small pool of pre-opened and authenticated standby connections per URL, connection properties and size,
+ * used for replacing connection delegates on retry. Taking a standby connection triggers a background
+ * refill, and a connection can be prepared ahead of time during the retry backoff delay such that a
+ * reconnect does not pay for the connection handshake on the application thread.
+ * <p>
+ * Standby connections are opened by daemon threads and held for the lifetime of the JVM unless
+ * the pool is closed.
+ *
+ * @author Kai Niemi
+ */
+public class StandbyConnectionPool implements ResourceSupplier<Connection> {
+    private static final Logger logger = LoggerFactory.getLogger(StandbyConnectionPool.class);
+
+    private static final Map<List<Object>, StandbyConnectionPool> pools = new ConcurrentHashMap<>();
+
+    private static final ExecutorService executorService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cockroachdb-jdbc-standby");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Timeout in seconds for validating a standby connection before hand-off.
+     */
+    private static final int VALIDATION_TIMEOUT = 1;
+
+    /**
+     * Interval in millis for polling a connection being opened in the background.
+     */
+    private static final long POLL_INTERVAL = 50;
+
+    /**
+     * Get or create the standby pool for the given URL, connection properties and size.
+     *
+     * @param url        the delegate URL
+     * @param properties the connection properties
+     * @param size       the number of standby connections to keep open
+     * @param opener     the supplier of new connections in non auto-commit mode, used if the pool is created
+     * @return the pool
+     */
+    public static StandbyConnectionPool getInstance(String url, Properties properties, int size,
+                                                    ResourceSupplier<Connection> opener) {
+        Properties key = new Properties();
+        key.putAll(properties);
+        return pools.computeIfAbsent(List.of(url, key, size), k -> new StandbyConnectionPool(opener, size));
+    }
+
+    /**
+     * Close all standby pools and their idle connections.
+     */
+    public static void closeAll() {
+        pools.values().forEach(StandbyConnectionPool::close);
+        pools.clear();
+    }
+
+    private final ResourceSupplier<Connection> opener;
+
+    private final LinkedBlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger pendingOpens = new AtomicInteger();
+
+    private final int size;
+
+    private volatile boolean closed;
+
+    /**
+     * @param opener the supplier of new connections in non auto-commit mode
+     * @param size   the number of standby connections to keep open
+     */
+    public StandbyConnectionPool(ResourceSupplier<Connection> opener, int size) {
+        Assert.notNull(opener, "opener is null");
+        Assert.isTrue(size >= 0, "size must be >= 0");
+        this.opener = opener;
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of idle standby connections
+     */
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Open standby connections in the background up to the pool size.
+     */
+    public void fill() {
+        fill(size);
+    }
+
+    /**
+     * Prepare a connection ahead of a subsequent {@link #get()}, opening one in the background
+     * if no standby connection is idle or being opened.
+     */
+    @Override
+    public void prepare() {
+        fill(Math.max(1, size));
+    }
+
+    private void fill(int target) {
+        for (; ; ) {
+            int pending = pendingOpens.get();
+            if (closed || idleConnections.size() + pending >= target) {
+                return;
+            }
+            if (pendingOpens.compareAndSet(pending, pending + 1)) {
+                executorService.execute(this::openStandby);
+            }
+        }
+    }
+
+    private void openStandby() {
+        try {
+            Connection connection = opener.get();
+            if (closed || !idleConnections.offer(connection)) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            logger.warn("Unable to open standby connection:\n{}", ExceptionUtils.toNestedString(e));
+        } finally {
+            pendingOpens.decrementAndGet();
+        }
+    }
+
+    /**
+     * Take a valid standby connection if idle or being opened, otherwise open a new connection
+     * on the calling thread. A background refill is triggered in either case.
+     *
+     * @return the connection
+     * @throws SQLException on failure to open a new connection
+     */
+    @Override
+    public Connection get() throws SQLException {
+        try {
+            for (; ; ) {
+                Connection connection = idleConnections.poll();
+                if (connection == null && pendingOpens.get() > 0) {
+                    connection = idleConnections.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                    if (connection == null) {
+                        continue;
+                    }
+                }
+                if (connection == null) {
+                    break;
+                }
+                if (isValid(connection)) {
+                    return connection;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            fill();
+        }
+        logger.debug("No standby connection available - opening new connection");
+        return opener.get();
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            if (connection.isValid(VALIDATION_TIMEOUT)) {
+                return true;
+            }
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Discarding invalid standby connection: {}", e.toString());
+        }
+        return false;
+    }
+
+    /**
+     * Close the idle standby connections and stop refilling.
+     */
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Exception closing standby connection: {}", e.toString());
+            }
+        }
+    }
+}
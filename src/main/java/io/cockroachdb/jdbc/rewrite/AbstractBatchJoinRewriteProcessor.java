@@ -0,0 +1,278 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.cockroachdb.jdbc.parser.AbstractSQLParserListener;
+import io.cockroachdb.jdbc.parser.CockroachSQLParser;
+import io.cockroachdb.jdbc.parser.SQLParseException;
+
+/**
+ * Abstract base class for parse tree listeners rewriting DML statements with a WHERE clause
+ * to join the target table with a derived table of unnested batch arrays, one column per
+ * placeholder. Predicate identifiers are qualified by the table name and placeholders are
+ * replaced by derived table columns.
+ *
+ * @author Kai Niemi
+ */
+public abstract class AbstractBatchJoinRewriteProcessor extends AbstractSQLParserListener {
+    private final Set<String> placeHolders = new LinkedHashSet<>();
+
+    private final AtomicInteger parameterIndex = new AtomicInteger();
+
+    private final Consumer<String> consumer;
+
+    private final Consumer<String> updateCountConsumer;
+
+    private String tableName;
+
+    private String predicate;
+
+    private String fromQueryAlias = "_dt"; // short for datatable
+
+    private String parameterPrefix = "p";
+
+    private String ordinalColumn = "_ord";
+
+    /**
+     * @param consumer            receives the rewritten array statement
+     * @param updateCountConsumer receives a variant of the rewritten array statement that takes an
+     *                            additional trailing array parameter of batch ordinals and returns
+     *                            the ordinal of each affected row, or null to skip
+     */
+    protected AbstractBatchJoinRewriteProcessor(Consumer<String> consumer, Consumer<String> updateCountConsumer) {
+        this.consumer = consumer;
+        this.updateCountConsumer = updateCountConsumer;
+    }
+
+    protected String getTableName() {
+        return tableName;
+    }
+
+    public String getFromQueryAlias() {
+        return fromQueryAlias;
+    }
+
+    public void setFromQueryAlias(String fromQueryAlias) {
+        this.fromQueryAlias = fromQueryAlias;
+    }
+
+    public String getOrdinalColumn() {
+        return ordinalColumn;
+    }
+
+    public void setOrdinalColumn(String ordinalColumn) {
+        this.ordinalColumn = ordinalColumn;
+    }
+
+    public String getParameterPrefix() {
+        return parameterPrefix;
+    }
+
+    public void setParameterPrefix(String parameterPrefix) {
+        this.parameterPrefix = parameterPrefix;
+    }
+
+    /**
+     * Append the derived table of unnested arrays and the predicate to the statement head
+     * and pass the rewritten statement(s) to the consumers.
+     *
+     * @param sb          the statement head, for example "UPDATE t SET a = _dt.p1"
+     * @param joinKeyword the keyword introducing the derived table, for example FROM or USING
+     */
+    protected void accept(StringBuilder sb, String joinKeyword) {
+        sb.append(" ")
+                .append(joinKeyword)
+                .append(" (SELECT ");
+
+        int c = 0;
+        for (String param : placeHolders) {
+            if (c++ > 0) {
+                sb.append(", ");
+            }
+            sb.append("UNNEST(?) AS ")
+                    .append(param);
+        }
+
+        final int selectListEnd = sb.length();
+
+        sb.append(") AS ")
+                .append(fromQueryAlias)
+                .append(" WHERE ")
+                .append(predicate);
+
+        consumer.accept(sb.toString());
+
+        if (updateCountConsumer != null) {
+            sb.insert(selectListEnd, ", UNNEST(?) AS " + ordinalColumn)
+                    .append(" RETURNING ")
+                    .append(fromQueryAlias)
+                    .append(".")
+                    .append(ordinalColumn);
+
+            updateCountConsumer.accept(sb.toString());
+        }
+    }
+
+    @Override
+    public void exitTableName(CockroachSQLParser.TableNameContext ctx) {
+        this.tableName = ctx.getText();
+    }
+
+    @Override
+    public void exitWhereClause(CockroachSQLParser.WhereClauseContext ctx) {
+        this.predicate = pop(String.class, ctx);
+    }
+
+    @Override
+    public void exitIsNullExpression(CockroachSQLParser.IsNullExpressionContext ctx) {
+        String prefix = pop(String.class, ctx);
+
+        StringBuilder sb = new StringBuilder()
+                .append(prefix);
+
+        if (ctx.IS() != null) {
+            sb.append(" IS");
+        }
+        if (ctx.NOT() != null) {
+            sb.append(" NOT");
+        }
+        sb.append(" NULL");
+
+        push(sb.toString(), ctx);
+    }
+
+    @Override
+    public void exitLogicalExpression(CockroachSQLParser.LogicalExpressionContext ctx) {
+        String right = pop(String.class, ctx);
+        String left = pop(String.class, ctx);
+
+        if (ctx.logicalOperator().AND() != null) {
+            push(left + " AND " + right, ctx);
+        } else if (ctx.logicalOperator().OR() != null) {
+            push(left + " OR " + right, ctx);
+        } else if (ctx.logicalOperator().XOR() != null) {
+            push(left + " XOR " + right, ctx);
+        } else {
+            throw SQLParseException.from("Unexpected operator: " + ctx.logicalOperator().getText());
+        }
+    }
+
+    @Override
+    public void exitComparisonExpression(CockroachSQLParser.ComparisonExpressionContext ctx) {
+        String right = pop(String.class, ctx);
+        String left = pop(String.class, ctx);
+
+        if (ctx.comparisonOperator().GE() != null) {
+            push(left + " >= " + right, ctx);
+        } else if (ctx.comparisonOperator().LE() != null) {
+            push(left + " <= " + right, ctx);
+        } else if (ctx.comparisonOperator().EQUALS() != null) {
+            push(left + " = " + right, ctx);
+        } else if (ctx.comparisonOperator().GT() != null) {
+            push(left + " > " + right, ctx);
+        } else if (ctx.comparisonOperator().LT() != null) {
+            push(left + " < " + right, ctx);
+        } else if (ctx.comparisonOperator().NE() != null) {
+            push(left + " != " + right, ctx);
+        } else {
+            throw SQLParseException.from("Unexpected operator: " + ctx.comparisonOperator().getText());
+        }
+    }
+
+    @Override
+    public void exitMultiplyOrDivideExpression(CockroachSQLParser.MultiplyOrDivideExpressionContext ctx) {
+        String right = pop(String.class, ctx);
+        String left = pop(String.class, ctx);
+
+        if (ctx.ASTERISK() != null) {
+            push(left + " * " + right, ctx);
+        } else if (ctx.DIV() != null) {
+            push(left + " / " + right, ctx);
+        } else if (ctx.MOD() != null) {
+            push(left + " % " + right, ctx);
+        }
+    }
+
+    @Override
+    public void exitPlusOrMinusExpression(CockroachSQLParser.PlusOrMinusExpressionContext ctx) {
+        String right = pop(String.class, ctx);
+        String left = pop(String.class, ctx);
+
+        if (ctx.PLUS() != null) {
+            push(left + " + " + right, ctx);
+        }
+        if (ctx.MINUS() != null) {
+            push(left + " - " + right, ctx);
+        }
+    }
+
+    @Override
+    public void exitLiteral(CockroachSQLParser.LiteralContext ctx) {
+        push(ctx.getText(), ctx);
+    }
+
+    @Override
+    public void exitIdentifier(CockroachSQLParser.IdentifierContext ctx) {
+        if (!(ctx.getParent() instanceof CockroachSQLParser.FunctionNameContext)) {
+            String id = ctx.getText();
+            push(tableName + "." + id, ctx);
+        }
+    }
+
+    @Override
+    public void exitPlaceholder(CockroachSQLParser.PlaceholderContext ctx) {
+        String id = ctx.getText();
+        if (ctx.QUESTION() != null) {
+            id = parameterPrefix + parameterIndex.incrementAndGet();
+        }
+        push(fromQueryAlias + "." + id, ctx);
+        placeHolders.add(id);
+    }
+
+    @Override
+    public void exitFunctionCall(CockroachSQLParser.FunctionCallContext ctx) {
+        String fnName = ctx.functionName().getText();
+
+        if (ctx.extractList() != null) {
+            String source = pop(String.class, ctx);
+            push(fnName + "(" + ctx.extractList().field.getText() + " FROM " + source + ")", ctx);
+            return;
+        }
+
+        List<String> args = new ArrayList<>();
+
+        Optional.ofNullable(ctx.expressionList()).ifPresent(
+                expressionListContext -> expressionListContext.expression()
+                        .forEach(expressionContext -> args.add(pop(String.class, ctx))));
+
+        Collections.reverse(args);
+
+        final StringBuilder sb = new StringBuilder()
+                .append(fnName)
+                .append("(");
+
+        int c = 0;
+        for (String a : args) {
+            if (c++ > 0) {
+                sb.append(", ");
+            }
+            sb.append(a);
+        }
+        sb.append(")");
+
+        push(sb.toString(), ctx);
+    }
+
+    @Override
+    public void exitNestedExpression(CockroachSQLParser.NestedExpressionContext ctx) {
+        String expr = pop(String.class, ctx);
+        push("(" + expr + ")", ctx);
+    }
+}
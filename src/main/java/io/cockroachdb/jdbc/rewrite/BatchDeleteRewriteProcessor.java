@@ -0,0 +1,35 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.util.function.Consumer;
+
+import io.cockroachdb.jdbc.parser.CockroachSQLParser;
+
+/**
+ * Parse tree listener for rewriting DELETE statements to use batch arrays.
+ *
+ * @author Kai Niemi
+ */
+public class BatchDeleteRewriteProcessor extends AbstractBatchJoinRewriteProcessor {
+    public BatchDeleteRewriteProcessor(Consumer<String> consumer) {
+        this(consumer, null);
+    }
+
+    /**
+     * @param consumer            receives the rewritten array statement
+     * @param updateCountConsumer receives a variant of the rewritten array statement that takes an
+     *                            additional trailing array parameter of batch ordinals and returns
+     *                            the ordinal of each deleted row, or null to skip
+     */
+    public BatchDeleteRewriteProcessor(Consumer<String> consumer, Consumer<String> updateCountConsumer) {
+        super(consumer, updateCountConsumer);
+    }
+
+    @Override
+    public void exitDeleteStatement(CockroachSQLParser.DeleteStatementContext ctx) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("DELETE FROM ")
+                .append(getTableName());
+
+        accept(sb, "USING");
+    }
+}
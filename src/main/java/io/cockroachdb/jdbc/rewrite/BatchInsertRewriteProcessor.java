@@ -8,6 +8,7 @@ import java.util.function.Consumer;
 
 import io.cockroachdb.jdbc.parser.AbstractSQLParserListener;
 import io.cockroachdb.jdbc.parser.CockroachSQLParser;
+import io.cockroachdb.jdbc.parser.SQLParseException;
 
 /**
  * Parse tree listener for rewriting INSERT statements to use batch arrays.
@@ -23,6 +24,12 @@ public class BatchInsertRewriteProcessor extends AbstractSQLParserListener {
 
     private String onConflictClause;
 
+    private String onConflictTarget;
+
+    private String onConflictAction;
+
+    private boolean inConflictAction;
+
     private final Consumer<String> consumer;
 
     public BatchInsertRewriteProcessor(Consumer<String> consumer) {
@@ -100,6 +107,9 @@ public class BatchInsertRewriteProcessor extends AbstractSQLParserListener {
 
     @Override
     public void exitPlaceholder(CockroachSQLParser.PlaceholderContext ctx) {
+        if (inConflictAction) {
+            throw SQLParseException.from("Placeholders are not supported in ON CONFLICT DO UPDATE clause");
+        }
         push(ctx.getText(), ctx);
     }
 
@@ -107,6 +117,12 @@ public class BatchInsertRewriteProcessor extends AbstractSQLParserListener {
     public void exitFunctionCall(CockroachSQLParser.FunctionCallContext ctx) {
         String fnName = ctx.functionName().getText();
 
+        if (ctx.extractList() != null) {
+            String source = pop(String.class, ctx);
+            push(fnName + "(" + ctx.extractList().field.getText() + " FROM " + source + ")", ctx);
+            return;
+        }
+
         List<String> args = new ArrayList<>();
 
         Optional.ofNullable(ctx.expressionList()).ifPresent(
@@ -159,8 +175,36 @@ public class BatchInsertRewriteProcessor extends AbstractSQLParserListener {
             sb.append(")");
         }
 
-        sb.append(" DO NOTHING");
+        this.onConflictTarget = sb.toString();
+    }
+
+    @Override
+    public void enterOnConflictAction(CockroachSQLParser.OnConflictActionContext ctx) {
+        this.inConflictAction = true;
+    }
+
+    @Override
+    public void exitOnConflictAction(CockroachSQLParser.OnConflictActionContext ctx) {
+        this.inConflictAction = false;
 
-        this.onConflictClause = sb.toString();
+        if (ctx.NOTHING() != null) {
+            this.onConflictAction = "DO NOTHING";
+        } else {
+            // Expressions in the SET and WHERE clauses can only refer to the target table
+            // or the excluded row, so they are passed through verbatim.
+            StringBuilder sb = new StringBuilder();
+            sb.append("DO UPDATE SET ")
+                    .append(getOriginalText(ctx.setClauseList()));
+            if (ctx.whereClause() != null) {
+                sb.append(" ")
+                        .append(getOriginalText(ctx.whereClause()));
+            }
+            this.onConflictAction = sb.toString();
+        }
+    }
+
+    @Override
+    public void exitOptionalOnConflict(CockroachSQLParser.OptionalOnConflictContext ctx) {
+        this.onConflictClause = onConflictTarget + " " + onConflictAction;
     }
 }
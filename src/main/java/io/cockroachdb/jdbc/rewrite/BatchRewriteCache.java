@@ -0,0 +1,110 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.cockroachdb.jdbc.CockroachProperty;
+import io.cockroachdb.jdbc.util.ConcurrentLruCache;
+
+/**
+ * Driver-wide cache of batch rewrite plans keyed by the original SQL statement text.
+ * <p>
+ * Applications and ORMs typically prepare the same, small set of DML statements over and over
+ * again through a connection pool. Caching the outcome of the qualification and rewrite removes
+ * the SQL parser from the statement preparation path once the cache is warm.
+ * <p>
+ * Connections share one cache instance per configured maximum size, such that connections
+ * configured with different sizes do not resize or clear each other's cache.
+ *
+ * @author Kai Niemi
+ */
+public class BatchRewriteCache {
+    public static final int DEFAULT_MAX_SIZE
+            = Integer.parseInt(CockroachProperty.REWRITE_BATCH_CACHE_SIZE.getDefaultValue());
+
+    private static final BatchRewriteCache SHARED_INSTANCE = new BatchRewriteCache(DEFAULT_MAX_SIZE);
+
+    private static final Map<Integer, BatchRewriteCache> instances = new ConcurrentHashMap<>(
+            Map.of(DEFAULT_MAX_SIZE, SHARED_INSTANCE));
+
+    /**
+     * @return the cache instance shared by all connections using the default size
+     */
+    public static BatchRewriteCache getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * Get or create the cache instance shared by all connections using the given size.
+     *
+     * @param maxSize the maximum number of entries, zero disables caching
+     * @return the cache instance
+     */
+    public static BatchRewriteCache getSharedInstance(int maxSize) {
+        return instances.computeIfAbsent(maxSize, BatchRewriteCache::new);
+    }
+
+    private final ConcurrentLruCache<String, BatchRewritePlan> cache;
+
+    private final Function<String, BatchRewritePlan> planFactory = this::createPlan;
+
+    public BatchRewriteCache(int maxSize) {
+        this.cache = new ConcurrentLruCache<>(maxSize);
+    }
+
+    /**
+     * Return the batch rewrite plan for a given DML statement, parsing and rewriting the
+     * statement only if it's not already cached.
+     *
+     * @param query the SQL statement
+     * @return the rewrite plan, never null
+     */
+    public BatchRewritePlan getPlan(String query) {
+        return cache.get(query, planFactory);
+    }
+
+    protected BatchRewritePlan createPlan(String query) {
+        return BatchRewriteProcessor.rewriteStatement(query);
+    }
+
+    /**
+     * Set the maximum number of cached plans. Zero disables caching.
+     *
+     * @param maxSize the maximum number of entries
+     */
+    public void setMaxSize(int maxSize) {
+        cache.setMaxSize(maxSize);
+    }
+
+    public int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchRewriteCache{" +
+                "cache=" + cache +
+                '}';
+    }
+}
@@ -0,0 +1,142 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.util.Objects;
+
+/**
+ * Immutable outcome of a batch array rewrite qualification for a given SQL statement,
+ * holding the statement type and either the rewritten array statement if qualified
+ * or the reason why it's not.
+ *
+ * @author Kai Niemi
+ */
+public final class BatchRewritePlan {
+    /**
+     * DML statement types eligible for batch array rewrites.
+     */
+    public enum StatementType {
+        INSERT("insert "),
+        UPSERT("upsert "),
+        UPDATE("update "),
+        DELETE("delete ");
+
+        private final String prefix;
+
+        StatementType(String prefix) {
+            this.prefix = prefix;
+        }
+
+        /**
+         * Classify a statement by its leading keyword without parsing it.
+         *
+         * @param query the SQL statement
+         * @return the statement type or null if not a rewrite candidate
+         */
+        public static StatementType fromQuery(String query) {
+            for (StatementType type : values()) {
+                if (query.regionMatches(true, 0, type.prefix, 0, type.prefix.length())) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reasons for a statement not qualifying for batch array rewrites.
+     */
+    public enum NotQualifiedReason {
+        /**
+         * Not an INSERT, UPSERT, UPDATE or DELETE statement.
+         */
+        UNSUPPORTED_STATEMENT,
+        /**
+         * The statement violates the rewrite grammar, for example by using sub-queries
+         * or multiple statements.
+         */
+        UNSUPPORTED_SYNTAX,
+        /**
+         * The statement is syntactically valid but uses an expression or operator that
+         * cannot be rewritten.
+         */
+        UNSUPPORTED_EXPRESSION
+    }
+
+    public static BatchRewritePlan qualified(StatementType statementType, String batchQuery) {
+        return qualified(statementType, batchQuery, null);
+    }
+
+    public static BatchRewritePlan qualified(StatementType statementType, String batchQuery,
+                                             String updateCountQuery) {
+        return new BatchRewritePlan(Objects.requireNonNull(statementType), Objects.requireNonNull(batchQuery),
+                updateCountQuery, null, null);
+    }
+
+    public static BatchRewritePlan notQualified(StatementType statementType, NotQualifiedReason reason,
+                                                String detail) {
+        return new BatchRewritePlan(statementType, null, null, Objects.requireNonNull(reason), detail);
+    }
+
+    private final StatementType statementType;
+
+    private final String batchQuery;
+
+    private final String updateCountQuery;
+
+    private final NotQualifiedReason reason;
+
+    private final String detail;
+
+    private BatchRewritePlan(StatementType statementType, String batchQuery, String updateCountQuery,
+                             NotQualifiedReason reason, String detail) {
+        this.statementType = statementType;
+        this.batchQuery = batchQuery;
+        this.updateCountQuery = updateCountQuery;
+        this.reason = reason;
+        this.detail = detail;
+    }
+
+    public boolean isQualified() {
+        return batchQuery != null;
+    }
+
+    public StatementType getStatementType() {
+        return statementType;
+    }
+
+    public String getBatchQuery() {
+        return batchQuery;
+    }
+
+    /**
+     * @return variant of the batch query taking a trailing array of batch ordinals and returning
+     * the ordinal of each affected row, or null if not available for the statement type
+     */
+    public String getUpdateCountQuery() {
+        return updateCountQuery;
+    }
+
+    /**
+     * @return reason for not qualifying or null if qualified
+     */
+    public NotQualifiedReason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return parser message for not qualifying or null
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchRewritePlan{" +
+                "statementType=" + statementType +
+                ", batchQuery='" + batchQuery + '\'' +
+                ", updateCountQuery='" + updateCountQuery + '\'' +
+                ", reason=" + reason +
+                ", detail='" + detail + '\'' +
+                '}';
+    }
+}
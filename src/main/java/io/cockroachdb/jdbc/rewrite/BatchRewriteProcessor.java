@@ -3,8 +3,11 @@ package io.cockroachdb.jdbc.rewrite;
 import org.antlr.v4.runtime.ANTLRErrorListener;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
+import io.cockroachdb.jdbc.parser.AbstractSQLParserListener;
 import io.cockroachdb.jdbc.parser.CockroachSQLLexer;
 import io.cockroachdb.jdbc.parser.CockroachSQLParser;
 import io.cockroachdb.jdbc.parser.FailFastErrorListener;
@@ -21,65 +24,124 @@ public abstract class BatchRewriteProcessor {
     }
 
     public static boolean isQualifiedInsertStatement(String query) {
-        return query.toLowerCase().startsWith("insert ") && isQualifiedStatement(query);
+        return isQualifiedStatement(query, BatchRewritePlan.StatementType.INSERT);
     }
 
     public static boolean isQualifiedUpsertStatement(String query) {
-        return query.toLowerCase().startsWith("upsert ") && isQualifiedStatement(query);
+        return isQualifiedStatement(query, BatchRewritePlan.StatementType.UPSERT);
     }
 
     public static boolean isQualifiedUpdateStatement(String query) {
-        return query.toLowerCase().startsWith("update ") && isQualifiedStatement(query);
+        return isQualifiedStatement(query, BatchRewritePlan.StatementType.UPDATE);
+    }
+
+    public static boolean isQualifiedDeleteStatement(String query) {
+        return isQualifiedStatement(query, BatchRewritePlan.StatementType.DELETE);
     }
 
     public static boolean isQualifiedStatement(String query) {
-        // Pre-parse to look for complex expressions / predicates and placeholders
-        try {
-            CockroachSQLParser parser = createParser(query);
-            parser.addParseListener(new BatchInsertRewriteProcessor(sql -> {
-            }));
-            parser.addParseListener(new BatchUpsertRewriteProcessor(sql -> {
-            }));
-            parser.addParseListener(new BatchUpdateRewriteProcessor(sql -> {
-            }));
-            parser.root();
-            return true;
-        } catch (SQLParseException e) {
+        return rewriteStatement(query).isQualified();
+    }
+
+    private static boolean isQualifiedStatement(String query, BatchRewritePlan.StatementType statementType) {
+        if (BatchRewritePlan.StatementType.fromQuery(query) != statementType) {
             return false;
         }
+        return rewriteStatement(query).isQualified();
     }
 
     public static String rewriteInsertStatement(String query) {
-        StringBuilder after = new StringBuilder();
-
-        CockroachSQLParser parser = createParser(query);
-        parser.addParseListener(new BatchInsertRewriteProcessor(after::append));
-        parser.insertStatement();
-
-        return after.toString();
+        return rewriteStatement(query, BatchRewritePlan.StatementType.INSERT);
     }
 
     public static String rewriteUpsertStatement(String query) {
-        StringBuilder after = new StringBuilder();
+        return rewriteStatement(query, BatchRewritePlan.StatementType.UPSERT);
+    }
 
-        CockroachSQLParser parser = createParser(query);
-        parser.addParseListener(new BatchUpsertRewriteProcessor(after::append));
-        parser.upsertStatement();
+    public static String rewriteUpdateStatement(String query) {
+        return rewriteStatement(query, BatchRewritePlan.StatementType.UPDATE);
+    }
 
-        return after.toString();
+    public static String rewriteDeleteStatement(String query) {
+        return rewriteStatement(query, BatchRewritePlan.StatementType.DELETE);
     }
 
-    public static String rewriteUpdateStatement(String query) {
-        StringBuilder after = new StringBuilder();
+    private static String rewriteStatement(String query, BatchRewritePlan.StatementType statementType) {
+        BatchRewritePlan plan = rewriteStatement(query);
+        if (!plan.isQualified()) {
+            throw SQLParseException.from("Statement not qualified for batch rewrite (" + plan.getReason() + "): "
+                    + plan.getDetail());
+        }
+        if (plan.getStatementType() != statementType) {
+            throw SQLParseException.from("Expected " + statementType + " statement but got "
+                    + plan.getStatementType());
+        }
+        return plan.getBatchQuery();
+    }
+
+    /**
+     * Qualify and rewrite a batch DML statement to use arrays in a single parser pass.
+     * The statement type is classified from the parse tree and only the matching rewrite
+     * listener is applied.
+     *
+     * @param query the SQL statement
+     * @return the rewrite plan holding either the rewritten statement or the reason
+     * it's not qualified, never null
+     */
+    public static BatchRewritePlan rewriteStatement(String query) {
+        // Cheap pre-check to avoid parsing statements that can never qualify
+        if (BatchRewritePlan.StatementType.fromQuery(query) == null) {
+            return BatchRewritePlan.notQualified(null,
+                    BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_STATEMENT, null);
+        }
 
-        CockroachSQLParser parser = createParser(query);
-        parser.addParseListener(new BatchUpdateRewriteProcessor(after::append));
-        parser.updateStatement();
+        final CockroachSQLParser.StatementContext statementContext;
+        try {
+            statementContext = createParser(query).root().statement();
+        } catch (SQLParseException e) {
+            return BatchRewritePlan.notQualified(BatchRewritePlan.StatementType.fromQuery(query),
+                    BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_SYNTAX, e.getMessage());
+        }
+
+        final BatchRewritePlan.StatementType statementType;
+        final ParserRuleContext ruleContext;
+        final StringBuilder after = new StringBuilder();
+        final StringBuilder updateCountAfter = new StringBuilder();
+        final AbstractSQLParserListener listener;
+
+        if (statementContext.insertStatement() != null) {
+            statementType = BatchRewritePlan.StatementType.INSERT;
+            ruleContext = statementContext.insertStatement();
+            listener = new BatchInsertRewriteProcessor(after::append);
+        } else if (statementContext.upsertStatement() != null) {
+            statementType = BatchRewritePlan.StatementType.UPSERT;
+            ruleContext = statementContext.upsertStatement();
+            listener = new BatchUpsertRewriteProcessor(after::append);
+        } else if (statementContext.updateStatement() != null) {
+            statementType = BatchRewritePlan.StatementType.UPDATE;
+            ruleContext = statementContext.updateStatement();
+            listener = new BatchUpdateRewriteProcessor(after::append, updateCountAfter::append);
+        } else if (statementContext.deleteStatement() != null) {
+            statementType = BatchRewritePlan.StatementType.DELETE;
+            ruleContext = statementContext.deleteStatement();
+            listener = new BatchDeleteRewriteProcessor(after::append, updateCountAfter::append);
+        } else {
+            return BatchRewritePlan.notQualified(null,
+                    BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_STATEMENT, null);
+        }
+
+        try {
+            ParseTreeWalker.DEFAULT.walk(listener, ruleContext);
+        } catch (SQLParseException e) {
+            return BatchRewritePlan.notQualified(statementType,
+                    BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_EXPRESSION, e.getMessage());
+        }
 
-        return after.toString();
+        return BatchRewritePlan.qualified(statementType, after.toString(),
+                updateCountAfter.length() > 0 ? updateCountAfter.toString() : null);
     }
 
-    private static CockroachSQLParser createParser(String expression) {
+    static CockroachSQLParser createParser(String expression) {
         final ANTLRErrorListener errorListener = new FailFastErrorListener();
 
         CockroachSQLLexer lexer = new CockroachSQLLexer(CharStreams.fromString(expression));
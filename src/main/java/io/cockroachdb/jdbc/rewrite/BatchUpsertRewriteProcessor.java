@@ -101,6 +101,12 @@ public class BatchUpsertRewriteProcessor extends AbstractSQLParserListener {
     public void exitFunctionCall(CockroachSQLParser.FunctionCallContext ctx) {
         String fnName = ctx.functionName().getText();
 
+        if (ctx.extractList() != null) {
+            String source = pop(String.class, ctx);
+            push(fnName + "(" + ctx.extractList().field.getText() + " FROM " + source + ")", ctx);
+            return;
+        }
+
         List<String> args = new ArrayList<>();
 
         Optional.ofNullable(ctx.expressionList()).ifPresent(
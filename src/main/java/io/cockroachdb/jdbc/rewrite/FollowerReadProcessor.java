@@ -0,0 +1,75 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import io.cockroachdb.jdbc.CockroachProperty;
+import io.cockroachdb.jdbc.util.Assert;
+
+/**
+ * A query processor that adds an {@code AS OF SYSTEM TIME} clause to qualified SELECT queries
+ * on read-only connections in auto-commit mode, turning them into follower reads that can be
+ * served by the closest replica rather than the leaseholder.
+ * <p>
+ * The clause is added at the end of the top-level FROM clause. Queries already having a
+ * historical read or locking clause, set operators, references to internal schemas or no
+ * FROM clause are left as-is. Statement level historical reads are not allowed in explicit
+ * transactions, hence only implicit transactions qualify.
+ *
+ * @author Kai Niemi
+ */
+public class FollowerReadProcessor implements QueryProcessor {
+    public static final String DEFAULT_TIMESTAMP
+            = CockroachProperty.FOLLOWER_READ_TIMESTAMP.getDefaultValue();
+
+    private String timestampExpression = DEFAULT_TIMESTAMP;
+
+    public FollowerReadProcessor() {
+    }
+
+    /**
+     * @param timestampExpression the historical read timestamp expression, for example
+     *                            {@code follower_read_timestamp()} or {@code with_max_staleness('10s')}
+     */
+    public FollowerReadProcessor(String timestampExpression) {
+        setTimestampExpression(timestampExpression);
+    }
+
+    @Override
+    public void configure(Properties properties) {
+        setTimestampExpression(CockroachProperty.FOLLOWER_READ_TIMESTAMP.toDriverPropertyInfo(properties).value);
+    }
+
+    public String getTimestampExpression() {
+        return timestampExpression;
+    }
+
+    public void setTimestampExpression(String timestampExpression) {
+        Assert.hasText(timestampExpression, "timestampExpression is empty");
+        this.timestampExpression = timestampExpression.trim();
+    }
+
+    @Override
+    public String processQuery(Connection connection, String query) throws SQLException {
+        Assert.notNull(query, "Query is null");
+
+        if (!connection.isReadOnly() || !connection.getAutoCommit()) {
+            return query;
+        }
+
+        final int position = SelectQueryScanner.scanFollowerRead(query);
+        if (position < 0) {
+            return query;
+        }
+
+        return query.substring(0, position)
+                + " AS OF SYSTEM TIME " + timestampExpression
+                + query.substring(position);
+    }
+
+    @Override
+    public boolean isTransactionScoped() {
+        return false;
+    }
+}
@@ -2,6 +2,7 @@ package io.cockroachdb.jdbc.rewrite;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Properties;
 
 /**
  * Interface representing a SQL query processor for rewrites.
@@ -27,4 +28,12 @@ public interface QueryProcessor {
     String processQuery(Connection connection, String query) throws SQLException;
 
     boolean isTransactionScoped();
+
+    /**
+     * Configure the processor, implementation specific.
+     *
+     * @param properties the configuration properties, optionally provided in JDBC URL
+     */
+    default void configure(Properties properties) {
+    }
 }
@@ -0,0 +1,142 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.cockroachdb.jdbc.CockroachProperty;
+import io.cockroachdb.jdbc.util.ConcurrentLruCache;
+
+/**
+ * An ordered chain of query processors, where each processor is applied to the output of the
+ * previous one. The chain is compiled once per distinct SQL text into the final SQL text, which
+ * is cached such that rewriting a query costs one map lookup once the cache is warm, regardless
+ * of the number of processors.
+ * <p>
+ * Since processors may treat queries in read-only transactions differently, the read-only state
+ * of the connection, and the auto-commit mode of read-only connections, are part of the compilation
+ * key. Processors must otherwise only depend on the SQL text.
+ * <p>
+ * Transaction-scoped overrides are expressed as overlay chains derived from a base chain through
+ * {@link #withOverride(Class, QueryProcessor)}. Overlays are memoized by the base chain and keep
+ * their compiled queries between transactions.
+ *
+ * @author Kai Niemi
+ */
+public class QueryProcessorChain implements QueryProcessor {
+    public static final int DEFAULT_CACHE_SIZE
+            = Integer.parseInt(CockroachProperty.QUERY_PROCESSOR_CACHE_SIZE.getDefaultValue());
+
+    /**
+     * Create a chain of processors applied in the given order.
+     *
+     * @param processors the processors
+     * @return the chain
+     */
+    public static QueryProcessorChain of(QueryProcessor... processors) {
+        return new QueryProcessorChain(Arrays.asList(processors), DEFAULT_CACHE_SIZE);
+    }
+
+    private final List<QueryProcessor> processors;
+
+    private final int cacheSize;
+
+    private final boolean transactionScoped;
+
+    private final ConcurrentLruCache<String, String> readWriteCache;
+
+    private final ConcurrentLruCache<String, String> readOnlyCache;
+
+    private final ConcurrentLruCache<String, String> readOnlyAutoCommitCache;
+
+    private final Map<List<Object>, QueryProcessorChain> overlays = new ConcurrentHashMap<>();
+
+    public QueryProcessorChain(List<QueryProcessor> processors, int cacheSize) {
+        this(processors, cacheSize, false);
+    }
+
+    private QueryProcessorChain(List<QueryProcessor> processors, int cacheSize, boolean transactionScoped) {
+        this.processors = Collections.unmodifiableList(new ArrayList<>(processors));
+        this.cacheSize = cacheSize;
+        this.transactionScoped = transactionScoped;
+        this.readWriteCache = new ConcurrentLruCache<>(cacheSize);
+        this.readOnlyCache = new ConcurrentLruCache<>(cacheSize);
+        this.readOnlyAutoCommitCache = new ConcurrentLruCache<>(cacheSize);
+    }
+
+    @Override
+    public String processQuery(Connection connection, String query) throws SQLException {
+        if (processors.isEmpty()) {
+            return query;
+        }
+
+        final ConcurrentLruCache<String, String> cache = connection.isReadOnly()
+                ? (connection.getAutoCommit() ? readOnlyAutoCommitCache : readOnlyCache)
+                : readWriteCache;
+
+        String finalQuery = cache.getIfPresent(query);
+        if (finalQuery == null) {
+            finalQuery = query;
+            for (QueryProcessor processor : processors) {
+                finalQuery = processor.processQuery(connection, finalQuery);
+            }
+            finalQuery = cache.put(query, finalQuery);
+        }
+        return finalQuery;
+    }
+
+    @Override
+    public boolean isTransactionScoped() {
+        return transactionScoped;
+    }
+
+    /**
+     * Derive a transaction-scoped overlay chain where processors of the given type are replaced
+     * by the given processor, or where the processor is appended if the chain has no processor of
+     * that type. Replacing with {@link QueryProcessor#PASS_THROUGH} removes the processors of that type.
+     *
+     * @param type        the processor type to override
+     * @param replacement the replacing processor
+     * @return the memoized overlay chain
+     */
+    public QueryProcessorChain withOverride(Class<? extends QueryProcessor> type, QueryProcessor replacement) {
+        return overlays.computeIfAbsent(Arrays.asList(type, replacement), key -> {
+            List<QueryProcessor> list = new ArrayList<>();
+            boolean replaced = false;
+            for (QueryProcessor processor : processors) {
+                if (type.isInstance(processor)) {
+                    if (!replaced && replacement != PASS_THROUGH) {
+                        list.add(replacement);
+                    }
+                    replaced = true;
+                } else {
+                    list.add(processor);
+                }
+            }
+            if (!replaced && replacement != PASS_THROUGH) {
+                list.add(replacement);
+            }
+            return new QueryProcessorChain(list, cacheSize, true);
+        });
+    }
+
+    public List<QueryProcessor> getProcessors() {
+        return processors;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryProcessorChain{" +
+                "processors=" + processors +
+                ", transactionScoped=" + transactionScoped +
+                ", readWriteCache=" + readWriteCache +
+                ", readOnlyCache=" + readOnlyCache +
+                ", readOnlyAutoCommitCache=" + readOnlyAutoCommitCache +
+                '}';
+    }
+}
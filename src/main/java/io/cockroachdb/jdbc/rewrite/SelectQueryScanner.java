@@ -0,0 +1,351 @@
+package io.cockroachdb.jdbc.rewrite;
+
+/**
+ * A single pass, allocation free tokenizer that qualifies SELECT queries for an implicit
+ * {@code FOR UPDATE} locking clause or {@code AS OF SYSTEM TIME} historical read clause.
+ * String literals, quoted identifiers and comments are skipped, and keywords are only
+ * matched as whole tokens.
+ * <p>
+ * A query is not qualified for a locking clause if it's not a SELECT query or if it contains any of:
+ * <ul>
+ *     <li>{@code DISTINCT} or {@code GROUP BY}</li>
+ *     <li>an aggregate function call</li>
+ *     <li>a locking clause ({@code FOR UPDATE/SHARE/NO KEY UPDATE/KEY SHARE})</li>
+ *     <li>a historical read clause ({@code AS OF SYSTEM TIME})</li>
+ *     <li>a reference to an internal schema</li>
+ * </ul>
+ *
+ * @author Kai Niemi
+ */
+final class SelectQueryScanner {
+    private static final String[] AGGREGATE_FUNCTIONS = {
+            "array_agg",
+            "array_cat_agg",
+            "avg",
+            "bit_and",
+            "bit_or",
+            "bool_and",
+            "bool_or",
+            "concat_agg",
+            "corr",
+            "count",
+            "count_rows",
+            "covar_pop",
+            "covar_samp",
+            "every",
+            "json_agg",
+            "json_object_agg",
+            "jsonb_agg",
+            "jsonb_object_agg",
+            "max",
+            "min",
+            "percentile_cont",
+            "percentile_disc",
+            "regr_avgx",
+            "regr_avgy",
+            "regr_count",
+            "regr_intercept",
+            "regr_r2",
+            "regr_slope",
+            "regr_sxx",
+            "regr_sxy",
+            "regr_syy",
+            "sqrdiff",
+            "st_collect",
+            "st_extent",
+            "st_makeline",
+            "st_memcollect",
+            "st_memunion",
+            "st_union",
+            "stddev",
+            "stddev_pop",
+            "stddev_samp",
+            "string_agg",
+            "sum",
+            "sum_int",
+            "var_pop",
+            "var_samp",
+            "variance",
+            "xor_agg"
+    };
+
+    private static final String[] SYSTEM_SCHEMAS = {
+            "crdb_internal",
+            "information_schema",
+            "pg_catalog",
+            "pg_extension"
+    };
+
+    private static final String[] FROM_CLAUSE_TERMINATORS = {
+            "where",
+            "group",
+            "having",
+            "window",
+            "order",
+            "limit",
+            "offset",
+            "fetch",
+            "for"
+    };
+
+    private static final String[] SET_OPERATORS = {
+            "union",
+            "intersect",
+            "except"
+    };
+
+    private static final int NONE = 0;
+
+    private static final int GROUP = 1;
+
+    private static final int FOR = 2;
+
+    private static final int AS = 3;
+
+    private SelectQueryScanner() {
+    }
+
+    /**
+     * Scan a query for implicit select-for-update qualification.
+     *
+     * @param query the SQL query
+     * @return the position to insert the locking clause at, being either the first statement
+     * terminator or the end of the last token, or -1 if not qualified
+     */
+    static int scanForUpdate(String query) {
+        return scan(query, false);
+    }
+
+    /**
+     * Scan a query for implicit follower read qualification. In addition to the locking clause
+     * and historical read rules, the query must have a top-level FROM clause and no set operators,
+     * while aggregates, grouping and distinct selections are allowed.
+     *
+     * @param query the SQL query
+     * @return the position to insert the historical read clause at, being the end of the
+     * top-level FROM clause, or -1 if not qualified
+     */
+    static int scanFollowerRead(String query) {
+        return scan(query, true);
+    }
+
+    private static int scan(String query, boolean followerRead) {
+        final int n = query.length();
+
+        int i = 0;
+        int pending = NONE;
+        int lastTokenEnd = 0;
+        int depth = 0;
+        int fromClauseEnd = -1;
+        boolean inFromClause = false;
+        boolean first = true;
+
+        while (i < n) {
+            final char c = query.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            if (c == '-' && i + 1 < n && query.charAt(i + 1) == '-') {
+                i = skipLineComment(query, i + 2);
+                continue;
+            }
+
+            if (c == '/' && i + 1 < n && query.charAt(i + 1) == '*') {
+                i = skipBlockComment(query, i + 2);
+                continue;
+            }
+
+            if (first && !isIdentifierStart(c)) {
+                return -1;
+            }
+
+            if (c == ';') {
+                if (followerRead) {
+                    return inFromClause ? lastTokenEnd : fromClauseEnd;
+                }
+                return i;
+            }
+
+            if (c == '\'') {
+                i = skipQuoted(query, i + 1, '\'', false);
+            } else if (c == '"') {
+                i = skipQuoted(query, i + 1, '"', false);
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+            } else if (isIdentifierStart(c)) {
+                final int start = i;
+                while (i < n && isIdentifierPart(query.charAt(i))) {
+                    i++;
+                }
+                final int length = i - start;
+
+                // Escape string constant, E'..'
+                if (length == 1 && (c == 'e' || c == 'E') && i < n && query.charAt(i) == '\'') {
+                    i = skipQuoted(query, i + 1, '\'', true);
+                    pending = NONE;
+                    lastTokenEnd = i;
+                    continue;
+                }
+
+                if (first) {
+                    if (!matches(query, start, length, "select")) {
+                        return -1;
+                    }
+                    first = false;
+                    lastTokenEnd = i;
+                    continue;
+                }
+
+                switch (pending) {
+                    case GROUP:
+                        if (!followerRead && matches(query, start, length, "by")) {
+                            return -1;
+                        }
+                        break;
+                    case FOR:
+                        if (matches(query, start, length, "update")
+                                || matches(query, start, length, "share")
+                                || matches(query, start, length, "no")
+                                || matches(query, start, length, "key")) {
+                            return -1;
+                        }
+                        break;
+                    case AS:
+                        if (matches(query, start, length, "of")) {
+                            return -1;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+
+                final char next = peek(query, i);
+                if (next == '.' && matchesAny(query, start, length, SYSTEM_SCHEMAS)) {
+                    return -1;
+                }
+
+                if (followerRead) {
+                    if (depth == 0) {
+                        if (matchesAny(query, start, length, SET_OPERATORS)) {
+                            return -1;
+                        }
+                        if (inFromClause && matchesAny(query, start, length, FROM_CLAUSE_TERMINATORS)) {
+                            fromClauseEnd = lastTokenEnd;
+                            inFromClause = false;
+                        } else if (fromClauseEnd < 0 && matches(query, start, length, "from")) {
+                            inFromClause = true;
+                        }
+                    }
+                } else {
+                    if (matches(query, start, length, "distinct")) {
+                        return -1;
+                    }
+                    if (next == '(' && matchesAny(query, start, length, AGGREGATE_FUNCTIONS)) {
+                        return -1;
+                    }
+                }
+
+                if (matches(query, start, length, "group")) {
+                    pending = GROUP;
+                } else if (matches(query, start, length, "for")) {
+                    pending = FOR;
+                } else if (matches(query, start, length, "as")) {
+                    pending = AS;
+                } else {
+                    pending = NONE;
+                }
+                lastTokenEnd = i;
+                continue;
+            } else {
+                i++;
+            }
+
+            pending = NONE;
+            lastTokenEnd = i;
+        }
+
+        if (first) {
+            return -1;
+        }
+        if (followerRead) {
+            return inFromClause ? lastTokenEnd : fromClauseEnd;
+        }
+        return lastTokenEnd;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static boolean matches(String query, int start, int length, String keyword) {
+        return length == keyword.length() && query.regionMatches(true, start, keyword, 0, length);
+    }
+
+    private static boolean matchesAny(String query, int start, int length, String[] keywords) {
+        for (String keyword : keywords) {
+            if (matches(query, start, length, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static char peek(String query, int i) {
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c;
+            }
+            i++;
+        }
+        return 0;
+    }
+
+    private static int skipLineComment(String query, int i) {
+        while (i < query.length() && query.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipBlockComment(String query, int i) {
+        while (i + 1 < query.length()) {
+            if (query.charAt(i) == '*' && query.charAt(i + 1) == '/') {
+                return i + 2;
+            }
+            i++;
+        }
+        return query.length();
+    }
+
+    private static int skipQuoted(String query, int i, char quote, boolean backslashEscapes) {
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                // Doubled quote is an escaped quote
+                if (i + 1 < query.length() && query.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return query.length();
+    }
+}
@@ -0,0 +1,133 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+
+import io.cockroachdb.jdbc.parser.AbstractSQLParserListener;
+import io.cockroachdb.jdbc.parser.CockroachSQLParser;
+import io.cockroachdb.jdbc.parser.SQLParseException;
+
+/**
+ * A single-row INSERT or UPSERT statement with literal values, split into a statement head
+ * (keyword, table and column names), a value list and a tail (ON CONFLICT clause). Compatible
+ * statements, having the same head and tail, can be coalesced into one multi-row VALUES statement.
+ *
+ * @author Kai Niemi
+ */
+public final class ValuesStatement {
+    /**
+     * Parse a statement into a values statement if it qualifies for coalescing. A qualified
+     * statement is an INSERT or UPSERT with a single value list without placeholders and
+     * without a RETURNING clause.
+     *
+     * @param sql the SQL statement
+     * @return the values statement or null if not qualified
+     */
+    public static ValuesStatement parse(String sql) {
+        final BatchRewritePlan.StatementType statementType = BatchRewritePlan.StatementType.fromQuery(sql);
+        if (statementType != BatchRewritePlan.StatementType.INSERT
+                && statementType != BatchRewritePlan.StatementType.UPSERT) {
+            return null;
+        }
+
+        final CockroachSQLParser.StatementContext statementContext;
+        try {
+            statementContext = BatchRewriteProcessor.createParser(sql).root().statement();
+        } catch (SQLParseException e) {
+            return null;
+        }
+
+        final ValueListExtractor extractor = new ValueListExtractor();
+
+        if (statementContext.insertStatement() != null) {
+            CockroachSQLParser.InsertStatementContext ctx = statementContext.insertStatement();
+            if (ctx.valueList().size() != 1) {
+                return null;
+            }
+            ParseTreeWalker.DEFAULT.walk(extractor, ctx);
+            if (extractor.hasPlaceholders) {
+                return null;
+            }
+            return new ValuesStatement(
+                    "INSERT INTO " + extractor.text(ctx.tableName()) + " " + extractor.text(ctx.columnNames()),
+                    extractor.text(ctx.valueList(0)),
+                    ctx.optionalOnConflict() != null ? extractor.text(ctx.optionalOnConflict()) : "");
+        }
+
+        if (statementContext.upsertStatement() != null) {
+            CockroachSQLParser.UpsertStatementContext ctx = statementContext.upsertStatement();
+            if (ctx.valueList().size() != 1) {
+                return null;
+            }
+            ParseTreeWalker.DEFAULT.walk(extractor, ctx);
+            if (extractor.hasPlaceholders) {
+                return null;
+            }
+            return new ValuesStatement(
+                    "UPSERT INTO " + extractor.text(ctx.tableName()) + " " + extractor.text(ctx.columnNames()),
+                    extractor.text(ctx.valueList(0)),
+                    "");
+        }
+
+        return null;
+    }
+
+    private static class ValueListExtractor extends AbstractSQLParserListener {
+        private boolean hasPlaceholders;
+
+        @Override
+        public void exitPlaceholder(CockroachSQLParser.PlaceholderContext ctx) {
+            this.hasPlaceholders = true;
+        }
+
+        String text(ParserRuleContext ctx) {
+            return getOriginalText(ctx);
+        }
+    }
+
+    private final String head;
+
+    private final String values;
+
+    private final String tail;
+
+    private ValuesStatement(String head, String values, String tail) {
+        this.head = head;
+        this.values = values;
+        this.tail = tail;
+    }
+
+    /**
+     * @return the statement head, for example "INSERT INTO t (a, b)"
+     */
+    public String getHead() {
+        return head;
+    }
+
+    /**
+     * @return the value list including parentheses, for example "(1, 'x')"
+     */
+    public String getValues() {
+        return values;
+    }
+
+    /**
+     * @return the ON CONFLICT clause or an empty string
+     */
+    public String getTail() {
+        return tail;
+    }
+
+    /**
+     * @param other the other statement
+     * @return true if both statements can be coalesced into one multi-row statement
+     */
+    public boolean isCompatible(ValuesStatement other) {
+        return head.equals(other.head) && tail.equals(other.tail);
+    }
+
+    @Override
+    public String toString() {
+        return head + " VALUES " + values + (tail.isEmpty() ? "" : " " + tail);
+    }
+}
@@ -1,45 +1,155 @@
 package io.cockroachdb.jdbc.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.UUID;
 
 /**
- * Helper for message digests / checksums.
+ * Helper for incremental checksums, either non-cryptographic hash functions or message digests.
+ * <p>
+ * The typed update methods feed the little-endian binary representation of a value without
+ * intermediate allocations. Checksums are only comparable when computed by the same algorithm
+ * and sequence of typed updates.
  *
  * @author Kai Niemi
  */
-@SuppressWarnings("ALL")
-public class Checksum {
-    public static Checksum sha256() {
-        return new Checksum("SHA-256");
+public abstract class Checksum {
+    public static final String MURMUR3 = "murmur3";
+
+    public static final String SHA256 = "sha256";
+
+    static final VarHandle INT_HANDLE
+            = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    static final VarHandle LONG_HANDLE
+            = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * @return a 128-bit MurmurHash3 (x64 variant) checksum
+     */
+    public static Checksum murmur3() {
+        return new Murmur3Checksum();
     }
 
-    private final MessageDigest messageDigest;
+    /**
+     * @return a SHA-256 message digest checksum
+     */
+    public static Checksum sha256() {
+        return new MessageDigestChecksum("SHA-256");
+    }
 
-    public Checksum(String algorithm) {
-        try {
-            this.messageDigest = MessageDigest.getInstance(algorithm);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalArgumentException(e);
+    /**
+     * Create a checksum for the given algorithm.
+     *
+     * @param algorithm either 'murmur3', 'sha256' or any message digest algorithm name
+     * @return the checksum
+     * @throws IllegalArgumentException if the algorithm is not available
+     */
+    public static Checksum of(String algorithm) {
+        Assert.hasText(algorithm, "algorithm is empty");
+        switch (algorithm.trim().toLowerCase(Locale.ROOT)) {
+            case MURMUR3:
+                return murmur3();
+            case SHA256:
+                return sha256();
+            default:
+                return new MessageDigestChecksum(algorithm.trim());
         }
     }
 
-    public Checksum update(byte input) {
-        this.messageDigest.update(input);
-        return this;
+    private final byte[] scratch = new byte[8];
+
+    public abstract Checksum update(byte input);
+
+    public abstract Checksum update(byte[] input, int offset, int len);
+
+    public Checksum update(byte[] input) {
+        return update(input, 0, input.length);
+    }
+
+    public Checksum update(boolean input) {
+        return update((byte) (input ? 1 : 0));
+    }
+
+    public Checksum update(short input) {
+        scratch[0] = (byte) input;
+        scratch[1] = (byte) (input >>> 8);
+        return update(scratch, 0, 2);
+    }
+
+    public Checksum update(char input) {
+        return update((short) input);
+    }
+
+    public Checksum update(int input) {
+        INT_HANDLE.set(scratch, 0, input);
+        return update(scratch, 0, 4);
     }
 
-    public Checksum update(byte[] input, int offset, int len) {
-        this.messageDigest.update(input, offset, len);
+    public Checksum update(long input) {
+        LONG_HANDLE.set(scratch, 0, input);
+        return update(scratch, 0, 8);
+    }
+
+    public Checksum update(float input) {
+        return update(Float.floatToIntBits(input));
+    }
+
+    public Checksum update(double input) {
+        return update(Double.doubleToLongBits(input));
+    }
+
+    public Checksum update(UUID input) {
+        update(input.getMostSignificantBits());
+        return update(input.getLeastSignificantBits());
+    }
+
+    public Checksum update(char[] input, int offset, int len) {
+        for (int i = offset; i < offset + len; i++) {
+            update(input[i]);
+        }
         return this;
     }
 
-    public Checksum update(byte[] input) {
-        this.messageDigest.update(input);
+    public Checksum update(CharSequence input) {
+        for (int i = 0; i < input.length(); i++) {
+            update(input.charAt(i));
+        }
         return this;
     }
 
-    public byte[] toDigest() {
-        return messageDigest.digest();
+    public abstract byte[] toDigest();
+
+    private static class MessageDigestChecksum extends Checksum {
+        private final MessageDigest messageDigest;
+
+        MessageDigestChecksum(String algorithm) {
+            try {
+                this.messageDigest = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        public Checksum update(byte input) {
+            this.messageDigest.update(input);
+            return this;
+        }
+
+        @Override
+        public Checksum update(byte[] input, int offset, int len) {
+            this.messageDigest.update(input, offset, len);
+            return this;
+        }
+
+        @Override
+        public byte[] toDigest() {
+            return messageDigest.digest();
+        }
     }
 }
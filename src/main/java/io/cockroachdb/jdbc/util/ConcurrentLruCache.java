@@ -0,0 +1,198 @@
+package io.cockroachdb.jdbc.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A size-bounded, thread-safe cache with approximate least-recently-used eviction.
+ * <p>
+ * Lookups are lock-free and only touch the entry's access timestamp. When the cache
+ * grows beyond its maximum size, the least recently accessed entries are evicted in
+ * a single pass under a lock held only by the inserting thread. Values are computed
+ * outside any lock, so concurrent misses for the same key may compute the value more
+ * than once but only the first result is retained.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Kai Niemi
+ */
+public class ConcurrentLruCache<K, V> {
+    private static final class Node<V> {
+        final V value;
+
+        volatile long lastAccess;
+
+        Node(V value) {
+            this.value = value;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    private final Map<K, Node<V>> map = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile int maxSize;
+
+    public ConcurrentLruCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * Set the maximum number of entries. A size of zero disables caching. Shrinking
+     * takes effect on the next insert.
+     *
+     * @param maxSize the maximum size, zero or positive
+     */
+    public void setMaxSize(int maxSize) {
+        Assert.isTrue(maxSize >= 0, "maxSize must be >= 0");
+        this.maxSize = maxSize;
+        if (maxSize == 0) {
+            clear();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Return the cached value for the given key, computing and caching it
+     * on a miss.
+     *
+     * @param key the cache key
+     * @param loader function computing the value on a miss, must not return null
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        Assert.notNull(value, "loader returned null");
+        return put(key, value);
+    }
+
+    /**
+     * Return the cached value for the given key without computing it on a miss.
+     *
+     * @param key the cache key
+     * @return the cached value or null if not present
+     */
+    public V getIfPresent(K key) {
+        Node<V> node = map.get(key);
+        if (node != null) {
+            node.lastAccess = System.nanoTime();
+            hits.increment();
+            return node.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Cache a value for the given key unless a value is already present.
+     *
+     * @param key   the cache key
+     * @param value the value, not null
+     * @return the retained value, either the given or the already present value
+     */
+    public V put(K key, V value) {
+        Assert.notNull(value, "value is null");
+
+        if (maxSize == 0) {
+            return value;
+        }
+
+        Node<V> existing = map.putIfAbsent(key, new Node<>(value));
+        if (existing != null) {
+            return existing.value;
+        }
+
+        if (map.size() > maxSize) {
+            evict();
+        }
+
+        return value;
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return; // Some other thread is already trimming
+        }
+        try {
+            final int limit = maxSize;
+            final int size = map.size();
+            if (size <= limit) {
+                return;
+            }
+
+            // Trim some headroom to amortize the scan over subsequent inserts
+            final int target = Math.max(0, limit - Math.max(1, limit / 8));
+
+            long[] timestamps = new long[size];
+            int n = 0;
+            for (Node<V> node : map.values()) {
+                if (n == timestamps.length) {
+                    break;
+                }
+                timestamps[n++] = node.lastAccess;
+            }
+            Arrays.sort(timestamps, 0, n);
+
+            final long threshold = timestamps[Math.max(0, n - target - 1)];
+
+            map.entrySet().removeIf(entry -> {
+                if (map.size() > target && entry.getValue().lastAccess <= threshold) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentLruCache{" +
+                "size=" + size() +
+                ", maxSize=" + maxSize +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                '}';
+    }
+}
@@ -0,0 +1,161 @@
+package io.cockroachdb.jdbc.util;
+
+/**
+ * Incremental 128-bit MurmurHash3 (x64 variant) with seed 0, producing the same digest as
+ * the reference implementation for the same input bytes. Input is buffered in 16 byte blocks
+ * and mixed in place, hence updates do not allocate.
+ *
+ * @author Kai Niemi
+ */
+final class Murmur3Checksum extends Checksum {
+    private static final int BLOCK_SIZE = 16;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final byte[] block = new byte[BLOCK_SIZE];
+
+    private int position;
+
+    private long length;
+
+    private long h1;
+
+    private long h2;
+
+    Murmur3Checksum() {
+    }
+
+    @Override
+    public Checksum update(byte input) {
+        block[position++] = input;
+        if (position == BLOCK_SIZE) {
+            mixBlock();
+        }
+        return this;
+    }
+
+    @Override
+    public Checksum update(byte[] input, int offset, int len) {
+        while (len > 0) {
+            int n = Math.min(len, BLOCK_SIZE - position);
+            System.arraycopy(input, offset, block, position, n);
+            position += n;
+            offset += n;
+            len -= n;
+            if (position == BLOCK_SIZE) {
+                mixBlock();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Checksum update(int input) {
+        if (position <= BLOCK_SIZE - 4) {
+            INT_HANDLE.set(block, position, input);
+            position += 4;
+            if (position == BLOCK_SIZE) {
+                mixBlock();
+            }
+            return this;
+        }
+        return super.update(input);
+    }
+
+    @Override
+    public Checksum update(long input) {
+        if (position <= BLOCK_SIZE - 8) {
+            LONG_HANDLE.set(block, position, input);
+            position += 8;
+            if (position == BLOCK_SIZE) {
+                mixBlock();
+            }
+            return this;
+        }
+        return super.update(input);
+    }
+
+    private void mixBlock() {
+        long k1 = (long) LONG_HANDLE.get(block, 0);
+        long k2 = (long) LONG_HANDLE.get(block, 8);
+
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+
+        length += BLOCK_SIZE;
+        position = 0;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        return k2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Finalize the hash and reset the checksum.
+     *
+     * @return the 16 byte digest, h1 followed by h2 in little-endian order
+     */
+    @Override
+    public byte[] toDigest() {
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = position - 1; i >= 8; i--) {
+            k2 ^= (block[i] & 0xffL) << ((i - 8) * 8);
+        }
+        for (int i = Math.min(position, 8) - 1; i >= 0; i--) {
+            k1 ^= (block[i] & 0xffL) << (i * 8);
+        }
+
+        long a = h1 ^ mixK1(k1);
+        long b = h2 ^ mixK2(k2);
+
+        long total = length + position;
+        a ^= total;
+        b ^= total;
+        a += b;
+        b += a;
+        a = fmix64(a);
+        b = fmix64(b);
+        a += b;
+        b += a;
+
+        byte[] digest = new byte[16];
+        LONG_HANDLE.set(digest, 0, a);
+        LONG_HANDLE.set(digest, 8, b);
+
+        h1 = 0;
+        h2 = 0;
+        length = 0;
+        position = 0;
+
+        return digest;
+    }
+}
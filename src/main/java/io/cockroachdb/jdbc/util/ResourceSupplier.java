@@ -18,4 +18,11 @@ public interface ResourceSupplier<T> {
      * @throws SQLException on any SQL exception
      */
     T get() throws SQLException;
+
+    /**
+     * Prepare a resource ahead of a subsequent {@link #get()}, for example by opening it
+     * in the background. The default implementation does nothing.
+     */
+    default void prepare() {
+    }
 }
@@ -6,6 +6,12 @@ parser grammar CockroachSQLParser;
 
 options { tokenVocab = CockroachSQLLexer; }
 
+@members {
+    private boolean isKeyword(String keyword) {
+        return keyword.equalsIgnoreCase(getCurrentToken().getText());
+    }
+}
+
 // Parser rules
 
 root
@@ -16,6 +22,7 @@ statement
     : insertStatement
     | upsertStatement
     | updateStatement
+    | deleteStatement
     ;
 
 ignore
@@ -33,7 +40,12 @@ insertStatement
     ;
 
 optionalOnConflict
-   : ON CONFLICT optionalConflictExpression DO NOTHING
+   : ON CONFLICT optionalConflictExpression onConflictAction
+   ;
+
+onConflictAction
+   : DO NOTHING
+   | DO UPDATE SET setClauseList whereClause?
    ;
 
 optionalConflictExpression
@@ -78,6 +90,13 @@ setClause
    : identifier EQUALS expression
    ;
 
+//
+// Delete
+//
+deleteStatement
+    : deleteKeyword fromKeyword tableName whereClause
+    ;
+
 whereClause
     : WHERE expression
     ;
@@ -140,6 +159,11 @@ placeholder
 
 functionCall
     : functionName LEFT_PAREN expressionList? RIGHT_PAREN
+    | functionName LEFT_PAREN extractList RIGHT_PAREN
+    ;
+
+extractList
+    : field=IDENTIFIER fromKeyword expression
     ;
 
 functionName
@@ -153,3 +177,14 @@ expressionList
 tableName
     : name=identifier
     ;
+
+//
+// Keywords not reserved by the lexer, hence matched as identifiers in context
+//
+deleteKeyword
+    : {isKeyword("DELETE")}? IDENTIFIER
+    ;
+
+fromKeyword
+    : {isKeyword("FROM")}? IDENTIFIER
+    ;
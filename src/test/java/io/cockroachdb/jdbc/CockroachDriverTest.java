@@ -10,6 +10,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
@@ -17,6 +18,9 @@ import org.junit.jupiter.api.Tags;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import io.cockroachdb.jdbc.cluster.CockroachTopologyProvider;
+import io.cockroachdb.jdbc.cluster.Node;
+
 @Tags(value = {
         @Tag("unit-test")
 })
@@ -42,6 +46,98 @@ public class CockroachDriverTest {
         DriverManager.deregisterDriver(driverMock);
     }
 
+    @Test
+    public void getConnection_BalancedAcrossNodes_IfTopologyDiscovery() throws SQLException {
+        Driver driverMock = Mockito.mock(Driver.class);
+
+        Mockito.when(driverMock.acceptsURL("jdbc:postgresql")).thenReturn(true);
+        Mockito.when(driverMock.connect(Mockito.startsWith("jdbc:postgresql"), Mockito.any(Properties.class)))
+                .thenAnswer(invocation -> Mockito.mock(Connection.class));
+
+        DriverManager.registerDriver(driverMock);
+        CockroachDriver.setTopologyProviderSupplier(() -> seedConnection -> List.of(
+                new Node(1, "10.0.0.1", 26257, "region=us-east1", true),
+                new Node(2, "10.0.0.2", 26257, "region=us-east1", true),
+                new Node(3, "10.0.0.3", 26257, "region=eu-west1", true)));
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                DriverManager.getConnection("jdbc:cockroachdb://seed1:26257,seed2:26257/defaultdb"
+                        + "?sslmode=disable&topologyDiscovery=true&clientLocality=region=us-east1").close();
+            }
+
+            Mockito.verify(driverMock, Mockito.times(2)).connect(
+                    Mockito.eq("jdbc:postgresql://10.0.0.1:26257/defaultdb?sslmode=disable&topologyDiscovery=true"
+                            + "&clientLocality=region=us-east1"), Mockito.any(Properties.class));
+            Mockito.verify(driverMock, Mockito.times(2)).connect(
+                    Mockito.eq("jdbc:postgresql://10.0.0.2:26257/defaultdb?sslmode=disable&topologyDiscovery=true"
+                            + "&clientLocality=region=us-east1"), Mockito.any(Properties.class));
+        } finally {
+            CockroachDriver.setTopologyProviderSupplier(CockroachTopologyProvider::new);
+            DriverManager.deregisterDriver(driverMock);
+        }
+    }
+
+    @Test
+    public void getConnection_DiscoveryWithCallerCredentials_IfTopologyDiscovery() throws SQLException {
+        List<String> seedUsers = new ArrayList<>();
+        CockroachDriver.setConnectionFactory((url, info) -> {
+            if (url.contains("discovery-seed")) {
+                seedUsers.add(info.getProperty("user"));
+            }
+            return Mockito.mock(Connection.class);
+        });
+        CockroachDriver.setTopologyProviderSupplier(() -> seedConnection -> {
+            seedConnection.get().close();
+            return List.of(new Node(1, "10.0.0.1", 26257, "", true));
+        });
+
+        CockroachDriver driver = new CockroachDriver();
+        String url = "jdbc:cockroachdb://discovery-seed:26257/defaultdb?sslmode=disable&topologyDiscovery=true";
+        try {
+            Properties alice = new Properties();
+            alice.setProperty("user", "alice");
+            Properties bob = new Properties();
+            bob.setProperty("user", "bob");
+
+            driver.connect(url + "&topologyRefreshInterval=1h", alice).close();
+            driver.connect(url + "&topologyRefreshInterval=1h", bob).close();
+            driver.connect(url + "&topologyRefreshInterval=0s", bob).close();
+            driver.connect(url + "&topologyRefreshInterval=0s", bob).close();
+
+            // Refresh interval applied per load balancer, discovering through the credentials of the caller
+            Assertions.assertEquals(List.of("alice", "bob", "bob"), seedUsers);
+        } finally {
+            CockroachDriver.setTopologyProviderSupplier(CockroachTopologyProvider::new);
+            CockroachDriver.setConnectionFactory(DriverManager::getConnection);
+        }
+    }
+
+    @Test
+    public void getConnection_CircuitBreakerRetained_IfOtherConnectionOmitsThreshold() {
+        AtomicInteger connects = new AtomicInteger();
+        CockroachDriver.setConnectionFactory((url, info) -> {
+            connects.incrementAndGet();
+            throw new SQLException("Connection refused", "08001");
+        });
+
+        CockroachDriver driver = new CockroachDriver();
+        String url = "jdbc:cockroachdb://circuit-breaker-node:26257/defaultdb?sslmode=disable";
+        try {
+            Assertions.assertThrows(SQLException.class,
+                    () -> driver.connect(url + "&circuitBreakerFailureThreshold=1", new Properties()));
+            Assertions.assertThrows(SQLException.class,
+                    () -> driver.connect(url, new Properties()));
+            Assertions.assertThrows(SQLException.class,
+                    () -> driver.connect(url + "&circuitBreakerFailureThreshold=1", new Properties()));
+
+            // Last connect fails fast on the open circuit breaker
+            Assertions.assertEquals(2, connects.get());
+        } finally {
+            CockroachDriver.setConnectionFactory(DriverManager::getConnection);
+        }
+    }
+
     @Test
     public void getVersion_Current() throws SQLException {
         Assertions.assertEquals(CockroachDriverInfo.MAJOR_VERSION,
@@ -89,7 +185,7 @@ public class CockroachDriverTest {
             }
         });
 
-        Assertions.assertEquals(13, psql.size());
+        Assertions.assertEquals(36, psql.size());
         Assertions.assertEquals(82, crdb.size());
     }
 }
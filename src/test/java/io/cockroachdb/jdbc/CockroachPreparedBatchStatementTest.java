@@ -0,0 +1,381 @@
+package io.cockroachdb.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.postgresql.PGConnection;
+
+import io.cockroachdb.jdbc.rewrite.BatchRewriteProcessor;
+import io.cockroachdb.jdbc.rewrite.QueryProcessor;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class CockroachPreparedBatchStatementTest {
+    private static final String QUERY = "UPDATE product SET inventory=?, price=?, name=? WHERE id=?";
+
+    private static final String BATCH_QUERY = BatchRewriteProcessor.rewriteUpdateStatement(QUERY);
+
+    private Connection connectionMock;
+
+    private PreparedStatement preparedStatementMock;
+
+    @BeforeEach
+    public void setupMocks() throws SQLException {
+        connectionMock = Mockito.mock(Connection.class, Mockito.withSettings().extraInterfaces(PGConnection.class));
+        preparedStatementMock = Mockito.mock(PreparedStatement.class);
+
+        Mockito.when(connectionMock.prepareStatement(Mockito.anyString())).thenReturn(preparedStatementMock);
+        Mockito.when(connectionMock.createArrayOf(Mockito.anyString(), Mockito.any(Object[].class)))
+                .thenReturn(Mockito.mock(Array.class));
+    }
+
+    /**
+     * Add product rows with bind values derived from the row index to the batch of
+     * a statement for {@link #QUERY}.
+     */
+    private static void addProductRows(PreparedStatement ps, int count) throws SQLException {
+        for (int i = 0; i < count; i++) {
+            ps.setInt(1, i);
+            ps.setBigDecimal(2, BigDecimal.valueOf(i));
+            ps.setString(3, "product-" + i);
+            ps.setLong(4, i);
+            ps.addBatch();
+        }
+    }
+
+    @Test
+    public void whenBatchingWithoutNulls_expectPrimitiveArrays() throws SQLException {
+        PGConnection pgConnectionMock = (PGConnection) connectionMock;
+
+        Mockito.when(connectionMock.isWrapperFor(PGConnection.class)).thenReturn(true);
+        Mockito.when(connectionMock.unwrap(PGConnection.class)).thenReturn(pgConnectionMock);
+        Mockito.when(pgConnectionMock.createArrayOf(Mockito.anyString(), Mockito.any(Object.class)))
+                .thenReturn(Mockito.mock(Array.class));
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(20);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY);
+        addProductRows(ps, 20);
+
+        int[] rv = ps.executeBatch();
+        Assertions.assertEquals(20, rv.length);
+
+        ArgumentCaptor<Object> primitiveCaptor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(pgConnectionMock).createArrayOf(Mockito.eq("INTEGER"), primitiveCaptor.capture());
+        Mockito.verify(pgConnectionMock).createArrayOf(Mockito.eq("BIGINT"), primitiveCaptor.capture());
+
+        int[] inventory = (int[]) primitiveCaptor.getAllValues().get(0);
+        long[] ids = (long[]) primitiveCaptor.getAllValues().get(1);
+        Assertions.assertEquals(20, inventory.length);
+        Assertions.assertEquals(19, inventory[19]);
+        Assertions.assertEquals(20, ids.length);
+        Assertions.assertEquals(19L, ids[19]);
+
+        ArgumentCaptor<Object[]> objectCaptor = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(connectionMock).createArrayOf(Mockito.eq("NUMERIC"), objectCaptor.capture());
+        Mockito.verify(connectionMock).createArrayOf(Mockito.eq("VARCHAR"), objectCaptor.capture());
+
+        Assertions.assertEquals(BigDecimal.valueOf(19), objectCaptor.getAllValues().get(0)[19]);
+        Assertions.assertInstanceOf(String[].class, objectCaptor.getAllValues().get(1));
+        Assertions.assertEquals("product-19", objectCaptor.getAllValues().get(1)[19]);
+
+        Mockito.verify(preparedStatementMock, Mockito.times(4)).setArray(Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    public void whenBatchingWithNullsAndMixedTypes_expectBoxedArrays() throws SQLException {
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(3);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY);
+        for (int i = 0; i < 3; i++) {
+            if (i == 1) {
+                ps.setNull(1, Types.INTEGER);
+                ps.setObject(2, "12.5");
+            } else {
+                ps.setInt(1, i);
+                ps.setBigDecimal(2, BigDecimal.ONE);
+            }
+            ps.setString(3, null);
+            ps.setLong(4, i);
+            ps.addBatch();
+        }
+
+        ps.executeBatch();
+
+        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(connectionMock).createArrayOf(Mockito.eq("INTEGER"), captor.capture());
+        Mockito.verify(connectionMock).createArrayOf(Mockito.eq("NUMERIC"), captor.capture());
+        Mockito.verify(connectionMock).createArrayOf(Mockito.eq("VARCHAR"), captor.capture());
+        Mockito.verify(connectionMock).createArrayOf(Mockito.eq("BIGINT"), captor.capture());
+
+        Assertions.assertArrayEquals(new Object[] {0, null, 2}, captor.getAllValues().get(0));
+        Assertions.assertArrayEquals(new Object[] {BigDecimal.ONE, "12.5", BigDecimal.ONE},
+                captor.getAllValues().get(1));
+        Assertions.assertArrayEquals(new Object[] {null, null, null}, captor.getAllValues().get(2));
+        Assertions.assertArrayEquals(new Object[] {0L, 1L, 2L}, captor.getAllValues().get(3));
+    }
+
+    @Test
+    public void whenExecutingWithoutBatch_expectReplayOnOriginalStatement() throws SQLException {
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(1);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY);
+        ps.setInt(1, 10);
+        ps.setDouble(2, 1.5);
+        ps.setNull(3, Types.VARCHAR);
+        ps.setLong(4, 42L);
+
+        Assertions.assertEquals(1, ps.executeUpdate());
+
+        Mockito.verify(preparedStatementMock).setInt(1, 10);
+        Mockito.verify(preparedStatementMock).setDouble(2, 1.5);
+        Mockito.verify(preparedStatementMock).setNull(3, Types.VARCHAR);
+        Mockito.verify(preparedStatementMock).setLong(4, 42L);
+        Mockito.verify(connectionMock).prepareStatement(QUERY);
+        Mockito.verify(connectionMock, Mockito.never()).prepareStatement(BATCH_QUERY);
+    }
+
+    @Test
+    public void whenBatchingAboveMaxRows_expectChunksOnSameStatement() throws SQLException {
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(4, 4, 2);
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setRewriteBatchMaxRows(4);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY,
+                connectionSettings);
+        addProductRows(ps, 10);
+
+        int[] rv = ps.executeBatch();
+        Assertions.assertEquals(10, rv.length);
+
+        Mockito.verify(connectionMock, Mockito.times(1)).prepareStatement(BATCH_QUERY);
+        Mockito.verify(preparedStatementMock, Mockito.times(3)).executeUpdate();
+
+        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(connectionMock, Mockito.times(3)).createArrayOf(Mockito.eq("BIGINT"), captor.capture());
+
+        Assertions.assertArrayEquals(new Object[] {0L, 1L, 2L, 3L}, captor.getAllValues().get(0));
+        Assertions.assertArrayEquals(new Object[] {4L, 5L, 6L, 7L}, captor.getAllValues().get(1));
+        Assertions.assertArrayEquals(new Object[] {8L, 9L}, captor.getAllValues().get(2));
+    }
+
+    @Test
+    public void whenBatchingAboveMaxBytes_expectChunksWithinBudget() throws SQLException {
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(1);
+
+        // Each row is estimated to 4 + 16 + 9 + 8 = 37 bytes
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setRewriteBatchMaxBytes(100);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY,
+                connectionSettings);
+        addProductRows(ps, 5);
+
+        ps.executeBatch();
+
+        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(connectionMock, Mockito.times(3)).createArrayOf(Mockito.eq("BIGINT"), captor.capture());
+
+        Assertions.assertArrayEquals(new Object[] {0L, 1L}, captor.getAllValues().get(0));
+        Assertions.assertArrayEquals(new Object[] {2L, 3L}, captor.getAllValues().get(1));
+        Assertions.assertArrayEquals(new Object[] {4L}, captor.getAllValues().get(2));
+    }
+
+    @Test
+    public void whenPipeliningChunks_expectSameOrderAndCounts() throws SQLException {
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(3, 3, 3, 1);
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setRewriteBatchMaxRows(3)
+                .setRewriteBatchPipelining(true);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY,
+                connectionSettings);
+        addProductRows(ps, 10);
+
+        long[] rv = ps.executeLargeBatch();
+        Assertions.assertEquals(10, rv.length);
+
+        Mockito.verify(connectionMock, Mockito.times(1)).prepareStatement(BATCH_QUERY);
+        Mockito.verify(preparedStatementMock, Mockito.times(4)).executeUpdate();
+        Mockito.verify(preparedStatementMock, Mockito.times(16)).setArray(Mockito.anyInt(), Mockito.any());
+
+        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(connectionMock, Mockito.times(4)).createArrayOf(Mockito.eq("BIGINT"), captor.capture());
+
+        Assertions.assertTrue(captor.getAllValues().stream().anyMatch(
+                values -> Arrays.equals(new Object[] {9L}, values)));
+        Assertions.assertEquals(10, captor.getAllValues().stream().mapToInt(values -> values.length).sum());
+    }
+
+    @Test
+    public void whenBatchingWithUpdateCounts_expectCountsPerRow() throws SQLException {
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+
+        String updateCountQuery = BatchRewriteProcessor.rewriteStatement(QUERY).getUpdateCountQuery();
+
+        Mockito.when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        // Row 1 is a stale version and row 3 matches two rows
+        Mockito.when(resultSetMock.next()).thenReturn(true, true, true, true, false);
+        Mockito.when(resultSetMock.getInt(1)).thenReturn(0, 2, 3, 3);
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setRewriteBatchUpdateCounts(true);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY,
+                updateCountQuery, connectionSettings);
+        addProductRows(ps, 5);
+
+        int[] rv = ps.executeBatch();
+        Assertions.assertArrayEquals(new int[] {1, 0, 1, 2, 0}, rv);
+
+        Mockito.verify(connectionMock).prepareStatement(updateCountQuery);
+        Mockito.verify(preparedStatementMock, Mockito.never()).executeUpdate();
+        Mockito.verify(preparedStatementMock, Mockito.times(5)).setArray(Mockito.anyInt(), Mockito.any());
+
+        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(connectionMock, Mockito.times(2)).createArrayOf(Mockito.eq("INTEGER"), captor.capture());
+        Assertions.assertArrayEquals(new Object[] {0, 1, 2, 3, 4}, captor.getAllValues().get(1));
+    }
+
+    @Test
+    public void whenBatchingWithoutUpdateCounts_expectNoInfoPerRow() throws SQLException {
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(1);
+
+        PreparedStatement ps = new CockroachPreparedBatchStatement(connectionMock, QUERY, BATCH_QUERY);
+        addProductRows(ps, 3);
+
+        int[] rv = ps.executeBatch();
+        Assertions.assertArrayEquals(new int[] {Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO,
+                Statement.SUCCESS_NO_INFO}, rv);
+    }
+
+    @Test
+    public void whenBatchingInsertWithGeneratedKeys_expectNoRewrite() throws SQLException {
+        final String insertQuery = "INSERT INTO product (name, price) VALUES (?, ?)";
+
+        Mockito.when(connectionMock.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS))
+                .thenReturn(preparedStatementMock);
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(QueryProcessor.PASS_THROUGH)
+                .setRewriteBatchArrays(true)
+                .setRewriteBatchInserts(true);
+
+        Connection connection = new CockroachConnection(connectionMock, connectionSettings);
+
+        // Rows returned by an array statement can't be put in batch order
+        PreparedStatement ps = connection.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS);
+        Assertions.assertInstanceOf(CockroachPreparedStatement.class, ps);
+
+        Mockito.verify(connectionMock).prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS);
+        Mockito.verify(connectionMock, Mockito.never()).prepareStatement(Mockito.anyString());
+    }
+
+    @Test
+    public void whenBatchingInsertOnConflictDoUpdateWithDuplicateKeys_expectCardinalityViolation()
+            throws SQLException {
+        final String upsertQuery = "INSERT INTO stock (id, qty) VALUES (?, ?) "
+                + "ON CONFLICT (id) DO UPDATE SET qty = stock.qty + excluded.qty";
+
+        // A single array statement can't affect the same row twice, unlike row-by-row execution
+        Mockito.when(preparedStatementMock.executeUpdate()).thenThrow(new SQLException(
+                "ON CONFLICT DO UPDATE command cannot affect row a second time", "21000"));
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(QueryProcessor.PASS_THROUGH)
+                .setRewriteBatchArrays(true)
+                .setRewriteBatchInserts(true);
+
+        Connection connection = new CockroachConnection(connectionMock, connectionSettings);
+
+        PreparedStatement ps = connection.prepareStatement(upsertQuery);
+        Assertions.assertInstanceOf(CockroachPreparedBatchStatement.class, ps);
+
+        for (int i = 0; i < 2; i++) {
+            ps.setLong(1, 1);
+            ps.setInt(2, 10);
+            ps.addBatch();
+        }
+
+        SQLException ex = Assertions.assertThrows(SQLException.class, ps::executeBatch);
+        Assertions.assertEquals("21000", ex.getSQLState());
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(connectionMock).prepareStatement(sqlCaptor.capture());
+        Assertions.assertTrue(sqlCaptor.getValue().contains("unnest(?)"), sqlCaptor.getValue());
+        Mockito.verify(preparedStatementMock, Mockito.times(1)).executeUpdate();
+    }
+
+    @Test
+    public void whenBatchingWithResultSetTypeOverload_expectRewriteHonoringCursorSemantics() throws SQLException {
+        final String updateQuery = "UPDATE product SET price = ? WHERE id = ?";
+
+        Mockito.when(connectionMock.prepareStatement(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(preparedStatementMock);
+        Mockito.when(preparedStatementMock.executeUpdate()).thenReturn(2);
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(QueryProcessor.PASS_THROUGH)
+                .setRewriteBatchArrays(true)
+                .setRewriteBatchUpdates(true);
+
+        Connection connection = new CockroachConnection(connectionMock, connectionSettings);
+
+        PreparedStatement ps = connection.prepareStatement(updateQuery,
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        Assertions.assertInstanceOf(CockroachPreparedBatchStatement.class, ps);
+        Assertions.assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, ps.getResultSetType());
+        Assertions.assertEquals(ResultSet.CONCUR_READ_ONLY, ps.getResultSetConcurrency());
+
+        for (int i = 0; i < 2; i++) {
+            ps.setBigDecimal(1, BigDecimal.TEN);
+            ps.setLong(2, i);
+            ps.addBatch();
+        }
+
+        Assertions.assertEquals(2, ps.executeBatch().length);
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(connectionMock).prepareStatement(sqlCaptor.capture(),
+                Mockito.eq(ResultSet.TYPE_SCROLL_INSENSITIVE), Mockito.eq(ResultSet.CONCUR_READ_ONLY));
+        Assertions.assertTrue(sqlCaptor.getValue().contains("UNNEST(?)"), sqlCaptor.getValue());
+    }
+
+    @Test
+    public void whenBatchingUpdateWithGeneratedKeyColumns_expectNoRewrite() throws SQLException {
+        final String updateQuery = "UPDATE product SET price = ? WHERE id = ?";
+        final String[] columnNames = {"version"};
+
+        Mockito.when(connectionMock.prepareStatement(updateQuery, columnNames))
+                .thenReturn(preparedStatementMock);
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(QueryProcessor.PASS_THROUGH)
+                .setRewriteBatchArrays(true)
+                .setRewriteBatchUpdates(true);
+
+        Connection connection = new CockroachConnection(connectionMock, connectionSettings);
+
+        PreparedStatement ps = connection.prepareStatement(updateQuery, columnNames);
+        Assertions.assertInstanceOf(CockroachPreparedStatement.class, ps);
+
+        Mockito.verify(connectionMock).prepareStatement(updateQuery, columnNames);
+        Mockito.verify(connectionMock, Mockito.never()).prepareStatement(Mockito.anyString());
+    }
+}
@@ -1,5 +1,6 @@
 package io.cockroachdb.jdbc;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Tags;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import io.cockroachdb.jdbc.rewrite.SelectForUpdateProcessor;
@@ -40,7 +42,7 @@ public class CockroachStatementTest {
 
         connection.commit();
 
-        Assertions.assertEquals(SelectForUpdateProcessor.PASS_THROUGH, connectionSettings.getQueryProcessor());
+        Assertions.assertEquals(SelectForUpdateProcessor.INSTANCE, connectionSettings.getQueryProcessor());
         Assertions.assertFalse(connectionSettings.getQueryProcessor().isTransactionScoped());
     }
 
@@ -76,7 +78,7 @@ public class CockroachStatementTest {
 
         connection.commit();
 
-        Assertions.assertEquals("select 1",
+        Assertions.assertEquals("select 1 FOR UPDATE",
                 connectionSettings.getQueryProcessor().processQuery(connectionMock, "select 1"));
         Assertions.assertFalse(connectionSettings.getQueryProcessor().isTransactionScoped());
     }
@@ -124,4 +126,81 @@ public class CockroachStatementTest {
             statementUnderTest.execute("SET implicitSelectForUpdate=true");
         });
     }
+
+    @Test
+    public void givenStatementBatchRewrite_whenAddingLiteralInserts_expectCoalescedStatements() throws SQLException {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Mockito.when(statementMock.executeLargeBatch()).thenReturn(new long[] {3, 1, 1});
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(SelectForUpdateProcessor.PASS_THROUGH)
+                .setRewriteStatementBatches(true);
+
+        Statement statementUnderTest = new CockroachStatement(statementMock, connectionSettings);
+        statementUnderTest.addBatch("INSERT INTO product (id, name) VALUES (1, 'a')");
+        statementUnderTest.addBatch("INSERT INTO product (id, name) VALUES (2, 'b')");
+        statementUnderTest.addBatch("INSERT INTO product (id, name) VALUES (3, 'c')");
+        statementUnderTest.addBatch("UPDATE product SET name = 'x' WHERE id = 1");
+        statementUnderTest.addBatch("INSERT INTO product (id, name) VALUES (4, 'd')");
+
+        int[] updateCounts = statementUnderTest.executeBatch();
+
+        Assertions.assertArrayEquals(new int[] {1, 1, 1, 1, 1}, updateCounts);
+
+        InOrder inOrder = Mockito.inOrder(statementMock);
+        inOrder.verify(statementMock).addBatch(
+                "INSERT INTO product (id, name) VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+        inOrder.verify(statementMock).addBatch("UPDATE product SET name = 'x' WHERE id = 1");
+        inOrder.verify(statementMock).addBatch("INSERT INTO product (id, name) VALUES (4, 'd')");
+        inOrder.verify(statementMock).executeLargeBatch();
+    }
+
+    @Test
+    public void givenStatementBatchRewrite_whenExceedingMaxBytes_expectSplitStatements() throws SQLException {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Mockito.when(statementMock.executeLargeBatch()).thenReturn(new long[] {2, 0});
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(SelectForUpdateProcessor.PASS_THROUGH)
+                .setRewriteStatementBatches(true)
+                .setRewriteStatementBatchMaxBytes(60);
+
+        Statement statementUnderTest = new CockroachStatement(statementMock, connectionSettings);
+        statementUnderTest.addBatch("UPSERT INTO product (id, name) VALUES (1, 'a')");
+        statementUnderTest.addBatch("UPSERT INTO product (id, name) VALUES (2, 'b')");
+        statementUnderTest.addBatch("UPSERT INTO product (id, name) VALUES (3, 'c')");
+        statementUnderTest.addBatch("UPSERT INTO product (id, name) VALUES (4, 'd')");
+
+        long[] updateCounts = statementUnderTest.executeLargeBatch();
+
+        Assertions.assertArrayEquals(new long[] {1, 1, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO},
+                updateCounts);
+
+        Mockito.verify(statementMock).addBatch("UPSERT INTO product (id, name) VALUES (1, 'a'), (2, 'b')");
+        Mockito.verify(statementMock).addBatch("UPSERT INTO product (id, name) VALUES (3, 'c'), (4, 'd')");
+    }
+
+    @Test
+    public void givenStatementBatchRewrite_whenBatchFails_expectMappedUpdateCounts() throws SQLException {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Mockito.when(statementMock.executeLargeBatch()).thenThrow(new BatchUpdateException(
+                "failed", "23505", 0, new long[] {2, Statement.EXECUTE_FAILED}, null));
+
+        ConnectionSettings connectionSettings = new ConnectionSettings()
+                .setQueryProcessor(SelectForUpdateProcessor.PASS_THROUGH)
+                .setRewriteStatementBatches(true);
+
+        Statement statementUnderTest = new CockroachStatement(statementMock, connectionSettings);
+        statementUnderTest.addBatch("INSERT INTO product (id, name) VALUES (1, 'a')");
+        statementUnderTest.addBatch("INSERT INTO product (id, name) VALUES (2, 'b')");
+        statementUnderTest.addBatch("INSERT INTO customer (id, name) VALUES (1, 'a')");
+        statementUnderTest.addBatch("INSERT INTO customer (id, name) VALUES (1, 'b')");
+
+        BatchUpdateException ex = Assertions.assertThrows(BatchUpdateException.class,
+                statementUnderTest::executeBatch);
+
+        Assertions.assertEquals("23505", ex.getSQLState());
+        Assertions.assertArrayEquals(new long[] {1, 1, Statement.EXECUTE_FAILED, Statement.EXECUTE_FAILED},
+                ex.getLargeUpdateCounts());
+    }
 }
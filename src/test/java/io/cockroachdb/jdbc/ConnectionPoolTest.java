@@ -0,0 +1,145 @@
+package io.cockroachdb.jdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class ConnectionPoolTest {
+    @Test
+    public void whenConnectionReturned_expectReuseAndResetOfChangedStateOnly() throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.isValid(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(connectionMock.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_SERIALIZABLE);
+
+        AtomicInteger opens = new AtomicInteger();
+
+        ConnectionPool pool = new ConnectionPool(() -> {
+            opens.incrementAndGet();
+            return connectionMock;
+        }, 2, 1000, true);
+
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        connection.close();
+
+        Assertions.assertTrue(connection.isClosed());
+        Assertions.assertThrows(ConnectionClosedException.class, connection::createStatement);
+
+        Mockito.verify(connectionMock, Mockito.times(1)).rollback();
+        Mockito.verify(connectionMock, Mockito.times(1)).setAutoCommit(true);
+        Mockito.verify(connectionMock, Mockito.times(1)).setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        Mockito.verify(connectionMock, Mockito.never()).close();
+
+        pool.borrow().close();
+
+        Assertions.assertEquals(1, opens.get());
+        Assertions.assertEquals(1, pool.getIdleConnections());
+        // Unchanged state not reset again
+        Mockito.verify(connectionMock, Mockito.times(1)).rollback();
+        Mockito.verify(connectionMock, Mockito.times(1)).setAutoCommit(true);
+
+        pool.close();
+        Mockito.verify(connectionMock, Mockito.times(1)).close();
+        Assertions.assertEquals(0, pool.getTotalConnections());
+    }
+
+    @Test
+    public void whenPoolExhausted_expectHandOffToWaitingBorrower() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+
+        ConnectionPool pool = new ConnectionPool(() -> {
+            opens.incrementAndGet();
+            return Mockito.mock(Connection.class);
+        }, 1, 5000, true);
+
+        Connection connection = pool.borrow();
+
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrow();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(100);
+        Assertions.assertFalse(waiting.isDone());
+
+        connection.close();
+
+        Connection handedOff = waiting.get(5, TimeUnit.SECONDS);
+        Assertions.assertFalse(handedOff.isClosed());
+        Assertions.assertEquals(1, opens.get());
+        Assertions.assertEquals(1, pool.getTotalConnections());
+
+        pool.close();
+    }
+
+    @Test
+    public void whenPoolExhaustedAndTimeout_expectSQLTransientConnectionException() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(() -> Mockito.mock(Connection.class), 1, 50, true);
+
+        pool.borrow();
+
+        Assertions.assertThrows(SQLTransientConnectionException.class, pool::borrow);
+
+        pool.close();
+    }
+
+    @Test
+    public void whenConnectionReturned_expectStatementsClosedAndHandleExposed() throws SQLException {
+        Statement statementMock = Mockito.mock(Statement.class);
+        PreparedStatement preparedStatementMock = Mockito.mock(PreparedStatement.class);
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.isValid(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(connectionMock.getMetaData()).thenReturn(Mockito.mock(DatabaseMetaData.class));
+        Mockito.when(connectionMock.createStatement()).thenReturn(statementMock);
+        Mockito.when(connectionMock.prepareStatement("select 1")).thenReturn(preparedStatementMock);
+        Mockito.when(statementMock.getConnection()).thenReturn(connectionMock);
+        Mockito.when(statementMock.executeQuery("select 1")).thenReturn(resultSetMock);
+
+        ConnectionPool pool = new ConnectionPool(() -> connectionMock, 1, 1000, true);
+
+        Connection connection = pool.borrow();
+
+        Statement statement = connection.createStatement();
+        Assertions.assertSame(connection, statement.getConnection());
+        Assertions.assertSame(statement, statement.unwrap(Statement.class));
+
+        ResultSet resultSet = statement.executeQuery("select 1");
+        Assertions.assertSame(statement, resultSet.getStatement());
+        Assertions.assertSame(connection, resultSet.getStatement().getConnection());
+        Assertions.assertSame(connection, connection.getMetaData().getConnection());
+
+        PreparedStatement preparedStatement = connection.prepareStatement("select 1");
+        preparedStatement.close();
+
+        connection.close();
+
+        Mockito.verify(statementMock, Mockito.times(1)).close();
+        // Closed by the borrower, hence not closed again
+        Mockito.verify(preparedStatementMock, Mockito.times(1)).close();
+        Mockito.verify(connectionMock, Mockito.never()).close();
+
+        pool.close();
+    }
+}
@@ -0,0 +1,111 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class ClusterLoadBalancerTest {
+    private static final String SEED_URL = "jdbc:postgresql://seed1:26257,seed2:26257/defaultdb?sslmode=disable";
+
+    private static final List<Node> NODES = List.of(
+            new Node(1, "n1", 26257, "region=us-east1,zone=us-east1-b", true),
+            new Node(2, "n2", 26257, "region=us-east1,zone=us-east1-c", true),
+            new Node(3, "n3", 26257, "region=us-east1,zone=us-east1-b", false),
+            new Node(4, "n4", 26258, "region=eu-west1,zone=eu-west1-a", true),
+            new Node(5, "n5", 26257, "region=eu-west1,zone=eu-west1-b", true));
+
+    private static ClusterLoadBalancer loadBalancer(TopologyProvider topologyProvider, String clientLocality) {
+        return new ClusterLoadBalancer(SEED_URL, topologyProvider, clientLocality, Duration.ofMinutes(1));
+    }
+
+    private static List<String> nextURLs(ClusterLoadBalancer loadBalancer, int count) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            urls.add(loadBalancer.nextURL(() -> {
+                throw new SQLException("Not used by stand-in provider");
+            }));
+        }
+        return urls;
+    }
+
+    @Test
+    public void whenReplacingHosts_expectSingleHostURL() {
+        Assertions.assertEquals("jdbc:postgresql://n1:26257/defaultdb?sslmode=disable",
+                ClusterLoadBalancer.replaceHosts(SEED_URL, "n1:26257"));
+        Assertions.assertEquals("jdbc:postgresql://[::1]:26257?sslmode=disable",
+                ClusterLoadBalancer.replaceHosts("jdbc:postgresql://a,b?sslmode=disable",
+                        new Node(1, "::1", 26257, "", true).getAddress()));
+    }
+
+    @Test
+    public void whenClientLocalityMatches_expectRoundRobinAcrossLiveNodesInLocality() {
+        AtomicInteger discoveries = new AtomicInteger();
+        ClusterLoadBalancer loadBalancer = loadBalancer(seedConnection -> {
+            discoveries.incrementAndGet();
+            return NODES;
+        }, "region=us-east1,zone=us-east1-b");
+
+        Assertions.assertEquals(List.of(
+                "jdbc:postgresql://n1:26257/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n1:26257/defaultdb?sslmode=disable"), nextURLs(loadBalancer, 2));
+
+        loadBalancer = loadBalancer(seedConnection -> {
+            discoveries.incrementAndGet();
+            return NODES;
+        }, "region=eu-west1");
+
+        Assertions.assertEquals(List.of(
+                "jdbc:postgresql://n4:26258/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n5:26257/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n4:26258/defaultdb?sslmode=disable"), nextURLs(loadBalancer, 3));
+
+        Assertions.assertEquals(2, discoveries.get());
+    }
+
+    @Test
+    public void whenNoLocalityMatch_expectAllLiveNodes() {
+        ClusterLoadBalancer loadBalancer = loadBalancer(seedConnection -> NODES, "region=ap-south1");
+
+        Assertions.assertEquals(List.of(
+                "jdbc:postgresql://n1:26257/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n2:26257/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n4:26258/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n5:26257/defaultdb?sslmode=disable"), nextURLs(loadBalancer, 4));
+        Assertions.assertEquals(5, loadBalancer.getNodes().size());
+    }
+
+    @Test
+    public void whenDiscoveryFails_expectSeedURL() {
+        ClusterLoadBalancer loadBalancer = loadBalancer(seedConnection -> {
+            throw new SQLException("Disturbance!", "08006");
+        }, "");
+
+        Assertions.assertEquals(SEED_URL, nextURLs(loadBalancer, 1).get(0));
+        Assertions.assertTrue(loadBalancer.getPreferredNodes().isEmpty());
+    }
+
+    @Test
+    public void whenNodeCircuitBreakerOpen_expectNodeSkipped() {
+        NodeHealthRegistry nodeHealthRegistry = new NodeHealthRegistry(1, Duration.ofMinutes(1));
+        nodeHealthRegistry.getNodeHealth("n1:26257").onFailure(System.nanoTime(), 1);
+
+        ClusterLoadBalancer loadBalancer = loadBalancer(seedConnection -> NODES, "region=us-east1,zone=us-east1-b")
+                .setNodeHealthRegistry(nodeHealthRegistry);
+
+        // Only preferred node unavailable, expect next available live node in round-robin order
+        Assertions.assertEquals(List.of(
+                "jdbc:postgresql://n2:26257/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n2:26257/defaultdb?sslmode=disable",
+                "jdbc:postgresql://n4:26258/defaultdb?sslmode=disable"), nextURLs(loadBalancer, 3));
+    }
+}
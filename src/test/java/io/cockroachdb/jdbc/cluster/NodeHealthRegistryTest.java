@@ -0,0 +1,90 @@
+package io.cockroachdb.jdbc.cluster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class NodeHealthRegistryTest {
+    private static final String URL = "jdbc:postgresql://n1:26257/defaultdb?sslmode=disable";
+
+    private static NodeHealthRegistry nodeHealthRegistry(Duration openDuration) {
+        return new NodeHealthRegistry(2, openDuration);
+    }
+
+    @Test
+    public void whenConsecutiveConnectFailures_expectCircuitBreakerOpenAndFailFast() {
+        NodeHealthRegistry nodeHealthRegistry = nodeHealthRegistry(Duration.ofMinutes(1));
+        AtomicInteger connects = new AtomicInteger();
+        ConnectionFactory factory = (url, info) -> {
+            connects.incrementAndGet();
+            throw new SQLException("Connection refused", "08001");
+        };
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(SQLException.class,
+                    () -> nodeHealthRegistry.connect(URL, new Properties(), factory));
+        }
+        Assertions.assertEquals(NodeHealth.State.OPEN, nodeHealthRegistry.getNodeHealth("n1:26257").getState());
+        Assertions.assertFalse(nodeHealthRegistry.isAvailable("n1:26257"));
+
+        SQLException ex = Assertions.assertThrows(SQLException.class,
+                () -> nodeHealthRegistry.connect(URL, new Properties(), factory));
+        Assertions.assertEquals("08001", ex.getSQLState());
+        Assertions.assertEquals(2, connects.get());
+    }
+
+    @Test
+    public void whenOpenDurationElapsed_expectTrialConnectClosingCircuitBreaker() throws Exception {
+        NodeHealthRegistry nodeHealthRegistry = nodeHealthRegistry(Duration.ofMillis(50));
+        Connection connectionMock = Mockito.mock(Connection.class);
+        AtomicInteger connects = new AtomicInteger();
+        ConnectionFactory factory = (url, info) -> {
+            if (connects.incrementAndGet() <= 2) {
+                throw new SQLException("Connection refused", "08001");
+            }
+            return connectionMock;
+        };
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(SQLException.class,
+                    () -> nodeHealthRegistry.connect(URL, new Properties(), factory));
+        }
+
+        Thread.sleep(100);
+
+        Assertions.assertTrue(nodeHealthRegistry.isAvailable("n1:26257"));
+        Assertions.assertSame(connectionMock, nodeHealthRegistry.connect(URL, new Properties(), factory));
+
+        NodeHealth nodeHealth = nodeHealthRegistry.getNodeHealth("n1:26257");
+        Assertions.assertEquals(NodeHealth.State.CLOSED, nodeHealth.getState());
+        Assertions.assertEquals(0, nodeHealth.getConsecutiveFailures());
+        Assertions.assertEquals(2, nodeHealth.getTotalFailures());
+        Assertions.assertEquals(1, nodeHealth.getTotalConnects());
+    }
+
+    @Test
+    public void whenNonNodeConnectFailures_expectCircuitBreakerClosed() {
+        NodeHealthRegistry nodeHealthRegistry = nodeHealthRegistry(Duration.ofMinutes(1));
+        ConnectionFactory factory = (url, info) -> {
+            throw new SQLException("Password authentication failed", "28P01");
+        };
+
+        for (int i = 0; i < 3; i++) {
+            SQLException ex = Assertions.assertThrows(SQLException.class,
+                    () -> nodeHealthRegistry.connect(URL, new Properties(), factory));
+            Assertions.assertEquals("28P01", ex.getSQLState());
+        }
+        Assertions.assertEquals(NodeHealth.State.CLOSED, nodeHealthRegistry.getNodeHealth("n1:26257").getState());
+    }
+}
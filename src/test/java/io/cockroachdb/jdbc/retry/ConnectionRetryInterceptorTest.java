@@ -3,6 +3,7 @@ package io.cockroachdb.jdbc.retry;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 
 import org.junit.jupiter.api.Assertions;
@@ -86,6 +87,42 @@ public class ConnectionRetryInterceptorTest {
         Mockito.verify(retryMock, Mockito.times(5)).commit();
     }
 
+    @Test
+    public void whenReleaseSavepointThrowsSQLException40001_expectReplayOnSameConnection() throws SQLException {
+        PreparedStatement preparedStatementMock = Mockito.mock(PreparedStatement.class);
+        Savepoint savepointMock = Mockito.mock(Savepoint.class);
+
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.prepareStatement("update t set a = 1")).thenReturn(preparedStatementMock);
+        Mockito.when(connectionMock.setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT))
+                .thenReturn(savepointMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .doNothing()
+                .when(connectionMock).releaseSavepoint(savepointMock);
+
+        ExponentialBackoffRetryStrategy strategy = new ExponentialBackoffRetryStrategy();
+        strategy.setMaxAttempts(3);
+
+        ConnectionSettings settings = new ConnectionSettings();
+        settings.setRetryStrategy(strategy);
+        settings.setRetryMode(RetryMode.SAVEPOINT);
+        settings.setRetryListener(properties -> {
+        });
+
+        Connection proxy = ConnectionRetryInterceptor.proxy(connectionMock, settings, () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        proxy.prepareStatement("update t set a = 1").executeUpdate();
+        proxy.commit();
+
+        Mockito.verify(connectionMock, Mockito.times(1)).rollback(savepointMock);
+        Mockito.verify(connectionMock, Mockito.times(2)).releaseSavepoint(savepointMock);
+        Mockito.verify(preparedStatementMock, Mockito.times(2)).executeUpdate();
+        Mockito.verify(connectionMock, Mockito.times(1)).commit();
+    }
+
     @Test
     public void whenCommitThrowsSQLException40003_expectNoRetryAttempts() throws SQLException {
         Connection primaryMock = Mockito.mock(Connection.class);
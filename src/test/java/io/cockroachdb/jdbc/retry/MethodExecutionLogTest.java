@@ -0,0 +1,87 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class MethodExecutionLogTest {
+    private static final Method NEXT = AbstractRetryInterceptor.lookupMethod(ResultSet.class, "next");
+
+    private static final Method GET_LONG = AbstractRetryInterceptor.lookupMethod(ResultSet.class,
+            "getLong", int.class);
+
+    private static final Method GET_BIG_DECIMAL = AbstractRetryInterceptor.lookupMethod(ResultSet.class,
+            "getBigDecimal", int.class, int.class);
+
+    private static final Method CREATE_STATEMENT = AbstractRetryInterceptor.lookupMethod(Connection.class,
+            "createStatement");
+
+    @Test
+    public void whenAppendingExecutions_expectArgumentSlotsReplayedInOrder() {
+        MethodExecutionLog log = new MethodExecutionLog();
+        for (int i = 1; i <= 100; i++) {
+            log.append(NEXT, true);
+            log.append(GET_LONG, i, (long) i);
+            log.append(GET_BIG_DECIMAL, new Object[] {i, 2}, null);
+        }
+
+        Assertions.assertEquals(300, log.size());
+
+        MethodExecutionLog.Cursor cursor = log.cursor();
+        for (int i = 1; i <= 100; i++) {
+            Assertions.assertTrue(cursor.next());
+            Assertions.assertEquals(NEXT, cursor.getMethod());
+            Assertions.assertNull(cursor.getArgs());
+
+            Assertions.assertTrue(cursor.next());
+            Assertions.assertEquals(GET_LONG, cursor.getMethod());
+            Assertions.assertArrayEquals(new Object[] {i}, cursor.getArgs());
+            // Plain values are not kept
+            Assertions.assertNull(cursor.getResult());
+
+            Assertions.assertTrue(cursor.next());
+            Assertions.assertArrayEquals(new Object[] {i, 2}, cursor.getArgs());
+        }
+        Assertions.assertFalse(cursor.next());
+    }
+
+    @Test
+    public void whenAppendingRebindableResult_expectResultKept() {
+        Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[] {Statement.class}, (proxy, method, args) -> null);
+
+        MethodExecutionLog log = new MethodExecutionLog();
+        log.append(CREATE_STATEMENT, statement);
+
+        MethodExecutionLog.Cursor cursor = log.cursor();
+        Assertions.assertTrue(cursor.next());
+        Assertions.assertSame(statement, cursor.getResult());
+    }
+
+    @Test
+    public void whenCleared_expectEmptyLog() {
+        MethodExecutionLog log = new MethodExecutionLog();
+        for (int i = 0; i < 5000; i++) {
+            log.append(GET_LONG, i, null);
+        }
+        log.clear();
+
+        Assertions.assertTrue(log.isEmpty());
+        Assertions.assertFalse(log.cursor().next());
+
+        log.append(GET_LONG, 7, null);
+        MethodExecutionLog.Cursor cursor = log.cursor();
+        Assertions.assertTrue(cursor.next());
+        Assertions.assertArrayEquals(new Object[] {7}, cursor.getArgs());
+    }
+}
@@ -2,6 +2,7 @@ package io.cockroachdb.jdbc.retry;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import org.junit.jupiter.api.Assertions;
@@ -65,4 +66,40 @@ public class PreparedStatementRetryInterceptorTest {
 
         Mockito.verify(preparedStatementMock, Mockito.times(retrys + 1)).executeUpdate();
     }
+
+    @Test
+    public void whenQueryThrowsSQLException40001InAutoCommit_expectStatementRetryOnly() throws Throwable {
+        ExponentialBackoffRetryStrategy strategy = new ExponentialBackoffRetryStrategy();
+        strategy.setMaxAttempts(3);
+
+        ConnectionSettings settings = new ConnectionSettings();
+        settings.setRetryStrategy(strategy);
+        settings.setRetryListener(properties -> {
+        });
+
+        Connection retryConnectionMock = Mockito.mock(Connection.class);
+
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.getAutoCommit()).thenReturn(true);
+
+        ConnectionRetryInterceptor retryProxyStub = new ConnectionRetryInterceptor(connectionMock, settings, () -> {
+            return retryConnectionMock;
+        });
+
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+
+        PreparedStatement preparedStatementMock = Mockito.mock(PreparedStatement.class);
+        Mockito.when(preparedStatementMock.executeQuery())
+                .thenThrow(new SQLException("Disturbance!", "40001"))
+                .thenThrow(new SQLException("Disturbance!", "40001"))
+                .thenReturn(resultSetMock);
+
+        PreparedStatement proxy = PreparedStatementRetryInterceptor.proxy(preparedStatementMock, retryProxyStub);
+
+        Assertions.assertSame(resultSetMock, proxy.executeQuery());
+
+        Mockito.verify(preparedStatementMock, Mockito.times(3)).executeQuery();
+        Mockito.verify(connectionMock, Mockito.never()).rollback();
+        Mockito.verifyNoInteractions(retryConnectionMock);
+    }
 }
@@ -0,0 +1,385 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.cockroachdb.jdbc.CockroachConnection;
+import io.cockroachdb.jdbc.ConnectionSettings;
+import io.cockroachdb.jdbc.rewrite.QueryProcessor;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class RetryingConnectionTest {
+    private static ConnectionSettings connectionSettings(int maxAttempts) {
+        ExponentialBackoffRetryStrategy strategy = new ExponentialBackoffRetryStrategy();
+        strategy.setMaxAttempts(maxAttempts);
+
+        return new ConnectionSettings()
+                .setRetryStrategy(strategy)
+                .setRetryListener(new EmptyRetryListener());
+    }
+
+    private static Connection connectionMock(ResultSet resultSet) throws SQLException {
+        PreparedStatement preparedStatementMock = Mockito.mock(PreparedStatement.class);
+        Mockito.when(preparedStatementMock.executeQuery()).thenReturn(resultSet);
+
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.isValid(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(connectionMock.prepareStatement(Mockito.anyString())).thenReturn(preparedStatementMock);
+        return connectionMock;
+    }
+
+    @Test
+    public void whenWrappingConnection_expectConcreteWrappersAndPassThroughToDelegate() throws SQLException {
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        Connection connectionMock = connectionMock(resultSetMock);
+        Mockito.when(connectionMock.createStatement()).thenReturn(Mockito.mock(Statement.class));
+
+        Connection connection = new RetryingConnection(connectionMock, connectionSettings(1), () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        PreparedStatement preparedStatement = connection.prepareStatement("select 1");
+        ResultSet resultSet = preparedStatement.executeQuery();
+        resultSet.next();
+        resultSet.getLong(1);
+
+        Assertions.assertInstanceOf(RetryingPreparedStatement.class, preparedStatement);
+        Assertions.assertInstanceOf(RetryingResultSet.class, resultSet);
+        Assertions.assertInstanceOf(RetryingStatement.class, connection.createStatement());
+        Assertions.assertSame(connection, preparedStatement.getConnection());
+        Assertions.assertSame(connection, connection.unwrap(RetryingConnection.class));
+
+        connection.commit();
+
+        Mockito.verify(connectionMock, Mockito.times(1)).commit();
+        Mockito.verify(resultSetMock, Mockito.times(1)).next();
+        Mockito.verify(resultSetMock, Mockito.times(1)).getLong(1);
+    }
+
+    @Test
+    public void whenCommitThrowsSQLException40001_expectReplayOnNewConnection() throws SQLException {
+        ResultSet primaryResultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(primaryResultSetMock.next()).thenReturn(true);
+        Mockito.when(primaryResultSetMock.getLong(1)).thenReturn(42L);
+
+        Connection primaryMock = connectionMock(primaryResultSetMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .when(primaryMock).commit();
+
+        ResultSet retryResultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(retryResultSetMock.next()).thenReturn(true);
+        Mockito.when(retryResultSetMock.getLong(1)).thenReturn(42L);
+
+        Connection retryMock = connectionMock(retryResultSetMock);
+
+        Connection connection = new RetryingConnection(primaryMock, connectionSettings(3), () -> retryMock);
+
+        ResultSet resultSet = connection.prepareStatement("select 1").executeQuery();
+        resultSet.next();
+        Assertions.assertEquals(42L, resultSet.getLong(1));
+
+        connection.commit();
+
+        Mockito.verify(primaryMock, Mockito.times(1)).rollback();
+        Mockito.verify(retryMock, Mockito.times(1)).prepareStatement("select 1");
+        Mockito.verify(retryResultSetMock, Mockito.times(1)).next();
+        Mockito.verify(retryResultSetMock, Mockito.times(1)).getLong(1);
+        Mockito.verify(retryMock, Mockito.times(1)).commit();
+
+        // The wrapper is rebound to the new delegate
+        resultSet.next();
+        Mockito.verify(retryResultSetMock, Mockito.times(2)).next();
+    }
+
+    @Test
+    public void whenCommitThrowsSQLException40001AndResultsDiffer_expectChecksumFailure() throws SQLException {
+        ResultSet primaryResultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(primaryResultSetMock.next()).thenReturn(true);
+        Mockito.when(primaryResultSetMock.getString(1)).thenReturn("Hello");
+
+        Connection primaryMock = connectionMock(primaryResultSetMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .when(primaryMock).commit();
+
+        ResultSet retryResultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(retryResultSetMock.next()).thenReturn(true);
+        Mockito.when(retryResultSetMock.getString(1)).thenReturn("Hell0");
+
+        Connection retryMock = connectionMock(retryResultSetMock);
+
+        Connection connection = new RetryingConnection(primaryMock, connectionSettings(3), () -> retryMock);
+
+        ResultSet resultSet = connection.prepareStatement("select 1").executeQuery();
+        resultSet.next();
+        resultSet.getString(1);
+
+        Assertions.assertThrows(ConcurrentUpdateException.class, connection::commit);
+
+        Mockito.verify(retryMock, Mockito.never()).commit();
+    }
+
+    @Test
+    public void whenReleaseSavepointThrowsSQLException40001_expectReplayOnSameConnection() throws SQLException {
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSetMock.next()).thenReturn(true);
+        Mockito.when(resultSetMock.getLong(1)).thenReturn(42L);
+
+        Savepoint savepointMock = Mockito.mock(Savepoint.class);
+
+        Connection connectionMock = connectionMock(resultSetMock);
+        Mockito.when(connectionMock.setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT))
+                .thenReturn(savepointMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .doNothing()
+                .when(connectionMock).releaseSavepoint(savepointMock);
+
+        Connection connection = new RetryingConnection(connectionMock,
+                connectionSettings(3).setRetryMode(RetryMode.SAVEPOINT), () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        ResultSet resultSet = connection.prepareStatement("select 1").executeQuery();
+        resultSet.next();
+        Assertions.assertEquals(42L, resultSet.getLong(1));
+
+        connection.commit();
+
+        Mockito.verify(connectionMock, Mockito.times(1)).setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT);
+        Mockito.verify(connectionMock, Mockito.times(1)).rollback(savepointMock);
+        Mockito.verify(connectionMock, Mockito.never()).rollback();
+        Mockito.verify(connectionMock, Mockito.never()).close();
+        Mockito.verify(connectionMock, Mockito.times(2)).prepareStatement("select 1");
+        Mockito.verify(connectionMock, Mockito.times(2)).releaseSavepoint(savepointMock);
+        Mockito.verify(connectionMock, Mockito.times(1)).commit();
+        Mockito.verify(resultSetMock, Mockito.times(2)).next();
+    }
+
+    @Test
+    public void whenSavepointModeWithTransactionIsolation_expectConnectionStateNotReplayedInPlace()
+            throws SQLException {
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSetMock.next()).thenReturn(true);
+
+        Savepoint savepointMock = Mockito.mock(Savepoint.class);
+
+        Connection connectionMock = connectionMock(resultSetMock);
+        Mockito.when(connectionMock.setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT))
+                .thenReturn(savepointMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .doNothing()
+                .when(connectionMock).releaseSavepoint(savepointMock);
+        // Rejected by the driver once in a transaction
+        Mockito.doNothing()
+                .doThrow(new SQLException("Cannot change transaction isolation level in the middle "
+                        + "of a transaction.", "25001"))
+                .when(connectionMock).setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+
+        Connection connection = new RetryingConnection(connectionMock,
+                connectionSettings(3).setRetryMode(RetryMode.SAVEPOINT), () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.prepareStatement("select 1").executeQuery().next();
+        connection.commit();
+
+        Mockito.verify(connectionMock, Mockito.times(1)).rollback(savepointMock);
+        Mockito.verify(connectionMock, Mockito.times(1))
+                .setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        Mockito.verify(connectionMock, Mockito.times(2)).prepareStatement("select 1");
+        Mockito.verify(connectionMock, Mockito.times(1)).commit();
+    }
+
+    @Test
+    public void whenSavepointModeThroughCockroachConnection_expectRestartSavepointNamePassedToDriver()
+            throws SQLException {
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSetMock.next()).thenReturn(true);
+
+        Savepoint savepointMock = Mockito.mock(Savepoint.class);
+
+        Connection connectionMock = connectionMock(resultSetMock);
+        Mockito.when(connectionMock.setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT))
+                .thenReturn(savepointMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .doNothing()
+                .when(connectionMock).releaseSavepoint(savepointMock);
+
+        ConnectionSettings connectionSettings = connectionSettings(3)
+                .setRetryMode(RetryMode.SAVEPOINT)
+                .setQueryProcessor(QueryProcessor.PASS_THROUGH);
+
+        Connection connection = new RetryingConnection(
+                new CockroachConnection(connectionMock, connectionSettings), connectionSettings, () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        connection.prepareStatement("select 1").executeQuery().next();
+        connection.commit();
+
+        Mockito.verify(connectionMock, Mockito.times(1)).setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT);
+        Mockito.verify(connectionMock, Mockito.never()).setSavepoint();
+        Mockito.verify(connectionMock, Mockito.times(1)).rollback(savepointMock);
+        Mockito.verify(connectionMock, Mockito.times(1)).commit();
+    }
+
+    @Test
+    public void whenSavepointModeAndConnectionError_expectReplayOnNewConnection() throws SQLException {
+        ResultSet primaryResultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(primaryResultSetMock.next()).thenReturn(true);
+
+        Savepoint primarySavepointMock = Mockito.mock(Savepoint.class);
+
+        Connection primaryMock = connectionMock(primaryResultSetMock);
+        Mockito.when(primaryMock.setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT))
+                .thenReturn(primarySavepointMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "08006"))
+                .when(primaryMock).releaseSavepoint(primarySavepointMock);
+
+        ResultSet retryResultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(retryResultSetMock.next()).thenReturn(true);
+
+        Savepoint retrySavepointMock = Mockito.mock(Savepoint.class);
+
+        Connection retryMock = connectionMock(retryResultSetMock);
+        Mockito.when(retryMock.setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT))
+                .thenReturn(retrySavepointMock);
+
+        ConnectionSettings connectionSettings = connectionSettings(3).setRetryMode(RetryMode.SAVEPOINT);
+        ((ExponentialBackoffRetryStrategy) connectionSettings.getRetryStrategy()).setRetryConnectionErrors(true);
+
+        Connection connection = new RetryingConnection(primaryMock, connectionSettings, () -> retryMock);
+
+        connection.prepareStatement("select 1").executeQuery().next();
+        connection.commit();
+
+        Mockito.verify(primaryMock, Mockito.never()).rollback(primarySavepointMock);
+        Mockito.verify(primaryMock, Mockito.times(1)).close();
+        Mockito.verify(retryMock, Mockito.times(1)).setSavepoint(ConnectionRetryInterceptor.RESTART_SAVEPOINT);
+        Mockito.verify(retryMock, Mockito.times(1)).prepareStatement("select 1");
+        Mockito.verify(retryMock, Mockito.times(1)).releaseSavepoint(retrySavepointMock);
+        Mockito.verify(retryMock, Mockito.times(1)).commit();
+    }
+
+    @Test
+    public void whenAutoCommit_expectNoResultSetWrapper() throws SQLException {
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        Connection connectionMock = connectionMock(resultSetMock);
+        Mockito.when(connectionMock.getAutoCommit()).thenReturn(true);
+
+        Connection connection = new RetryingConnection(connectionMock, connectionSettings(1), () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        Assertions.assertSame(resultSetMock, connection.prepareStatement("select 1").executeQuery());
+    }
+
+    private static ResultSet resultSetMock(String... rows) throws SQLException {
+        ResultSetMetaData metaDataMock = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaDataMock.getColumnCount()).thenReturn(1);
+
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSetMock.getMetaData()).thenReturn(metaDataMock);
+
+        AtomicInteger row = new AtomicInteger();
+        Mockito.when(resultSetMock.next()).then(invocation -> row.incrementAndGet() <= rows.length);
+        Mockito.when(resultSetMock.getString(1)).then(invocation -> rows[row.get() - 1]);
+        return resultSetMock;
+    }
+
+    private static void readAll(ResultSet resultSet) throws SQLException {
+        while (resultSet.next()) {
+            resultSet.getString(1);
+        }
+    }
+
+    @Test
+    public void whenHistoryLimitExceeded_expectTransientErrorSurfaced() throws SQLException {
+        ResultSet primaryResultSetMock = resultSetMock("a", "b", "c", "d");
+
+        Connection primaryMock = connectionMock(primaryResultSetMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .when(primaryMock).commit();
+
+        Connection connection = new RetryingConnection(primaryMock,
+                connectionSettings(3).setRetryMaxHistorySize(5), () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        readAll(connection.prepareStatement("select 1").executeQuery());
+
+        SQLException ex = Assertions.assertThrows(SQLException.class, connection::commit);
+        Assertions.assertEquals("40001", ex.getSQLState());
+
+        Mockito.verify(primaryMock, Mockito.times(1)).commit();
+    }
+
+    @Test
+    public void whenHistoryLimitExceededWithChecksumOverflow_expectRowChecksumReplay() throws SQLException {
+        ResultSet primaryResultSetMock = resultSetMock("a", "b", "c", "d");
+
+        Connection primaryMock = connectionMock(primaryResultSetMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .when(primaryMock).commit();
+
+        ResultSet retryResultSetMock = resultSetMock("a", "b", "c", "d");
+        Connection retryMock = connectionMock(retryResultSetMock);
+
+        Connection connection = new RetryingConnection(primaryMock,
+                connectionSettings(3)
+                        .setRetryMaxHistorySize(5)
+                        .setRetryHistoryOverflow(HistoryOverflow.CHECKSUM), () -> retryMock);
+
+        readAll(connection.prepareStatement("select 1").executeQuery());
+
+        connection.commit();
+
+        Mockito.verify(retryMock, Mockito.times(1)).commit();
+        Mockito.verify(retryResultSetMock, Mockito.times(5)).next();
+    }
+
+    @Test
+    public void whenHistoryLimitExceededWithChecksumOverflowAndRowsDiffer_expectChecksumFailure()
+            throws SQLException {
+        ResultSet primaryResultSetMock = resultSetMock("a", "b", "c", "d");
+
+        Connection primaryMock = connectionMock(primaryResultSetMock);
+        Mockito.doThrow(new SQLException("Disturbance!", "40001"))
+                .when(primaryMock).commit();
+
+        ResultSet retryResultSetMock = resultSetMock("a", "b", "c", "x");
+        Connection retryMock = connectionMock(retryResultSetMock);
+
+        Connection connection = new RetryingConnection(primaryMock,
+                connectionSettings(3)
+                        .setRetryMaxHistorySize(5)
+                        .setRetryHistoryOverflow(HistoryOverflow.CHECKSUM), () -> retryMock);
+
+        readAll(connection.prepareStatement("select 1").executeQuery());
+
+        Assertions.assertThrows(ConcurrentUpdateException.class, connection::commit);
+
+        Mockito.verify(retryMock, Mockito.never()).commit();
+    }
+}
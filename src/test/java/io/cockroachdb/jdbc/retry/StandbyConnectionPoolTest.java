@@ -0,0 +1,106 @@
+package io.cockroachdb.jdbc.retry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class StandbyConnectionPoolTest {
+    private static Connection connectionMock(boolean valid) throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.isValid(Mockito.anyInt())).thenReturn(valid);
+        return connectionMock;
+    }
+
+    private static void awaitIdle(StandbyConnectionPool pool, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getIdleCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(count, pool.getIdleCount());
+    }
+
+    @Test
+    public void whenTakingStandbyConnection_expectBackgroundRefill() throws Exception {
+        AtomicInteger opens = new AtomicInteger();
+
+        StandbyConnectionPool pool = new StandbyConnectionPool(() -> {
+            opens.incrementAndGet();
+            return connectionMock(true);
+        }, 2);
+        pool.fill();
+
+        awaitIdle(pool, 2);
+        Assertions.assertEquals(2, opens.get());
+
+        Connection connection = pool.get();
+        Assertions.assertNotNull(connection);
+
+        awaitIdle(pool, 2);
+        Assertions.assertEquals(3, opens.get());
+
+        pool.close();
+        Assertions.assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void whenPreparedDuringBackoff_expectPendingConnectionTaken() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        Connection standbyMock = connectionMock(true);
+        AtomicInteger opens = new AtomicInteger();
+
+        StandbyConnectionPool pool = new StandbyConnectionPool(() -> {
+            opens.incrementAndGet();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return standbyMock;
+        }, 0);
+
+        pool.prepare();
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            latch.countDown();
+        }).start();
+
+        Assertions.assertSame(standbyMock, pool.get());
+        Assertions.assertEquals(1, opens.get());
+
+        pool.close();
+    }
+
+    @Test
+    public void whenStandbyConnectionInvalid_expectDiscardedAndNewConnectionOpened() throws Exception {
+        Connection invalidMock = connectionMock(false);
+        Connection validMock = connectionMock(true);
+        AtomicInteger opens = new AtomicInteger();
+
+        StandbyConnectionPool pool = new StandbyConnectionPool(
+                () -> opens.incrementAndGet() == 1 ? invalidMock : validMock, 0);
+
+        pool.prepare();
+        awaitIdle(pool, 1);
+
+        Assertions.assertSame(validMock, pool.get());
+        Mockito.verify(invalidMock, Mockito.times(1)).close();
+
+        pool.close();
+    }
+}
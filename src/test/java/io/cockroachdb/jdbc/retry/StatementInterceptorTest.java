@@ -64,4 +64,34 @@ public class StatementInterceptorTest {
 
         Mockito.verify(statementMock, Mockito.times(retrys + 1)).executeQuery("select 1");
     }
+
+    @Test
+    public void whenBatchThrowsSQLException40001InAutoCommit_expectNoRetryAttempts() throws Throwable {
+        ExponentialBackoffRetryStrategy strategy = new ExponentialBackoffRetryStrategy();
+        strategy.setMaxAttempts(3);
+
+        ConnectionSettings settings = new ConnectionSettings();
+        settings.setRetryStrategy(strategy);
+        settings.setRetryListener(properties -> {
+        });
+
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.getAutoCommit()).thenReturn(true);
+
+        ConnectionRetryInterceptor retryProxyStub = new ConnectionRetryInterceptor(connectionMock, settings, () -> {
+            Assertions.fail();
+            return null;
+        });
+
+        Statement statementMock = Mockito.mock(Statement.class);
+        Mockito.when(statementMock.executeBatch())
+                .thenThrow(new SQLException("Disturbance!", "40001"));
+
+        Statement proxy = StatementRetryInterceptor.proxy(statementMock, retryProxyStub);
+
+        SQLException ex = Assertions.assertThrows(SQLException.class, () -> proxy.executeBatch());
+        Assertions.assertEquals("40001", ex.getSQLState());
+
+        Mockito.verify(statementMock, Mockito.times(1)).executeBatch();
+    }
 }
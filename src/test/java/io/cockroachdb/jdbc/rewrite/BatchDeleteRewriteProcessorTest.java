@@ -0,0 +1,98 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class BatchDeleteRewriteProcessorTest {
+    @Test
+    public void whenDeleteWithParameterBinding_expectRewrite() {
+        String before = "DELETE FROM product WHERE id = ?";
+
+        String after = BatchRewriteProcessor.rewriteDeleteStatement(before);
+
+        String expected = "DELETE FROM product " +
+                "USING (SELECT " +
+                "UNNEST(?) AS p1) " +
+                "AS _dt " +
+                "WHERE product.id = _dt.p1";
+
+        Assertions.assertEquals(expected.toLowerCase(), after.toLowerCase());
+    }
+
+    @Test
+    public void whenDeleteWithParameterBindingAndPredicates_expectRewrite() {
+        String before = "DELETE FROM product WHERE id = ? AND version = ? " +
+                "AND (last_updated_at < ? OR last_updated_at IS NULL)";
+
+        String after = BatchRewriteProcessor.rewriteDeleteStatement(before);
+
+        String expected = "DELETE FROM product " +
+                "USING (SELECT " +
+                "UNNEST(?) AS p1, " +
+                "UNNEST(?) AS p2, " +
+                "UNNEST(?) AS p3) " +
+                "AS _dt " +
+                "WHERE product.id = _dt.p1 AND product.version = _dt.p2 " +
+                "AND (product.last_updated_at < _dt.p3 OR product.last_updated_at IS NULL)";
+
+        Assertions.assertEquals(expected.toLowerCase(), after.toLowerCase());
+    }
+
+    @Test
+    public void whenDeleteWithUpdateCounts_expectOrdinalsReturned() {
+        BatchRewritePlan plan = BatchRewriteProcessor.rewriteStatement("DELETE FROM product WHERE id = ?");
+
+        String expected = "DELETE FROM product " +
+                "USING (SELECT " +
+                "UNNEST(?) AS p1, " +
+                "UNNEST(?) AS _ord) " +
+                "AS _dt " +
+                "WHERE product.id = _dt.p1 " +
+                "RETURNING _dt._ord";
+
+        Assertions.assertEquals(BatchRewritePlan.StatementType.DELETE, plan.getStatementType());
+        Assertions.assertEquals(expected.toLowerCase(), plan.getUpdateCountQuery().toLowerCase());
+    }
+
+    @Test
+    public void whenDeleteWithTenOrMoreParameters_expectArraysInParameterOrder() {
+        StringBuilder before = new StringBuilder("DELETE FROM product WHERE id = ?");
+        for (int i = 2; i <= 11; i++) {
+            before.append(" AND c").append(i).append(" = ?");
+        }
+
+        String after = BatchRewriteProcessor.rewriteDeleteStatement(before.toString());
+
+        StringBuilder expected = new StringBuilder("DELETE FROM product USING (SELECT UNNEST(?) AS p1");
+        for (int i = 2; i <= 11; i++) {
+            expected.append(", UNNEST(?) AS p").append(i);
+        }
+        expected.append(") AS _dt WHERE product.id = _dt.p1");
+        for (int i = 2; i <= 11; i++) {
+            expected.append(" AND product.c").append(i).append(" = _dt.p").append(i);
+        }
+
+        Assertions.assertEquals(expected.toString(), after);
+    }
+
+    @Test
+    public void whenDeleteWithExtractFunction_expectRewrite() {
+        String before = "DELETE FROM product WHERE extract(year FROM created_at) < ? AND id = ?";
+
+        String after = BatchRewriteProcessor.rewriteDeleteStatement(before);
+
+        String expected = "DELETE FROM product " +
+                "USING (SELECT " +
+                "UNNEST(?) AS p1, " +
+                "UNNEST(?) AS p2) " +
+                "AS _dt " +
+                "WHERE extract(year FROM product.created_at) < _dt.p1 AND product.id = _dt.p2";
+
+        Assertions.assertEquals(expected, after);
+    }
+}
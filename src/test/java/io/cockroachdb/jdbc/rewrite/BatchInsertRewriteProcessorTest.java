@@ -79,4 +79,58 @@ public class BatchInsertRewriteProcessorTest {
         Assertions.assertEquals(expected.toLowerCase(), after.toLowerCase());
     }
 
+
+    @Test
+    public void whenInsertWithPlaceholderBindingOnConflictDoUpdate_expectRewrite() {
+        String before = "INSERT into stock (id,qty) values (?,?) "
+                + "on conflict (id) do update set qty = stock.qty + excluded.qty, updated_at = now()";
+
+        String after = BatchRewriteProcessor.rewriteInsertStatement(before);
+
+        String expected = "INSERT INTO stock (id, qty) "
+                + "select "
+                + "unnest(?) as id, "
+                + "unnest(?) as qty "
+                + "on conflict (id) do update set qty = stock.qty + excluded.qty, updated_at = now()";
+
+        Assertions.assertEquals(expected.toLowerCase(), after.toLowerCase());
+    }
+
+    @Test
+    public void whenInsertWithPlaceholderBindingOnConflictDoUpdateWhere_expectRewrite() {
+        String before = "INSERT into stock (id,qty,version) values (?,?,?) "
+                + "on conflict on constraint stock_pk do update set qty = excluded.qty, version = excluded.version "
+                + "where stock.version < excluded.version";
+
+        String after = BatchRewriteProcessor.rewriteInsertStatement(before);
+
+        String expected = "INSERT INTO stock (id, qty, version) "
+                + "select "
+                + "unnest(?) as id, "
+                + "unnest(?) as qty, "
+                + "unnest(?) as version "
+                + "on conflict on constraint stock_pk do update set qty = excluded.qty, version = excluded.version "
+                + "where stock.version < excluded.version";
+
+        Assertions.assertEquals(expected.toLowerCase(), after.toLowerCase());
+    }
+
+    @Test
+    public void whenInsertWithPlaceholderInOnConflictDoUpdate_expectNotQualified() {
+        BatchRewritePlan plan = BatchRewriteProcessor.rewriteStatement("INSERT into stock (id,qty) values (?,?) "
+                + "on conflict (id) do update set qty = stock.qty + ?");
+
+        Assertions.assertFalse(plan.isQualified());
+        Assertions.assertEquals(BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_EXPRESSION, plan.getReason());
+    }
+
+    @Test
+    public void whenInsertWithReturning_expectNotQualified() {
+        String before = "INSERT into product (name,price) values (?,?) returning id, name";
+
+        BatchRewritePlan plan = BatchRewriteProcessor.rewriteStatement(before);
+
+        Assertions.assertFalse(plan.isQualified());
+        Assertions.assertEquals(BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_SYNTAX, plan.getReason());
+    }
 }
@@ -0,0 +1,68 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class BatchRewriteCacheTest {
+    @Test
+    public void whenPreparingSameStatementTwice_expectCachedPlan() {
+        BatchRewriteCache cache = new BatchRewriteCache(16);
+
+        String sql = "INSERT INTO product (id,inventory,price,name) VALUES (?,?,?,?)";
+
+        BatchRewritePlan first = cache.getPlan(sql);
+        BatchRewritePlan second = cache.getPlan(sql);
+
+        Assertions.assertTrue(first.isQualified());
+        Assertions.assertEquals(BatchRewritePlan.StatementType.INSERT, first.getStatementType());
+        Assertions.assertEquals(BatchRewriteProcessor.rewriteInsertStatement(sql), first.getBatchQuery());
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void whenStatementNotQualified_expectNegativePlanCached() {
+        BatchRewriteCache cache = new BatchRewriteCache(16);
+
+        String sql = "UPDATE product SET price = price * 2 WHERE id IN (SELECT id FROM product)";
+
+        BatchRewritePlan plan = cache.getPlan(sql);
+
+        Assertions.assertFalse(plan.isQualified());
+        Assertions.assertEquals(BatchRewritePlan.StatementType.UPDATE, plan.getStatementType());
+        Assertions.assertSame(plan, cache.getPlan(sql));
+    }
+
+    @Test
+    public void whenGettingSharedInstanceBySize_expectSeparateCachePerSize() {
+        String sql = "INSERT INTO product (id,inventory,price,name) VALUES (?,?,?,?)";
+
+        BatchRewriteCache defaultCache = BatchRewriteCache.getSharedInstance(BatchRewriteCache.DEFAULT_MAX_SIZE);
+        defaultCache.getPlan(sql);
+
+        BatchRewriteCache disabledCache = BatchRewriteCache.getSharedInstance(0);
+
+        Assertions.assertSame(BatchRewriteCache.getSharedInstance(), defaultCache);
+        Assertions.assertSame(disabledCache, BatchRewriteCache.getSharedInstance(0));
+        Assertions.assertNotSame(defaultCache, disabledCache);
+        Assertions.assertEquals(BatchRewriteCache.DEFAULT_MAX_SIZE, defaultCache.getMaxSize());
+        Assertions.assertEquals(0, disabledCache.getMaxSize());
+        Assertions.assertTrue(defaultCache.size() > 0);
+    }
+
+    @Test
+    public void whenClassifyingStatements_expectStatementType() {
+        Assertions.assertEquals(BatchRewritePlan.StatementType.UPSERT,
+                BatchRewritePlan.StatementType.fromQuery("UPSERT INTO t (a) VALUES (?)"));
+        Assertions.assertEquals(BatchRewritePlan.StatementType.UPDATE,
+                BatchRewritePlan.StatementType.fromQuery("update t set a=? where b=?"));
+        Assertions.assertNull(BatchRewritePlan.StatementType.fromQuery("SELECT 1"));
+        Assertions.assertNull(BatchRewritePlan.StatementType.fromQuery("ins"));
+    }
+}
@@ -178,4 +178,26 @@ public class BatchUpdateRewriteProcessorTest {
 
         Assertions.assertEquals(expected.toLowerCase(), after.toLowerCase());
     }
+
+    @Test
+    public void whenUpdateWithUpdateCounts_expectOrdinalsReturned() {
+        String before = "UPDATE product SET inventory = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+        BatchRewritePlan plan = BatchRewriteProcessor.rewriteStatement(before);
+
+        String expected = "UPDATE product SET inventory = _dt.p1, version = product.version + 1 " +
+                "FROM (SELECT " +
+                "UNNEST(?) AS p1, " +
+                "UNNEST(?) AS p2, " +
+                "UNNEST(?) AS p3, " +
+                "UNNEST(?) AS _ord) " +
+                "as _dt " +
+                "WHERE product.id = _dt.p2 AND product.version = _dt.p3 " +
+                "RETURNING _dt._ord";
+
+        Assertions.assertTrue(plan.isQualified());
+        Assertions.assertEquals(expected.toLowerCase(), plan.getUpdateCountQuery().toLowerCase());
+        Assertions.assertFalse(plan.getBatchQuery().toLowerCase().contains("_ord"));
+    }
+
 }
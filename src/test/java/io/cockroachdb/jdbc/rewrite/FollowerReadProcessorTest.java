@@ -0,0 +1,80 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.mockito.Mockito;
+
+import io.cockroachdb.jdbc.VariableSource;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class FollowerReadProcessorTest {
+    private static final String AOST = " AS OF SYSTEM TIME follower_read_timestamp()";
+
+    public static final Stream<Arguments> queries = Stream.of(
+            Arguments.of("select * from t" + AOST,
+                    "select * from t"),
+            Arguments.of("select * from t" + AOST + " where id = ?",
+                    "select * from t where id = ?"),
+            Arguments.of("select a, count(*) from t as x join u on x.id = u.id" + AOST + " group by a order by a",
+                    "select a, count(*) from t as x join u on x.id = u.id group by a order by a"),
+            Arguments.of("select distinct a from (select a from t where b = ?) as s" + AOST + " limit 10",
+                    "select distinct a from (select a from t where b = ?) as s limit 10"),
+            Arguments.of("select extract(year from ts) from t" + AOST + ";",
+                    "select extract(year from ts) from t;"),
+            Arguments.of("select * from t" + AOST + " where name = 'from x where'",
+                    "select * from t where name = 'from x where'"),
+            Arguments.of("select 1", "select 1"),
+            Arguments.of("select * from t as of system time '-10s'", "select * from t as of system time '-10s'"),
+            Arguments.of("select * from t for update", "select * from t for update"),
+            Arguments.of("select * from t union select * from u", "select * from t union select * from u"),
+            Arguments.of("select * from crdb_internal.ranges", "select * from crdb_internal.ranges"),
+            Arguments.of("update t set a = 1", "update t set a = 1")
+    );
+
+    @ParameterizedTest
+    @VariableSource("queries")
+    public void whenProcessingQueryOnReadOnlyConnection_expectFollowerRead(String expected, String query)
+            throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.isReadOnly()).thenReturn(true);
+        Mockito.when(connectionMock.getAutoCommit()).thenReturn(true);
+
+        QueryProcessor queryProcessor = new FollowerReadProcessor();
+        Assertions.assertEquals(expected, queryProcessor.processQuery(connectionMock, query));
+    }
+
+    @Test
+    public void whenProcessingQueryOnReadWriteConnectionOrTransaction_expectNothing() throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+        QueryProcessor queryProcessor = new FollowerReadProcessor();
+
+        Mockito.when(connectionMock.isReadOnly()).thenReturn(false);
+        Mockito.when(connectionMock.getAutoCommit()).thenReturn(true);
+        Assertions.assertEquals("select * from t", queryProcessor.processQuery(connectionMock, "select * from t"));
+
+        Mockito.when(connectionMock.isReadOnly()).thenReturn(true);
+        Mockito.when(connectionMock.getAutoCommit()).thenReturn(false);
+        Assertions.assertEquals("select * from t", queryProcessor.processQuery(connectionMock, "select * from t"));
+    }
+
+    @Test
+    public void whenProcessingQueryWithBoundedStaleness_expectConfiguredTimestamp() throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+        Mockito.when(connectionMock.isReadOnly()).thenReturn(true);
+        Mockito.when(connectionMock.getAutoCommit()).thenReturn(true);
+
+        QueryProcessor queryProcessor = new FollowerReadProcessor("with_max_staleness('10s')");
+        Assertions.assertEquals("select * from t AS OF SYSTEM TIME with_max_staleness('10s') where id = ?",
+                queryProcessor.processQuery(connectionMock, "select * from t where id = ?"));
+    }
+}
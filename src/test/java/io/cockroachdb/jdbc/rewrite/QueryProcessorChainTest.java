@@ -0,0 +1,80 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class QueryProcessorChainTest {
+    private static class CountingHintProcessor implements QueryProcessor {
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public String processQuery(Connection connection, String query) {
+            invocations.incrementAndGet();
+            return query.replaceFirst("(?i)^select ", "SELECT /*+ hint */ ");
+        }
+
+        @Override
+        public boolean isTransactionScoped() {
+            return false;
+        }
+    }
+
+    @Test
+    public void whenProcessingQuery_expectProcessorsAppliedInOrderAndCompiledOnce() throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+        CountingHintProcessor hintProcessor = new CountingHintProcessor();
+
+        QueryProcessorChain chain = QueryProcessorChain.of(hintProcessor, SelectForUpdateProcessor.INSTANCE);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("SELECT /*+ hint */ * from t FOR UPDATE",
+                    chain.processQuery(connectionMock, "select * from t"));
+        }
+
+        Assertions.assertEquals(1, hintProcessor.invocations.get());
+        Assertions.assertFalse(chain.isTransactionScoped());
+    }
+
+    @Test
+    public void whenReadOnlyConnection_expectSeparateCompilation() throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+
+        QueryProcessorChain chain = QueryProcessorChain.of(SelectForUpdateProcessor.INSTANCE);
+
+        Assertions.assertEquals("select 1 FOR UPDATE", chain.processQuery(connectionMock, "select 1"));
+
+        Mockito.when(connectionMock.isReadOnly()).thenReturn(true);
+
+        Assertions.assertEquals("select 1", chain.processQuery(connectionMock, "select 1"));
+    }
+
+    @Test
+    public void whenDerivingOverlay_expectMemoizedTransactionScopedChain() throws SQLException {
+        Connection connectionMock = Mockito.mock(Connection.class);
+        CountingHintProcessor hintProcessor = new CountingHintProcessor();
+
+        QueryProcessorChain chain = QueryProcessorChain.of(hintProcessor);
+
+        QueryProcessorChain enabled = chain.withOverride(SelectForUpdateProcessor.class,
+                SelectForUpdateProcessor.INSTANCE);
+        Assertions.assertSame(enabled, chain.withOverride(SelectForUpdateProcessor.class,
+                SelectForUpdateProcessor.INSTANCE));
+        Assertions.assertTrue(enabled.isTransactionScoped());
+        Assertions.assertEquals("SELECT /*+ hint */ 1 FOR UPDATE", enabled.processQuery(connectionMock, "select 1"));
+
+        QueryProcessorChain disabled = enabled.withOverride(SelectForUpdateProcessor.class,
+                QueryProcessor.PASS_THROUGH);
+        Assertions.assertEquals(1, disabled.getProcessors().size());
+        Assertions.assertEquals("SELECT /*+ hint */ 1", disabled.processQuery(connectionMock, "select 1"));
+    }
+}
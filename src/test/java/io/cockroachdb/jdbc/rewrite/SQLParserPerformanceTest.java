@@ -1,11 +1,13 @@
 package io.cockroachdb.jdbc.rewrite;
 
+import io.cockroachdb.jdbc.parser.CockroachSQLParser;
 import io.cockroachdb.jdbc.parser.SQLParseException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.provider.Arguments;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -122,5 +124,71 @@ public class SQLParserPerformanceTest {
             });
         });
     }
-}
 
+    /**
+     * Baseline of the former qualify-then-rewrite approach, parsing each
+     * qualified statement twice.
+     */
+    private static String twoPassRewrite(String query) {
+        try {
+            CockroachSQLParser parser = BatchRewriteProcessor.createParser(query);
+            parser.addParseListener(new BatchInsertRewriteProcessor(sql -> {
+            }));
+            parser.addParseListener(new BatchUpsertRewriteProcessor(sql -> {
+            }));
+            parser.addParseListener(new BatchUpdateRewriteProcessor(sql -> {
+            }));
+            parser.root();
+        } catch (SQLParseException e) {
+            return null;
+        }
+
+        StringBuilder after = new StringBuilder();
+        CockroachSQLParser parser = BatchRewriteProcessor.createParser(query);
+        switch (BatchRewritePlan.StatementType.fromQuery(query)) {
+            case INSERT:
+                parser.addParseListener(new BatchInsertRewriteProcessor(after::append));
+                parser.insertStatement();
+                break;
+            case UPSERT:
+                parser.addParseListener(new BatchUpsertRewriteProcessor(after::append));
+                parser.upsertStatement();
+                break;
+            case UPDATE:
+                parser.addParseListener(new BatchUpdateRewriteProcessor(after::append));
+                parser.updateStatement();
+                break;
+        }
+        return after.toString();
+    }
+
+    @Test
+    public void givenQualifiedStatements_compareTwoPassWithSinglePassRewrite() {
+        List<String> statements = new ArrayList<>();
+        List.of(inserts, upserts, updates).forEach(list -> list.stream()
+                .filter(arguments -> (boolean) arguments.get()[0])
+                .forEach(arguments -> statements.add((String) arguments.get()[1])));
+
+        final int iterations = 20_000;
+
+        // Warmup
+        IntStream.rangeClosed(1, iterations).forEach(value -> statements.forEach(sql -> {
+            Assertions.assertEquals(twoPassRewrite(sql), BatchRewriteProcessor.rewriteStatement(sql).getBatchQuery());
+        }));
+
+        long start = System.nanoTime();
+        IntStream.rangeClosed(1, iterations).forEach(value -> statements.forEach(
+                SQLParserPerformanceTest::twoPassRewrite));
+        long twoPassNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        IntStream.rangeClosed(1, iterations).forEach(value -> statements.forEach(
+                BatchRewriteProcessor::rewriteStatement));
+        long singlePassNanos = System.nanoTime() - start;
+
+        // Parsing once rather than twice is expected to halve the per-statement cost
+        double ratio = (double) twoPassNanos / singlePassNanos;
+        Assertions.assertTrue(ratio >= 1.8, String.format("Expected single-pass rewrite at about half the cost "
+                + "of two-pass rewrite, got ratio %.2f", ratio));
+    }
+}
@@ -5,6 +5,7 @@ import io.cockroachdb.jdbc.parser.SQLParseException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 
@@ -22,7 +23,17 @@ public class SQLParserTest {
             Arguments.of(true, "insert into t (a,b,c) values (?,?,'abc')"),
             Arguments.of(true, "insert into t (a,b,c) values (?,?,foo()) on conflict (a) do nothing"),
             Arguments.of(true, "insert into t (a,b,c) values (?,?,foo()) on conflict on constraint x do nothing"),
+            Arguments.of(true, "insert into t (a,b) values (?,?) on conflict (a) do update set b = excluded.b"),
+            Arguments.of(true, "insert into t (a,b) values (?,?) on conflict (a) do update set b = t.b + excluded.b"),
+            Arguments.of(true, "insert into t (a,b,c) values (?,?,?) on conflict (a) "
+                    + "do update set b = excluded.b, c = now() where t.c < excluded.c"),
 
+            Arguments.of(false, "insert into t (a,b) values (?,?) returning id"),
+            Arguments.of(false, "insert into t (a,b) values (?,?) returning *"),
+            Arguments.of(false, "insert into t (a,b) values (?,?) on conflict (a) do nothing returning id, a"),
+
+            Arguments.of(false, "insert into t (a,b) values (?,?) on conflict (a) do update set b = ?"),
+            Arguments.of(false, "insert into t (a,b) values (?,?) on conflict (a) do update b = excluded.b"),
             Arguments.of(false, "insert into t (a,b,c) values (?,?,123+45)"),
             Arguments.of(false, "insert into t (a,b,c) values (?,?,(select (1)))"),
             Arguments.of(false, "insert into t values (?,?)"),
@@ -38,6 +49,7 @@ public class SQLParserTest {
             Arguments.of(true, "upsert into t (a,b) values (?,?)"),
             Arguments.of(true, "upsert into t (a,b) values (?::int,?::bool)"),
             Arguments.of(true, "upsert into t (a,b,c) values (?,?,foo())"),
+            Arguments.of(false, "upsert into t (a,b) values (?,?) returning a"),
             Arguments.of(true, "upsert into t (a,b,c) values (?,?,123)"),
             Arguments.of(true, "upsert into t (a,b,c) values (?,?,'abc')"),
 
@@ -58,6 +70,7 @@ public class SQLParserTest {
             Arguments.of(true, "update x.t set a=?, b=? where false"),
             Arguments.of(true, "update t set a=?, b=? where 1=2"),
             Arguments.of(true, "update t set a=-?, b=+? where a > 1+2"),
+            Arguments.of(true, "update t set a=? where extract(epoch from b) > ?"),
             Arguments.of(true, "update t set a=-?, b=-? where a + 1 != 1+2"),
             Arguments.of(true, "update t set a=-?, b= foo(-? + (bar(x))) where a + 1 != 1+2"),
 
@@ -66,6 +79,22 @@ public class SQLParserTest {
             Arguments.of(false, "delete from t where 1=2")
     );
 
+    public static final Stream<Arguments> deletes = Stream.of(
+            Arguments.of(true, "delete from t where id=?"),
+            Arguments.of(true, "delete from x.t where id=? and version=?"),
+            Arguments.of(true, "delete from t where a=?::int and (b is null or b < ?)"),
+            Arguments.of(true, "delete from t where created_at < foo(?, 1)"),
+            Arguments.of(true, "delete from t where extract(year from created_at) = ?"),
+            Arguments.of(true, "DELETE FROM t WHERE returning = ?"),
+
+            Arguments.of(false, "delete from t"),
+            Arguments.of(false, "delete from t where id in (select id from x where a=?)"),
+            Arguments.of(false, "delete from t where id=? returning id"),
+            Arguments.of(false, "delete t where id=?"),
+            Arguments.of(false, "remove from t where id=?"),
+            Arguments.of(false, "update t set a=? where id=?")
+    );
+
     @ParameterizedTest
     @VariableSource("inserts")
     public void givenInsertStatement_expectRewriteIfValid(boolean valid, String before) {
@@ -110,4 +139,39 @@ public class SQLParserTest {
             });
         }
     }
+
+    @ParameterizedTest
+    @VariableSource("deletes")
+    public void givenDeleteStatement_expectRewriteIfValid(boolean valid, String before) {
+        Assertions.assertEquals(valid, BatchRewriteProcessor.isQualifiedDeleteStatement(before), before);
+        if (valid) {
+            String after = BatchRewriteProcessor.rewriteDeleteStatement(before);
+            System.out.println(after);
+            Assertions.assertNotEquals(before, after);
+        } else {
+            Assertions.assertThrowsExactly(SQLParseException.class, () -> {
+                BatchRewriteProcessor.rewriteDeleteStatement(before);
+            });
+        }
+    }
+
+    @Test
+    public void givenStatements_expectSinglePassRewritePlan() {
+        BatchRewritePlan plan = BatchRewriteProcessor.rewriteStatement("upsert into t (a,b) values (?,?)");
+        Assertions.assertTrue(plan.isQualified());
+        Assertions.assertEquals(BatchRewritePlan.StatementType.UPSERT, plan.getStatementType());
+        Assertions.assertEquals("upsert into t (a, b) select unnest(?) as a, unnest(?) as b", plan.getBatchQuery());
+        Assertions.assertNull(plan.getReason());
+
+        plan = BatchRewriteProcessor.rewriteStatement("update t set a=? where id in (select 1)");
+        Assertions.assertFalse(plan.isQualified());
+        Assertions.assertEquals(BatchRewritePlan.StatementType.UPDATE, plan.getStatementType());
+        Assertions.assertEquals(BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_SYNTAX, plan.getReason());
+        Assertions.assertNotNull(plan.getDetail());
+
+        plan = BatchRewriteProcessor.rewriteStatement("select * from t where 1=2");
+        Assertions.assertFalse(plan.isQualified());
+        Assertions.assertNull(plan.getStatementType());
+        Assertions.assertEquals(BatchRewritePlan.NotQualifiedReason.UNSUPPORTED_STATEMENT, plan.getReason());
+    }
 }
@@ -42,7 +42,19 @@ public class SelectForUpdateProcessorTest {
             Arguments.of(false, "delete from t where 1=2"),
             Arguments.of(false, "select * from x where id in (?) FOR UPDATE"),
             Arguments.of(false, "select * from x where id in (?) AS OF SYSTEM TIME follower_read_timestamp()"),
-            Arguments.of(false, "select * from x where id in (?) AS OF SYSTEM TIME '-1h'")
+            Arguments.of(false, "select * from x where id in (?) AS OF SYSTEM TIME '-1h'"),
+            Arguments.of(true, "select distinct_count, group_id from x where id = ?"),
+            Arguments.of(true, "select * from x where name = 'group by' or name = 'distinct'"),
+            Arguments.of(true, "select * from x where name = 'it''s count(*)'"),
+            Arguments.of(true, "select \"distinct\" from x where id = ?"),
+            Arguments.of(true, "SELECT /*+ distinct */ a FROM x"),
+            Arguments.of(true, "select summary(a) from x"),
+            Arguments.of(false, "select a from x group  by a"),
+            Arguments.of(false, "select SUM (a) from x"),
+            Arguments.of(false, "select * from x where id = ? for share"),
+            Arguments.of(false, "select * from x where id = ? FOR NO KEY UPDATE"),
+            Arguments.of(false, "select * from x as of system time '-10s'"),
+            Arguments.of(false, "with cte as (select 1) select * from cte")
     );
 
     @ParameterizedTest
@@ -109,6 +121,10 @@ public class SelectForUpdateProcessorTest {
                 queryProcessor.processQuery(connectionMock, "select 1+5 where id=1 ; ;"));
         Assertions.assertEquals("select 1+6 where id=1 FOR UpDaTe;;",
                 queryProcessor.processQuery(connectionMock, "select 1+6 where id=1 FOR UpDaTe;;"));
+        Assertions.assertEquals("select ';' where id=1 FOR UPDATE;",
+                queryProcessor.processQuery(connectionMock, "select ';' where id=1;"));
+        Assertions.assertEquals("select 1 where id=1 FOR UPDATE -- comment",
+                queryProcessor.processQuery(connectionMock, "select 1 where id=1 -- comment"));
     }
 
     @Test
@@ -0,0 +1,56 @@
+package io.cockroachdb.jdbc.rewrite;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class ValuesStatementTest {
+    @Test
+    public void whenLiteralInsert_expectQualified() {
+        ValuesStatement statement = ValuesStatement.parse(
+                "INSERT INTO product (id, name, price) VALUES (1, 'a,b', 10.50)");
+
+        Assertions.assertNotNull(statement);
+        Assertions.assertEquals("INSERT INTO product (id, name, price)", statement.getHead());
+        Assertions.assertEquals("(1, 'a,b', 10.50)", statement.getValues());
+        Assertions.assertEquals("", statement.getTail());
+    }
+
+    @Test
+    public void whenLiteralInsertOnConflict_expectQualifiedWithTail() {
+        ValuesStatement statement = ValuesStatement.parse(
+                "INSERT INTO product (id, name) VALUES (1, 'a') ON CONFLICT (id) DO NOTHING");
+
+        Assertions.assertNotNull(statement);
+        Assertions.assertEquals("ON CONFLICT (id) DO NOTHING", statement.getTail());
+        Assertions.assertEquals("INSERT INTO product (id, name) VALUES (1, 'a') ON CONFLICT (id) DO NOTHING",
+                statement.toString());
+    }
+
+    @Test
+    public void whenLiteralUpsert_expectQualified() {
+        ValuesStatement first = ValuesStatement.parse("UPSERT INTO product (id, name) VALUES (1, 'a')");
+        ValuesStatement second = ValuesStatement.parse("upsert into product (id, name) values (2, 'b')");
+        ValuesStatement third = ValuesStatement.parse("UPSERT INTO product (id, price) VALUES (2, 1.0)");
+
+        Assertions.assertNotNull(first);
+        Assertions.assertNotNull(second);
+        Assertions.assertNotNull(third);
+        Assertions.assertEquals("UPSERT INTO product (id, name)", first.getHead());
+        Assertions.assertTrue(first.isCompatible(second));
+        Assertions.assertFalse(first.isCompatible(third));
+    }
+
+    @Test
+    public void whenNotQualified_expectNull() {
+        Assertions.assertNull(ValuesStatement.parse("INSERT INTO product (id, name) VALUES (?, ?)"));
+        Assertions.assertNull(ValuesStatement.parse("INSERT INTO product (id, name) VALUES (1, 'a'), (2, 'b')"));
+        Assertions.assertNull(ValuesStatement.parse("INSERT INTO product (id, name) VALUES (1, 'a') RETURNING id"));
+        Assertions.assertNull(ValuesStatement.parse("UPDATE product SET name = 'a' WHERE id = 1"));
+        Assertions.assertNull(ValuesStatement.parse("INSERT INTO product SELECT * FROM other"));
+    }
+}
@@ -1,5 +1,7 @@
 package io.cockroachdb.jdbc.util;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
@@ -30,4 +32,43 @@ public class ChecksumTest {
         Assertions.assertNotEquals(HexUtils.toHex(checksum1.toDigest()), HexUtils.toHex(digest));
         Assertions.assertNotEquals(HexUtils.toHex(checksum2.toDigest()), HexUtils.toHex(digest));
     }
+
+    @Test
+    public void whenCalculatingMurmur3Checksum_expectReferenceDigest() {
+        Checksum checksum = Checksum.murmur3();
+        Assertions.assertEquals("00000000000000000000000000000000", HexUtils.toHex(checksum.toDigest()));
+
+        checksum.update("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("6c1b07bc7bbc4be347939ac4a93c437a", HexUtils.toHex(checksum.toDigest()));
+    }
+
+    @Test
+    public void whenUpdatingWithTypedValues_expectSameDigestAsLittleEndianBytes() {
+        for (String algorithm : new String[] {Checksum.MURMUR3, Checksum.SHA256}) {
+            Checksum typed = Checksum.of(algorithm);
+            typed.update(true);
+            typed.update(0x01020304);
+            typed.update(0x0102030405060708L);
+            typed.update(new UUID(1, 2));
+            typed.update("ab");
+
+            ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 8 + 16 + 4).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put((byte) 1);
+            buffer.putInt(0x01020304);
+            buffer.putLong(0x0102030405060708L);
+            buffer.putLong(1);
+            buffer.putLong(2);
+            buffer.putChar('a');
+            buffer.putChar('b');
+
+            byte[] bytes = buffer.array();
+            Checksum chunked = Checksum.of(algorithm);
+            for (int i = 0; i < bytes.length; i += 3) {
+                chunked.update(bytes, i, Math.min(3, bytes.length - i));
+            }
+
+            Assertions.assertArrayEquals(Checksum.of(algorithm).update(bytes).toDigest(), typed.toDigest());
+            Assertions.assertArrayEquals(Checksum.of(algorithm).update(bytes).toDigest(), chunked.toDigest());
+        }
+    }
 }
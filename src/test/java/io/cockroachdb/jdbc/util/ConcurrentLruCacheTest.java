@@ -0,0 +1,63 @@
+package io.cockroachdb.jdbc.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+@Tags(value = {
+        @Tag("unit-test")
+})
+public class ConcurrentLruCacheTest {
+    @Test
+    public void whenGettingSameKey_expectSingleLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(10);
+
+        Assertions.assertEquals(3, cache.get("abc", k -> loads.incrementAndGet() + 2));
+        Assertions.assertEquals(3, cache.get("abc", k -> loads.incrementAndGet() + 2));
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void whenExceedingMaxSize_expectLeastRecentlyUsedEvicted() throws InterruptedException {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(8);
+
+        for (int i = 0; i < 8; i++) {
+            cache.get(i, k -> k);
+            Thread.sleep(1);
+        }
+        // Touch the oldest entry to keep it around
+        cache.get(0, k -> -1);
+        Thread.sleep(1);
+
+        cache.get(100, k -> k);
+
+        Assertions.assertTrue(cache.size() <= 8);
+        Assertions.assertTrue(cache.getEvictions() > 0);
+        Assertions.assertEquals(0, cache.get(0, k -> -1));
+        Assertions.assertEquals(100, cache.get(100, k -> -1));
+        Assertions.assertEquals(-1, cache.get(1, k -> -1));
+    }
+
+    @Test
+    public void whenMaxSizeIsZero_expectNoCaching() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0);
+
+        Assertions.assertEquals("a", cache.get("x", k -> "a"));
+        Assertions.assertEquals("b", cache.get("x", k -> "b"));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void whenNegativeMaxSize_expectException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentLruCache<>(-1));
+    }
+}